@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.lang.management;
+
+/**
+ * The management interface for the task metrics of an executor, such as
+ * a {@link java.util.concurrent.ThreadPoolExecutor ThreadPoolExecutor} or
+ * a {@link java.util.concurrent.ForkJoinPool ForkJoinPool}.
+ *
+ * <p> A class implementing this interface is an
+ * {@link javax.management.MXBean}.  An executor records its metrics,
+ * without locking, from the first call to its {@code getMetrics} method,
+ * which returns them.  Executors come and go, so unlike the platform
+ * MXBeans their metrics are not returned by {@link ManagementFactory}.
+ * Instead the metrics of an executor are registered with the platform
+ * {@link javax.management.MBeanServer MBeanServer} when they are
+ * {@link java.util.concurrent.ExecutorMetrics#publish published}, and
+ * unregistered when the executor terminates.  The {@link
+ * javax.management.ObjectName ObjectName} that uniquely identifies the
+ * management interface within the {@code MBeanServer} takes the form:
+ * <pre>
+ *     java.util.concurrent:type=Executor,name=<i>executor name</i>
+ * </pre>
+ * where <em>executor name</em> is the {@link #getName name} given when
+ * publishing.
+ *
+ * <p> Times are in nanoseconds and are recorded in histograms whose
+ * buckets are exact below 16 nanoseconds and otherwise span one
+ * sixteenth of a power of two, so that percentiles are reported to
+ * within about six percent.  The queue wait of a task is the time from
+ * its submission, or for a scheduled task from the time it became due,
+ * to the start of its execution; it is recorded for tasks that the
+ * executor can timestamp, which are those created by {@code submit},
+ * {@code invokeAll} and {@code invokeAny} and all scheduled tasks.
+ *
+ * @since   9
+ */
+public interface ExecutorMXBean {
+
+    /**
+     * Returns the name under which these metrics were published, or
+     * {@code null} if they are not published.
+     *
+     * @return the name of the executor, or {@code null}
+     */
+    String getName();
+
+    /**
+     * Returns the fully qualified class name of the executor.
+     *
+     * @return the class name of the executor
+     */
+    String getExecutorClassName();
+
+    /**
+     * Returns the number of tasks that have started execution.
+     *
+     * @return the number of tasks started
+     */
+    long getStartedTaskCount();
+
+    /**
+     * Returns the number of tasks that have completed execution, normally
+     * or abruptly.
+     *
+     * @return the number of tasks completed
+     */
+    long getCompletedTaskCount();
+
+    /**
+     * Returns an estimate of the number of tasks currently executing.
+     *
+     * @return the number of tasks executing
+     */
+    long getActiveTaskCount();
+
+    /**
+     * Returns the number of tasks that the executor has refused.
+     *
+     * @return the number of tasks rejected
+     */
+    long getRejectedTaskCount();
+
+    /**
+     * Returns the number of queue wait times recorded.
+     *
+     * @return the number of queue wait times recorded
+     */
+    long getQueueWaitCount();
+
+    /**
+     * Returns the mean of the recorded queue wait times, or zero if
+     * there are none.
+     *
+     * @return the mean queue wait in nanoseconds
+     */
+    double getQueueWaitMean();
+
+    /**
+     * Returns the longest recorded queue wait time, or zero if there are
+     * none.
+     *
+     * @return the longest queue wait in nanoseconds
+     */
+    long getQueueWaitMax();
+
+    /**
+     * Returns the queue wait time at or below which the given percentage
+     * of recorded queue waits fall, or zero if there are none.
+     *
+     * @param percentile the percentage, from 0 to 100
+     * @return the queue wait at that percentile in nanoseconds
+     * @throws IllegalArgumentException if the percentage is not
+     *         between 0 and 100
+     */
+    long getQueueWaitPercentile(double percentile);
+
+    /**
+     * Returns the number of task execution times recorded.
+     *
+     * @return the number of execution times recorded
+     */
+    long getExecutionTimeCount();
+
+    /**
+     * Returns the mean of the recorded task execution times, or zero if
+     * there are none.
+     *
+     * @return the mean execution time in nanoseconds
+     */
+    double getExecutionTimeMean();
+
+    /**
+     * Returns the longest recorded task execution time, or zero if there
+     * are none.
+     *
+     * @return the longest execution time in nanoseconds
+     */
+    long getExecutionTimeMax();
+
+    /**
+     * Returns the execution time at or below which the given percentage
+     * of recorded execution times fall, or zero if there are none.
+     *
+     * @param percentile the percentage, from 0 to 100
+     * @return the execution time at that percentile in nanoseconds
+     * @throws IllegalArgumentException if the percentage is not
+     *         between 0 and 100
+     */
+    long getExecutionTimePercentile(double percentile);
+
+    /**
+     * Discards the recorded queue wait and execution times and resets
+     * the rejected task count.  The started and completed counts are not
+     * reset.
+     */
+    void resetHistograms();
+}
@@ -0,0 +1,314 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.nio.file;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import sun.nio.ch.MappedBuffers;
+
+/**
+ * A spliterator over the lines of a file, reading a region of the file
+ * through a {@link FileChannel}.
+ *
+ * <p>The region is split at a line terminator near its middle, found with
+ * a few small positional reads, so a huge file divides into as many
+ * independent parts as a parallel stream needs.  Each part is traversed
+ * through read-only mappings of at most {@link #MAP_SIZE} bytes, and each
+ * line is decoded directly from the mapped bytes.
+ *
+ * <p>This relies on the charset encoding CR and LF as the single bytes 13
+ * and 10, and on those bytes never occurring inside the encoding of
+ * another character, so that line terminators can be found without
+ * decoding.  This holds for UTF-8, for US-ASCII and ISO-8859-1, and for
+ * other single-byte charsets that encode CR and LF as ASCII does.  As with
+ * {@link java.io.BufferedReader#readLine}, a line is terminated by LF, CR,
+ * or CR followed by LF.
+ *
+ * <p>The extent of the file is fixed when the spliterator is created.
+ * Bytes appended later are not read, and truncating the file while it is
+ * being read may cause an {@code InternalError} to be thrown when a missing
+ * mapped page is accessed.
+ */
+final class FileChannelLinesSpliterator implements Spliterator<String> {
+
+    /** The maximum number of bytes mapped at once for traversal. */
+    static final int MAP_SIZE = 1 << 28;
+
+    /** The maximum number of bytes in a line. */
+    private static final int MAX_LINE_SIZE = Integer.MAX_VALUE - 8;
+
+    /** The number of bytes read at a time to find a split point. */
+    private static final int SCAN_SIZE = 1 << 12;
+
+    private final FileChannel fc;
+    private final Charset cs;
+    private long index;             // current position
+    private final long fence;       // one past the last byte of the region
+
+    // Traversal state, created lazily
+    private MappedByteBuffer buffer;    // mapping of [base, base + limit)
+    private ByteBuffer view;            // duplicate of buffer for decoding
+    private long base;
+    private CharsetDecoder decoder;
+    private CharBuffer chars;
+
+    FileChannelLinesSpliterator(FileChannel fc, Charset cs, long index, long fence) {
+        this.fc = fc;
+        this.cs = cs;
+        this.index = index;
+        this.fence = fence;
+    }
+
+    /**
+     * Returns true if lines in the given charset can be found by looking
+     * for CR and LF bytes.
+     */
+    static boolean isSupported(Charset cs) {
+        String name = cs.name();
+        if (name.equals("UTF-8") || name.equals("US-ASCII") || name.equals("ISO-8859-1"))
+            return true;
+        if (!cs.canEncode())
+            return false;
+        CharsetEncoder enc = cs.newEncoder();
+        if (enc.maxBytesPerChar() != 1.0f)
+            return false;
+        try {
+            ByteBuffer bb = enc.encode(CharBuffer.wrap("\r\n"));
+            return bb.remaining() == 2 && bb.get(0) == '\r' && bb.get(1) == '\n';
+        } catch (CharacterCodingException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+        if (action == null)
+            throw new NullPointerException();
+        String line = readLine();
+        if (line == null) {
+            unmap();
+            return false;
+        }
+        action.accept(line);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super String> action) {
+        if (action == null)
+            throw new NullPointerException();
+        try {
+            for (String line; (line = readLine()) != null; )
+                action.accept(line);
+        } finally {
+            unmap();
+        }
+    }
+
+    /**
+     * Returns the next line, advancing past its terminator, or null if
+     * there are no more lines in the region.
+     */
+    private String readLine() {
+        long start = index;
+        if (start >= fence)
+            return null;
+        MappedByteBuffer b = buffer;
+        if (b == null || start < base || start >= base + b.limit())
+            b = map(start, MAP_SIZE);
+        for (;;) {
+            int lim = b.limit();
+            boolean last = base + lim >= fence;
+            // Leave a byte of lookahead for a CR unless at the fence
+            int scanEnd = last ? lim : lim - 1;
+            int i = (int) (start - base);
+            for (int j = i; j < scanEnd; j++) {
+                byte c = b.get(j);
+                if (c == '\n' || c == '\r') {
+                    int next = (c == '\r' && j + 1 < lim && b.get(j + 1) == '\n') ? j + 2 : j + 1;
+                    index = base + next;
+                    return decode(i, j);
+                }
+            }
+            if (last) {
+                index = fence;
+                return decode(i, lim);
+            }
+            // The line runs past the mapping; map again from its start
+            if (i > 0)
+                b = map(start, MAP_SIZE);
+            else if (lim < MAX_LINE_SIZE)
+                b = map(start, MAX_LINE_SIZE);
+            else
+                throw new OutOfMemoryError("Required array size too large");
+        }
+    }
+
+    /**
+     * Maps up to size bytes of the region from the given position,
+     * releasing the previous mapping.
+     */
+    private MappedByteBuffer map(long pos, int size) {
+        unmap();
+        try {
+            MappedByteBuffer b = fc.map(FileChannel.MapMode.READ_ONLY, pos,
+                                        Math.min(fence - pos, size));
+            base = pos;
+            view = b.duplicate();
+            return buffer = b;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Releases the current mapping, if any, without waiting for it to be
+     * garbage collected.  The mapping never escapes this spliterator, and
+     * decoded lines do not refer to it.
+     */
+    private void unmap() {
+        MappedByteBuffer b = buffer;
+        if (b != null) {
+            buffer = null;
+            view = null;
+            MappedBuffers.unmap(b);
+        }
+    }
+
+    /** Decodes the mapped bytes between the given indexes. */
+    private String decode(int from, int to) {
+        if (from == to)
+            return "";
+        CharsetDecoder d = decoder;
+        if (d == null)
+            decoder = d = cs.newDecoder();
+        int n = (int) Math.min((long) ((to - from) * (double) d.maxCharsPerByte()) + 1L,
+                               MAX_LINE_SIZE);
+        CharBuffer out = chars;
+        if (out == null || out.capacity() < n)
+            chars = out = CharBuffer.allocate(Math.max(n, 128));
+        out.clear();
+        ByteBuffer in = view;
+        in.clear();
+        in.position(from);
+        in.limit(to);
+        try {
+            d.reset();
+            CoderResult cr = d.decode(in, out, true);
+            if (!cr.isUnderflow())
+                cr.throwException();
+            cr = d.flush(out);
+            if (!cr.isUnderflow())
+                cr.throwException();
+        } catch (CharacterCodingException e) {
+            throw new UncheckedIOException(e);
+        }
+        out.flip();
+        return out.toString();
+    }
+
+    @Override
+    public Spliterator<String> trySplit() {
+        long lo = index, hi = fence;
+        long mid = (lo + hi) >>> 1;
+        if (mid <= lo)
+            return null;
+        long split = lineStartAtOrAfter(mid);
+        if (split <= lo || split >= hi)
+            return null;
+        index = split;
+        return new FileChannelLinesSpliterator(fc, cs, lo, split);
+    }
+
+    /**
+     * Returns the position just past the first line terminator at or after
+     * the given position, or the fence if there is none.  A CR at pos - 1
+     * needs no special treatment: if an LF follows it, that LF is found
+     * first, at pos, keeping the pair together.
+     */
+    private long lineStartAtOrAfter(long pos) {
+        ByteBuffer bb = ByteBuffer.allocate(SCAN_SIZE);
+        try {
+            while (pos < fence) {
+                bb.clear();
+                if (fence - pos < bb.capacity())
+                    bb.limit((int) (fence - pos));
+                int n = fc.read(bb, pos);
+                if (n <= 0)
+                    break;
+                for (int j = 0; j < n; j++) {
+                    byte c = bb.get(j);
+                    if (c == '\n')
+                        return pos + j + 1;
+                    if (c == '\r') {
+                        long next = pos + j + 1;
+                        if (j + 1 < n)
+                            return (bb.get(j + 1) == '\n') ? next + 1 : next;
+                        // The CR ends this read; see whether an LF follows
+                        if (next >= fence)
+                            return next;
+                        ByteBuffer one = ByteBuffer.allocate(1);
+                        if (fc.read(one, next) == 1 && one.get(0) == '\n')
+                            return next + 1;
+                        return next;
+                    }
+                }
+                pos += n;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return fence;
+    }
+
+    @Override
+    public long estimateSize() {
+        // Use the number of bytes as an estimate; it is an upper bound on
+        // the number of lines
+        return fence - index;
+    }
+
+    @Override
+    public long getExactSizeIfKnown() {
+        return -1;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.ORDERED | Spliterator.NONNULL;
+    }
+}
@@ -3720,6 +3720,16 @@ public final class Files {
      * {@link Stream#close close} method is invoked after the stream operations
      * are completed.
      *
+     * @implNote
+     * For a regular file in the default file system, and the charsets UTF-8,
+     * US-ASCII, ISO-8859-1 and other single-byte charsets that encode line
+     * feed and carriage return as ASCII does, the stream reads the file
+     * through a {@link FileChannel} instead of a {@code Reader}.  Its
+     * spliterator splits the file at line terminators, so a parallel stream
+     * reads and decodes different parts of the file in different threads.
+     * The lines are decoded directly from memory mappings of the file.  In
+     * this case the lines read are those within the size of the file when
+     * this method is invoked.
      *
      * @param   path
      *          the path to the file
@@ -3741,6 +3751,20 @@ public final class Files {
      * @since   1.8
      */
     public static Stream<String> lines(Path path, Charset cs) throws IOException {
+        // Map the file and split it at line terminators if the path is
+        // associated with the default file system, the charset allows line
+        // terminators to be found without decoding, and the file is a
+        // regular file with a known, non-zero size (files in some special
+        // file systems report a size of zero)
+        if (path.getFileSystem() == FileSystems.getDefault() &&
+            FileChannelLinesSpliterator.isSupported(cs)) {
+            FileChannel fc = FileChannel.open(path, StandardOpenOption.READ);
+            Stream<String> lines = createFileChannelLinesStream(path, fc, cs);
+            if (lines != null)
+                return lines;
+            fc.close();
+        }
+
         BufferedReader br = Files.newBufferedReader(path, cs);
         try {
             return br.lines().onClose(asUncheckedRunnable(br));
@@ -3756,6 +3780,37 @@ public final class Files {
         }
     }
 
+    /**
+     * Returns a stream of the lines of the file open on the given channel,
+     * split and read by a {@link FileChannelLinesSpliterator}, or null if
+     * the file is not a regular file of non-zero size.  The stream closes
+     * the channel when it is closed.
+     */
+    private static Stream<String> createFileChannelLinesStream(Path path,
+                                                               FileChannel fc,
+                                                               Charset cs)
+        throws IOException
+    {
+        try {
+            BasicFileAttributes attrs = readAttributes(path, BasicFileAttributes.class);
+            long length = fc.size();
+            if (!attrs.isRegularFile() || length == 0L)
+                return null;
+            Spliterator<String> s = new FileChannelLinesSpliterator(fc, cs, 0L, length);
+            return StreamSupport.stream(s, false)
+                                .onClose(asUncheckedRunnable(fc));
+        } catch (Error|RuntimeException|IOException e) {
+            try {
+                fc.close();
+            } catch (IOException ex) {
+                try {
+                    e.addSuppressed(ex);
+                } catch (Throwable ignore) {}
+            }
+            throw e;
+        }
+    }
+
     /**
      * Read all lines from a file as a {@code Stream}. Bytes from the file are
      * decoded into characters using the {@link StandardCharsets#UTF_8 UTF-8}
@@ -78,6 +78,14 @@ public class Arrays {
      */
     private static final int MIN_ARRAY_SORT_GRAN = 1 << 13;
 
+    /**
+     * The minimum array length at which the parallel sorts of int,
+     * long, float and double arrays use a radix sort rather than a
+     * sort-merge.  Below this size the radix sort's fixed passes cost
+     * more than comparison sorting the cache-sized leaves.
+     */
+    private static final int MIN_RADIX_SORT_SIZE = 1 << 21;
+
     // Suppresses default constructor, ensuring non-instantiability.
     private Arrays() {}
 
@@ -665,6 +673,10 @@ public class Arrays {
      * {@link ForkJoinPool#commonPool() ForkJoin common pool} is used to
      * execute any parallel tasks.
      *
+     * <p>Arrays of at least 2<sup>21</sup> elements are instead sorted by a
+     * parallel least-significant-digit radix sort, which makes a fixed
+     * number of linear passes over the array using the same working space.
+     *
      * @param a the array to be sorted
      *
      * @since 1.8
@@ -674,6 +686,8 @@ public class Arrays {
         if (n <= MIN_ARRAY_SORT_GRAN ||
             (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
             DualPivotQuicksort.sort(a, 0, n - 1, null, 0, 0);
+        else if (n >= MIN_RADIX_SORT_SIZE)
+            ArraysParallelRadixSort.sort(a, 0, n);
         else
             new ArraysParallelSortHelpers.FJInt.Sorter
                 (null, a, new int[n], 0, n, 0,
@@ -698,6 +712,10 @@ public class Arrays {
      * array. The {@link ForkJoinPool#commonPool() ForkJoin common pool} is
      * used to execute any parallel tasks.
      *
+     * <p>Ranges of at least 2<sup>21</sup> elements are instead sorted by a
+     * parallel least-significant-digit radix sort, which makes a fixed
+     * number of linear passes over the range using the same working space.
+     *
      * @param a the array to be sorted
      * @param fromIndex the index of the first element, inclusive, to be sorted
      * @param toIndex the index of the last element, exclusive, to be sorted
@@ -714,6 +732,8 @@ public class Arrays {
         if (n <= MIN_ARRAY_SORT_GRAN ||
             (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
             DualPivotQuicksort.sort(a, fromIndex, toIndex - 1, null, 0, 0);
+        else if (n >= MIN_RADIX_SORT_SIZE)
+            ArraysParallelRadixSort.sort(a, fromIndex, toIndex);
         else
             new ArraysParallelSortHelpers.FJInt.Sorter
                 (null, a, new int[n], fromIndex, n, 0,
@@ -735,6 +755,10 @@ public class Arrays {
      * {@link ForkJoinPool#commonPool() ForkJoin common pool} is used to
      * execute any parallel tasks.
      *
+     * <p>Arrays of at least 2<sup>21</sup> elements are instead sorted by a
+     * parallel least-significant-digit radix sort, which makes a fixed
+     * number of linear passes over the array using the same working space.
+     *
      * @param a the array to be sorted
      *
      * @since 1.8
@@ -744,6 +768,8 @@ public class Arrays {
         if (n <= MIN_ARRAY_SORT_GRAN ||
             (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
             DualPivotQuicksort.sort(a, 0, n - 1, null, 0, 0);
+        else if (n >= MIN_RADIX_SORT_SIZE)
+            ArraysParallelRadixSort.sort(a, 0, n);
         else
             new ArraysParallelSortHelpers.FJLong.Sorter
                 (null, a, new long[n], 0, n, 0,
@@ -768,6 +794,10 @@ public class Arrays {
      * array. The {@link ForkJoinPool#commonPool() ForkJoin common pool} is
      * used to execute any parallel tasks.
      *
+     * <p>Ranges of at least 2<sup>21</sup> elements are instead sorted by a
+     * parallel least-significant-digit radix sort, which makes a fixed
+     * number of linear passes over the range using the same working space.
+     *
      * @param a the array to be sorted
      * @param fromIndex the index of the first element, inclusive, to be sorted
      * @param toIndex the index of the last element, exclusive, to be sorted
@@ -784,6 +814,8 @@ public class Arrays {
         if (n <= MIN_ARRAY_SORT_GRAN ||
             (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
             DualPivotQuicksort.sort(a, fromIndex, toIndex - 1, null, 0, 0);
+        else if (n >= MIN_RADIX_SORT_SIZE)
+            ArraysParallelRadixSort.sort(a, fromIndex, toIndex);
         else
             new ArraysParallelSortHelpers.FJLong.Sorter
                 (null, a, new long[n], fromIndex, n, 0,
@@ -813,6 +845,10 @@ public class Arrays {
      * {@link ForkJoinPool#commonPool() ForkJoin common pool} is used to
      * execute any parallel tasks.
      *
+     * <p>Arrays of at least 2<sup>21</sup> elements are instead sorted by a
+     * parallel least-significant-digit radix sort, which makes a fixed
+     * number of linear passes over the array using the same working space.
+     *
      * @param a the array to be sorted
      *
      * @since 1.8
@@ -822,6 +858,8 @@ public class Arrays {
         if (n <= MIN_ARRAY_SORT_GRAN ||
             (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
             DualPivotQuicksort.sort(a, 0, n - 1, null, 0, 0);
+        else if (n >= MIN_RADIX_SORT_SIZE)
+            ArraysParallelRadixSort.sort(a, 0, n);
         else
             new ArraysParallelSortHelpers.FJFloat.Sorter
                 (null, a, new float[n], 0, n, 0,
@@ -854,6 +892,10 @@ public class Arrays {
      * array. The {@link ForkJoinPool#commonPool() ForkJoin common pool} is
      * used to execute any parallel tasks.
      *
+     * <p>Ranges of at least 2<sup>21</sup> elements are instead sorted by a
+     * parallel least-significant-digit radix sort, which makes a fixed
+     * number of linear passes over the range using the same working space.
+     *
      * @param a the array to be sorted
      * @param fromIndex the index of the first element, inclusive, to be sorted
      * @param toIndex the index of the last element, exclusive, to be sorted
@@ -870,6 +912,8 @@ public class Arrays {
         if (n <= MIN_ARRAY_SORT_GRAN ||
             (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
             DualPivotQuicksort.sort(a, fromIndex, toIndex - 1, null, 0, 0);
+        else if (n >= MIN_RADIX_SORT_SIZE)
+            ArraysParallelRadixSort.sort(a, fromIndex, toIndex);
         else
             new ArraysParallelSortHelpers.FJFloat.Sorter
                 (null, a, new float[n], fromIndex, n, 0,
@@ -899,6 +943,10 @@ public class Arrays {
      * {@link ForkJoinPool#commonPool() ForkJoin common pool} is used to
      * execute any parallel tasks.
      *
+     * <p>Arrays of at least 2<sup>21</sup> elements are instead sorted by a
+     * parallel least-significant-digit radix sort, which makes a fixed
+     * number of linear passes over the array using the same working space.
+     *
      * @param a the array to be sorted
      *
      * @since 1.8
@@ -908,6 +956,8 @@ public class Arrays {
         if (n <= MIN_ARRAY_SORT_GRAN ||
             (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
             DualPivotQuicksort.sort(a, 0, n - 1, null, 0, 0);
+        else if (n >= MIN_RADIX_SORT_SIZE)
+            ArraysParallelRadixSort.sort(a, 0, n);
         else
             new ArraysParallelSortHelpers.FJDouble.Sorter
                 (null, a, new double[n], 0, n, 0,
@@ -940,6 +990,10 @@ public class Arrays {
      * array. The {@link ForkJoinPool#commonPool() ForkJoin common pool} is
      * used to execute any parallel tasks.
      *
+     * <p>Ranges of at least 2<sup>21</sup> elements are instead sorted by a
+     * parallel least-significant-digit radix sort, which makes a fixed
+     * number of linear passes over the range using the same working space.
+     *
      * @param a the array to be sorted
      * @param fromIndex the index of the first element, inclusive, to be sorted
      * @param toIndex the index of the last element, exclusive, to be sorted
@@ -956,6 +1010,8 @@ public class Arrays {
         if (n <= MIN_ARRAY_SORT_GRAN ||
             (p = ForkJoinPool.getCommonPoolParallelism()) == 1)
             DualPivotQuicksort.sort(a, fromIndex, toIndex - 1, null, 0, 0);
+        else if (n >= MIN_RADIX_SORT_SIZE)
+            ArraysParallelRadixSort.sort(a, fromIndex, toIndex);
         else
             new ArraysParallelSortHelpers.FJDouble.Sorter
                 (null, a, new double[n], fromIndex, n, 0,
@@ -963,6 +1019,118 @@ public class Arrays {
                  MIN_ARRAY_SORT_GRAN : g).invoke();
     }
 
+    /**
+     * Reorders the specified array of indices so that the {@code int}
+     * keys they select are in ascending numerical order.  On return,
+     * {@code keys[indices[i]] <= keys[indices[i + 1]]} for each
+     * {@code i}.  The sort is stable: indices of equal keys keep
+     * their relative order.  Neither the keys nor the values of the
+     * indices are otherwise constrained; an array of indices need not be
+     * a permutation of all positions of {@code keys}.
+     *
+     * @implNote The indices are sorted by a parallel least-significant-digit
+     * radix sort of a copy of the selected keys, requiring working space
+     * of twice the size of the indices array plus the key copy.  The
+     * {@link ForkJoinPool#commonPool() ForkJoin common pool} is used to
+     * execute any parallel tasks.
+     *
+     * @param indices the indices to be sorted
+     * @param keys the keys by which to sort the indices
+     * @throws ArrayIndexOutOfBoundsException if an index is negative or
+     *     not less than {@code keys.length}
+     *
+     * @since 9
+     */
+    public static void parallelSortIndices(int[] indices, int[] keys) {
+        Objects.requireNonNull(keys);
+        ArraysParallelRadixSort.sortIndices(indices, keys);
+    }
+
+    /**
+     * Reorders the specified array of indices so that the {@code long}
+     * keys they select are in ascending numerical order.  On return,
+     * {@code keys[indices[i]] <= keys[indices[i + 1]]} for each
+     * {@code i}.  The sort is stable: indices of equal keys keep
+     * their relative order.  Neither the keys nor the values of the
+     * indices are otherwise constrained; an array of indices need not be
+     * a permutation of all positions of {@code keys}.
+     *
+     * @implNote The indices are sorted by a parallel least-significant-digit
+     * radix sort of a copy of the selected keys, requiring working space
+     * of twice the size of the indices array plus the key copy.  The
+     * {@link ForkJoinPool#commonPool() ForkJoin common pool} is used to
+     * execute any parallel tasks.
+     *
+     * @param indices the indices to be sorted
+     * @param keys the keys by which to sort the indices
+     * @throws ArrayIndexOutOfBoundsException if an index is negative or
+     *     not less than {@code keys.length}
+     *
+     * @since 9
+     */
+    public static void parallelSortIndices(int[] indices, long[] keys) {
+        Objects.requireNonNull(keys);
+        ArraysParallelRadixSort.sortIndices(indices, keys);
+    }
+
+    /**
+     * Reorders the specified array of indices so that the {@code float}
+     * keys they select are in ascending numerical order.  On return,
+     * {@code keys[indices[i]] <= keys[indices[i + 1]]} for each
+     * {@code i}, in the total order of {@link Float#compare}, under which
+     * {@code -0.0f} is less than {@code 0.0f} and all NaNs are equal and
+     * greater than any other value.  The sort is stable: indices of equal
+     * keys keep their relative order.  Neither the keys nor the values of the
+     * indices are otherwise constrained; an array of indices need not be
+     * a permutation of all positions of {@code keys}.
+     *
+     * @implNote The indices are sorted by a parallel least-significant-digit
+     * radix sort of a copy of the selected keys, requiring working space
+     * of twice the size of the indices array plus the key copy.  The
+     * {@link ForkJoinPool#commonPool() ForkJoin common pool} is used to
+     * execute any parallel tasks.
+     *
+     * @param indices the indices to be sorted
+     * @param keys the keys by which to sort the indices
+     * @throws ArrayIndexOutOfBoundsException if an index is negative or
+     *     not less than {@code keys.length}
+     *
+     * @since 9
+     */
+    public static void parallelSortIndices(int[] indices, float[] keys) {
+        Objects.requireNonNull(keys);
+        ArraysParallelRadixSort.sortIndices(indices, keys);
+    }
+
+    /**
+     * Reorders the specified array of indices so that the {@code double}
+     * keys they select are in ascending numerical order.  On return,
+     * {@code keys[indices[i]] <= keys[indices[i + 1]]} for each
+     * {@code i}, in the total order of {@link Double#compare}, under which
+     * {@code -0.0d} is less than {@code 0.0d} and all NaNs are equal and
+     * greater than any other value.  The sort is stable: indices of equal
+     * keys keep their relative order.  Neither the keys nor the values of the
+     * indices are otherwise constrained; an array of indices need not be
+     * a permutation of all positions of {@code keys}.
+     *
+     * @implNote The indices are sorted by a parallel least-significant-digit
+     * radix sort of a copy of the selected keys, requiring working space
+     * of twice the size of the indices array plus the key copy.  The
+     * {@link ForkJoinPool#commonPool() ForkJoin common pool} is used to
+     * execute any parallel tasks.
+     *
+     * @param indices the indices to be sorted
+     * @param keys the keys by which to sort the indices
+     * @throws ArrayIndexOutOfBoundsException if an index is negative or
+     *     not less than {@code keys.length}
+     *
+     * @since 9
+     */
+    public static void parallelSortIndices(int[] indices, double[] keys) {
+        Objects.requireNonNull(keys);
+        ArraysParallelRadixSort.sortIndices(indices, keys);
+    }
+
     /**
      * Sorts the specified array of objects into ascending order, according
      * to the {@linkplain Comparable natural ordering} of its elements.
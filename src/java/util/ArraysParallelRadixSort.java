@@ -0,0 +1,439 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parallel least-significant-digit radix sorts for the primitive
+ * parallel sort methods in Arrays, used in place of the sort-merge of
+ * ArraysParallelSortHelpers for large arrays, where comparison sorting
+ * is slower than a fixed number of linear passes.
+ *
+ * Keys are sorted eight bits at a time from the least significant
+ * digit: four passes for int and float, eight for long and double.
+ * The range is split into one chunk per worker, and each pass is:
+ *
+ *         1. In parallel, count the digits in each chunk.
+ *         2. Sequentially, turn the counts into per-chunk output
+ *            offsets, digit-major and chunk-minor, so that the pass
+ *            is stable.
+ *         3. In parallel, scatter each chunk to the other array.
+ *
+ * A pass whose digit is the same for every key is skipped.  Passes
+ * alternate between the array and a workspace of the same length, and
+ * the result is copied back if it ends up in the workspace.
+ *
+ * Signed integers are ordered by inverting the sign bit of the top
+ * digit.  Floating-point values are ordered by their raw bits with the
+ * usual IEEE transformation: flipping every bit of negative values and
+ * only the sign bit of others, which orders -0.0 before 0.0.  As in
+ * DualPivotQuicksort, NaNs are first moved to the end of the range,
+ * keeping their bit patterns.
+ *
+ * The key-index sorts stably reorder an array of indices by the keys
+ * they select.  Float and double keys are canonicalized (all NaNs
+ * equal and greatest) and transformed into an unsigned int or long
+ * copy, which is sorted along with the indices.
+ */
+/*package*/ final class ArraysParallelRadixSort {
+
+    private ArraysParallelRadixSort() {}
+
+    static final int RADIX_BITS = 8;
+    static final int RADIX = 1 << RADIX_BITS;
+    static final int DIGIT_MASK = RADIX - 1;
+
+    /** The smallest chunk a worker is given. */
+    static final int MIN_CHUNK = 1 << 16;
+
+    /** Returns the number of chunks to split n keys into. */
+    static int chunksFor(int n) {
+        int p = ForkJoinPool.getCommonPoolParallelism();
+        return Math.max(1, Math.min(p, n / MIN_CHUNK));
+    }
+
+    /**
+     * The pass driver shared by the sorters for each key type.
+     */
+    abstract static class Lsd {
+        final int n, chunks;
+        final int[][] counts;  // per chunk: digit counts, then offsets
+        int shift;             // of the digit for the current pass
+        boolean swapped;       // whether the keys are in the workspace
+
+        Lsd(int n, int chunks) {
+            this.n = n; this.chunks = chunks;
+            this.counts = new int[chunks][RADIX];
+        }
+
+        static final int COUNT = 0, SCATTER = 1, COPY = 2;
+
+        /** Counts the digits of chunk c into counts[c]. */
+        abstract void count(int c, int lo, int hi);
+
+        /** Scatters chunk c using the offsets in counts[c]. */
+        abstract void scatter(int c, int lo, int hi);
+
+        /** Copies chunk c from the workspace to the array. */
+        abstract void copyBack(int lo, int hi);
+
+        final void run(int phase, int c) {
+            int lo = (int)((long)c * n / chunks);
+            int hi = (int)((long)(c + 1) * n / chunks);
+            if (phase == COUNT)
+                count(c, lo, hi);
+            else if (phase == SCATTER)
+                scatter(c, lo, hi);
+            else
+                copyBack(lo, hi);
+        }
+
+        final void runAll(int phase) {
+            if (chunks == 1)
+                run(phase, 0);
+            else {
+                Chunk[] ts = new Chunk[chunks];
+                for (int c = 0; c < chunks; ++c)
+                    ts[c] = new Chunk(this, phase, c);
+                ForkJoinTask.invokeAll(ts);
+            }
+        }
+
+        /**
+         * Converts counts to offsets, returning false if every key has
+         * the same digit, so the pass can be skipped.
+         */
+        final boolean offsets() {
+            int[][] cs = counts;
+            boolean trivial = false;
+            for (int d = 0, pos = 0; d < RADIX; ++d) {
+                int start = pos;
+                for (int[] cnt : cs) {
+                    int k = cnt[d];
+                    cnt[d] = pos;
+                    pos += k;
+                }
+                if (pos - start == n)
+                    trivial = true;
+            }
+            return !trivial;
+        }
+
+        /** Runs all passes over keys of the given width. */
+        final void sort(int bits) {
+            for (shift = 0; shift < bits; shift += RADIX_BITS) {
+                runAll(COUNT);
+                if (offsets()) {
+                    runAll(SCATTER);
+                    swapped = !swapped;
+                }
+            }
+            if (swapped)
+                runAll(COPY);
+        }
+    }
+
+    /** A phase of a pass over one chunk. */
+    static final class Chunk extends RecursiveAction {
+        static final long serialVersionUID = 2446542900576103244L;
+        final Lsd sorter; final int phase, c;
+        Chunk(Lsd sorter, int phase, int c) {
+            this.sorter = sorter; this.phase = phase; this.c = c;
+        }
+        public final void compute() { sorter.run(phase, c); }
+    }
+
+    /** int keys, with optional int values carried along */
+    static final class IntLsd extends Lsd {
+        final int[] a, w, va, vw;
+        final int base, topFlip;
+        IntLsd(int[] a, int base, int n, int[] w, int[] va, int[] vw,
+               boolean signed, int chunks) {
+            super(n, chunks);
+            this.a = a; this.base = base; this.w = w;
+            this.va = va; this.vw = vw;
+            this.topFlip = signed ? 1 << (RADIX_BITS - 1) : 0;
+        }
+        final void count(int c, int lo, int hi) {
+            int[] cnt = counts[c];
+            Arrays.fill(cnt, 0);
+            int[] src = swapped ? w : a;
+            int off = swapped ? 0 : base, s = shift;
+            int f = (s == 32 - RADIX_BITS) ? topFlip : 0;
+            for (int i = lo + off, end = hi + off; i < end; ++i)
+                ++cnt[((src[i] >>> s) & DIGIT_MASK) ^ f];
+        }
+        final void scatter(int c, int lo, int hi) {
+            int[] cnt = counts[c];
+            int[] src, dst, vs, vd; int so, dof;
+            if (swapped) { src = w; so = 0; dst = a; dof = base; vs = vw; vd = va; }
+            else { src = a; so = base; dst = w; dof = 0; vs = va; vd = vw; }
+            int s = shift;
+            int f = (s == 32 - RADIX_BITS) ? topFlip : 0;
+            if (vs == null) {
+                for (int i = lo; i < hi; ++i) {
+                    int x = src[i + so];
+                    dst[dof + cnt[((x >>> s) & DIGIT_MASK) ^ f]++] = x;
+                }
+            }
+            else {
+                for (int i = lo; i < hi; ++i) {
+                    int x = src[i + so];
+                    int j = cnt[((x >>> s) & DIGIT_MASK) ^ f]++;
+                    dst[dof + j] = x;
+                    vd[j] = vs[i];
+                }
+            }
+        }
+        final void copyBack(int lo, int hi) {
+            System.arraycopy(w, lo, a, base + lo, hi - lo);
+            if (va != null)
+                System.arraycopy(vw, lo, va, lo, hi - lo);
+        }
+    }
+
+    /** long keys, with optional int values carried along */
+    static final class LongLsd extends Lsd {
+        final long[] a, w;
+        final int[] va, vw;
+        final int base, topFlip;
+        LongLsd(long[] a, int base, int n, long[] w, int[] va, int[] vw,
+                boolean signed, int chunks) {
+            super(n, chunks);
+            this.a = a; this.base = base; this.w = w;
+            this.va = va; this.vw = vw;
+            this.topFlip = signed ? 1 << (RADIX_BITS - 1) : 0;
+        }
+        final void count(int c, int lo, int hi) {
+            int[] cnt = counts[c];
+            Arrays.fill(cnt, 0);
+            long[] src = swapped ? w : a;
+            int off = swapped ? 0 : base, s = shift;
+            int f = (s == 64 - RADIX_BITS) ? topFlip : 0;
+            for (int i = lo + off, end = hi + off; i < end; ++i)
+                ++cnt[((int)(src[i] >>> s) & DIGIT_MASK) ^ f];
+        }
+        final void scatter(int c, int lo, int hi) {
+            int[] cnt = counts[c];
+            long[] src, dst; int[] vs, vd; int so, dof;
+            if (swapped) { src = w; so = 0; dst = a; dof = base; vs = vw; vd = va; }
+            else { src = a; so = base; dst = w; dof = 0; vs = va; vd = vw; }
+            int s = shift;
+            int f = (s == 64 - RADIX_BITS) ? topFlip : 0;
+            if (vs == null) {
+                for (int i = lo; i < hi; ++i) {
+                    long x = src[i + so];
+                    dst[dof + cnt[((int)(x >>> s) & DIGIT_MASK) ^ f]++] = x;
+                }
+            }
+            else {
+                for (int i = lo; i < hi; ++i) {
+                    long x = src[i + so];
+                    int j = cnt[((int)(x >>> s) & DIGIT_MASK) ^ f]++;
+                    dst[dof + j] = x;
+                    vd[j] = vs[i];
+                }
+            }
+        }
+        final void copyBack(int lo, int hi) {
+            System.arraycopy(w, lo, a, base + lo, hi - lo);
+            if (va != null)
+                System.arraycopy(vw, lo, va, lo, hi - lo);
+        }
+    }
+
+    /** float values, ordered by transformed raw bits; no NaNs */
+    static final class FloatLsd extends Lsd {
+        final float[] a, w;
+        final int base;
+        FloatLsd(float[] a, int base, int n, float[] w, int chunks) {
+            super(n, chunks);
+            this.a = a; this.base = base; this.w = w;
+        }
+        static int key(float x) {
+            int b = Float.floatToRawIntBits(x);
+            return b ^ ((b >> 31) | Integer.MIN_VALUE);
+        }
+        final void count(int c, int lo, int hi) {
+            int[] cnt = counts[c];
+            Arrays.fill(cnt, 0);
+            float[] src = swapped ? w : a;
+            int off = swapped ? 0 : base, s = shift;
+            for (int i = lo + off, end = hi + off; i < end; ++i)
+                ++cnt[(key(src[i]) >>> s) & DIGIT_MASK];
+        }
+        final void scatter(int c, int lo, int hi) {
+            int[] cnt = counts[c];
+            float[] src, dst; int so, dof;
+            if (swapped) { src = w; so = 0; dst = a; dof = base; }
+            else { src = a; so = base; dst = w; dof = 0; }
+            int s = shift;
+            for (int i = lo + so, end = hi + so; i < end; ++i) {
+                float x = src[i];
+                dst[dof + cnt[(key(x) >>> s) & DIGIT_MASK]++] = x;
+            }
+        }
+        final void copyBack(int lo, int hi) {
+            System.arraycopy(w, lo, a, base + lo, hi - lo);
+        }
+    }
+
+    /** double values, ordered by transformed raw bits; no NaNs */
+    static final class DoubleLsd extends Lsd {
+        final double[] a, w;
+        final int base;
+        DoubleLsd(double[] a, int base, int n, double[] w, int chunks) {
+            super(n, chunks);
+            this.a = a; this.base = base; this.w = w;
+        }
+        static long key(double x) {
+            long b = Double.doubleToRawLongBits(x);
+            return b ^ ((b >> 63) | Long.MIN_VALUE);
+        }
+        final void count(int c, int lo, int hi) {
+            int[] cnt = counts[c];
+            Arrays.fill(cnt, 0);
+            double[] src = swapped ? w : a;
+            int off = swapped ? 0 : base, s = shift;
+            for (int i = lo + off, end = hi + off; i < end; ++i)
+                ++cnt[(int)(key(src[i]) >>> s) & DIGIT_MASK];
+        }
+        final void scatter(int c, int lo, int hi) {
+            int[] cnt = counts[c];
+            double[] src, dst; int so, dof;
+            if (swapped) { src = w; so = 0; dst = a; dof = base; }
+            else { src = a; so = base; dst = w; dof = 0; }
+            int s = shift;
+            for (int i = lo + so, end = hi + so; i < end; ++i) {
+                double x = src[i];
+                dst[dof + cnt[(int)(key(x) >>> s) & DIGIT_MASK]++] = x;
+            }
+        }
+        final void copyBack(int lo, int hi) {
+            System.arraycopy(w, lo, a, base + lo, hi - lo);
+        }
+    }
+
+    // Value sorts of a[from, to)
+
+    static void sort(int[] a, int from, int to) {
+        int n = to - from;
+        new IntLsd(a, from, n, new int[n], null, null, true,
+                   chunksFor(n)).sort(32);
+    }
+
+    static void sort(long[] a, int from, int to) {
+        int n = to - from;
+        new LongLsd(a, from, n, new long[n], null, null, true,
+                    chunksFor(n)).sort(64);
+    }
+
+    static void sort(float[] a, int from, int to) {
+        // Move NaNs to the end, as does DualPivotQuicksort
+        int right = to - 1;
+        while (from <= right && Float.isNaN(a[right]))
+            --right;
+        for (int k = right; --k >= from; ) {
+            float ak = a[k];
+            if (ak != ak) { // a[k] is NaN
+                a[k] = a[right];
+                a[right] = ak;
+                --right;
+            }
+        }
+        to = right + 1;
+        int n = to - from;
+        new FloatLsd(a, from, n, new float[n], chunksFor(n)).sort(32);
+    }
+
+    static void sort(double[] a, int from, int to) {
+        int right = to - 1;
+        while (from <= right && Double.isNaN(a[right]))
+            --right;
+        for (int k = right; --k >= from; ) {
+            double ak = a[k];
+            if (ak != ak) { // a[k] is NaN
+                a[k] = a[right];
+                a[right] = ak;
+                --right;
+            }
+        }
+        to = right + 1;
+        int n = to - from;
+        new DoubleLsd(a, from, n, new double[n], chunksFor(n)).sort(64);
+    }
+
+    // Key-index sorts
+
+    /**
+     * Returns the sortable unsigned key of a float: its canonical bits,
+     * with all bits of negative values flipped and otherwise the sign.
+     */
+    static int sortableKey(float x) {
+        int b = Float.floatToIntBits(x);
+        return b ^ ((b >> 31) | Integer.MIN_VALUE);
+    }
+
+    static long sortableKey(double x) {
+        long b = Double.doubleToLongBits(x);
+        return b ^ ((b >> 63) | Long.MIN_VALUE);
+    }
+
+    static void sortIndices(int[] idx, int[] keys) {
+        int n = idx.length;
+        int[] k = new int[n];
+        Arrays.parallelSetAll(k, i -> keys[idx[i]]);
+        new IntLsd(k, 0, n, new int[n], idx, new int[n], true,
+                   chunksFor(n)).sort(32);
+    }
+
+    static void sortIndices(int[] idx, long[] keys) {
+        int n = idx.length;
+        long[] k = new long[n];
+        Arrays.parallelSetAll(k, i -> keys[idx[i]]);
+        new LongLsd(k, 0, n, new long[n], idx, new int[n], true,
+                    chunksFor(n)).sort(64);
+    }
+
+    static void sortIndices(int[] idx, float[] keys) {
+        int n = idx.length;
+        int[] k = new int[n];
+        Arrays.parallelSetAll(k, i -> sortableKey(keys[idx[i]]));
+        new IntLsd(k, 0, n, new int[n], idx, new int[n], false,
+                   chunksFor(n)).sort(32);
+    }
+
+    static void sortIndices(int[] idx, double[] keys) {
+        int n = idx.length;
+        long[] k = new long[n];
+        Arrays.parallelSetAll(k, i -> sortableKey(keys[idx[i]]));
+        new LongLsd(k, 0, n, new long[n], idx, new int[n], false,
+                    chunksFor(n)).sort(64);
+    }
+}
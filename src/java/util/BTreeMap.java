@@ -0,0 +1,2174 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * A B+-tree based {@link NavigableMap} implementation.  The map is sorted
+ * according to the {@linkplain Comparable natural ordering} of its keys, or
+ * by a {@link Comparator} provided at map creation time, depending on which
+ * constructor is used.
+ *
+ * <p>Unlike {@link TreeMap}, which allocates one node holding five
+ * references for every mapping, this map keeps up to sixty-four keys and
+ * their values in a pair of arrays in each leaf of the tree, and links
+ * the leaves in key order.  Lookups therefore touch one small array per
+ * level of a shallow tree (four levels hold over sixteen million keys),
+ * and iteration streams through contiguous arrays rather than chasing a
+ * pointer per mapping, which makes far better use of processor caches for
+ * large maps.  The {@code containsKey}, {@code get}, {@code put} and
+ * {@code remove} operations take guaranteed log(n) time.
+ *
+ * <p>A map constructed from a {@link SortedMap}, or filled by {@code
+ * putAll} from one while empty, is bulk-loaded in linear time into almost
+ * completely full nodes.  Insertions of ascending keys at the end of the
+ * map likewise leave full nodes behind them, rather than the half-full
+ * nodes a B-tree otherwise leaves after a split.
+ *
+ * <p>This map does not permit {@code null} keys; it does permit {@code null}
+ * values.  Note that the ordering maintained by the map, like any sorted
+ * map, must be <em>consistent with {@code equals}</em> if it is to correctly
+ * implement the {@code Map} interface; see {@link TreeMap} for a discussion.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * If multiple threads access a map concurrently, and at least one of the
+ * threads modifies the map structurally, it <em>must</em> be synchronized
+ * externally.  (A structural modification is any operation that adds or
+ * deletes one or more mappings; merely changing the value associated
+ * with an existing key is not a structural modification.)  Where
+ * concurrent access is needed, {@link
+ * java.util.concurrent.ConcurrentSkipListMap} may be a better choice.
+ *
+ * <p>The iterators returned by the {@code iterator} method of the
+ * collections returned by all of this class's "collection view methods"
+ * are <em>fail-fast</em>: if the map is structurally modified at any time
+ * after the iterator is created, in any way except through the iterator's
+ * own {@code remove} method, the iterator will throw a {@link
+ * ConcurrentModificationException}.  Fail-fast behavior is provided on a
+ * best-effort basis and should be used only to detect bugs.
+ *
+ * <p>The {@code Map.Entry} pairs returned by the navigation methods of this
+ * class and its views are snapshots of mappings at the time they were
+ * produced, and do not support {@code Entry.setValue}.  The entries
+ * returned by entry set iterators do support {@code setValue}, which
+ * writes through to the map.
+ *
+ * <p>This class is a member of the
+ * <a href="{@docRoot}/../technotes/guides/collections/index.html">
+ * Java Collections Framework</a>.
+ *
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ *
+ * @see TreeMap
+ * @see LongBTreeMap
+ * @since 9
+ */
+public class BTreeMap<K,V>
+    extends AbstractMap<K,V>
+    implements NavigableMap<K,V>, Cloneable, Serializable
+{
+    private static final long serialVersionUID = 2793418867362137612L;
+
+    /*
+     * Each node holds its keys in an array of NODE_CAPACITY slots, of
+     * which the first "size" are in use.  Leaves hold values in a
+     * parallel array and are doubly linked in key order, with "head" and
+     * "tail" the first and last leaves.  An inner node with size
+     * children holds size - 1 separator keys: keys[i] is a lower bound
+     * of every key under children[i + 1] and an upper bound (exclusive)
+     * of every key under children[i].  Separators are copied from keys
+     * when nodes split and are not updated when that key is removed,
+     * so they need not be keys currently in the map.
+     *
+     * Every node other than the root normally holds at least
+     * MIN_FILL keys or children.  Insertion splits a full node in two
+     * and adds the new node to its parent, splitting upwards as needed;
+     * when a node on the right edge of the tree splits because of an
+     * insertion at its very end, the old node is left full.  Removal
+     * that leaves a node below MIN_FILL either moves entries over from
+     * a sibling or merges the node with it, removing a child from the
+     * parent and rebalancing upwards as needed.  Since nodes left
+     * small by appending are only repaired when they next lose an
+     * entry, the invariant the code relies on is weaker: leaves other
+     * than the root are never empty, and inner nodes other than the
+     * root have at least two children.
+     *
+     * Operations that may restructure the tree need the path from the
+     * root, which is recorded by a second descent, so the common cases
+     * of lookups, replacing a value, and inserting into or removing
+     * from a leaf that need not change shape never allocate.
+     */
+
+    /**
+     * The maximum number of keys in a leaf, and of children of an inner
+     * node.
+     */
+    static final int NODE_CAPACITY = 64;
+
+    /**
+     * The number of keys or children below which a node, other than the
+     * root, is rebalanced after a removal.
+     */
+    static final int MIN_FILL = NODE_CAPACITY >>> 1;
+
+    /**
+     * The comparator used to maintain order in this map, or null if it
+     * uses the natural ordering of its keys.
+     *
+     * @serial
+     */
+    private final Comparator<? super K> comparator;
+
+    /** The root of the tree; a (possibly empty) leaf if height is 0. */
+    private transient Node root;
+
+    /** The number of inner levels above the leaves. */
+    private transient int height;
+
+    /** The first and last leaves. */
+    private transient Leaf head, tail;
+
+    /** The number of mappings in the map. */
+    private transient int size;
+
+    /** The number of structural modifications to the map. */
+    private transient int modCount;
+
+    /**
+     * Constructs a new, empty map, using the natural ordering of its keys.
+     * All keys inserted into the map must implement the {@link Comparable}
+     * interface and be <em>mutually comparable</em>.
+     */
+    public BTreeMap() {
+        comparator = null;
+        initEmpty();
+    }
+
+    /**
+     * Constructs a new, empty map, ordered according to the given
+     * comparator.  All keys inserted into the map must be <em>mutually
+     * comparable</em> by the given comparator.
+     *
+     * @param comparator the comparator that will be used to order this map.
+     *        If {@code null}, the {@linkplain Comparable natural
+     *        ordering} of the keys will be used.
+     */
+    public BTreeMap(Comparator<? super K> comparator) {
+        this.comparator = comparator;
+        initEmpty();
+    }
+
+    /**
+     * Constructs a new map containing the same mappings as the given map,
+     * ordered according to the <em>natural ordering</em> of its keys.
+     *
+     * @param  m the map whose mappings are to be placed in this map
+     * @throws ClassCastException if the keys in m are not {@link
+     *         Comparable}, or are not mutually comparable
+     * @throws NullPointerException if the specified map or any of its
+     *         keys is null
+     */
+    public BTreeMap(Map<? extends K, ? extends V> m) {
+        comparator = null;
+        initEmpty();
+        putAll(m);
+    }
+
+    /**
+     * Constructs a new map containing the same mappings and using the same
+     * ordering as the specified sorted map.  The map is bulk-loaded in
+     * linear time.
+     *
+     * @param  m the sorted map whose mappings are to be placed in this map,
+     *         and whose comparator is to be used to sort this map
+     * @throws NullPointerException if the specified map or any of its
+     *         keys is null
+     */
+    public BTreeMap(SortedMap<K, ? extends V> m) {
+        comparator = m.comparator();
+        try {
+            buildFromSorted(m.size(), m.entrySet().iterator(), null);
+        } catch (IOException | ClassNotFoundException cannotHappen) {
+        }
+    }
+
+    /* ---------------- Nodes -------------- */
+
+    /**
+     * Base of tree nodes, holding the keys common to both kinds.
+     */
+    static class Node {
+        final Object[] keys;
+        int size;
+        Node(int capacity) {
+            keys = new Object[capacity];
+        }
+    }
+
+    /**
+     * A leaf, holding up to NODE_CAPACITY mappings in key order.
+     */
+    static final class Leaf extends Node {
+        final Object[] vals;
+        Leaf prev, next;
+        Leaf() {
+            super(NODE_CAPACITY);
+            vals = new Object[NODE_CAPACITY];
+        }
+    }
+
+    /**
+     * An inner node, holding size children and size - 1 separators.
+     */
+    static final class Inner extends Node {
+        final Node[] children;
+        Inner() {
+            super(NODE_CAPACITY - 1);
+            children = new Node[NODE_CAPACITY];
+        }
+    }
+
+    /**
+     * A position of a mapping in a leaf, as returned by the navigation
+     * methods.  Valid only until the next structural modification.
+     */
+    static final class Cursor {
+        final Leaf leaf;
+        final int index;
+        Cursor(Leaf leaf, int index) {
+            this.leaf = leaf;
+            this.index = index;
+        }
+        Object key() { return leaf.keys[index]; }
+        Object value() { return leaf.vals[index]; }
+    }
+
+    private void initEmpty() {
+        Leaf l = new Leaf();
+        root = head = tail = l;
+        height = 0;
+        size = 0;
+    }
+
+    /* ---------------- Searching -------------- */
+
+    /**
+     * Compares two keys using the correct comparison method for this map.
+     */
+    @SuppressWarnings("unchecked")
+    final int compare(Object k1, Object k2) {
+        return comparator == null ? ((Comparable<? super K>)k1).compareTo((K)k2)
+            : comparator.compare((K)k1, (K)k2);
+    }
+
+    /**
+     * Searches the first n keys of the array for the given key, returning
+     * its index if found, else (-(insertion point) - 1).
+     */
+    @SuppressWarnings("unchecked")
+    final int search(Object[] keys, int n, Object key) {
+        int lo = 0, hi = n - 1;
+        Comparator<? super K> cpr = comparator;
+        if (cpr == null) {
+            Comparable<? super K> k = (Comparable<? super K>) key;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int c = k.compareTo((K)keys[mid]);
+                if (c > 0)
+                    lo = mid + 1;
+                else if (c < 0)
+                    hi = mid - 1;
+                else
+                    return mid;
+            }
+        }
+        else {
+            K k = (K) key;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int c = cpr.compare(k, (K)keys[mid]);
+                if (c > 0)
+                    lo = mid + 1;
+                else if (c < 0)
+                    hi = mid - 1;
+                else
+                    return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+
+    /**
+     * Returns the index of the child of p under which the key belongs.
+     */
+    final int childIndex(Inner p, Object key) {
+        int i = search(p.keys, p.size - 1, key);
+        return (i >= 0) ? i + 1 : -i - 1;
+    }
+
+    /**
+     * Returns the leaf in which the key is or would be held.
+     */
+    final Leaf findLeaf(Object key) {
+        Node n = root;
+        for (int h = height; h > 0; --h) {
+            Inner p = (Inner)n;
+            n = p.children[childIndex(p, key)];
+        }
+        return (Leaf)n;
+    }
+
+    /**
+     * Records in path and idx the inner nodes from the root down to the
+     * leaf in which the key is or would be held, and the index of the
+     * child taken at each.
+     */
+    private void descend(Object key, Inner[] path, int[] idx) {
+        Node n = root;
+        for (int d = 0; d < height; ++d) {
+            Inner p = (Inner)n;
+            int ci = childIndex(p, key);
+            path[d] = p;
+            idx[d] = ci;
+            n = p.children[ci];
+        }
+    }
+
+    private static final int EQ = 1;
+    private static final int LT = 2;
+    private static final int GT = 0; // Actually checked as !LT
+
+    /**
+     * Returns the position of the mapping for the key, or of the mapping
+     * with the nearest key in the given direction, or null if there is
+     * none.
+     *
+     * @param key the key
+     * @param rel the relation -- OR'ed combination of EQ, LT, GT
+     */
+    final Cursor findNear(Object key, int rel) {
+        Leaf l = findLeaf(key);
+        int i = search(l.keys, l.size, key);
+        if (i >= 0) {
+            if ((rel & EQ) == 0)
+                i = ((rel & LT) != 0) ? i - 1 : i + 1;
+        }
+        else {
+            i = -i - 1;
+            if ((rel & LT) != 0)
+                --i;
+        }
+        // Non-root leaves are never empty, so one step suffices
+        if (i < 0) {
+            if ((l = l.prev) == null)
+                return null;
+            i = l.size - 1;
+        }
+        else if (i >= l.size) {
+            if ((l = l.next) == null)
+                return null;
+            i = 0;
+        }
+        return new Cursor(l, i);
+    }
+
+    /** Returns the position of the first mapping, or null if empty. */
+    final Cursor findFirst() {
+        return (size == 0) ? null : new Cursor(head, 0);
+    }
+
+    /** Returns the position of the last mapping, or null if empty. */
+    final Cursor findLast() {
+        Leaf l = tail;
+        return (size == 0) ? null : new Cursor(l, l.size - 1);
+    }
+
+    /**
+     * Returns the number of mappings from position a through position b
+     * inclusive, which must be in order.
+     */
+    static int countRange(Cursor a, Cursor b) {
+        Leaf l = a.leaf, e = b.leaf;
+        if (l == e)
+            return b.index - a.index + 1;
+        long n = l.size - a.index;
+        while ((l = l.next) != e)
+            n += l.size;
+        n += b.index + 1;
+        return (n >= Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int)n;
+    }
+
+    /**
+     * Returns a snapshot entry for the position, or null if it is null.
+     */
+    @SuppressWarnings("unchecked")
+    static <K,V> Map.Entry<K,V> exportEntry(Cursor c) {
+        return (c == null) ? null :
+            new AbstractMap.SimpleImmutableEntry<>((K)c.key(), (V)c.value());
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K> K keyOrNull(Cursor c) {
+        return (c == null) ? null : (K)c.key();
+    }
+
+    static <K> K key(Cursor c) {
+        if (c == null)
+            throw new NoSuchElementException();
+        @SuppressWarnings("unchecked") K k = (K)c.key();
+        return k;
+    }
+
+    /* ---------------- Insertion -------------- */
+
+    /**
+     * Inserts the mapping at index i of leaf l, which must be where the
+     * key belongs, splitting nodes as needed.
+     */
+    private void insert(Leaf l, int i, Object key, Object value) {
+        ++modCount;
+        ++size;
+        if (l.size < NODE_CAPACITY) {
+            insertAt(l, i, key, value);
+            return;
+        }
+        int n = l.size;
+        // Appending to the last leaf leaves it full
+        boolean append = (l.next == null && i == n);
+        int keep = append ? n : (n + 1) >>> 1;
+        Leaf r = new Leaf();
+        if (i < keep) {
+            moveEntries(l, keep - 1, r, 0, n - keep + 1);
+            insertAt(l, i, key, value);
+        }
+        else {
+            moveEntries(l, keep, r, 0, n - keep);
+            insertAt(r, i - keep, key, value);
+        }
+        Leaf nx = l.next;
+        r.prev = l;
+        r.next = nx;
+        if (nx != null)
+            nx.prev = r;
+        else
+            tail = r;
+        l.next = r;
+        addChild(l.keys[0], r.keys[0], r, append);
+    }
+
+    /**
+     * Adds the new node right, whose keys are no lower than sep, as the
+     * next sibling of the leaf holding key, splitting upwards as needed.
+     */
+    private void addChild(Object key, Object sep, Node right, boolean append) {
+        int h = height;
+        if (h > 0) {
+            Inner[] path = new Inner[h];
+            int[] idx = new int[h];
+            descend(key, path, idx);
+            for (int d = h - 1; d >= 0; --d) {
+                Inner p = path[d];
+                int ci = idx[d];
+                if (p.size < NODE_CAPACITY) {
+                    insertChild(p, ci, sep, right);
+                    return;
+                }
+                Inner q = new Inner();
+                sep = splitInner(p, ci, sep, right, q,
+                                 append && ci == NODE_CAPACITY - 1);
+                right = q;
+            }
+        }
+        Inner r = new Inner();
+        r.children[0] = root;
+        r.children[1] = right;
+        r.keys[0] = sep;
+        r.size = 2;
+        root = r;
+        ++height;
+    }
+
+    /**
+     * Splits the full node p while adding the child c, with separator sep,
+     * after its child ci.  Moves the upper part of p to the empty node q,
+     * and returns the separator for q.
+     */
+    private static Object splitInner(Inner p, int ci, Object sep, Node c,
+                                     Inner q, boolean append) {
+        int n = p.size;
+        Object[] ks = new Object[n];
+        Node[] cs = new Node[n + 1];
+        System.arraycopy(p.children, 0, cs, 0, ci + 1);
+        cs[ci + 1] = c;
+        System.arraycopy(p.children, ci + 1, cs, ci + 2, n - ci - 1);
+        System.arraycopy(p.keys, 0, ks, 0, ci);
+        ks[ci] = sep;
+        System.arraycopy(p.keys, ci, ks, ci + 1, n - 1 - ci);
+        // Inner nodes need two children, so an append keeps n - 1
+        int keep = append ? n - 1 : (n + 1) >>> 1;
+        System.arraycopy(cs, 0, p.children, 0, keep);
+        Arrays.fill(p.children, keep, n, null);
+        System.arraycopy(ks, 0, p.keys, 0, keep - 1);
+        Arrays.fill(p.keys, keep - 1, n - 1, null);
+        p.size = keep;
+        System.arraycopy(cs, keep, q.children, 0, n + 1 - keep);
+        System.arraycopy(ks, keep, q.keys, 0, n - keep);
+        q.size = n + 1 - keep;
+        return ks[keep - 1];
+    }
+
+    private static void insertAt(Leaf l, int i, Object key, Object value) {
+        int n = l.size;
+        System.arraycopy(l.keys, i, l.keys, i + 1, n - i);
+        System.arraycopy(l.vals, i, l.vals, i + 1, n - i);
+        l.keys[i] = key;
+        l.vals[i] = value;
+        l.size = n + 1;
+    }
+
+    private static void insertChild(Inner p, int ci, Object sep, Node c) {
+        int n = p.size;
+        System.arraycopy(p.children, ci + 1, p.children, ci + 2, n - ci - 1);
+        System.arraycopy(p.keys, ci, p.keys, ci + 1, n - 1 - ci);
+        p.children[ci + 1] = c;
+        p.keys[ci] = sep;
+        p.size = n + 1;
+    }
+
+    /**
+     * Moves len mappings from index from of leaf src to index to of leaf
+     * dst, which must have room, and adjusts both sizes.
+     */
+    private static void moveEntries(Leaf src, int from, Leaf dst, int to,
+                                    int len) {
+        System.arraycopy(dst.keys, to, dst.keys, to + len, dst.size - to);
+        System.arraycopy(dst.vals, to, dst.vals, to + len, dst.size - to);
+        System.arraycopy(src.keys, from, dst.keys, to, len);
+        System.arraycopy(src.vals, from, dst.vals, to, len);
+        int n = src.size;
+        System.arraycopy(src.keys, from + len, src.keys, from, n - from - len);
+        System.arraycopy(src.vals, from + len, src.vals, from, n - from - len);
+        Arrays.fill(src.keys, n - len, n, null);
+        Arrays.fill(src.vals, n - len, n, null);
+        src.size = n - len;
+        dst.size += len;
+    }
+
+    /* ---------------- Deletion -------------- */
+
+    /**
+     * Removes the mapping at index i of leaf l, rebalancing as needed.
+     */
+    final void deleteAt(Leaf l, int i) {
+        ++modCount;
+        --size;
+        Object key = l.keys[i];
+        int n = l.size - 1;
+        System.arraycopy(l.keys, i + 1, l.keys, i, n - i);
+        System.arraycopy(l.vals, i + 1, l.vals, i, n - i);
+        l.keys[n] = null;
+        l.vals[n] = null;
+        l.size = n;
+        if (n < MIN_FILL && height > 0)
+            rebalance(key);
+    }
+
+    /**
+     * Repairs underflow of the leaf in which the (removed) key belonged,
+     * and of its ancestors in turn, then shortens the tree if the root
+     * has only one child.
+     */
+    private void rebalance(Object key) {
+        int h = height;
+        Inner[] path = new Inner[h];
+        int[] idx = new int[h];
+        descend(key, path, idx);
+        for (int d = h - 1; d >= 0; --d) {
+            Inner p = path[d];
+            int ci = idx[d];
+            if (p.children[ci].size >= MIN_FILL)
+                break;
+            int j = (ci > 0) ? ci - 1 : ci;
+            Node a = p.children[j], b = p.children[j + 1];
+            boolean leaves = (d == h - 1);
+            if (a.size + b.size < NODE_CAPACITY)
+                merge(p, j, leaves);
+            else if (leaves)
+                balanceLeaves(p, j, (Leaf)a, (Leaf)b);
+            else
+                balanceInner(p, j, (Inner)a, (Inner)b);
+        }
+        while (height > 0 && root.size == 1) {
+            root = ((Inner)root).children[0];
+            --height;
+        }
+    }
+
+    /**
+     * Evens out the sizes of adjacent leaves a and b, children j and j + 1
+     * of p.
+     */
+    private static void balanceLeaves(Inner p, int j, Leaf a, Leaf b) {
+        int keep = (a.size + b.size) >>> 1;
+        if (a.size > keep)
+            moveEntries(a, keep, b, 0, a.size - keep);
+        else
+            moveEntries(b, 0, a, a.size, keep - a.size);
+        p.keys[j] = b.keys[0];
+    }
+
+    /**
+     * Evens out the numbers of children of adjacent inner nodes a and b,
+     * children j and j + 1 of p, rotating separators through p.
+     */
+    private static void balanceInner(Inner p, int j, Inner a, Inner b) {
+        int an = a.size, bn = b.size;
+        int keep = (an + bn) >>> 1;
+        if (an > keep) {                // move k children from a to b
+            int k = an - keep;
+            System.arraycopy(b.children, 0, b.children, k, bn);
+            System.arraycopy(b.keys, 0, b.keys, k, bn - 1);
+            System.arraycopy(a.children, keep, b.children, 0, k);
+            System.arraycopy(a.keys, keep, b.keys, 0, k - 1);
+            b.keys[k - 1] = p.keys[j];
+            p.keys[j] = a.keys[keep - 1];
+            Arrays.fill(a.children, keep, an, null);
+            Arrays.fill(a.keys, keep - 1, an - 1, null);
+            a.size = keep;
+            b.size = bn + k;
+        }
+        else {                          // move k children from b to a
+            int k = keep - an;
+            a.keys[an - 1] = p.keys[j];
+            System.arraycopy(b.keys, 0, a.keys, an, k - 1);
+            System.arraycopy(b.children, 0, a.children, an, k);
+            p.keys[j] = b.keys[k - 1];
+            System.arraycopy(b.children, k, b.children, 0, bn - k);
+            System.arraycopy(b.keys, k, b.keys, 0, bn - 1 - k);
+            Arrays.fill(b.children, bn - k, bn, null);
+            Arrays.fill(b.keys, bn - 1 - k, bn - 1, null);
+            a.size = keep;
+            b.size = bn - k;
+        }
+    }
+
+    /**
+     * Merges child j + 1 of p into child j, removing it from p.
+     */
+    private void merge(Inner p, int j, boolean leaves) {
+        Node a = p.children[j], b = p.children[j + 1];
+        if (leaves) {
+            Leaf la = (Leaf)a, lb = (Leaf)b;
+            moveEntries(lb, 0, la, la.size, lb.size);
+            Leaf nx = lb.next;
+            la.next = nx;
+            if (nx != null)
+                nx.prev = la;
+            else
+                tail = la;
+        }
+        else {
+            Inner ia = (Inner)a, ib = (Inner)b;
+            int an = ia.size, bn = ib.size;
+            ia.keys[an - 1] = p.keys[j];
+            System.arraycopy(ib.keys, 0, ia.keys, an, bn - 1);
+            System.arraycopy(ib.children, 0, ia.children, an, bn);
+            ia.size = an + bn;
+        }
+        int n = p.size;
+        System.arraycopy(p.keys, j + 1, p.keys, j, n - 2 - j);
+        System.arraycopy(p.children, j + 2, p.children, j + 1, n - 2 - j);
+        p.keys[n - 2] = null;
+        p.children[n - 1] = null;
+        p.size = n - 1;
+    }
+
+    /* ---------------- Bulk loading -------------- */
+
+    /**
+     * Replaces the contents of this map with size mappings taken in
+     * ascending key order either from the iterator, which yields
+     * Map.Entries, or, if it is null, as alternating keys and values from
+     * the stream.  Nodes are filled as evenly and completely as possible.
+     */
+    private void buildFromSorted(int size, Iterator<?> it,
+                                 java.io.ObjectInputStream str)
+        throws IOException, ClassNotFoundException {
+        ++modCount;
+        if (size <= 0) {
+            initEmpty();
+            return;
+        }
+        int count = (size + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        Node[] level = new Node[count];
+        Object[] mins = new Object[count];
+        Leaf prev = null;
+        for (int j = 0, rem = size; j < count; ++j) {
+            int n = rem / (count - j);
+            rem -= n;
+            Leaf l = new Leaf();
+            for (int i = 0; i < n; ++i) {
+                Object k, v;
+                if (it != null) {
+                    Map.Entry<?,?> e = (Map.Entry<?,?>)it.next();
+                    k = e.getKey();
+                    v = e.getValue();
+                }
+                else {
+                    k = str.readObject();
+                    v = str.readObject();
+                }
+                if (k == null)
+                    throw new NullPointerException();
+                l.keys[i] = k;
+                l.vals[i] = v;
+            }
+            l.size = n;
+            if ((l.prev = prev) != null)
+                prev.next = l;
+            prev = l;
+            level[j] = l;
+            mins[j] = l.keys[0];
+        }
+        head = (Leaf)level[0];
+        tail = prev;
+        int h = 0;
+        while (count > 1) {
+            int parents = (count + NODE_CAPACITY - 1) / NODE_CAPACITY;
+            for (int j = 0, c = 0, rem = count; j < parents; ++j) {
+                int n = rem / (parents - j);
+                rem -= n;
+                Inner p = new Inner();
+                Object min = mins[c];
+                for (int i = 0; i < n; ++i, ++c) {
+                    p.children[i] = level[c];
+                    if (i > 0)
+                        p.keys[i - 1] = mins[c];
+                }
+                p.size = n;
+                level[j] = p;           // j < c, so no unread slot is lost
+                mins[j] = min;
+            }
+            count = parents;
+            ++h;
+        }
+        root = level[0];
+        height = h;
+        this.size = size;
+    }
+
+    /* ---------------- Map operations -------------- */
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the specified
+     * key.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return {@code true} if this map contains a mapping for the
+     *         specified key
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     */
+    public boolean containsKey(Object key) {
+        if (key == null)
+            throw new NullPointerException();
+        Leaf l = findLeaf(key);
+        return search(l.keys, l.size, key) >= 0;
+    }
+
+    /**
+     * Returns {@code true} if this map maps one or more keys to the
+     * specified value.  This operation requires time linear in the map
+     * size.
+     *
+     * @param value value whose presence in this map is to be tested
+     * @return {@code true} if a mapping to {@code value} exists;
+     *         {@code false} otherwise
+     */
+    public boolean containsValue(Object value) {
+        for (Leaf l = head; l != null; l = l.next) {
+            Object[] vs = l.vals;
+            for (int i = 0, n = l.size; i < n; ++i) {
+                if (Objects.equals(value, vs[i]))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or {@code null} if this map contains no mapping for the key.
+     *
+     * <p>A return value of {@code null} does not <em>necessarily</em>
+     * indicate that the map contains no mapping for the key; it's also
+     * possible that the map explicitly maps the key to {@code null}.
+     * The {@link #containsKey containsKey} operation may be used to
+     * distinguish these two cases.
+     *
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     */
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        if (key == null)
+            throw new NullPointerException();
+        Leaf l = findLeaf(key);
+        int i = search(l.keys, l.size, key);
+        return (i >= 0) ? (V)l.vals[i] : null;
+    }
+
+    public Comparator<? super K> comparator() {
+        return comparator;
+    }
+
+    /**
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    public K firstKey() {
+        return key(findFirst());
+    }
+
+    /**
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    public K lastKey() {
+        return key(findLast());
+    }
+
+    /**
+     * Copies all of the mappings from the specified map to this map.
+     * These mappings replace any mappings that this map had for any of the
+     * keys currently in the specified map.  If this map is empty and the
+     * specified map is a {@link SortedMap} with the same ordering, this
+     * map is bulk-loaded in linear time.
+     *
+     * @param  map mappings to be stored in this map
+     * @throws ClassCastException if the class of a key or value in
+     *         the specified map prevents it from being stored in this map
+     * @throws NullPointerException if the specified map is null or
+     *         contains a null key
+     */
+    public void putAll(Map<? extends K, ? extends V> map) {
+        int mapSize = map.size();
+        if (size == 0 && mapSize != 0 && map instanceof SortedMap) {
+            Comparator<?> c = ((SortedMap<?,?>)map).comparator();
+            if (c == comparator || (c != null && c.equals(comparator))) {
+                try {
+                    buildFromSorted(mapSize, map.entrySet().iterator(), null);
+                } catch (IOException | ClassNotFoundException cannotHappen) {
+                }
+                return;
+            }
+        }
+        super.putAll(map);
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old
+     * value is replaced.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     *
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}.
+     *         (A {@code null} return can also indicate that the map
+     *         previously associated {@code null} with {@code key}.)
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        if (key == null)
+            throw new NullPointerException();
+        Leaf l = findLeaf(key);
+        int n = l.size;
+        if (n == 0)
+            compare(key, key); // type check
+        int i = search(l.keys, n, key);
+        if (i >= 0) {
+            V old = (V)l.vals[i];
+            l.vals[i] = value;
+            return old;
+        }
+        insert(l, -i - 1, key, value);
+        return null;
+    }
+
+    /**
+     * Removes the mapping for this key from this map if present.
+     *
+     * @param  key key for which mapping should be removed
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}.
+     *         (A {@code null} return can also indicate that the map
+     *         previously associated {@code null} with {@code key}.)
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        if (key == null)
+            throw new NullPointerException();
+        Leaf l = findLeaf(key);
+        int i = search(l.keys, l.size, key);
+        if (i < 0)
+            return null;
+        V old = (V)l.vals[i];
+        deleteAt(l, i);
+        return old;
+    }
+
+    /**
+     * Removes all of the mappings from this map.
+     * The map will be empty after this call returns.
+     */
+    public void clear() {
+        ++modCount;
+        initEmpty();
+    }
+
+    /**
+     * Returns a shallow copy of this {@code BTreeMap} instance.  (The keys
+     * and values themselves are not cloned.)
+     *
+     * @return a shallow copy of this map
+     */
+    public Object clone() {
+        BTreeMap<?,?> clone;
+        try {
+            clone = (BTreeMap<?,?>) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError(e);
+        }
+        clone.keySetView = null;
+        clone.entrySetView = null;
+        clone.valuesView = null;
+        clone.descendingMapView = null;
+        clone.modCount = 0;
+        try {
+            clone.buildFromSorted(size, entrySet().iterator(), null);
+        } catch (IOException | ClassNotFoundException cannotHappen) {
+        }
+        return clone;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        for (Leaf l = head; l != null; l = l.next) {
+            for (int i = 0, n = l.size; i < n; ++i) {
+                @SuppressWarnings("unchecked") K k = (K)l.keys[i];
+                @SuppressWarnings("unchecked") V v = (V)l.vals[i];
+                action.accept(k, v);
+                if (expectedModCount != modCount)
+                    throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+        Objects.requireNonNull(function);
+        int expectedModCount = modCount;
+        for (Leaf l = head; l != null; l = l.next) {
+            for (int i = 0, n = l.size; i < n; ++i) {
+                @SuppressWarnings("unchecked") K k = (K)l.keys[i];
+                @SuppressWarnings("unchecked") V v = (V)l.vals[i];
+                V nv = function.apply(k, v);
+                if (expectedModCount != modCount)
+                    throw new ConcurrentModificationException();
+                l.vals[i] = nv;
+            }
+        }
+    }
+
+    /* ---------------- NavigableMap API methods -------------- */
+
+    public Map.Entry<K,V> firstEntry() {
+        return exportEntry(findFirst());
+    }
+
+    public Map.Entry<K,V> lastEntry() {
+        return exportEntry(findLast());
+    }
+
+    public Map.Entry<K,V> pollFirstEntry() {
+        Cursor c = findFirst();
+        Map.Entry<K,V> e = exportEntry(c);
+        if (c != null)
+            deleteAt(c.leaf, c.index);
+        return e;
+    }
+
+    public Map.Entry<K,V> pollLastEntry() {
+        Cursor c = findLast();
+        Map.Entry<K,V> e = exportEntry(c);
+        if (c != null)
+            deleteAt(c.leaf, c.index);
+        return e;
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public Map.Entry<K,V> lowerEntry(K key) {
+        return exportEntry(findNear(Objects.requireNonNull(key), LT));
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public K lowerKey(K key) {
+        return keyOrNull(findNear(Objects.requireNonNull(key), LT));
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public Map.Entry<K,V> floorEntry(K key) {
+        return exportEntry(findNear(Objects.requireNonNull(key), LT|EQ));
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public K floorKey(K key) {
+        return keyOrNull(findNear(Objects.requireNonNull(key), LT|EQ));
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public Map.Entry<K,V> ceilingEntry(K key) {
+        return exportEntry(findNear(Objects.requireNonNull(key), GT|EQ));
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public K ceilingKey(K key) {
+        return keyOrNull(findNear(Objects.requireNonNull(key), GT|EQ));
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public Map.Entry<K,V> higherEntry(K key) {
+        return exportEntry(findNear(Objects.requireNonNull(key), GT));
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if the specified key is null
+     */
+    public K higherKey(K key) {
+        return keyOrNull(findNear(Objects.requireNonNull(key), GT));
+    }
+
+    /* ---------------- Views -------------- */
+
+    private transient KeySet<K> keySetView;
+    private transient EntrySet<K,V> entrySetView;
+    private transient Values<V> valuesView;
+    private transient NavigableMap<K,V> descendingMapView;
+
+    /**
+     * Returns a {@link NavigableSet} view of the keys contained in this
+     * map, in ascending order.  The set is backed by the map, so changes
+     * to the map are reflected in the set, and vice-versa.  The set
+     * supports element removal, but not addition.
+     *
+     * <p>The set's spliterator splits along the subtrees of the map and
+     * reports {@link Spliterator#SIZED}, {@link Spliterator#DISTINCT},
+     * {@link Spliterator#SORTED} and {@link Spliterator#ORDERED}.
+     */
+    public NavigableSet<K> keySet() {
+        return navigableKeySet();
+    }
+
+    public NavigableSet<K> navigableKeySet() {
+        KeySet<K> ks = keySetView;
+        return (ks != null) ? ks : (keySetView = new KeySet<>(this));
+    }
+
+    public NavigableSet<K> descendingKeySet() {
+        return descendingMap().navigableKeySet();
+    }
+
+    /**
+     * Returns a {@link Collection} view of the values contained in this
+     * map, in ascending order of the corresponding keys.  The collection
+     * is backed by the map, and supports element removal, but not
+     * addition.
+     */
+    public Collection<V> values() {
+        Values<V> vs = valuesView;
+        return (vs != null) ? vs : (valuesView = new Values<>(this));
+    }
+
+    /**
+     * Returns a {@link Set} view of the mappings contained in this map, in
+     * ascending key order.  The set is backed by the map, and supports
+     * element removal, but not addition.
+     */
+    public Set<Map.Entry<K,V>> entrySet() {
+        EntrySet<K,V> es = entrySetView;
+        return (es != null) ? es : (entrySetView = new EntrySet<>(this));
+    }
+
+    public NavigableMap<K, V> descendingMap() {
+        NavigableMap<K, V> km = descendingMapView;
+        return (km != null) ? km :
+            (descendingMapView = new SubMap<>(this, null, false, null, false,
+                                              true));
+    }
+
+    /**
+     * @throws ClassCastException       {@inheritDoc}
+     * @throws NullPointerException if {@code fromKey} or {@code toKey} is
+     *         null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public NavigableMap<K,V> subMap(K fromKey, boolean fromInclusive,
+                                    K toKey,   boolean toInclusive) {
+        if (fromKey == null || toKey == null)
+            throw new NullPointerException();
+        return new SubMap<>(this, fromKey, fromInclusive, toKey, toInclusive,
+                            false);
+    }
+
+    /**
+     * @throws ClassCastException       {@inheritDoc}
+     * @throws NullPointerException if {@code toKey} is null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public NavigableMap<K,V> headMap(K toKey, boolean inclusive) {
+        if (toKey == null)
+            throw new NullPointerException();
+        return new SubMap<>(this, null, false, toKey, inclusive, false);
+    }
+
+    /**
+     * @throws ClassCastException       {@inheritDoc}
+     * @throws NullPointerException if {@code fromKey} is null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public NavigableMap<K,V> tailMap(K fromKey, boolean inclusive) {
+        if (fromKey == null)
+            throw new NullPointerException();
+        return new SubMap<>(this, fromKey, inclusive, null, false, false);
+    }
+
+    /**
+     * @throws ClassCastException       {@inheritDoc}
+     * @throws NullPointerException if {@code fromKey} or {@code toKey} is
+     *         null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public SortedMap<K,V> subMap(K fromKey, K toKey) {
+        return subMap(fromKey, true, toKey, false);
+    }
+
+    /**
+     * @throws ClassCastException       {@inheritDoc}
+     * @throws NullPointerException if {@code toKey} is null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public SortedMap<K,V> headMap(K toKey) {
+        return headMap(toKey, false);
+    }
+
+    /**
+     * @throws ClassCastException       {@inheritDoc}
+     * @throws NullPointerException if {@code fromKey} is null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public SortedMap<K,V> tailMap(K fromKey) {
+        return tailMap(fromKey, true);
+    }
+
+    /* ---------------- Iterators -------------- */
+
+    /**
+     * Base of iterators, traversing leaves in either direction from a
+     * starting position up to an optional fence key.
+     */
+    abstract class Iter<T> implements Iterator<T> {
+        /** The position of the next mapping; next is null when done */
+        Leaf next;
+        int nextIndex;
+        /** The position of the last mapping returned, for remove */
+        Leaf lastLeaf;
+        int lastIndex;
+        /** The key beyond which to stop, or null if none */
+        final Object fence;
+        final boolean fenceInclusive;
+        final boolean descending;
+        int expectedModCount = modCount;
+
+        Iter(Cursor first, Object fence, boolean fenceInclusive,
+             boolean descending) {
+            this.fence = fence;
+            this.fenceInclusive = fenceInclusive;
+            this.descending = descending;
+            if (first != null && !beyondFence(first.key())) {
+                next = first.leaf;
+                nextIndex = first.index;
+            }
+        }
+
+        final boolean beyondFence(Object key) {
+            if (fence == null)
+                return false;
+            int c = compare(key, fence);
+            if (descending)
+                c = -c;
+            return c > 0 || (c == 0 && !fenceInclusive);
+        }
+
+        public final boolean hasNext() {
+            return next != null;
+        }
+
+        /**
+         * Moves past the next mapping, leaving its position in lastLeaf
+         * and lastIndex.
+         */
+        final void advance() {
+            Leaf l = next;
+            int i = nextIndex;
+            if (l == null)
+                throw new NoSuchElementException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            lastLeaf = l;
+            lastIndex = i;
+            if (descending) {
+                if (--i < 0 && (l = l.prev) != null)
+                    i = l.size - 1;
+            }
+            else if (++i >= l.size && (l = l.next) != null)
+                i = 0;
+            if (l != null && beyondFence(l.keys[i]))
+                l = null;
+            next = l;
+            nextIndex = i;
+        }
+
+        public final void remove() {
+            Leaf l = lastLeaf;
+            if (l == null)
+                throw new IllegalStateException();
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            // Removal may move mappings between leaves, so relocate next
+            Object nextKey = (next != null) ? next.keys[nextIndex] : null;
+            deleteAt(l, lastIndex);
+            lastLeaf = null;
+            if (nextKey != null) {
+                Cursor c = findNear(nextKey, EQ);
+                next = c.leaf;
+                nextIndex = c.index;
+            }
+            expectedModCount = modCount;
+        }
+    }
+
+    final class KeyIterator extends Iter<K> {
+        KeyIterator(Cursor first, Object fence, boolean fenceInclusive,
+                    boolean descending) {
+            super(first, fence, fenceInclusive, descending);
+        }
+        @SuppressWarnings("unchecked")
+        public K next() {
+            advance();
+            return (K)lastLeaf.keys[lastIndex];
+        }
+    }
+
+    final class ValueIterator extends Iter<V> {
+        ValueIterator(Cursor first, Object fence, boolean fenceInclusive,
+                      boolean descending) {
+            super(first, fence, fenceInclusive, descending);
+        }
+        @SuppressWarnings("unchecked")
+        public V next() {
+            advance();
+            return (V)lastLeaf.vals[lastIndex];
+        }
+    }
+
+    final class EntryIterator extends Iter<Map.Entry<K,V>> {
+        EntryIterator(Cursor first, Object fence, boolean fenceInclusive,
+                      boolean descending) {
+            super(first, fence, fenceInclusive, descending);
+        }
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K,V> next() {
+            advance();
+            return new IterEntry((K)lastLeaf.keys[lastIndex],
+                                 (V)lastLeaf.vals[lastIndex]);
+        }
+    }
+
+    /**
+     * Entries returned by entry iterators, whose setValue writes through
+     * to the map.
+     */
+    final class IterEntry extends AbstractMap.SimpleEntry<K,V> {
+        private static final long serialVersionUID = -2218049707591429126L;
+        IterEntry(K key, V value) {
+            super(key, value);
+        }
+        public V setValue(V value) {
+            K k = getKey();
+            Leaf l = findLeaf(k);
+            int i = search(l.keys, l.size, k);
+            if (i < 0)
+                throw new IllegalStateException();
+            l.vals[i] = value;
+            return super.setValue(value);
+        }
+    }
+
+    Iterator<K> keyIterator() {
+        return new KeyIterator(findFirst(), null, false, false);
+    }
+
+    Iterator<V> valueIterator() {
+        return new ValueIterator(findFirst(), null, false, false);
+    }
+
+    Iterator<Map.Entry<K,V>> entryIterator() {
+        return new EntryIterator(findFirst(), null, false, false);
+    }
+
+    /* ---------------- Spliterators -------------- */
+
+    /**
+     * Base of spliterators over the whole map.  Until traversal starts, a
+     * spliterator covers the children lo (inclusive) to hi (exclusive) of
+     * a node at height h, or, when h is 0, the mappings lo to hi of a
+     * leaf, and splits by halving the range of children, descending into
+     * the only child when just one remains.  Traversal then walks the
+     * leaves from the first leaf of the range to the first leaf beyond
+     * it.  The root is bound on first use.
+     */
+    abstract class TreeSpliterator<T> implements Spliterator<T> {
+        Node node;              // null until bound
+        int h, lo, hi;
+        Leaf leaf, end;         // traversal state once started
+        int index;
+        boolean started;
+        boolean sized;
+        int est;
+        int expectedModCount;
+
+        TreeSpliterator() {
+            sized = true;
+        }
+
+        TreeSpliterator(Node node, int h, int lo, int hi, int est,
+                        int expectedModCount) {
+            this.node = node;
+            this.h = h;
+            this.lo = lo;
+            this.hi = hi;
+            this.est = est;
+            this.expectedModCount = expectedModCount;
+        }
+
+        abstract T element(Leaf l, int i);
+
+        abstract TreeSpliterator<T> split(Node node, int h, int lo, int hi,
+                                          int est);
+
+        final void bind() {
+            if (node == null) {
+                node = root;
+                h = height;
+                lo = 0;
+                hi = node.size;
+                est = size;
+                expectedModCount = modCount;
+            }
+        }
+
+        final void start() {
+            bind();
+            if (!started) {
+                started = true;
+                if (h == 0) {
+                    leaf = (Leaf)node;
+                    index = lo;
+                    end = leaf.next;
+                }
+                else {
+                    Inner p = (Inner)node;
+                    leaf = firstLeaf(p.children[lo], h - 1);
+                    end = (hi < p.size) ? firstLeaf(p.children[hi], h - 1)
+                        : lastLeaf(p.children[hi - 1], h - 1).next;
+                }
+            }
+        }
+
+        public final Spliterator<T> trySplit() {
+            bind();
+            if (started)
+                return null;
+            while (h > 0) {
+                Inner p = (Inner)node;
+                if (hi - lo > 1) {
+                    int mid = (lo + hi) >>> 1;
+                    sized = false;
+                    TreeSpliterator<T> prefix = split(p, h, lo, mid, est >>>= 1);
+                    lo = mid;
+                    return prefix;
+                }
+                node = p.children[lo];
+                --h;
+                lo = 0;
+                hi = node.size;
+            }
+            return null;
+        }
+
+        public final void forEachRemaining(Consumer<? super T> action) {
+            if (action == null)
+                throw new NullPointerException();
+            start();
+            Leaf l = leaf, e = end;
+            int i = index;
+            leaf = e;
+            for (; l != e; l = l.next, i = 0) {
+                for (int n = l.size; i < n; ++i)
+                    action.accept(element(l, i));
+            }
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        public final boolean tryAdvance(Consumer<? super T> action) {
+            if (action == null)
+                throw new NullPointerException();
+            start();
+            Leaf l = leaf;
+            int i = index;
+            if (l == end || i >= l.size)  // only an empty root has no entries
+                return false;
+            T t = element(l, i);
+            if (++i >= l.size) {
+                leaf = l.next;
+                i = 0;
+            }
+            index = i;
+            action.accept(t);
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            return true;
+        }
+
+        public final long estimateSize() {
+            bind();
+            return (long)est;
+        }
+
+        public int characteristics() {
+            return (sized ? Spliterator.SIZED : 0) |
+                Spliterator.DISTINCT | Spliterator.SORTED |
+                Spliterator.ORDERED;
+        }
+    }
+
+    static Leaf firstLeaf(Node n, int h) {
+        for (; h > 0; --h)
+            n = ((Inner)n).children[0];
+        return (Leaf)n;
+    }
+
+    static Leaf lastLeaf(Node n, int h) {
+        for (; h > 0; --h)
+            n = ((Inner)n).children[n.size - 1];
+        return (Leaf)n;
+    }
+
+    final class KeySpliterator extends TreeSpliterator<K> {
+        KeySpliterator() { }
+        KeySpliterator(Node node, int h, int lo, int hi, int est,
+                       int expectedModCount) {
+            super(node, h, lo, hi, est, expectedModCount);
+        }
+        @SuppressWarnings("unchecked")
+        K element(Leaf l, int i) {
+            return (K)l.keys[i];
+        }
+        KeySpliterator split(Node node, int h, int lo, int hi, int est) {
+            return new KeySpliterator(node, h, lo, hi, est, expectedModCount);
+        }
+        public Comparator<? super K> getComparator() {
+            return comparator;
+        }
+    }
+
+    final class ValueSpliterator extends TreeSpliterator<V> {
+        ValueSpliterator() { }
+        ValueSpliterator(Node node, int h, int lo, int hi, int est,
+                         int expectedModCount) {
+            super(node, h, lo, hi, est, expectedModCount);
+        }
+        @SuppressWarnings("unchecked")
+        V element(Leaf l, int i) {
+            return (V)l.vals[i];
+        }
+        ValueSpliterator split(Node node, int h, int lo, int hi, int est) {
+            return new ValueSpliterator(node, h, lo, hi, est, expectedModCount);
+        }
+        public int characteristics() {
+            return (sized ? Spliterator.SIZED : 0) | Spliterator.ORDERED;
+        }
+    }
+
+    final class EntrySpliterator extends TreeSpliterator<Map.Entry<K,V>> {
+        EntrySpliterator() { }
+        EntrySpliterator(Node node, int h, int lo, int hi, int est,
+                         int expectedModCount) {
+            super(node, h, lo, hi, est, expectedModCount);
+        }
+        @SuppressWarnings("unchecked")
+        Map.Entry<K,V> element(Leaf l, int i) {
+            return new AbstractMap.SimpleImmutableEntry<>((K)l.keys[i],
+                                                          (V)l.vals[i]);
+        }
+        EntrySpliterator split(Node node, int h, int lo, int hi, int est) {
+            return new EntrySpliterator(node, h, lo, hi, est, expectedModCount);
+        }
+        @SuppressWarnings("unchecked")
+        public Comparator<Map.Entry<K,V>> getComparator() {
+            if (comparator != null)
+                return Map.Entry.comparingByKey(comparator);
+            else
+                return (Comparator<Map.Entry<K,V>> & Serializable) (e1, e2) -> {
+                    Comparable<? super K> k1 = (Comparable<? super K>) e1.getKey();
+                    return k1.compareTo(e2.getKey());
+                };
+        }
+    }
+
+    /* ---------------- View Classes -------------- */
+
+    /*
+     * View classes are static, delegating to a NavigableMap to allow use
+     * by SubMaps, as in ConcurrentSkipListMap.
+     */
+
+    static final class KeySet<E>
+            extends AbstractSet<E> implements NavigableSet<E> {
+        final NavigableMap<E,?> m;
+        KeySet(NavigableMap<E,?> map) { m = map; }
+        public int size() { return m.size(); }
+        public boolean isEmpty() { return m.isEmpty(); }
+        public boolean contains(Object o) { return m.containsKey(o); }
+        public boolean remove(Object o) {
+            if (!m.containsKey(o))
+                return false;
+            m.remove(o);
+            return true;
+        }
+        public void clear() { m.clear(); }
+        public E lower(E e) { return m.lowerKey(e); }
+        public E floor(E e) { return m.floorKey(e); }
+        public E ceiling(E e) { return m.ceilingKey(e); }
+        public E higher(E e) { return m.higherKey(e); }
+        public Comparator<? super E> comparator() { return m.comparator(); }
+        public E first() { return m.firstKey(); }
+        public E last() { return m.lastKey(); }
+        public E pollFirst() {
+            Map.Entry<E,?> e = m.pollFirstEntry();
+            return (e == null) ? null : e.getKey();
+        }
+        public E pollLast() {
+            Map.Entry<E,?> e = m.pollLastEntry();
+            return (e == null) ? null : e.getKey();
+        }
+        @SuppressWarnings("unchecked")
+        public Iterator<E> iterator() {
+            if (m instanceof BTreeMap)
+                return ((BTreeMap<E,?>)m).keyIterator();
+            else
+                return ((SubMap<E,?>)m).keyIterator();
+        }
+        public Iterator<E> descendingIterator() {
+            return descendingSet().iterator();
+        }
+        public NavigableSet<E> subSet(E fromElement,
+                                      boolean fromInclusive,
+                                      E toElement,
+                                      boolean toInclusive) {
+            return new KeySet<>(m.subMap(fromElement, fromInclusive,
+                                         toElement,   toInclusive));
+        }
+        public NavigableSet<E> headSet(E toElement, boolean inclusive) {
+            return new KeySet<>(m.headMap(toElement, inclusive));
+        }
+        public NavigableSet<E> tailSet(E fromElement, boolean inclusive) {
+            return new KeySet<>(m.tailMap(fromElement, inclusive));
+        }
+        public SortedSet<E> subSet(E fromElement, E toElement) {
+            return subSet(fromElement, true, toElement, false);
+        }
+        public SortedSet<E> headSet(E toElement) {
+            return headSet(toElement, false);
+        }
+        public SortedSet<E> tailSet(E fromElement) {
+            return tailSet(fromElement, true);
+        }
+        public NavigableSet<E> descendingSet() {
+            return new KeySet<>(m.descendingMap());
+        }
+        @SuppressWarnings("unchecked")
+        public Spliterator<E> spliterator() {
+            if (m instanceof BTreeMap)
+                return ((BTreeMap<E,?>)m).new KeySpliterator();
+            else
+                return Spliterators.spliterator(this, Spliterator.DISTINCT |
+                                                Spliterator.ORDERED);
+        }
+    }
+
+    static final class Values<E> extends AbstractCollection<E> {
+        final NavigableMap<?,E> m;
+        Values(NavigableMap<?,E> map) { m = map; }
+        @SuppressWarnings("unchecked")
+        public Iterator<E> iterator() {
+            if (m instanceof BTreeMap)
+                return ((BTreeMap<?,E>)m).valueIterator();
+            else
+                return ((SubMap<?,E>)m).valueIterator();
+        }
+        public boolean isEmpty() { return m.isEmpty(); }
+        public int size() { return m.size(); }
+        public boolean contains(Object o) { return m.containsValue(o); }
+        public void clear() { m.clear(); }
+        @SuppressWarnings("unchecked")
+        public Spliterator<E> spliterator() {
+            if (m instanceof BTreeMap)
+                return ((BTreeMap<?,E>)m).new ValueSpliterator();
+            else
+                return Spliterators.spliterator(this, Spliterator.ORDERED);
+        }
+    }
+
+    static final class EntrySet<K1,V1> extends AbstractSet<Map.Entry<K1,V1>> {
+        final NavigableMap<K1,V1> m;
+        EntrySet(NavigableMap<K1,V1> map) { m = map; }
+        @SuppressWarnings("unchecked")
+        public Iterator<Map.Entry<K1,V1>> iterator() {
+            if (m instanceof BTreeMap)
+                return ((BTreeMap<K1,V1>)m).entryIterator();
+            else
+                return ((SubMap<K1,V1>)m).entryIterator();
+        }
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+            Object k = e.getKey();
+            return m.containsKey(k) && Objects.equals(m.get(k), e.getValue());
+        }
+        public boolean remove(Object o) {
+            if (!contains(o))
+                return false;
+            m.remove(((Map.Entry<?,?>)o).getKey());
+            return true;
+        }
+        public boolean isEmpty() { return m.isEmpty(); }
+        public int size() { return m.size(); }
+        public void clear() { m.clear(); }
+        @SuppressWarnings("unchecked")
+        public Spliterator<Map.Entry<K1,V1>> spliterator() {
+            if (m instanceof BTreeMap)
+                return ((BTreeMap<K1,V1>)m).new EntrySpliterator();
+            else
+                return Spliterators.spliterator(this, Spliterator.DISTINCT |
+                                                Spliterator.ORDERED);
+        }
+    }
+
+    /**
+     * Submaps returned by {@link BTreeMap} submap operations represent a
+     * subrange of mappings of their underlying maps, possibly in
+     * descending order.  Instances of this class support all methods of
+     * their underlying maps, differing in that mappings outside their
+     * range are ignored, and attempts to add mappings outside their
+     * ranges result in {@link IllegalArgumentException}.
+     *
+     * @serial include
+     */
+    static final class SubMap<K,V> extends AbstractMap<K,V>
+        implements NavigableMap<K,V>, Serializable {
+        private static final long serialVersionUID = -4358213271862512385L;
+
+        /** Underlying map */
+        private final BTreeMap<K,V> m;
+        /** lower bound key, or null if from start */
+        private final K lo;
+        /** upper bound key, or null if to end */
+        private final K hi;
+        /** inclusion flag for lo */
+        private final boolean loInclusive;
+        /** inclusion flag for hi */
+        private final boolean hiInclusive;
+        /** direction */
+        private final boolean isDescending;
+
+        // Lazily initialized view holders
+        private transient KeySet<K> keySetView;
+        private transient Set<Map.Entry<K,V>> entrySetView;
+        private transient Collection<V> valuesView;
+
+        SubMap(BTreeMap<K,V> map,
+               K fromKey, boolean fromInclusive,
+               K toKey, boolean toInclusive,
+               boolean isDescending) {
+            if (fromKey != null && toKey != null) {
+                if (map.compare(fromKey, toKey) > 0)
+                    throw new IllegalArgumentException("inconsistent range");
+            }
+            else if (fromKey != null)
+                map.compare(fromKey, fromKey); // type check
+            else if (toKey != null)
+                map.compare(toKey, toKey);
+            this.m = map;
+            this.lo = fromKey;
+            this.hi = toKey;
+            this.loInclusive = fromInclusive;
+            this.hiInclusive = toInclusive;
+            this.isDescending = isDescending;
+        }
+
+        /* ----------------  Utilities -------------- */
+
+        boolean tooLow(Object key) {
+            int c;
+            return (lo != null && ((c = m.compare(key, lo)) < 0 ||
+                                   (c == 0 && !loInclusive)));
+        }
+
+        boolean tooHigh(Object key) {
+            int c;
+            return (hi != null && ((c = m.compare(key, hi)) > 0 ||
+                                   (c == 0 && !hiInclusive)));
+        }
+
+        boolean inBounds(Object key) {
+            return !tooLow(key) && !tooHigh(key);
+        }
+
+        void checkKeyBounds(K key) {
+            if (key == null)
+                throw new NullPointerException();
+            if (!inBounds(key))
+                throw new IllegalArgumentException("key out of range");
+        }
+
+        /**
+         * Returns the lowest position at or above the lower bound, which
+         * might not be in range.
+         */
+        Cursor loNode() {
+            if (lo == null)
+                return m.findFirst();
+            else if (loInclusive)
+                return m.findNear(lo, GT|EQ);
+            else
+                return m.findNear(lo, GT);
+        }
+
+        /**
+         * Returns the highest position at or below the upper bound, which
+         * might not be in range.
+         */
+        Cursor hiNode() {
+            if (hi == null)
+                return m.findLast();
+            else if (hiInclusive)
+                return m.findNear(hi, LT|EQ);
+            else
+                return m.findNear(hi, LT);
+        }
+
+        /** Returns the lowest position in range, or null if none. */
+        Cursor lowest() {
+            Cursor c = loNode();
+            return (c == null || tooHigh(c.key())) ? null : c;
+        }
+
+        /** Returns the highest position in range, or null if none. */
+        Cursor highest() {
+            Cursor c = hiNode();
+            return (c == null || tooLow(c.key())) ? null : c;
+        }
+
+        Map.Entry<K,V> removeNode(Cursor c) {
+            Map.Entry<K,V> e = exportEntry(c);
+            if (c != null)
+                m.deleteAt(c.leaf, c.index);
+            return e;
+        }
+
+        /**
+         * Submap version of BTreeMap.findNear, returning null if the
+         * position is not in range.
+         */
+        Cursor findNear(K key, int rel) {
+            if (key == null)
+                throw new NullPointerException();
+            if (isDescending) { // adjust relation for direction
+                if ((rel & LT) == 0)
+                    rel |= LT;
+                else
+                    rel &= ~LT;
+            }
+            if (tooLow(key))
+                return ((rel & LT) != 0) ? null : lowest();
+            if (tooHigh(key))
+                return ((rel & LT) != 0) ? highest() : null;
+            Cursor c = m.findNear(key, rel);
+            return (c == null || !inBounds(c.key())) ? null : c;
+        }
+
+        /* ----------------  Map API methods -------------- */
+
+        public boolean containsKey(Object key) {
+            if (key == null) throw new NullPointerException();
+            return inBounds(key) && m.containsKey(key);
+        }
+
+        public V get(Object key) {
+            if (key == null) throw new NullPointerException();
+            return (!inBounds(key)) ? null : m.get(key);
+        }
+
+        public V put(K key, V value) {
+            checkKeyBounds(key);
+            return m.put(key, value);
+        }
+
+        public V remove(Object key) {
+            if (key == null) throw new NullPointerException();
+            return (!inBounds(key)) ? null : m.remove(key);
+        }
+
+        public int size() {
+            Cursor a = lowest(), b;
+            if (a == null || (b = highest()) == null)
+                return 0;
+            return (m.compare(a.key(), b.key()) > 0) ? 0 : countRange(a, b);
+        }
+
+        public boolean isEmpty() {
+            return lowest() == null;
+        }
+
+        public boolean containsValue(Object value) {
+            for (Iterator<V> it = valueIterator(); it.hasNext(); ) {
+                if (Objects.equals(value, it.next()))
+                    return true;
+            }
+            return false;
+        }
+
+        public void clear() {
+            for (Cursor c; (c = lowest()) != null; )
+                m.deleteAt(c.leaf, c.index);
+        }
+
+        /* ----------------  SortedMap API methods -------------- */
+
+        public Comparator<? super K> comparator() {
+            Comparator<? super K> cmp = m.comparator();
+            if (isDescending)
+                return Collections.reverseOrder(cmp);
+            else
+                return cmp;
+        }
+
+        /**
+         * Utility to create submaps, where given bounds override
+         * unbounded(null) ones and/or are checked against bounded ones.
+         */
+        SubMap<K,V> newSubMap(K fromKey, boolean fromInclusive,
+                              K toKey, boolean toInclusive) {
+            if (isDescending) { // flip senses
+                K tk = fromKey;
+                fromKey = toKey;
+                toKey = tk;
+                boolean ti = fromInclusive;
+                fromInclusive = toInclusive;
+                toInclusive = ti;
+            }
+            if (lo != null) {
+                if (fromKey == null) {
+                    fromKey = lo;
+                    fromInclusive = loInclusive;
+                }
+                else {
+                    int c = m.compare(fromKey, lo);
+                    if (c < 0 || (c == 0 && !loInclusive && fromInclusive))
+                        throw new IllegalArgumentException("key out of range");
+                }
+            }
+            if (hi != null) {
+                if (toKey == null) {
+                    toKey = hi;
+                    toInclusive = hiInclusive;
+                }
+                else {
+                    int c = m.compare(toKey, hi);
+                    if (c > 0 || (c == 0 && !hiInclusive && toInclusive))
+                        throw new IllegalArgumentException("key out of range");
+                }
+            }
+            return new SubMap<>(m, fromKey, fromInclusive,
+                                toKey, toInclusive, isDescending);
+        }
+
+        public SubMap<K,V> subMap(K fromKey, boolean fromInclusive,
+                                  K toKey, boolean toInclusive) {
+            if (fromKey == null || toKey == null)
+                throw new NullPointerException();
+            return newSubMap(fromKey, fromInclusive, toKey, toInclusive);
+        }
+
+        public SubMap<K,V> headMap(K toKey, boolean inclusive) {
+            if (toKey == null)
+                throw new NullPointerException();
+            return newSubMap(null, false, toKey, inclusive);
+        }
+
+        public SubMap<K,V> tailMap(K fromKey, boolean inclusive) {
+            if (fromKey == null)
+                throw new NullPointerException();
+            return newSubMap(fromKey, inclusive, null, false);
+        }
+
+        public SubMap<K,V> subMap(K fromKey, K toKey) {
+            return subMap(fromKey, true, toKey, false);
+        }
+
+        public SubMap<K,V> headMap(K toKey) {
+            return headMap(toKey, false);
+        }
+
+        public SubMap<K,V> tailMap(K fromKey) {
+            return tailMap(fromKey, true);
+        }
+
+        public SubMap<K,V> descendingMap() {
+            return new SubMap<>(m, lo, loInclusive,
+                                hi, hiInclusive, !isDescending);
+        }
+
+        /* ----------------  Relational methods -------------- */
+
+        public Map.Entry<K,V> ceilingEntry(K key) {
+            return exportEntry(findNear(key, GT|EQ));
+        }
+
+        public K ceilingKey(K key) {
+            return keyOrNull(findNear(key, GT|EQ));
+        }
+
+        public Map.Entry<K,V> lowerEntry(K key) {
+            return exportEntry(findNear(key, LT));
+        }
+
+        public K lowerKey(K key) {
+            return keyOrNull(findNear(key, LT));
+        }
+
+        public Map.Entry<K,V> floorEntry(K key) {
+            return exportEntry(findNear(key, LT|EQ));
+        }
+
+        public K floorKey(K key) {
+            return keyOrNull(findNear(key, LT|EQ));
+        }
+
+        public Map.Entry<K,V> higherEntry(K key) {
+            return exportEntry(findNear(key, GT));
+        }
+
+        public K higherKey(K key) {
+            return keyOrNull(findNear(key, GT));
+        }
+
+        public K firstKey() {
+            return key(isDescending ? highest() : lowest());
+        }
+
+        public K lastKey() {
+            return key(isDescending ? lowest() : highest());
+        }
+
+        public Map.Entry<K,V> firstEntry() {
+            return exportEntry(isDescending ? highest() : lowest());
+        }
+
+        public Map.Entry<K,V> lastEntry() {
+            return exportEntry(isDescending ? lowest() : highest());
+        }
+
+        public Map.Entry<K,V> pollFirstEntry() {
+            return removeNode(isDescending ? highest() : lowest());
+        }
+
+        public Map.Entry<K,V> pollLastEntry() {
+            return removeNode(isDescending ? lowest() : highest());
+        }
+
+        /* ---------------- Submap Views -------------- */
+
+        public NavigableSet<K> keySet() {
+            return navigableKeySet();
+        }
+
+        public NavigableSet<K> navigableKeySet() {
+            KeySet<K> ks = keySetView;
+            return (ks != null) ? ks : (keySetView = new KeySet<>(this));
+        }
+
+        public Collection<V> values() {
+            Collection<V> vs = valuesView;
+            return (vs != null) ? vs : (valuesView = new Values<>(this));
+        }
+
+        public Set<Map.Entry<K,V>> entrySet() {
+            Set<Map.Entry<K,V>> es = entrySetView;
+            return (es != null) ? es : (entrySetView = new EntrySet<>(this));
+        }
+
+        public NavigableSet<K> descendingKeySet() {
+            return descendingMap().navigableKeySet();
+        }
+
+        Iterator<K> keyIterator() {
+            return isDescending ?
+                m.new KeyIterator(hiNode(), lo, loInclusive, true) :
+                m.new KeyIterator(loNode(), hi, hiInclusive, false);
+        }
+
+        Iterator<V> valueIterator() {
+            return isDescending ?
+                m.new ValueIterator(hiNode(), lo, loInclusive, true) :
+                m.new ValueIterator(loNode(), hi, hiInclusive, false);
+        }
+
+        Iterator<Map.Entry<K,V>> entryIterator() {
+            return isDescending ?
+                m.new EntryIterator(hiNode(), lo, loInclusive, true) :
+                m.new EntryIterator(loNode(), hi, hiInclusive, false);
+        }
+    }
+
+    /* ---------------- Serialization -------------- */
+
+    /**
+     * Saves the state of the {@code BTreeMap} instance to a stream (i.e.,
+     * serializes it).
+     *
+     * @serialData The <em>size</em> of the BTreeMap (the number of
+     *             key-value mappings) is emitted (int), followed by the key
+     *             (Object) and value (Object) for each key-value mapping
+     *             represented by the BTreeMap.  The key-value mappings are
+     *             emitted in key-order (as determined by the BTreeMap's
+     *             Comparator, or by the keys' natural ordering if the
+     *             BTreeMap has no Comparator).
+     */
+    private void writeObject(java.io.ObjectOutputStream s)
+        throws java.io.IOException {
+        // Write out the Comparator and any hidden stuff
+        s.defaultWriteObject();
+
+        // Write out size (number of Mappings)
+        s.writeInt(size);
+
+        // Write out keys and values (alternating)
+        for (Leaf l = head; l != null; l = l.next) {
+            for (int i = 0, n = l.size; i < n; ++i) {
+                s.writeObject(l.keys[i]);
+                s.writeObject(l.vals[i]);
+            }
+        }
+    }
+
+    /**
+     * Reconstitutes the {@code BTreeMap} instance from a stream (i.e.,
+     * deserializes it).
+     */
+    private void readObject(final java.io.ObjectInputStream s)
+        throws java.io.IOException, ClassNotFoundException {
+        // Read in the Comparator and any hidden stuff
+        s.defaultReadObject();
+
+        // Read in size
+        int size = s.readInt();
+        if (size < 0)
+            throw new java.io.InvalidObjectException("Illegal size: " + size);
+
+        buildFromSorted(size, null, s);
+    }
+}
@@ -0,0 +1,759 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+/**
+ * B+-tree map from primitive <tt>long</tt> keys to object values, kept in
+ * ascending key order.  This is the primitive-key counterpart of {@link
+ * BTreeMap}, with the same node layout and balancing, but keys are held
+ * unboxed in a {@code long[]} per node, so a search compares keys within
+ * one small array per level of the tree without dereferencing any key
+ * objects.
+ *
+ * <p>A map constructed from arrays of keys in ascending order and their
+ * values is bulk-loaded in linear time into almost completely full nodes,
+ * as are maps grown by inserting ascending keys.
+ *
+ * <p>This map permits <tt>null</tt> values.  Methods that find the key
+ * nearest to a given key return an {@link OptionalLong}, which is empty if
+ * there is no such key.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * If multiple threads access the map concurrently, and at least one of
+ * them modifies it, it must be synchronized externally.  An action passed
+ * to one of the {@code forEach} methods must not modify the map.
+ *
+ * @param <V> the type of mapped values
+ *
+ * @see BTreeMap
+ * @see LongHashMap
+ * @since 9
+ */
+public class LongBTreeMap<V> {
+
+    /** The maximum number of keys in a leaf, as for {@link BTreeMap}. */
+    static final int NODE_CAPACITY = BTreeMap.NODE_CAPACITY;
+
+    /** The size below which non-root nodes are rebalanced. */
+    static final int MIN_FILL = BTreeMap.MIN_FILL;
+
+    /*
+     * The tree is organized exactly as in BTreeMap, to which see for an
+     * account of the algorithms; only the key arrays differ.
+     */
+
+    static class Node {
+        final long[] keys;
+        int size;
+        Node(int capacity) {
+            keys = new long[capacity];
+        }
+    }
+
+    static final class Leaf extends Node {
+        final Object[] vals;
+        Leaf prev, next;
+        Leaf() {
+            super(NODE_CAPACITY);
+            vals = new Object[NODE_CAPACITY];
+        }
+    }
+
+    static final class Inner extends Node {
+        final Node[] children;
+        Inner() {
+            super(NODE_CAPACITY - 1);
+            children = new Node[NODE_CAPACITY];
+        }
+    }
+
+    /** The root of the tree; a (possibly empty) leaf if height is 0. */
+    Node root;
+
+    /** The number of inner levels above the leaves. */
+    int height;
+
+    /** The first and last leaves. */
+    Leaf head, tail;
+
+    /** The number of key-value mappings contained in this map. */
+    int size;
+
+    /**
+     * Constructs an empty map.
+     */
+    public LongBTreeMap() {
+        initEmpty();
+    }
+
+    /**
+     * Constructs a map holding the given keys, which must be in strictly
+     * ascending order, mapped to the values at the same indices.  The map
+     * is bulk-loaded in linear time.
+     *
+     * @param keys the keys, in strictly ascending order
+     * @param values the values of the keys
+     * @throws IllegalArgumentException if the arrays differ in length, or
+     *         the keys are not in strictly ascending order
+     * @throws NullPointerException if either array is null
+     */
+    public LongBTreeMap(long[] keys, V[] values) {
+        int size = keys.length;
+        if (values.length != size)
+            throw new IllegalArgumentException("Lengths differ");
+        for (int i = 1; i < size; ++i) {
+            if (keys[i - 1] >= keys[i])
+                throw new IllegalArgumentException("Keys not ascending at " + i);
+        }
+        if (size == 0) {
+            initEmpty();
+            return;
+        }
+        int count = (size + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        Node[] level = new Node[count];
+        long[] mins = new long[count];
+        Leaf prev = null;
+        for (int j = 0, off = 0; j < count; ++j) {
+            int n = (size - off) / (count - j);
+            Leaf l = new Leaf();
+            System.arraycopy(keys, off, l.keys, 0, n);
+            System.arraycopy(values, off, l.vals, 0, n);
+            off += n;
+            l.size = n;
+            if ((l.prev = prev) != null)
+                prev.next = l;
+            prev = l;
+            level[j] = l;
+            mins[j] = l.keys[0];
+        }
+        head = (Leaf)level[0];
+        tail = prev;
+        int h = 0;
+        while (count > 1) {
+            int parents = (count + NODE_CAPACITY - 1) / NODE_CAPACITY;
+            for (int j = 0, c = 0, rem = count; j < parents; ++j) {
+                int n = rem / (parents - j);
+                rem -= n;
+                Inner p = new Inner();
+                long min = mins[c];
+                for (int i = 0; i < n; ++i, ++c) {
+                    p.children[i] = level[c];
+                    if (i > 0)
+                        p.keys[i - 1] = mins[c];
+                }
+                p.size = n;
+                level[j] = p;
+                mins[j] = min;
+            }
+            count = parents;
+            ++h;
+        }
+        root = level[0];
+        height = h;
+        this.size = size;
+    }
+
+    private void initEmpty() {
+        Leaf l = new Leaf();
+        root = head = tail = l;
+        height = 0;
+        size = 0;
+    }
+
+    /* ---------------- Searching -------------- */
+
+    /**
+     * Searches the first n keys of the array for the given key, returning
+     * its index if found, else (-(insertion point) - 1).
+     */
+    static int search(long[] keys, int n, long key) {
+        int lo = 0, hi = n - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long k = keys[mid];
+            if (k < key)
+                lo = mid + 1;
+            else if (k > key)
+                hi = mid - 1;
+            else
+                return mid;
+        }
+        return -(lo + 1);
+    }
+
+    static int childIndex(Inner p, long key) {
+        int i = search(p.keys, p.size - 1, key);
+        return (i >= 0) ? i + 1 : -i - 1;
+    }
+
+    final Leaf findLeaf(long key) {
+        Node n = root;
+        for (int h = height; h > 0; --h) {
+            Inner p = (Inner)n;
+            n = p.children[childIndex(p, key)];
+        }
+        return (Leaf)n;
+    }
+
+    private void descend(long key, Inner[] path, int[] idx) {
+        Node n = root;
+        for (int d = 0; d < height; ++d) {
+            Inner p = (Inner)n;
+            int ci = childIndex(p, key);
+            path[d] = p;
+            idx[d] = ci;
+            n = p.children[ci];
+        }
+    }
+
+    /**
+     * Returns the nearest key below (if lower), else above, the given
+     * key, or equal to it if inclusive.
+     */
+    private OptionalLong nearKey(long key, boolean lower, boolean inclusive) {
+        Leaf l = findLeaf(key);
+        int i = search(l.keys, l.size, key);
+        if (i >= 0) {
+            if (!inclusive)
+                i = lower ? i - 1 : i + 1;
+        }
+        else {
+            i = -i - 1;
+            if (lower)
+                --i;
+        }
+        if (i < 0) {
+            if ((l = l.prev) == null)
+                return OptionalLong.empty();
+            i = l.size - 1;
+        }
+        else if (i >= l.size) {
+            if ((l = l.next) == null)
+                return OptionalLong.empty();
+            i = 0;
+        }
+        return OptionalLong.of(l.keys[i]);
+    }
+
+    /* ---------------- Map operations -------------- */
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns <tt>true</tt> if this map contains no key-value mappings.
+     *
+     * @return <tt>true</tt> if this map contains no key-value mappings
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code null} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the mapped value, or {@code null} if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        Leaf l = findLeaf(key);
+        int i = search(l.keys, l.size, key);
+        return (i >= 0) ? (V)l.vals[i] : null;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the default mapping of the key
+     * @return the mapped value, or {@code defaultValue} if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(long key, V defaultValue) {
+        Leaf l = findLeaf(key);
+        int i = search(l.keys, l.size, key);
+        return (i >= 0) ? (V)l.vals[i] : defaultValue;
+    }
+
+    /**
+     * Returns <tt>true</tt> if this map contains a mapping for the
+     * specified key.
+     *
+     * @param key the key whose presence in this map is to be tested
+     * @return <tt>true</tt> if this map contains a mapping for the key
+     */
+    public boolean containsKey(long key) {
+        Leaf l = findLeaf(key);
+        return search(l.keys, l.size, key) >= 0;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old
+     * value is replaced.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with <tt>key</tt>, or
+     *         <tt>null</tt> if there was no mapping for <tt>key</tt>
+     */
+    public V put(long key, V value) {
+        return putVal(key, value, false);
+    }
+
+    /**
+     * If the specified key is not already associated with a value,
+     * associates it with the given value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the current value associated with <tt>key</tt>, or
+     *         <tt>null</tt> if there was no mapping for <tt>key</tt>
+     */
+    public V putIfAbsent(long key, V value) {
+        return putVal(key, value, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    final V putVal(long key, V value, boolean onlyIfAbsent) {
+        Leaf l = findLeaf(key);
+        int i = search(l.keys, l.size, key);
+        if (i >= 0) {
+            V old = (V)l.vals[i];
+            if (!onlyIfAbsent)
+                l.vals[i] = value;
+            return old;
+        }
+        insert(l, -i - 1, key, value);
+        return null;
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param key key whose mapping is to be removed from the map
+     * @return the previous value associated with <tt>key</tt>, or
+     *         <tt>null</tt> if there was no mapping for <tt>key</tt>
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        Leaf l = findLeaf(key);
+        int i = search(l.keys, l.size, key);
+        if (i < 0)
+            return null;
+        V old = (V)l.vals[i];
+        deleteAt(l, i);
+        return old;
+    }
+
+    /**
+     * Removes all of the mappings from this map.
+     */
+    public void clear() {
+        initEmpty();
+    }
+
+    /**
+     * Returns the lowest key in this map.
+     *
+     * @return the lowest key
+     * @throws NoSuchElementException if this map is empty
+     */
+    public long firstKey() {
+        if (size == 0)
+            throw new NoSuchElementException();
+        return head.keys[0];
+    }
+
+    /**
+     * Returns the highest key in this map.
+     *
+     * @return the highest key
+     * @throws NoSuchElementException if this map is empty
+     */
+    public long lastKey() {
+        if (size == 0)
+            throw new NoSuchElementException();
+        Leaf l = tail;
+        return l.keys[l.size - 1];
+    }
+
+    /**
+     * Returns the greatest key strictly less than the given key.
+     *
+     * @param key the key
+     * @return the greatest key less than {@code key}, or an empty
+     *         {@code OptionalLong} if there is no such key
+     */
+    public OptionalLong lowerKey(long key) {
+        return nearKey(key, true, false);
+    }
+
+    /**
+     * Returns the greatest key less than or equal to the given key.
+     *
+     * @param key the key
+     * @return the greatest key less than or equal to {@code key}, or an
+     *         empty {@code OptionalLong} if there is no such key
+     */
+    public OptionalLong floorKey(long key) {
+        return nearKey(key, true, true);
+    }
+
+    /**
+     * Returns the least key greater than or equal to the given key.
+     *
+     * @param key the key
+     * @return the least key greater than or equal to {@code key}, or an
+     *         empty {@code OptionalLong} if there is no such key
+     */
+    public OptionalLong ceilingKey(long key) {
+        return nearKey(key, false, true);
+    }
+
+    /**
+     * Returns the least key strictly greater than the given key.
+     *
+     * @param key the key
+     * @return the least key greater than {@code key}, or an empty
+     *         {@code OptionalLong} if there is no such key
+     */
+    public OptionalLong higherKey(long key) {
+        return nearKey(key, false, false);
+    }
+
+    /**
+     * Returns a new array containing the keys of this map, in ascending
+     * order.
+     *
+     * @return the keys of this map
+     */
+    public long[] keys() {
+        long[] a = new long[size];
+        int n = 0;
+        for (Leaf l = head; l != null; l = l.next) {
+            System.arraycopy(l.keys, 0, a, n, l.size);
+            n += l.size;
+        }
+        return a;
+    }
+
+    /**
+     * Performs the given action for each mapping in this map, in ascending
+     * key order, until all mappings have been processed or the action
+     * throws an exception.
+     *
+     * @param action The action to be performed for each mapping
+     * @throws NullPointerException if the specified action is null
+     */
+    public void forEach(LongHashMap.EntryConsumer<? super V> action) {
+        if (action == null)
+            throw new NullPointerException();
+        forEachFrom(head, 0, Long.MAX_VALUE, action);
+    }
+
+    /**
+     * Performs the given action, in ascending key order, for each mapping
+     * whose key is at least {@code fromKey} and less than {@code toKey}.
+     *
+     * @param fromKey low endpoint (inclusive) of the keys
+     * @param toKey high endpoint (exclusive) of the keys
+     * @param action The action to be performed for each mapping
+     * @throws NullPointerException if the specified action is null
+     */
+    public void forEach(long fromKey, long toKey,
+                        LongHashMap.EntryConsumer<? super V> action) {
+        if (action == null)
+            throw new NullPointerException();
+        if (fromKey < toKey) {
+            Leaf l = findLeaf(fromKey);
+            int i = search(l.keys, l.size, fromKey);
+            forEachFrom(l, (i >= 0) ? i : -i - 1, toKey - 1, action);
+        }
+    }
+
+    /**
+     * Applies the action to the mappings from index i of leaf l up to and
+     * including key last.
+     */
+    @SuppressWarnings("unchecked")
+    private static <V> void forEachFrom(Leaf l, int i, long last,
+                                        LongHashMap.EntryConsumer<? super V> action) {
+        for (; l != null; l = l.next, i = 0) {
+            long[] ks = l.keys;
+            Object[] vs = l.vals;
+            for (int n = l.size; i < n; ++i) {
+                long k = ks[i];
+                if (k > last)
+                    return;
+                action.accept(k, (V)vs[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns a string representation of this map, in the same format as
+     * {@link AbstractMap#toString}.
+     *
+     * @return a string representation of this map
+     */
+    public String toString() {
+        StringBuilder sb = new StringBuilder().append('{');
+        forEach((k, v) -> {
+            if (sb.length() > 1)
+                sb.append(',').append(' ');
+            sb.append(k).append('=').append(v == this ? "(this Map)" : v);
+        });
+        return sb.append('}').toString();
+    }
+
+    /* ---------------- Insertion -------------- */
+
+    private void insert(Leaf l, int i, long key, Object value) {
+        ++size;
+        if (l.size < NODE_CAPACITY) {
+            insertAt(l, i, key, value);
+            return;
+        }
+        int n = l.size;
+        boolean append = (l.next == null && i == n);
+        int keep = append ? n : (n + 1) >>> 1;
+        Leaf r = new Leaf();
+        if (i < keep) {
+            moveEntries(l, keep - 1, r, 0, n - keep + 1);
+            insertAt(l, i, key, value);
+        }
+        else {
+            moveEntries(l, keep, r, 0, n - keep);
+            insertAt(r, i - keep, key, value);
+        }
+        Leaf nx = l.next;
+        r.prev = l;
+        r.next = nx;
+        if (nx != null)
+            nx.prev = r;
+        else
+            tail = r;
+        l.next = r;
+        addChild(l.keys[0], r.keys[0], r, append);
+    }
+
+    private void addChild(long key, long sep, Node right, boolean append) {
+        int h = height;
+        if (h > 0) {
+            Inner[] path = new Inner[h];
+            int[] idx = new int[h];
+            descend(key, path, idx);
+            for (int d = h - 1; d >= 0; --d) {
+                Inner p = path[d];
+                int ci = idx[d];
+                if (p.size < NODE_CAPACITY) {
+                    insertChild(p, ci, sep, right);
+                    return;
+                }
+                Inner q = new Inner();
+                sep = splitInner(p, ci, sep, right, q,
+                                 append && ci == NODE_CAPACITY - 1);
+                right = q;
+            }
+        }
+        Inner r = new Inner();
+        r.children[0] = root;
+        r.children[1] = right;
+        r.keys[0] = sep;
+        r.size = 2;
+        root = r;
+        ++height;
+    }
+
+    private static long splitInner(Inner p, int ci, long sep, Node c,
+                                   Inner q, boolean append) {
+        int n = p.size;
+        long[] ks = new long[n];
+        Node[] cs = new Node[n + 1];
+        System.arraycopy(p.children, 0, cs, 0, ci + 1);
+        cs[ci + 1] = c;
+        System.arraycopy(p.children, ci + 1, cs, ci + 2, n - ci - 1);
+        System.arraycopy(p.keys, 0, ks, 0, ci);
+        ks[ci] = sep;
+        System.arraycopy(p.keys, ci, ks, ci + 1, n - 1 - ci);
+        int keep = append ? n - 1 : (n + 1) >>> 1;
+        System.arraycopy(cs, 0, p.children, 0, keep);
+        Arrays.fill(p.children, keep, n, null);
+        System.arraycopy(ks, 0, p.keys, 0, keep - 1);
+        p.size = keep;
+        System.arraycopy(cs, keep, q.children, 0, n + 1 - keep);
+        System.arraycopy(ks, keep, q.keys, 0, n - keep);
+        q.size = n + 1 - keep;
+        return ks[keep - 1];
+    }
+
+    private static void insertAt(Leaf l, int i, long key, Object value) {
+        int n = l.size;
+        System.arraycopy(l.keys, i, l.keys, i + 1, n - i);
+        System.arraycopy(l.vals, i, l.vals, i + 1, n - i);
+        l.keys[i] = key;
+        l.vals[i] = value;
+        l.size = n + 1;
+    }
+
+    private static void insertChild(Inner p, int ci, long sep, Node c) {
+        int n = p.size;
+        System.arraycopy(p.children, ci + 1, p.children, ci + 2, n - ci - 1);
+        System.arraycopy(p.keys, ci, p.keys, ci + 1, n - 1 - ci);
+        p.children[ci + 1] = c;
+        p.keys[ci] = sep;
+        p.size = n + 1;
+    }
+
+    private static void moveEntries(Leaf src, int from, Leaf dst, int to,
+                                    int len) {
+        System.arraycopy(dst.keys, to, dst.keys, to + len, dst.size - to);
+        System.arraycopy(dst.vals, to, dst.vals, to + len, dst.size - to);
+        System.arraycopy(src.keys, from, dst.keys, to, len);
+        System.arraycopy(src.vals, from, dst.vals, to, len);
+        int n = src.size;
+        System.arraycopy(src.keys, from + len, src.keys, from, n - from - len);
+        System.arraycopy(src.vals, from + len, src.vals, from, n - from - len);
+        Arrays.fill(src.vals, n - len, n, null);
+        src.size = n - len;
+        dst.size += len;
+    }
+
+    /* ---------------- Deletion -------------- */
+
+    private void deleteAt(Leaf l, int i) {
+        --size;
+        long key = l.keys[i];
+        int n = l.size - 1;
+        System.arraycopy(l.keys, i + 1, l.keys, i, n - i);
+        System.arraycopy(l.vals, i + 1, l.vals, i, n - i);
+        l.vals[n] = null;
+        l.size = n;
+        if (n < MIN_FILL && height > 0)
+            rebalance(key);
+    }
+
+    private void rebalance(long key) {
+        int h = height;
+        Inner[] path = new Inner[h];
+        int[] idx = new int[h];
+        descend(key, path, idx);
+        for (int d = h - 1; d >= 0; --d) {
+            Inner p = path[d];
+            int ci = idx[d];
+            if (p.children[ci].size >= MIN_FILL)
+                break;
+            int j = (ci > 0) ? ci - 1 : ci;
+            Node a = p.children[j], b = p.children[j + 1];
+            boolean leaves = (d == h - 1);
+            if (a.size + b.size < NODE_CAPACITY)
+                merge(p, j, leaves);
+            else if (leaves)
+                balanceLeaves(p, j, (Leaf)a, (Leaf)b);
+            else
+                balanceInner(p, j, (Inner)a, (Inner)b);
+        }
+        while (height > 0 && root.size == 1) {
+            root = ((Inner)root).children[0];
+            --height;
+        }
+    }
+
+    private static void balanceLeaves(Inner p, int j, Leaf a, Leaf b) {
+        int keep = (a.size + b.size) >>> 1;
+        if (a.size > keep)
+            moveEntries(a, keep, b, 0, a.size - keep);
+        else
+            moveEntries(b, 0, a, a.size, keep - a.size);
+        p.keys[j] = b.keys[0];
+    }
+
+    private static void balanceInner(Inner p, int j, Inner a, Inner b) {
+        int an = a.size, bn = b.size;
+        int keep = (an + bn) >>> 1;
+        if (an > keep) {                // move k children from a to b
+            int k = an - keep;
+            System.arraycopy(b.children, 0, b.children, k, bn);
+            System.arraycopy(b.keys, 0, b.keys, k, bn - 1);
+            System.arraycopy(a.children, keep, b.children, 0, k);
+            System.arraycopy(a.keys, keep, b.keys, 0, k - 1);
+            b.keys[k - 1] = p.keys[j];
+            p.keys[j] = a.keys[keep - 1];
+            Arrays.fill(a.children, keep, an, null);
+            a.size = keep;
+            b.size = bn + k;
+        }
+        else {                          // move k children from b to a
+            int k = keep - an;
+            a.keys[an - 1] = p.keys[j];
+            System.arraycopy(b.keys, 0, a.keys, an, k - 1);
+            System.arraycopy(b.children, 0, a.children, an, k);
+            p.keys[j] = b.keys[k - 1];
+            System.arraycopy(b.children, k, b.children, 0, bn - k);
+            System.arraycopy(b.keys, k, b.keys, 0, bn - 1 - k);
+            Arrays.fill(b.children, bn - k, bn, null);
+            a.size = keep;
+            b.size = bn - k;
+        }
+    }
+
+    private void merge(Inner p, int j, boolean leaves) {
+        Node a = p.children[j], b = p.children[j + 1];
+        if (leaves) {
+            Leaf la = (Leaf)a, lb = (Leaf)b;
+            moveEntries(lb, 0, la, la.size, lb.size);
+            Leaf nx = lb.next;
+            la.next = nx;
+            if (nx != null)
+                nx.prev = la;
+            else
+                tail = la;
+        }
+        else {
+            Inner ia = (Inner)a, ib = (Inner)b;
+            int an = ia.size, bn = ib.size;
+            ia.keys[an - 1] = p.keys[j];
+            System.arraycopy(ib.keys, 0, ia.keys, an, bn - 1);
+            System.arraycopy(ib.children, 0, ia.children, an, bn);
+            ia.size = an + bn;
+        }
+        int n = p.size;
+        System.arraycopy(p.keys, j + 1, p.keys, j, n - 2 - j);
+        System.arraycopy(p.children, j + 2, p.children, j + 1, n - 2 - j);
+        p.children[n - 1] = null;
+        p.size = n - 1;
+    }
+}
@@ -0,0 +1,511 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+import java.util.function.LongFunction;
+
+/**
+ * Hash table mapping primitive <tt>long</tt> keys to object values.  Unlike
+ * a {@code HashMap<Long,V>}, keys are never boxed and no per-entry node
+ * is allocated: keys and values are held in two parallel arrays that are
+ * probed linearly (open addressing).  Removal uses backward-shift deletion,
+ * so no tombstones accumulate and lookups never slow down after churn.
+ *
+ * <p>The table follows the same sizing policy as {@link HashMap}: its
+ * length is always a power of two, and it is doubled whenever the number
+ * of mappings exceeds the product of the load factor and the current
+ * capacity.  Keys are scrambled with a multiplicative hash and then spread
+ * with the same xor-shift used by {@code HashMap.hash}, so that sequences
+ * of keys that differ only in their high bits do not collide.
+ * Since the table must keep an empty slot, a map whose table has reached
+ * the maximum capacity of 2<sup>30</sup> holds at most 2<sup>30</sup>-1
+ * keys besides <tt>0</tt>; inserting another throws {@link
+ * IllegalStateException} and leaves the map unchanged.
+ *
+ * <p>This map permits <tt>null</tt> values.  The key <tt>0</tt> marks an
+ * empty slot in the table and is therefore stored out of line; it is
+ * otherwise a perfectly ordinary key.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * If multiple threads access the map concurrently, and at least one of
+ * them modifies it, it must be synchronized externally.
+ *
+ * @param <V> the type of mapped values
+ *
+ * @see HashMap
+ * @see IntHashMap
+ * @see LongLongHashMap
+ * @since 9
+ */
+public class LongHashMap<V> {
+
+    /**
+     * The default initial capacity - MUST be a power of two.
+     */
+    static final int DEFAULT_INITIAL_CAPACITY = 1 << 4;
+
+    /**
+     * The maximum capacity, as for {@link HashMap}.
+     */
+    static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * The load factor used when none specified in constructor.
+     */
+    static final float DEFAULT_LOAD_FACTOR = 0.75f;
+
+    /**
+     * The keys, indexed in parallel with {@link #vals}.  A zero key marks
+     * an unused slot.  Length is always a power of two.
+     */
+    long[] keys;
+
+    /**
+     * The values, indexed in parallel with {@link #keys}.
+     */
+    Object[] vals;
+
+    /**
+     * Whether the key zero is currently mapped, and its value.
+     */
+    boolean hasZeroKey;
+    Object zeroValue;
+
+    /**
+     * The number of key-value mappings contained in this map.
+     */
+    int size;
+
+    /**
+     * The number of keys in the table, not counting the out-of-line zero
+     * key, at which the next insertion resizes (capacity * load factor).
+     * At the maximum capacity this is one less than the capacity, so that
+     * the table always keeps an empty slot to end every probe.
+     */
+    int threshold;
+
+    /**
+     * The load factor for the hash table.
+     */
+    final float loadFactor;
+
+    /**
+     * Constructs an empty map with the specified initial capacity and load
+     * factor.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor, which must lie in (0, 1)
+     * @throws IllegalArgumentException if the initial capacity is negative
+     *         or the load factor is not in (0, 1)
+     */
+    public LongHashMap(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                                               initialCapacity);
+        if (!(loadFactor > 0.0f && loadFactor < 1.0f))
+            throw new IllegalArgumentException("Illegal load factor: " +
+                                               loadFactor);
+        this.loadFactor = loadFactor;
+        int cap = HashMap.tableSizeFor(
+            (int)Math.min((long)Math.ceil(initialCapacity / loadFactor),
+                          MAXIMUM_CAPACITY));
+        allocate(Math.max(cap, 2));
+    }
+
+    /**
+     * Constructs an empty map that can hold the specified number of
+     * mappings without resizing, using the default load factor (0.75).
+     *
+     * @param  initialCapacity the expected number of mappings
+     * @throws IllegalArgumentException if the initial capacity is negative
+     */
+    public LongHashMap(int initialCapacity) {
+        this(initialCapacity, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty map with the default initial capacity (16) and
+     * the default load factor (0.75).
+     */
+    public LongHashMap() {
+        this.loadFactor = DEFAULT_LOAD_FACTOR;
+        allocate(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * Spreads the key bits.  The multiplication by the 64-bit golden-ratio
+     * constant scatters runs of nearby keys; the two halves are then
+     * folded together, and the result spread as by {@code HashMap.hash},
+     * since only the low bits are used for indexing.
+     */
+    static int hash(long key) {
+        long x = key * 0x9E3779B97F4A7C15L;
+        int h = (int)(x ^ (x >>> 32));
+        return h ^ (h >>> 16);
+    }
+
+    private void allocate(int cap) {
+        keys = new long[cap];
+        vals = new Object[cap];
+        threshold = (cap >= MAXIMUM_CAPACITY) ? cap - 1 : (int)(cap * loadFactor);
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns <tt>true</tt> if this map contains no key-value mappings.
+     *
+     * @return <tt>true</tt> if this map contains no key-value mappings
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the table index holding the given non-zero key, or -1.
+     */
+    final int indexOf(long key) {
+        long[] ks = keys;
+        int mask = ks.length - 1;
+        for (int i = hash(key) & mask;; i = (i + 1) & mask) {
+            long k = ks[i];
+            if (k == key)
+                return i;
+            if (k == 0)
+                return -1;
+        }
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code null} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the mapped value, or {@code null} if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        if (key == 0)
+            return (V)zeroValue;
+        int i = indexOf(key);
+        return (i < 0) ? null : (V)vals[i];
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the default mapping of the key
+     * @return the mapped value, or {@code defaultValue} if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(long key, V defaultValue) {
+        if (key == 0)
+            return hasZeroKey ? (V)zeroValue : defaultValue;
+        int i = indexOf(key);
+        return (i < 0) ? defaultValue : (V)vals[i];
+    }
+
+    /**
+     * Returns <tt>true</tt> if this map contains a mapping for the
+     * specified key.
+     *
+     * @param key the key whose presence in this map is to be tested
+     * @return <tt>true</tt> if this map contains a mapping for the key
+     */
+    public boolean containsKey(long key) {
+        return (key == 0) ? hasZeroKey : indexOf(key) >= 0;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old
+     * value is replaced.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with <tt>key</tt>, or
+     *         <tt>null</tt> if there was no mapping for <tt>key</tt>
+     */
+    public V put(long key, V value) {
+        return putVal(key, value, false);
+    }
+
+    /**
+     * If the specified key is not already associated with a value,
+     * associates it with the given value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the current value associated with <tt>key</tt>, or
+     *         <tt>null</tt> if there was no mapping for <tt>key</tt>
+     */
+    public V putIfAbsent(long key, V value) {
+        return putVal(key, value, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    final V putVal(long key, V value, boolean onlyIfAbsent) {
+        if (key == 0) {
+            Object old = zeroValue;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                ++size;
+            }
+            else if (onlyIfAbsent)
+                return (V)old;
+            zeroValue = value;
+            return (V)old;
+        }
+        long[] ks = keys;
+        int mask = ks.length - 1;
+        int i = hash(key) & mask;
+        for (long k; (k = ks[i]) != 0; i = (i + 1) & mask) {
+            if (k == key) {
+                Object old = vals[i];
+                if (!onlyIfAbsent)
+                    vals[i] = value;
+                return (V)old;
+            }
+        }
+        if (size - (hasZeroKey ? 1 : 0) >= threshold) {
+            // Grow, or fail, before the key is stored, so that a full map
+            // is left unchanged and the table keeps an empty slot
+            resize();
+            ks = keys;
+            mask = ks.length - 1;
+            for (i = hash(key) & mask; ks[i] != 0; i = (i + 1) & mask)
+                ;
+        }
+        ks[i] = key;
+        vals[i] = value;
+        ++size;
+        return null;
+    }
+
+    /**
+     * If the specified key is not already associated with a value,
+     * attempts to compute its value using the given mapping function and
+     * enters it into this map unless {@code null}.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param mappingFunction the function to compute a value
+     * @return the current (existing or computed) value associated with
+     *         the specified key, or null if the computed value is null
+     * @throws NullPointerException if the mapping function is null
+     */
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(long key,
+                             LongFunction<? extends V> mappingFunction) {
+        if (mappingFunction == null)
+            throw new NullPointerException();
+        V v;
+        if (key == 0) {
+            if (hasZeroKey && zeroValue != null)
+                return (V)zeroValue;
+        }
+        else {
+            int i = indexOf(key);
+            if (i >= 0 && (v = (V)vals[i]) != null)
+                return v;
+        }
+        if ((v = mappingFunction.apply(key)) != null)
+            putVal(key, v, false);
+        return v;
+    }
+
+    /**
+     * Doubles the table and reinserts every key.  Since keys are stored
+     * inline there is nothing to preserve but the probe order, so unlike
+     * {@code HashMap.resize} no lo/hi split is needed.
+     *
+     * @throws IllegalStateException if the table is already at the
+     *         maximum capacity
+     */
+    final void resize() {
+        long[] oldKeys = keys;
+        Object[] oldVals = vals;
+        int oldCap = oldKeys.length;
+        if (oldCap >= MAXIMUM_CAPACITY)
+            throw new IllegalStateException("Map is full");
+        allocate(oldCap << 1);
+        long[] ks = keys;
+        Object[] vs = vals;
+        int mask = ks.length - 1;
+        for (int j = 0; j < oldCap; ++j) {
+            long k = oldKeys[j];
+            if (k != 0) {
+                int i = hash(k) & mask;
+                while (ks[i] != 0)
+                    i = (i + 1) & mask;
+                ks[i] = k;
+                vs[i] = oldVals[j];
+            }
+        }
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param  key key whose mapping is to be removed from the map
+     * @return the previous value associated with <tt>key</tt>, or
+     *         <tt>null</tt> if there was no mapping for <tt>key</tt>
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        if (key == 0) {
+            Object old = zeroValue;
+            if (hasZeroKey) {
+                hasZeroKey = false;
+                zeroValue = null;
+                --size;
+            }
+            return (V)old;
+        }
+        int i = indexOf(key);
+        if (i < 0)
+            return null;
+        Object old = vals[i];
+        removeAt(i);
+        return (V)old;
+    }
+
+    /**
+     * Deletes slot i by shifting back any later entries of the same probe
+     * run that would otherwise become unreachable.
+     */
+    final void removeAt(int i) {
+        long[] ks = keys;
+        Object[] vs = vals;
+        int mask = ks.length - 1;
+        long k;
+        for (int j = (i + 1) & mask; (k = ks[j]) != 0; j = (j + 1) & mask) {
+            int home = hash(k) & mask;
+            // move k back unless its home lies cyclically in (i, j]
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                ks[i] = k;
+                vs[i] = vs[j];
+                i = j;
+            }
+        }
+        ks[i] = 0;
+        vs[i] = null;
+        --size;
+    }
+
+    /**
+     * Removes all of the mappings from this map.
+     */
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(keys, 0);
+            Arrays.fill(vals, null);
+            hasZeroKey = false;
+            zeroValue = null;
+            size = 0;
+        }
+    }
+
+    /**
+     * Returns a new array containing the keys of this map, in no
+     * particular order.
+     *
+     * @return the keys of this map
+     */
+    public long[] keys() {
+        long[] a = new long[size];
+        int n = 0;
+        if (hasZeroKey)
+            a[n++] = 0;
+        for (long k : keys) {
+            if (k != 0)
+                a[n++] = k;
+        }
+        return a;
+    }
+
+    /**
+     * Performs the given action for each mapping in this map until all
+     * mappings have been processed or the action throws an exception.
+     *
+     * @param action The action to be performed for each mapping
+     * @throws NullPointerException if the specified action is null
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> action) {
+        if (action == null)
+            throw new NullPointerException();
+        if (hasZeroKey)
+            action.accept(0, (V)zeroValue);
+        long[] ks = keys;
+        Object[] vs = vals;
+        for (int i = 0; i < ks.length; ++i) {
+            long k = ks[i];
+            if (k != 0)
+                action.accept(k, (V)vs[i]);
+        }
+    }
+
+    /**
+     * Returns a string representation of this map, in the same format as
+     * {@link AbstractMap#toString}.
+     *
+     * @return a string representation of this map
+     */
+    public String toString() {
+        StringBuilder sb = new StringBuilder().append('{');
+        forEach((k, v) -> {
+            if (sb.length() > 1)
+                sb.append(',').append(' ');
+            sb.append(k).append('=').append(v == this ? "(this Map)" : v);
+        });
+        return sb.append('}').toString();
+    }
+
+    /**
+     * An operation accepting a <tt>long</tt> key and its mapped value.
+     *
+     * @param <V> the type of mapped values
+     */
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        /**
+         * Performs this operation on the given mapping.
+         *
+         * @param key the key
+         * @param value the mapped value
+         */
+        void accept(long key, V value);
+    }
+}
@@ -0,0 +1,437 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+/**
+ * Hash table mapping primitive <tt>long</tt> keys to primitive
+ * <tt>long</tt> values.  Compared with a {@code HashMap<Long,Long>} this
+ * map allocates nothing per entry: keys and values live in two parallel
+ * <tt>long</tt> arrays probed linearly, so a mapping costs sixteen bytes
+ * divided by the load factor.  The hashing, sizing and deletion policies
+ * are those of {@link LongHashMap}.
+ *
+ * <p>Since values are primitive there is no <tt>null</tt> to signal an
+ * absent mapping.  Lookup methods that cannot otherwise report absence
+ * return <tt>0</tt>; use {@link #containsKey} or {@link #getOrDefault}
+ * when zero is a meaningful value.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * If multiple threads access the map concurrently, and at least one of
+ * them modifies it, it must be synchronized externally.
+ *
+ * @see HashMap
+ * @see LongHashMap
+ * @since 9
+ */
+public class LongLongHashMap {
+
+    /**
+     * The keys, indexed in parallel with {@link #vals}.  A zero key marks
+     * an unused slot.  Length is always a power of two.
+     */
+    long[] keys;
+
+    /**
+     * The values, indexed in parallel with {@link #keys}.
+     */
+    long[] vals;
+
+    /**
+     * Whether the key zero is currently mapped, and its value.
+     */
+    boolean hasZeroKey;
+    long zeroValue;
+
+    /**
+     * The number of key-value mappings contained in this map.
+     */
+    int size;
+
+    /**
+     * The number of keys in the table, not counting the out-of-line zero
+     * key, at which the next insertion resizes (capacity * load factor).
+     * At the maximum capacity this is one less than the capacity, so that
+     * the table always keeps an empty slot to end every probe.
+     */
+    int threshold;
+
+    /**
+     * The load factor for the hash table.
+     */
+    final float loadFactor;
+
+    /**
+     * Constructs an empty map with the specified initial capacity and load
+     * factor.
+     *
+     * @param  initialCapacity the initial capacity
+     * @param  loadFactor      the load factor, which must lie in (0, 1)
+     * @throws IllegalArgumentException if the initial capacity is negative
+     *         or the load factor is not in (0, 1)
+     */
+    public LongLongHashMap(int initialCapacity, float loadFactor) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Illegal initial capacity: " +
+                                               initialCapacity);
+        if (!(loadFactor > 0.0f && loadFactor < 1.0f))
+            throw new IllegalArgumentException("Illegal load factor: " +
+                                               loadFactor);
+        this.loadFactor = loadFactor;
+        int cap = HashMap.tableSizeFor(
+            (int)Math.min((long)Math.ceil(initialCapacity / loadFactor),
+                          IntHashMap.MAXIMUM_CAPACITY));
+        allocate(Math.max(cap, 2));
+    }
+
+    /**
+     * Constructs an empty map that can hold the specified number of
+     * mappings without resizing, using the default load factor (0.75).
+     *
+     * @param  initialCapacity the expected number of mappings
+     * @throws IllegalArgumentException if the initial capacity is negative
+     */
+    public LongLongHashMap(int initialCapacity) {
+        this(initialCapacity, IntHashMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructs an empty map with the default initial capacity (16) and
+     * the default load factor (0.75).
+     */
+    public LongLongHashMap() {
+        this.loadFactor = IntHashMap.DEFAULT_LOAD_FACTOR;
+        allocate(IntHashMap.DEFAULT_INITIAL_CAPACITY);
+    }
+
+    private void allocate(int cap) {
+        keys = new long[cap];
+        vals = new long[cap];
+        threshold = (cap >= IntHashMap.MAXIMUM_CAPACITY) ? cap - 1 :
+            (int)(cap * loadFactor);
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns <tt>true</tt> if this map contains no key-value mappings.
+     *
+     * @return <tt>true</tt> if this map contains no key-value mappings
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the table index holding the given non-zero key, or -1.
+     */
+    final int indexOf(long key) {
+        long[] ks = keys;
+        int mask = ks.length - 1;
+        for (int i = LongHashMap.hash(key) & mask;; i = (i + 1) & mask) {
+            long k = ks[i];
+            if (k == key)
+                return i;
+            if (k == 0L)
+                return -1;
+        }
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * <tt>0</tt> if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the mapped value, or <tt>0</tt> if there is none
+     */
+    public long get(long key) {
+        return getOrDefault(key, 0L);
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the default mapping of the key
+     * @return the mapped value, or {@code defaultValue} if there is none
+     */
+    public long getOrDefault(long key, long defaultValue) {
+        if (key == 0L)
+            return hasZeroKey ? zeroValue : defaultValue;
+        int i = indexOf(key);
+        return (i < 0) ? defaultValue : vals[i];
+    }
+
+    /**
+     * Returns <tt>true</tt> if this map contains a mapping for the
+     * specified key.
+     *
+     * @param key the key whose presence in this map is to be tested
+     * @return <tt>true</tt> if this map contains a mapping for the key
+     */
+    public boolean containsKey(long key) {
+        return (key == 0L) ? hasZeroKey : indexOf(key) >= 0;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old
+     * value is replaced.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with <tt>key</tt>, or
+     *         <tt>0</tt> if there was no mapping for <tt>key</tt>
+     */
+    public long put(long key, long value) {
+        int i = slotFor(key);
+        if (i < 0) {
+            long old = zeroValue;
+            zeroValue = value;
+            return old;
+        }
+        long old = vals[i];
+        vals[i] = value;
+        return old;
+    }
+
+    /**
+     * Adds the given delta to the value mapped to the specified key,
+     * treating an absent mapping as <tt>0</tt>.  This is the common
+     * counting idiom, performed with a single probe sequence.
+     *
+     * @param key the key whose value is to be adjusted
+     * @param delta the amount to add
+     * @return the updated value
+     */
+    public long addTo(long key, long delta) {
+        int i = slotFor(key);
+        if (i < 0)
+            return zeroValue += delta;
+        return vals[i] += delta;
+    }
+
+    /**
+     * Returns the slot holding the given key, inserting the key with a
+     * zero value if absent, or -1 for the out-of-line zero key.
+     */
+    final int slotFor(long key) {
+        if (key == 0L) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                zeroValue = 0L;
+                ++size;
+            }
+            return -1;
+        }
+        long[] ks = keys;
+        int mask = ks.length - 1;
+        int i = LongHashMap.hash(key) & mask;
+        for (long k; (k = ks[i]) != 0L; i = (i + 1) & mask) {
+            if (k == key)
+                return i;
+        }
+        if (size - (hasZeroKey ? 1 : 0) >= threshold) {
+            // Grow, or fail, before the key is stored, so that a full map
+            // is left unchanged and the table keeps an empty slot
+            resize();
+            ks = keys;
+            mask = ks.length - 1;
+            for (i = LongHashMap.hash(key) & mask; ks[i] != 0L; i = (i + 1) & mask)
+                ;
+        }
+        ks[i] = key;
+        vals[i] = 0L;
+        ++size;
+        return i;
+    }
+
+    /**
+     * Doubles the table and reinserts every key.
+     *
+     * @throws IllegalStateException if the table is already at the
+     *         maximum capacity
+     */
+    final void resize() {
+        long[] oldKeys = keys;
+        long[] oldVals = vals;
+        int oldCap = oldKeys.length;
+        if (oldCap >= IntHashMap.MAXIMUM_CAPACITY)
+            throw new IllegalStateException("Map is full");
+        allocate(oldCap << 1);
+        long[] ks = keys;
+        long[] vs = vals;
+        int mask = ks.length - 1;
+        for (int j = 0; j < oldCap; ++j) {
+            long k = oldKeys[j];
+            if (k != 0L) {
+                int i = LongHashMap.hash(k) & mask;
+                while (ks[i] != 0L)
+                    i = (i + 1) & mask;
+                ks[i] = k;
+                vs[i] = oldVals[j];
+            }
+        }
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param  key key whose mapping is to be removed from the map
+     * @return the previous value associated with <tt>key</tt>, or
+     *         <tt>0</tt> if there was no mapping for <tt>key</tt>
+     */
+    public long remove(long key) {
+        if (key == 0L) {
+            long old = zeroValue;
+            if (hasZeroKey) {
+                hasZeroKey = false;
+                zeroValue = 0L;
+                --size;
+            }
+            return old;
+        }
+        int i = indexOf(key);
+        if (i < 0)
+            return 0L;
+        long old = vals[i];
+        removeAt(i);
+        return old;
+    }
+
+    /**
+     * Deletes slot i by shifting back any later entries of the same probe
+     * run that would otherwise become unreachable.
+     */
+    final void removeAt(int i) {
+        long[] ks = keys;
+        long[] vs = vals;
+        int mask = ks.length - 1;
+        long k;
+        for (int j = (i + 1) & mask; (k = ks[j]) != 0L; j = (j + 1) & mask) {
+            int home = LongHashMap.hash(k) & mask;
+            // move k back unless its home lies cyclically in (i, j]
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                ks[i] = k;
+                vs[i] = vs[j];
+                i = j;
+            }
+        }
+        ks[i] = 0L;
+        vs[i] = 0L;
+        --size;
+    }
+
+    /**
+     * Removes all of the mappings from this map.
+     */
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(keys, 0L);
+            Arrays.fill(vals, 0L);
+            hasZeroKey = false;
+            zeroValue = 0L;
+            size = 0;
+        }
+    }
+
+    /**
+     * Returns a new array containing the keys of this map, in no
+     * particular order.
+     *
+     * @return the keys of this map
+     */
+    public long[] keys() {
+        long[] a = new long[size];
+        int n = 0;
+        if (hasZeroKey)
+            a[n++] = 0L;
+        for (long k : keys) {
+            if (k != 0L)
+                a[n++] = k;
+        }
+        return a;
+    }
+
+    /**
+     * Performs the given action for each mapping in this map until all
+     * mappings have been processed or the action throws an exception.
+     *
+     * @param action The action to be performed for each mapping
+     * @throws NullPointerException if the specified action is null
+     */
+    public void forEach(EntryConsumer action) {
+        if (action == null)
+            throw new NullPointerException();
+        if (hasZeroKey)
+            action.accept(0L, zeroValue);
+        long[] ks = keys;
+        long[] vs = vals;
+        for (int i = 0; i < ks.length; ++i) {
+            long k = ks[i];
+            if (k != 0L)
+                action.accept(k, vs[i]);
+        }
+    }
+
+    /**
+     * Returns a string representation of this map, in the same format as
+     * {@link AbstractMap#toString}.
+     *
+     * @return a string representation of this map
+     */
+    public String toString() {
+        StringBuilder sb = new StringBuilder().append('{');
+        forEach((k, v) -> {
+            if (sb.length() > 1)
+                sb.append(',').append(' ');
+            sb.append(k).append('=').append(v);
+        });
+        return sb.append('}').toString();
+    }
+
+    /**
+     * An operation accepting a <tt>long</tt> key and its <tt>long</tt>
+     * value.
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        /**
+         * Performs this operation on the given mapping.
+         *
+         * @param key the key
+         * @param value the mapped value
+         */
+        void accept(long key, long value);
+    }
+}
@@ -0,0 +1,919 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * A concurrent cache, backed by a {@link ConcurrentHashMap}, that holds
+ * at most a given total <em>weight</em> of entries and optionally
+ * discards entries a fixed time after they were written or last read.
+ *
+ * <p>Retrievals and updates operate directly on the backing map and
+ * never block on one another.  The bookkeeping that the eviction policy
+ * needs is not performed inline: reads are recorded in small bounded
+ * buffers, striped by thread, and writes are queued, and both are
+ * applied to the policy in batches by whichever thread next acquires the
+ * policy lock without waiting.  A read that finds its buffer full is
+ * simply not recorded, which affects only the accuracy of the policy.
+ *
+ * <p>The eviction policy is based on the Window TinyLFU policy described
+ * in <em>TinyLFU: A Highly Efficient Cache Admission Policy</em> by Gil
+ * Einziger, Roy Friedman and Ben Manes (ACM Transactions on Storage,
+ * 2017).  New entries enter a small LRU <em>window</em> holding one
+ * percent of the maximum weight.  Entries leaving the window join the
+ * <em>probation</em> segment of a main space managed as a segmented LRU,
+ * and while the cache is over its maximum weight, each must displace the
+ * coldest entry of the main space to stay, which it does only if it has
+ * been used more often recently, as estimated by a compact frequency
+ * sketch.  Entries read again while on probation move to the
+ * <em>protected</em> segment.  The sketch forgets old counts gradually,
+ * and is seeded at random, so that an adversary cannot choose keys whose
+ * counts collide with those of popular entries.  Compared with plain LRU,
+ * this resists pollution by scans and by keys used only once, while still
+ * adapting to shifts in the workload.
+ *
+ * <p>Each entry's weight is computed once, when it is written, by the
+ * weigher given at construction, and must be non-negative.  The cache
+ * may transiently exceed its maximum weight until pending writes are
+ * applied.  Expired entries are never returned, but may occupy space
+ * until the next maintenance pass; {@link #cleanUp} forces one.
+ *
+ * <p>Hits, misses and evictions are counted with {@link LongAdder}s, so
+ * that collecting statistics adds no contention to the read path.
+ *
+ * <p>Neither keys nor values may be {@code null}.
+ *
+ * @param <K> the type of keys maintained by this cache
+ * @param <V> the type of cached values
+ * @since 9
+ */
+public class BoundedConcurrentCache<K,V> {
+
+    /*
+     * Overview:
+     *
+     * The map holds Nodes, whose values are replaced in place under the
+     * node's monitor.  All policy state (segment lists, weights, the
+     * sketch) is accessed only while holding policyLock, and learns of
+     * map activity through buffers: each read offers its node to one of
+     * the MpscArrayBlockingQueues in readBuffers, chosen by the
+     * ThreadLocalRandom probe as for the cells of LongAdder, and each
+     * write queues an Update.  A reader or writer then tries the lock;
+     * the holder applies the buffered events (all reads before writes:
+     * a read of a node whose addition has not yet been applied is
+     * ignored), expires, and evicts.
+     *
+     * A node's status records whether its addition has been applied
+     * (LIVE) and whether it has since been removed (GONE).  Events may be
+     * applied out of order with respect to map operations, so each is
+     * checked against the status: an addition applied after the removal
+     * of the same node is ignored, and a change re-reads the node's
+     * current weight rather than carrying a delta.
+     *
+     * Because one thread drains each read buffer at a time, under the
+     * lock, they satisfy the single-consumer restriction of
+     * MpscArrayBlockingQueue.
+     */
+
+    /* ---------------- Constants -------------- */
+
+    /** Number of CPUS, to place bounds on the number of read buffers */
+    static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    /** The number of read buffers: a power of two, at most 64. */
+    static final int READ_STRIPES;
+    static {
+        int n = 1;
+        while (n < NCPU && n < 64)
+            n <<= 1;
+        READ_STRIPES = n;
+    }
+
+    /** The capacity of each read buffer. */
+    static final int READ_BUFFER_CAPACITY = 32;
+
+    /** The window holds this fraction of the maximum weight, at least one. */
+    static final int WINDOW_DIVISOR = 100;
+
+    /**
+     * The maximum number of buffered writes applied in one maintenance
+     * pass, so that a stream of writers cannot hold one thread in
+     * maintenance indefinitely.
+     */
+    static final int MAX_UPDATES_PER_PASS = 1 << 10;
+
+    /** Values of {@link Node#segment}. */
+    static final int WINDOW = 0, PROBATION = 1, PROTECTED = 2;
+
+    /** Values of {@link Node#status}. */
+    static final int NEW = 0, LIVE = 1, GONE = 2;
+
+    /** Values of {@link Update#kind}. */
+    static final int ADDED = 0, CHANGED = 1, REMOVED = 2;
+
+    /* ---------------- Nodes -------------- */
+
+    /**
+     * A cache entry.  The value, weight and timestamps are written under
+     * the node's monitor and read without locking; the remaining fields
+     * belong to the policy and are guarded by the policy lock.
+     */
+    static final class Node<K,V> {
+        final K key;
+        volatile V value;
+        volatile int weight;
+        volatile long writeTime;
+        volatile long accessTime;
+        boolean retired;              // removed from the map; guarded by this
+
+        int charged;                  // weight as accounted by the policy
+        int status;                   // NEW, LIVE or GONE
+        int segment;                  // WINDOW, PROBATION or PROTECTED
+        Node<K,V> prev, next;         // within segment, coldest first
+        Node<K,V> older, newer;       // by time of last write
+
+        Node(K key, V value, int weight, long now) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.writeTime = now;
+            this.accessTime = now;
+        }
+    }
+
+    /**
+     * An intrusive doubly-linked list of nodes, through their segment
+     * links, or through their write-order links if {@code byWrite}.
+     */
+    static final class NodeList<K,V> {
+        final boolean byWrite;
+        Node<K,V> first, last;
+
+        NodeList(boolean byWrite) {
+            this.byWrite = byWrite;
+        }
+
+        void addLast(Node<K,V> n) {
+            Node<K,V> l = last;
+            if (byWrite) { n.older = l; n.newer = null; }
+            else { n.prev = l; n.next = null; }
+            if (l == null)
+                first = n;
+            else if (byWrite)
+                l.newer = n;
+            else
+                l.next = n;
+            last = n;
+        }
+
+        void unlink(Node<K,V> n) {
+            Node<K,V> p = byWrite ? n.older : n.prev;
+            Node<K,V> s = byWrite ? n.newer : n.next;
+            if (p == null)
+                first = s;
+            else if (byWrite)
+                p.newer = s;
+            else
+                p.next = s;
+            if (s == null)
+                last = p;
+            else if (byWrite)
+                s.older = p;
+            else
+                s.prev = p;
+            if (byWrite) { n.older = n.newer = null; }
+            else { n.prev = n.next = null; }
+        }
+
+        void moveToBack(Node<K,V> n) {
+            if (n != last) {
+                unlink(n);
+                addLast(n);
+            }
+        }
+    }
+
+    /**
+     * A buffered write, awaiting application to the policy.
+     */
+    static final class Update<K,V> {
+        final Node<K,V> node;
+        final int kind;               // ADDED, CHANGED or REMOVED
+        Update(Node<K,V> node, int kind) {
+            this.node = node;
+            this.kind = kind;
+        }
+    }
+
+    /* ---------------- Frequency sketch -------------- */
+
+    /**
+     * Estimates how often keys have been used recently.  A count-min
+     * sketch: each key hashes to four 4-bit counters, chosen by double
+     * hashing over a single table, and its estimate is the least of
+     * them.  Counters are packed sixteen to a long.  Increments are
+     * conservative, raising only those of a key's counters at its
+     * current minimum, which limits overestimation through collisions.
+     * Each time the number of increments reaches the number of
+     * counters, all counters are halved, so that estimates reflect
+     * recent use.  Key hashes are mixed with a random seed.
+     */
+    static final class Sketch {
+        final long seed = ThreadLocalRandom.current().nextLong();
+        long[] table;
+        int mask;                     // number of counters - 1
+        int increments;
+
+        /**
+         * Grows the table, losing all counts, if it has fewer than eight
+         * counters per key for the given number of keys.
+         */
+        void ensureCapacity(long keys) {
+            long want = Math.min(keys, 1L << 26) << 3;
+            if (table != null && mask + 1L >= want)
+                return;
+            int n = 1 << 7;
+            while (n < want)
+                n <<= 1;
+            table = new long[n >>> 4];
+            mask = n - 1;
+            increments = 0;
+        }
+
+        /** SplittableRandom.mix64. */
+        static long mix64(long z) {
+            z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+            z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+            return z ^ (z >>> 33);
+        }
+
+        int count(int i) {
+            i &= mask;
+            return (int)(table[i >>> 4] >>> ((i & 15) << 2)) & 0xf;
+        }
+
+        int estimate(Object key) {
+            long h = mix64(key.hashCode() + seed);
+            int h1 = (int)h, h2 = (int)(h >>> 32) | 1;
+            int min = 15;
+            for (int i = 0; i < 4; ++i)
+                min = Math.min(min, count(h1 + i * h2));
+            return min;
+        }
+
+        void increment(Object key) {
+            long h = mix64(key.hashCode() + seed);
+            int h1 = (int)h, h2 = (int)(h >>> 32) | 1;
+            int min = 15;
+            for (int i = 0; i < 4; ++i)
+                min = Math.min(min, count(h1 + i * h2));
+            if (min == 15)
+                return;
+            for (int i = 0; i < 4; ++i) {
+                int j = (h1 + i * h2) & mask;
+                if (count(j) == min)    // rechecked, if two hashes coincide
+                    table[j >>> 4] += 1L << ((j & 15) << 2);
+            }
+            if (++increments > mask)
+                halve();
+        }
+
+        void halve() {
+            long[] t = table;
+            for (int i = 0; i < t.length; ++i)
+                t[i] = (t[i] >>> 1) & 0x7777777777777777L;
+            increments >>>= 1;
+        }
+    }
+
+    /* ---------------- Fields -------------- */
+
+    final ConcurrentHashMap<K,Node<K,V>> map;
+    final ToIntBiFunction<? super K, ? super V> weigher;
+    final long maximumWeight;
+    final long expireAfterWriteNanos;    // zero if entries never expire
+    final long expireAfterAccessNanos;   // zero if entries never expire
+
+    final MpscArrayBlockingQueue<Node<K,V>>[] readBuffers;
+    final ConcurrentLinkedQueue<Update<K,V>> updates;
+    final ReentrantLock policyLock;
+
+    // Guarded by policyLock
+    final Sketch sketch;
+    final NodeList<K,V> window, probation, protectedSegment, writeOrder;
+    long totalWeight, windowWeight, protectedWeight, liveCount;
+    final long windowLimit, protectedLimit;
+
+    final LongAdder hitCount = new LongAdder();
+    final LongAdder missCount = new LongAdder();
+    final LongAdder evictionCount = new LongAdder();
+
+    /* ---------------- Construction -------------- */
+
+    /**
+     * Creates a cache holding at most the given number of entries, which
+     * never expire.
+     *
+     * @param maximumSize the maximum number of entries
+     * @throws IllegalArgumentException if maximumSize is negative
+     */
+    public BoundedConcurrentCache(long maximumSize) {
+        this(maximumSize, null, 0L, 0L, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Creates a cache holding at most the given total weight of entries,
+     * each entry being weighed by the given function when written, and
+     * expiring entries the given times after they were last written or
+     * last accessed.
+     *
+     * @param maximumWeight the maximum total weight of entries
+     * @param weigher the function computing the weight of an entry, or
+     *        {@code null} to give every entry a weight of one
+     * @param expireAfterWrite the time after its last write at which an
+     *        entry expires, or zero for no such limit
+     * @param expireAfterAccess the time after its last read or write at
+     *        which an entry expires, or zero for no such limit
+     * @param unit the time unit of the two expiry arguments
+     * @throws IllegalArgumentException if any numeric argument is negative
+     * @throws NullPointerException if unit is null
+     */
+    @SuppressWarnings("unchecked")
+    public BoundedConcurrentCache(long maximumWeight,
+                                  ToIntBiFunction<? super K, ? super V> weigher,
+                                  long expireAfterWrite,
+                                  long expireAfterAccess,
+                                  TimeUnit unit) {
+        if (maximumWeight < 0L || expireAfterWrite < 0L || expireAfterAccess < 0L)
+            throw new IllegalArgumentException();
+        if (unit == null)
+            throw new NullPointerException();
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.expireAfterWriteNanos = unit.toNanos(expireAfterWrite);
+        this.expireAfterAccessNanos = unit.toNanos(expireAfterAccess);
+        this.map = new ConcurrentHashMap<K,Node<K,V>>(
+            (int)Math.min(weigher == null ? maximumWeight : 16L, 1 << 16));
+        MpscArrayBlockingQueue<Node<K,V>>[] rbs = (MpscArrayBlockingQueue<Node<K,V>>[])
+            new MpscArrayBlockingQueue<?>[READ_STRIPES];
+        for (int i = 0; i < rbs.length; ++i)
+            rbs[i] = new MpscArrayBlockingQueue<Node<K,V>>
+                (READ_BUFFER_CAPACITY, WaitStrategy.yielding());
+        this.readBuffers = rbs;
+        this.updates = new ConcurrentLinkedQueue<Update<K,V>>();
+        this.policyLock = new ReentrantLock();
+        this.sketch = new Sketch();
+        this.sketch.ensureCapacity(16L);
+        this.window = new NodeList<K,V>(false);
+        this.probation = new NodeList<K,V>(false);
+        this.protectedSegment = new NodeList<K,V>(false);
+        this.writeOrder = new NodeList<K,V>(true);
+        long w = maximumWeight / WINDOW_DIVISOR;
+        this.windowLimit = (maximumWeight > 0L && w == 0L) ? 1L : w;
+        long main = maximumWeight - windowLimit;
+        this.protectedLimit = main - main / 5;
+    }
+
+    /* ---------------- Public operations -------------- */
+
+    /**
+     * Returns the value cached for the given key, or {@code null} if
+     * there is none or it has expired.
+     *
+     * @param key the key
+     * @return the cached value, or {@code null}
+     * @throws NullPointerException if the key is null
+     */
+    public V get(Object key) {
+        Node<K,V> n = map.get(key);
+        long now;
+        if (n == null || isExpired(n, now = ticker())) {
+            missCount.increment();
+            if (n != null)
+                tryMaintain();
+            return null;
+        }
+        V v = n.value;
+        if (expireAfterAccessNanos != 0L)
+            n.accessTime = now;
+        hitCount.increment();
+        recordRead(n);
+        return v;
+    }
+
+    /**
+     * Caches the given value for the given key, replacing any existing
+     * value.
+     *
+     * @param key the key
+     * @param value the value
+     * @return the previous unexpired value, or {@code null}
+     * @throws NullPointerException if the key or value is null
+     * @throws IllegalArgumentException if the weigher returns a negative
+     *         weight
+     */
+    public V put(K key, V value) {
+        return put(key, value, false);
+    }
+
+    /**
+     * Caches the given value for the given key unless an unexpired value
+     * is already present.
+     *
+     * @param key the key
+     * @param value the value
+     * @return the present unexpired value, or {@code null} if the given
+     *         value was cached
+     * @throws NullPointerException if the key or value is null
+     * @throws IllegalArgumentException if the weigher returns a negative
+     *         weight
+     */
+    public V putIfAbsent(K key, V value) {
+        return put(key, value, true);
+    }
+
+    final V put(K key, V value, boolean onlyIfAbsent) {
+        if (key == null || value == null)
+            throw new NullPointerException();
+        int weight = weigh(key, value);
+        long now = ticker();
+        Node<K,V> node = null;
+        for (;;) {
+            Node<K,V> prior = map.get(key);
+            if (prior == null) {
+                if (node == null)
+                    node = new Node<K,V>(key, value, weight, now);
+                if ((prior = map.putIfAbsent(key, node)) == null) {
+                    recordWrite(node, ADDED);
+                    return null;
+                }
+            }
+            V oldValue;
+            boolean expired;
+            synchronized (prior) {
+                if (prior.retired)
+                    continue;
+                oldValue = prior.value;
+                expired = isExpired(prior, now);
+                if (onlyIfAbsent && !expired) {
+                    if (expireAfterAccessNanos != 0L)
+                        prior.accessTime = now;
+                }
+                else {
+                    prior.value = value;
+                    prior.weight = weight;
+                    prior.writeTime = now;
+                    prior.accessTime = now;
+                }
+            }
+            if (onlyIfAbsent && !expired) {
+                recordRead(prior);
+                return oldValue;
+            }
+            recordWrite(prior, CHANGED);
+            return expired ? null : oldValue;
+        }
+    }
+
+    /**
+     * Returns the value cached for the given key, first computing and
+     * caching it with the given function if there is none or it has
+     * expired.  The function is invoked at most once per call, while
+     * other updates of the same key are blocked, so it should be short.
+     *
+     * @param key the key
+     * @param mappingFunction the function to compute a value
+     * @return the current (existing or computed) value, or {@code null}
+     *         if the computed value is null
+     * @throws NullPointerException if the key or function is null
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+        if (mappingFunction == null)
+            throw new NullPointerException();
+        V v = get(key);
+        if (v != null)
+            return v;
+        long now = ticker();
+        @SuppressWarnings("unchecked")
+        Node<K,V>[] replaced = (Node<K,V>[])new Node<?,?>[1];
+        @SuppressWarnings("unchecked")
+        V[] computed = (V[])new Object[1];
+        Node<K,V> n = map.compute(key, (k, prior) -> {
+            if (prior != null && !isExpired(prior, now))
+                return prior;
+            V nv = mappingFunction.apply(k);
+            if (nv == null)
+                return prior;
+            if (prior != null) {
+                synchronized (prior) {
+                    prior.retired = true;
+                }
+                replaced[0] = prior;
+            }
+            computed[0] = nv;
+            return new Node<K,V>(k, nv, weigh(k, nv), now);
+        });
+        if (replaced[0] != null)
+            recordWrite(replaced[0], REMOVED);
+        if (computed[0] != null) {
+            recordWrite(n, ADDED);
+            return computed[0];
+        }
+        if (n == null || isExpired(n, now))
+            return null;
+        recordRead(n);
+        return n.value;
+    }
+
+    /**
+     * Discards any value cached for the given key.
+     *
+     * @param key the key
+     * @return the discarded unexpired value, or {@code null}
+     * @throws NullPointerException if the key is null
+     */
+    public V remove(Object key) {
+        Node<K,V> n = map.remove(key);
+        if (n == null)
+            return null;
+        V v;
+        synchronized (n) {
+            v = n.value;
+            n.retired = true;
+        }
+        recordWrite(n, REMOVED);
+        return isExpired(n, ticker()) ? null : v;
+    }
+
+    /**
+     * Discards all entries.
+     */
+    public void invalidateAll() {
+        for (K key : map.keySet())
+            remove(key);
+    }
+
+    /**
+     * Performs any pending maintenance: applies buffered reads and
+     * writes, discards expired entries, and evicts down to the maximum
+     * weight.
+     */
+    public void cleanUp() {
+        policyLock.lock();
+        try {
+            maintain();
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the approximate number of entries, which may include
+     * expired entries not yet discarded.
+     *
+     * @return the estimated number of entries
+     */
+    public long estimatedSize() {
+        return map.mappingCount();
+    }
+
+    /**
+     * Returns the total weight of entries as of the last maintenance
+     * pass.
+     *
+     * @return the weighted size
+     */
+    public long weightedSize() {
+        policyLock.lock();
+        try {
+            return totalWeight;
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the maximum total weight of entries.
+     *
+     * @return the maximum weight
+     */
+    public long maximumWeight() {
+        return maximumWeight;
+    }
+
+    /**
+     * Returns the number of lookups that returned a cached value.
+     *
+     * @return the hit count
+     */
+    public long hitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Returns the number of lookups that found no cached value.
+     *
+     * @return the miss count
+     */
+    public long missCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Returns the number of entries discarded by the policy, either to
+     * respect the maximum weight or because they expired.
+     *
+     * @return the eviction count
+     */
+    public long evictionCount() {
+        return evictionCount.sum();
+    }
+
+    /* ---------------- Recording -------------- */
+
+    static long ticker() {
+        return System.nanoTime();
+    }
+
+    final int weigh(K key, V value) {
+        if (weigher == null)
+            return 1;
+        int w = weigher.applyAsInt(key, value);
+        if (w < 0)
+            throw new IllegalArgumentException("Negative weight: " + w);
+        return w;
+    }
+
+    final boolean isExpired(Node<K,V> n, long now) {
+        return (expireAfterWriteNanos != 0L &&
+                now - n.writeTime >= expireAfterWriteNanos) ||
+            (expireAfterAccessNanos != 0L &&
+             now - n.accessTime >= expireAfterAccessNanos);
+    }
+
+    /**
+     * Buffers a read of n in this thread's read buffer.  If that is
+     * full, the read is dropped and maintenance attempted instead.
+     */
+    final void recordRead(Node<K,V> n) {
+        int h;
+        if ((h = ThreadLocalRandom.getProbe()) == 0) {
+            ThreadLocalRandom.localInit();
+            h = ThreadLocalRandom.getProbe();
+        }
+        if (!readBuffers[h & (READ_STRIPES - 1)].offer(n))
+            tryMaintain();
+    }
+
+    /**
+     * Buffers a write and attempts maintenance.
+     */
+    final void recordWrite(Node<K,V> n, int kind) {
+        updates.offer(new Update<K,V>(n, kind));
+        tryMaintain();
+    }
+
+    /**
+     * Performs maintenance unless another thread holds the policy lock.
+     * That thread may have finished applying writes just before ours was
+     * buffered, so having released the lock, each thread checks again
+     * for buffered writes, and no write is left unapplied.
+     */
+    final void tryMaintain() {
+        ReentrantLock lock = policyLock;
+        while (lock.tryLock()) {
+            try {
+                maintain();
+            } finally {
+                lock.unlock();
+            }
+            if (updates.isEmpty())
+                break;
+        }
+    }
+
+    /* ---------------- Policy -------------- */
+
+    /** Called with policyLock held. */
+    final void maintain() {
+        for (MpscArrayBlockingQueue<Node<K,V>> rb : readBuffers) {
+            Node<K,V> n;
+            for (int i = 0; i < READ_BUFFER_CAPACITY && (n = rb.poll()) != null; ++i)
+                touch(n);
+        }
+        Update<K,V> u;
+        for (int i = 0; i < MAX_UPDATES_PER_PASS && (u = updates.poll()) != null; ++i)
+            apply(u);
+        if (expireAfterWriteNanos != 0L || expireAfterAccessNanos != 0L)
+            expire(ticker());
+        evict();
+    }
+
+    final NodeList<K,V> segmentOf(Node<K,V> n) {
+        return (n.segment == WINDOW) ? window :
+            (n.segment == PROBATION) ? probation : protectedSegment;
+    }
+
+    /**
+     * Applies a buffered write.  A node added is linked at the hot end of
+     * the window.  A node changed has its charged weight brought up to
+     * date and counts as used.  A node removed is unlinked, if it had
+     * been linked, and in any case marked GONE, so that an addition
+     * applied later is ignored.
+     */
+    final void apply(Update<K,V> u) {
+        Node<K,V> n = u.node;
+        switch (u.kind) {
+        case ADDED:
+            if (n.status == NEW) {
+                int w = n.weight;
+                n.status = LIVE;
+                n.charged = w;
+                n.segment = WINDOW;
+                totalWeight += w;
+                windowWeight += w;
+                window.addLast(n);
+                if (expireAfterWriteNanos != 0L)
+                    writeOrder.addLast(n);
+                sketch.ensureCapacity(Math.min(++liveCount, maximumWeight));
+                sketch.increment(n.key);
+            }
+            break;
+        case CHANGED:
+            if (n.status == LIVE) {
+                int d = n.weight - n.charged;
+                n.charged += d;
+                totalWeight += d;
+                if (n.segment == WINDOW)
+                    windowWeight += d;
+                else if (n.segment == PROTECTED)
+                    protectedWeight += d;
+                if (expireAfterWriteNanos != 0L)
+                    writeOrder.moveToBack(n);
+                touch(n);
+            }
+            break;
+        default:
+            if (n.status == LIVE)
+                unlink(n);
+            n.status = GONE;
+        }
+    }
+
+    /**
+     * Records a use of n: it moves to the hot end of its segment, or, if
+     * on probation, to the hot end of the protected segment, whose
+     * coldest entries return to probation while it is over its limit.
+     */
+    final void touch(Node<K,V> n) {
+        if (n.status != LIVE)
+            return;
+        sketch.increment(n.key);
+        if (n.segment != PROBATION) {
+            segmentOf(n).moveToBack(n);
+            return;
+        }
+        probation.unlink(n);
+        n.segment = PROTECTED;
+        protectedSegment.addLast(n);
+        protectedWeight += n.charged;
+        Node<K,V> p;
+        while (protectedWeight > protectedLimit &&
+               (p = protectedSegment.first) != null) {
+            protectedSegment.unlink(p);
+            protectedWeight -= p.charged;
+            p.segment = PROBATION;
+            probation.addLast(p);
+        }
+    }
+
+    /** Removes a LIVE node from the policy. */
+    final void unlink(Node<K,V> n) {
+        segmentOf(n).unlink(n);
+        if (n.segment == WINDOW)
+            windowWeight -= n.charged;
+        else if (n.segment == PROTECTED)
+            protectedWeight -= n.charged;
+        if (expireAfterWriteNanos != 0L)
+            writeOrder.unlink(n);
+        totalWeight -= n.charged;
+        --liveCount;
+        n.status = GONE;
+    }
+
+    /**
+     * Discards a LIVE node chosen by the policy.  It is counted as an
+     * eviction only if it was still mapped; otherwise its removal has
+     * been buffered, and will find it GONE.
+     */
+    final void discard(Node<K,V> n) {
+        if (map.remove(n.key, n)) {
+            synchronized (n) {
+                n.retired = true;
+            }
+            evictionCount.increment();
+        }
+        unlink(n);
+    }
+
+    /**
+     * Discards expired nodes.  Each segment is in approximate order of
+     * access, and the write-order list in order of write, so each scan
+     * stops at the first node that has not expired.
+     */
+    final void expire(long now) {
+        Node<K,V> n;
+        if (expireAfterAccessNanos != 0L) {
+            expireIdle(window, now);
+            expireIdle(probation, now);
+            expireIdle(protectedSegment, now);
+        }
+        if (expireAfterWriteNanos != 0L) {
+            while ((n = writeOrder.first) != null &&
+                   now - n.writeTime >= expireAfterWriteNanos)
+                discard(n);
+        }
+    }
+
+    final void expireIdle(NodeList<K,V> list, long now) {
+        Node<K,V> n;
+        while ((n = list.first) != null &&
+               now - n.accessTime >= expireAfterAccessNanos)
+            discard(n);
+    }
+
+    /**
+     * Moves nodes that overflow the window to the hot end of probation,
+     * making each in turn contest its place while the cache is over its
+     * maximum weight.  Any excess remaining, such as when weights have
+     * grown, is then discarded from the cold ends of probation, the
+     * protected segment and the window, in that order.
+     */
+    final void evict() {
+        Node<K,V> n;
+        while (windowWeight > windowLimit && (n = window.first) != null) {
+            window.unlink(n);
+            windowWeight -= n.charged;
+            n.segment = PROBATION;
+            probation.addLast(n);
+            contest(n);
+        }
+        while (totalWeight > maximumWeight) {
+            if ((n = probation.first) == null &&
+                (n = protectedSegment.first) == null &&
+                (n = window.first) == null)
+                break;
+            discard(n);
+        }
+    }
+
+    /**
+     * While the cache is over its maximum weight, discards the coldest
+     * node of the main space if the sketch estimates c to be the more
+     * popular, and otherwise discards c.  Ties go against c: the other
+     * has already earned its place once.
+     */
+    final void contest(Node<K,V> c) {
+        int f = -1;
+        while (totalWeight > maximumWeight) {
+            Node<K,V> v = probation.first;
+            if (v == c && (v = protectedSegment.first) == null)
+                return;
+            if (f < 0)
+                f = sketch.estimate(c.key);
+            if (f > sketch.estimate(v.key))
+                discard(v);
+            else {
+                discard(c);
+                return;
+            }
+        }
+    }
+}
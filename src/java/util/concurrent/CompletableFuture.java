@@ -999,6 +999,232 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
         return d;
     }
 
+    /* ------------- Fused Completions -------------- */
+
+    /**
+     * One synchronous stage of a fused pipeline.  Each step maps the
+     * encoded outcome its stage would have seen as source result to the
+     * encoded outcome the stage would itself have completed with, so
+     * that a pipeline of steps behaves as the corresponding chain of
+     * dependent futures without creating them.
+     */
+    abstract static class FusedStep {
+        FusedStep next;
+        abstract Object fire(Object r);
+    }
+
+    static final class FusedApply extends FusedStep {
+        final Function<Object,?> fn;
+        FusedApply(Function<Object,?> fn) { this.fn = fn; }
+        final Object fire(Object r) {
+            Throwable x;
+            if (r instanceof AltResult) {
+                if ((x = ((AltResult)r).ex) != null)
+                    return encodeThrowable(x, r);
+                r = null;
+            }
+            try {
+                Object v = fn.apply(r);
+                return (v == null) ? NIL : v;
+            } catch (Throwable ex) {
+                return encodeThrowable(ex);
+            }
+        }
+    }
+
+    static final class FusedAccept extends FusedStep {
+        final Consumer<Object> fn;
+        FusedAccept(Consumer<Object> fn) { this.fn = fn; }
+        final Object fire(Object r) {
+            Throwable x;
+            if (r instanceof AltResult) {
+                if ((x = ((AltResult)r).ex) != null)
+                    return encodeThrowable(x, r);
+                r = null;
+            }
+            try {
+                fn.accept(r);
+                return NIL;
+            } catch (Throwable ex) {
+                return encodeThrowable(ex);
+            }
+        }
+    }
+
+    static final class FusedRun extends FusedStep {
+        final Runnable fn;
+        FusedRun(Runnable fn) { this.fn = fn; }
+        final Object fire(Object r) {
+            Throwable x;
+            if (r instanceof AltResult && (x = ((AltResult)r).ex) != null)
+                return encodeThrowable(x, r);
+            try {
+                fn.run();
+                return NIL;
+            } catch (Throwable ex) {
+                return encodeThrowable(ex);
+            }
+        }
+    }
+
+    static final class FusedWhenComplete extends FusedStep {
+        final BiConsumer<Object, ? super Throwable> fn;
+        FusedWhenComplete(BiConsumer<Object, ? super Throwable> fn) {
+            this.fn = fn;
+        }
+        final Object fire(Object r) {
+            Object t; Throwable x = null;
+            try {
+                if (r instanceof AltResult) {
+                    x = ((AltResult)r).ex;
+                    t = null;
+                } else
+                    t = r;
+                fn.accept(t, x);
+                if (x == null)
+                    return r;
+            } catch (Throwable ex) {
+                if (x == null)
+                    x = ex;
+            }
+            return encodeThrowable(x, r);
+        }
+    }
+
+    static final class FusedHandle extends FusedStep {
+        final BiFunction<Object, Throwable, ?> fn;
+        FusedHandle(BiFunction<Object, Throwable, ?> fn) { this.fn = fn; }
+        final Object fire(Object r) {
+            Object s; Throwable x;
+            try {
+                if (r instanceof AltResult) {
+                    x = ((AltResult)r).ex;
+                    s = null;
+                } else {
+                    x = null;
+                    s = r;
+                }
+                Object v = fn.apply(s, x);
+                return (v == null) ? NIL : v;
+            } catch (Throwable ex) {
+                return encodeThrowable(ex);
+            }
+        }
+    }
+
+    static final class FusedExceptionally extends FusedStep {
+        final Function<? super Throwable, ?> fn;
+        FusedExceptionally(Function<? super Throwable, ?> fn) {
+            this.fn = fn;
+        }
+        final Object fire(Object r) {
+            Throwable x;
+            if (!(r instanceof AltResult) || (x = ((AltResult)r).ex) == null)
+                return r;
+            try {
+                Object v = fn.apply(x);
+                return (v == null) ? NIL : v;
+            } catch (Throwable ex) {
+                return encodeThrowable(ex);
+            }
+        }
+    }
+
+    /**
+     * A compose step.  Never fired directly: the pipeline suspends on
+     * the returned stage unless it is already complete.
+     */
+    static final class FusedCompose extends FusedStep {
+        final Function<Object, ? extends CompletionStage<?>> fn;
+        FusedCompose(Function<Object, ? extends CompletionStage<?>> fn) {
+            this.fn = fn;
+        }
+        final Object fire(Object r) { throw new IllegalStateException(); }
+    }
+
+    /**
+     * A Completion running a list of fused steps.  Field chainExecutor
+     * is the executor of the whole chain, kept because claim clears
+     * executor once the task is submitted: a chain suspended on a
+     * compose step resumes in a new UniFused that must be submitted to
+     * it again.
+     */
+    @SuppressWarnings("serial")
+    static final class UniFused<V> extends UniCompletion<Object,V> {
+        final Executor chainExecutor;  // null if the chain runs synchronously
+        FusedStep steps;
+        UniFused(Executor executor, CompletableFuture<V> dep,
+                 CompletableFuture<Object> src, FusedStep steps) {
+            super(executor, dep, src); this.steps = steps;
+            this.chainExecutor = executor;
+        }
+        final CompletableFuture<V> tryFire(int mode) {
+            CompletableFuture<V> d; CompletableFuture<Object> a;
+            if ((d = dep) == null ||
+                !d.uniFused(a = src, steps, mode > 0 ? null : this,
+                            chainExecutor))
+                return null;
+            dep = null; src = null; steps = null;
+            return d.postFire(a, mode);
+        }
+    }
+
+    final boolean uniFused(CompletableFuture<Object> a, FusedStep s,
+                           UniFused<T> c, Executor e) {
+        Object r;
+        if (a == null || (r = a.result) == null)
+            return false;
+        if (result == null) {
+            if (c != null && !c.claim())
+                return false;
+            runFused(r, s, e);
+        }
+        return true;
+    }
+
+    /**
+     * Runs steps from s on source outcome r and completes with the
+     * outcome of the last, unless a compose step returns an incomplete
+     * stage, in which case the remaining steps are registered on it,
+     * to run using executor e if it is non-null, else in the thread
+     * that completes that stage.
+     */
+    final void runFused(Object r, FusedStep s, Executor e) {
+        for (; s != null; s = s.next) {
+            if (!(s instanceof FusedCompose))
+                r = s.fire(r);
+            else {
+                Throwable x;
+                if (r instanceof AltResult) {
+                    if ((x = ((AltResult)r).ex) != null) {
+                        r = encodeThrowable(x, r);
+                        continue;
+                    }
+                    r = null;
+                }
+                CompletableFuture<Object> g;
+                try {
+                    @SuppressWarnings("unchecked") CompletableFuture<Object> cf =
+                        (CompletableFuture<Object>)
+                        ((FusedCompose)s).fn.apply(r).toCompletableFuture();
+                    g = cf;
+                } catch (Throwable ex) {
+                    r = encodeThrowable(ex);
+                    continue;
+                }
+                Object gr = g.result;
+                if (gr == null) {
+                    UniFused<T> c = new UniFused<T>(e, this, g, s.next);
+                    g.push(c);
+                    c.tryFire(SYNC);
+                    return;
+                }
+                r = encodeRelay(gr);
+            }
+        }
+        completeRelay(r);
+    }
+
     /* ------------- Two-input Completions -------------- */
 
     /** A Completion for an action with two sources */
@@ -1568,6 +1794,131 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
         return d;
     }
 
+    /* ------------- Counted n-ary Completions -------------- */
+
+    /**
+     * Arrays of at least this length are combined by allOf and anyOf
+     * using one Gather and one GatherRelay per source, rather than a
+     * tree of intermediate futures and BiRelays.
+     */
+    static final int GATHER_THRESHOLD = 8;
+
+    /**
+     * The shared state of a counted allOf or anyOf.  For allOf, the
+     * exceptional outcome of the lowest-indexed source, which is the
+     * one a tree of BiRelays would report, is kept until the last
+     * source arrives.
+     */
+    static final class Gather {
+        final CompletableFuture<?> dep;
+        final boolean any;
+        volatile int pending;     // sources yet to arrive, for allOf
+        int exIndex;              // index of exResult; guarded by this
+        Object exResult;          // lowest-indexed exceptional outcome
+
+        Gather(CompletableFuture<?> dep, boolean any, int n) {
+            this.dep = dep; this.any = any; this.pending = n;
+            this.exIndex = Integer.MAX_VALUE;
+        }
+
+        /**
+         * Records the outcome r of source i, returning the dependent if
+         * this completed it.
+         */
+        final CompletableFuture<?> arrive(int i, Object r) {
+            CompletableFuture<?> d = dep;
+            if (any)
+                return d.completeRelay(r) ? d : null;
+            if (r instanceof AltResult && ((AltResult)r).ex != null) {
+                synchronized (this) {
+                    if (i < exIndex) {
+                        exIndex = i;
+                        exResult = r;
+                    }
+                }
+            }
+            if (UNSAFE.getAndAddInt(this, PENDING, -1) != 1)
+                return null;
+            Object s;
+            synchronized (this) {
+                s = exResult;
+            }
+            if (s == null)
+                d.completeNull();
+            else
+                d.completeThrowable(((AltResult)s).ex, s);
+            return d;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    static final class GatherRelay extends Completion {
+        Gather gather;
+        CompletableFuture<?> src;
+        final int index;
+        GatherRelay(Gather gather, CompletableFuture<?> src, int index) {
+            this.gather = gather; this.src = src; this.index = index;
+        }
+        final CompletableFuture<?> tryFire(int mode) {
+            Gather g; CompletableFuture<?> a, d; Object r;
+            if ((g = gather) == null || (a = src) == null ||
+                (r = a.result) == null ||
+                !compareAndSetForkJoinTaskTag((short)0, (short)1))
+                return null;
+            gather = null; src = null;
+            return ((d = g.arrive(index, r)) == null) ? null :
+                d.postFire(a, mode);
+        }
+        final boolean isLive() {
+            Gather g = gather;
+            return g != null && (!g.any || g.dep.result == null);
+        }
+    }
+
+    /** Pushes a GatherRelay on a, or fires it if a is done. */
+    static void gatherPush(CompletableFuture<?> a, GatherRelay c) {
+        while (a.result == null && !a.tryPushStack(c))
+            lazySetNext(c, null); // clear on failure
+        if (a.result != null)
+            c.tryFire(SYNC);
+    }
+
+    /** Counted form of andTree. */
+    static CompletableFuture<Void> andGather(CompletableFuture<?>[] cfs) {
+        int n = cfs.length;
+        for (CompletableFuture<?> a : cfs) {
+            if (a == null)
+                throw new NullPointerException();
+        }
+        CompletableFuture<Void> d = new CompletableFuture<Void>();
+        Gather g = new Gather(d, false, n);
+        for (int i = 0; i < n; ++i) {
+            CompletableFuture<?> a = cfs[i];
+            Object r = a.result;
+            if (r != null)
+                g.arrive(i, r);
+            else
+                gatherPush(a, new GatherRelay(g, a, i));
+        }
+        return d;
+    }
+
+    /** Counted form of orTree. */
+    static CompletableFuture<Object> orGather(CompletableFuture<?>[] cfs) {
+        for (CompletableFuture<?> a : cfs) {
+            Object r;
+            if (a == null)
+                throw new NullPointerException();
+            if ((r = a.result) != null)
+                return new CompletableFuture<Object>(encodeRelay(r));
+        }
+        CompletableFuture<Object> d = new CompletableFuture<Object>();
+        Gather g = new Gather(d, true, cfs.length);
+        for (int i = 0; i < cfs.length && d.result == null; ++i)
+            gatherPush(cfs[i], new GatherRelay(g, cfs[i], i));
+        return d;
+    }
+
     /* ------------- Zero-input Async forms -------------- */
 
     @SuppressWarnings("serial")
@@ -2197,6 +2548,225 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
         return uniExceptionallyStage(fn);
     }
 
+    /**
+     * Returns a builder for a chain of stages dependent on this
+     * CompletableFuture that are run together by a single completion.
+     * A chain such as {@code f.thenApply(a).thenApply(b).thenAccept(c)}
+     * creates and completes a future, and pushes and pops a completion,
+     * for every stage; the equivalent
+     * {@code f.fused().thenApply(a).thenApply(b).thenAccept(c).toCompletableFuture()}
+     * creates one of each, and runs {@code a}, {@code b} and {@code c}
+     * in turn when this future completes.  Outcomes, including
+     * exception propagation and wrapping in {@link CompletionException},
+     * are those of the unfused chain; only the intermediate futures are
+     * not observable.
+     *
+     * <p>A {@code thenCompose} stage in the chain whose returned stage
+     * is not yet complete suspends the chain, which resumes with the
+     * following stages, still fused, when it completes.
+     *
+     * @return a new builder rooted at this CompletableFuture
+     * @since 9
+     */
+    public FusedStage<T> fused() {
+        return new FusedStage<T>(this);
+    }
+
+    /**
+     * A chain of stages under construction, to be run by a single
+     * completion.  Obtained from {@link CompletableFuture#fused}.  Each
+     * {@code then} method appends a stage and returns this builder,
+     * viewed with the result type of the new last stage, and a chain is
+     * started, once, by one of the {@code toCompletableFuture} methods.
+     * Builders are not thread-safe.
+     *
+     * @param <T> the result type of the last stage in the chain
+     * @since 9
+     */
+    public static final class FusedStage<T> {
+        private CompletableFuture<?> src;   // null once started
+        private FusedStep head, tail;
+
+        FusedStage(CompletableFuture<?> src) {
+            this.src = src;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <U> FusedStage<U> append(FusedStep s) {
+            if (src == null)
+                throw new IllegalStateException("already started");
+            if (tail == null)
+                head = s;
+            else
+                tail.next = s;
+            tail = s;
+            return (FusedStage<U>)this;
+        }
+
+        /**
+         * Appends a stage like {@link CompletableFuture#thenApply}.
+         *
+         * @param fn the function to use to compute the value of the stage
+         * @param <U> the function's return type
+         * @return this builder
+         * @throws IllegalStateException if the chain has been started
+         */
+        @SuppressWarnings("unchecked")
+        public <U> FusedStage<U> thenApply(
+            Function<? super T,? extends U> fn) {
+            if (fn == null) throw new NullPointerException();
+            return append(new FusedApply((Function<Object,?>)fn));
+        }
+
+        /**
+         * Appends a stage like {@link CompletableFuture#thenAccept}.
+         *
+         * @param action the action to perform
+         * @return this builder
+         * @throws IllegalStateException if the chain has been started
+         */
+        @SuppressWarnings("unchecked")
+        public FusedStage<Void> thenAccept(Consumer<? super T> action) {
+            if (action == null) throw new NullPointerException();
+            return append(new FusedAccept((Consumer<Object>)action));
+        }
+
+        /**
+         * Appends a stage like {@link CompletableFuture#thenRun}.
+         *
+         * @param action the action to perform
+         * @return this builder
+         * @throws IllegalStateException if the chain has been started
+         */
+        public FusedStage<Void> thenRun(Runnable action) {
+            if (action == null) throw new NullPointerException();
+            return append(new FusedRun(action));
+        }
+
+        /**
+         * Appends a stage like {@link CompletableFuture#thenCompose}.
+         *
+         * @param fn the function returning a new CompletionStage
+         * @param <U> the type of the returned CompletionStage's result
+         * @return this builder
+         * @throws IllegalStateException if the chain has been started
+         */
+        @SuppressWarnings("unchecked")
+        public <U> FusedStage<U> thenCompose(
+            Function<? super T, ? extends CompletionStage<U>> fn) {
+            if (fn == null) throw new NullPointerException();
+            return append(new FusedCompose(
+                (Function<Object, ? extends CompletionStage<?>>)fn));
+        }
+
+        /**
+         * Appends a stage like {@link CompletableFuture#whenComplete}.
+         *
+         * @param action the action to perform
+         * @return this builder
+         * @throws IllegalStateException if the chain has been started
+         */
+        @SuppressWarnings("unchecked")
+        public FusedStage<T> whenComplete(
+            BiConsumer<? super T, ? super Throwable> action) {
+            if (action == null) throw new NullPointerException();
+            return append(new FusedWhenComplete(
+                (BiConsumer<Object, ? super Throwable>)action));
+        }
+
+        /**
+         * Appends a stage like {@link CompletableFuture#handle}.
+         *
+         * @param fn the function to use to compute the value of the stage
+         * @param <U> the function's return type
+         * @return this builder
+         * @throws IllegalStateException if the chain has been started
+         */
+        @SuppressWarnings("unchecked")
+        public <U> FusedStage<U> handle(
+            BiFunction<? super T, Throwable, ? extends U> fn) {
+            if (fn == null) throw new NullPointerException();
+            return append(new FusedHandle(
+                (BiFunction<Object, Throwable, ?>)fn));
+        }
+
+        /**
+         * Appends a stage like {@link CompletableFuture#exceptionally}.
+         *
+         * @param fn the function to use to compute the value of the
+         * stage if the previous stage completed exceptionally
+         * @return this builder
+         * @throws IllegalStateException if the chain has been started
+         */
+        public FusedStage<T> exceptionally(
+            Function<Throwable, ? extends T> fn) {
+            if (fn == null) throw new NullPointerException();
+            return append(new FusedExceptionally(fn));
+        }
+
+        /**
+         * Starts the chain, running it in the thread that completes the
+         * source future, or in this thread if the source is already
+         * complete, and returns a future completed with the outcome of
+         * the last stage.  Stages following a {@code thenCompose} stage
+         * whose returned stage is incomplete run in the thread that
+         * completes that stage.
+         *
+         * @return the new CompletableFuture
+         * @throws IllegalStateException if the chain has been started
+         */
+        public CompletableFuture<T> toCompletableFuture() {
+            return start(null);
+        }
+
+        /**
+         * Starts the chain, running it as one task using the {@link
+         * ForkJoinPool#commonPool()}, and returns a future completed
+         * with the outcome of the last stage.  If a {@code thenCompose}
+         * stage returns an incomplete stage, the remaining stages run
+         * as a further task using the same pool once it completes.
+         *
+         * @return the new CompletableFuture
+         * @throws IllegalStateException if the chain has been started
+         */
+        public CompletableFuture<T> toCompletableFutureAsync() {
+            return start(asyncPool);
+        }
+
+        /**
+         * Starts the chain, running it as one task using the given
+         * executor, and returns a future completed with the outcome of
+         * the last stage.  If a {@code thenCompose} stage returns an
+         * incomplete stage, the remaining stages run as a further task
+         * using the same executor once it completes.
+         *
+         * @param executor the executor to use for asynchronous execution
+         * @return the new CompletableFuture
+         * @throws IllegalStateException if the chain has been started
+         */
+        public CompletableFuture<T> toCompletableFutureAsync(
+            Executor executor) {
+            return start(screenExecutor(executor));
+        }
+
+        private CompletableFuture<T> start(Executor e) {
+            @SuppressWarnings("unchecked") CompletableFuture<Object> a =
+                (CompletableFuture<Object>)src;
+            if (a == null)
+                throw new IllegalStateException("already started");
+            src = null;
+            FusedStep s = head;
+            head = tail = null;
+            CompletableFuture<T> d = new CompletableFuture<T>();
+            if (e != null || !d.uniFused(a, s, null, null)) {
+                UniFused<T> c = new UniFused<T>(e, d, a, s);
+                a.push(c);
+                c.tryFire(SYNC);
+            }
+            return d;
+        }
+    }
+
     /* ------------- Arbitrary-arity constructions -------------- */
 
     /**
@@ -2223,7 +2793,8 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
      * {@code null}
      */
     public static CompletableFuture<Void> allOf(CompletableFuture<?>... cfs) {
-        return andTree(cfs, 0, cfs.length - 1);
+        return (cfs.length >= GATHER_THRESHOLD) ? andGather(cfs) :
+            andTree(cfs, 0, cfs.length - 1);
     }
 
     /**
@@ -2242,7 +2813,8 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
      * {@code null}
      */
     public static CompletableFuture<Object> anyOf(CompletableFuture<?>... cfs) {
-        return orTree(cfs, 0, cfs.length - 1);
+        return (cfs.length >= GATHER_THRESHOLD) ? orGather(cfs) :
+            orTree(cfs, 0, cfs.length - 1);
     }
 
     /* ------------- Control and status methods -------------- */
@@ -2370,6 +2942,7 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
     private static final long RESULT;
     private static final long STACK;
     private static final long NEXT;
+    private static final long PENDING;
     static {
         try {
             final sun.misc.Unsafe u;
@@ -2379,6 +2952,8 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
             STACK = u.objectFieldOffset(k.getDeclaredField("stack"));
             NEXT = u.objectFieldOffset
                 (Completion.class.getDeclaredField("next"));
+            PENDING = u.objectFieldOffset
+                (Gather.class.getDeclaredField("pending"));
         } catch (Exception x) {
             throw new Error(x);
         }
@@ -1102,6 +1102,244 @@ public class ConcurrentHashMap<K,V> extends AbstractMap<K,V>
             putVal(e.getKey(), e.getValue(), false);
     }
 
+    /**
+     * Copies all of the mappings from the specified map to this one,
+     * using the common pool to install them in parallel when there are
+     * at least {@code parallelismThreshold} of them.  The table is first
+     * presized for the combined contents; the mappings are then sorted
+     * into contiguous ranges of bins, and each range is loaded by one
+     * task, so that tasks rarely contend for the same bin lock.  The
+     * element count is updated once per task rather than once per
+     * mapping, so loading never triggers incremental resizes.
+     *
+     * <p>As with {@link #putAll(Map)}, concurrent retrievals may observe
+     * any subset of the new mappings while loading is in progress.
+     *
+     * @param parallelismThreshold the (estimated) number of elements
+     * needed for this operation to be executed in parallel
+     * @param m mappings to be stored in this map
+     * @throws NullPointerException if the specified map is null, or
+     *         contains a null key or value
+     * @since 9
+     */
+    public void putAll(long parallelismThreshold,
+                       Map<? extends K, ? extends V> m) {
+        int n = m.size();
+        Object[] keys = new Object[n], vals = new Object[n];
+        int[] hashes = new int[n];
+        int c = 0;
+        for (Map.Entry<? extends K, ? extends V> e : m.entrySet()) {
+            if (c == n)
+                break;                  // tolerate concurrent growth of m
+            Object k = e.getKey(), v = e.getValue();
+            if (k == null || v == null)
+                throw new NullPointerException();
+            keys[c] = k;
+            vals[c] = v;
+            hashes[c++] = spread(k.hashCode());
+        }
+        if (c == 0)
+            return;
+        tryPresize((int)Math.min(sumCount() + c, (long)MAXIMUM_CAPACITY));
+        Node<K,V>[] tab = table;
+        int tl = (tab == null) ? 1 : tab.length;
+        int parts = 1;
+        if (c >= parallelismThreshold && parallelismThreshold != Long.MAX_VALUE) {
+            int sp = ForkJoinPool.getCommonPoolParallelism() << 2; // slack of 4
+            while (parts < sp && parts < tl && (parts << 1) <= c)
+                parts <<= 1;
+        }
+        // counting sort of entries into partitions of contiguous bins
+        int shift = Integer.numberOfTrailingZeros(tl) -
+            Integer.numberOfTrailingZeros(parts);
+        int[] starts = new int[parts + 1], order = new int[c];
+        for (int i = 0; i < c; ++i)
+            ++starts[((hashes[i] & (tl - 1)) >>> shift) + 1];
+        for (int p = 0; p < parts; ++p)
+            starts[p + 1] += starts[p];
+        int[] fill = Arrays.copyOf(starts, parts);
+        for (int i = 0; i < c; ++i)
+            order[fill[(hashes[i] & (tl - 1)) >>> shift]++] = i;
+        new PutAllTask<K,V>(null, this, keys, vals, hashes, order, starts,
+                            0, parts).invoke();
+        addCount(0L, 2); // counts were added without checks; check once now
+    }
+
+    /**
+     * Removes the mappings for all of the given keys, visiting each
+     * affected bin once: the keys are sorted by bin, and all keys that
+     * fall in one bin are removed under a single acquisition of its
+     * lock.  The element count is updated once.  Keys not present are
+     * ignored.
+     *
+     * @param keys the keys whose mappings are to be removed
+     * @return the number of mappings removed
+     * @throws NullPointerException if the collection or any of its
+     *         elements is null
+     * @since 9
+     */
+    public long removeAll(Collection<?> keys) {
+        Object[] ks = keys.toArray();
+        int n = ks.length;
+        Node<K,V>[] tab = table;
+        int tl;
+        if (n == 0 || tab == null || (tl = tab.length) == 0)
+            return 0L;
+        // sort (bin, index) pairs so keys of one bin are adjacent
+        long[] slots = new long[n];
+        int[] hashes = new int[n];
+        for (int i = 0; i < n; ++i) {
+            hashes[i] = spread(ks[i].hashCode());
+            slots[i] = ((long)(hashes[i] & (tl - 1)) << 32) | i;
+        }
+        Arrays.sort(slots);
+        long removed = 0L, uncounted = 0L;
+        for (int lo = 0, hi; lo < n; lo = hi) {
+            int bin = (int)(slots[lo] >>> 32);
+            for (hi = lo + 1; hi < n && (int)(slots[hi] >>> 32) == bin; ++hi)
+                ;
+            int r = removeFromBin(tab, bin, ks, hashes, slots, lo, hi);
+            if (r < 0) {                // bin moved or changed form
+                uncounted += -(r + 1);
+                for (int j = lo; j < hi; ++j) {
+                    if (replaceNode(ks[(int)slots[j]], null, null) != null)
+                        ++removed;      // counted by replaceNode
+                }
+            }
+            else
+                uncounted += r;
+        }
+        if (uncounted != 0L)
+            addCount(-uncounted, -1);
+        return removed + uncounted;
+    }
+
+    /**
+     * Removes the keys selected by slots[lo..hi), all of which hash to
+     * the given bin of tab, under one lock of the bin, without adjusting
+     * the count.  Returns the number removed, or if the bin was forwarded
+     * or replaced (a tree becoming small enough to untreeify) before all
+     * keys were handled, -(number removed + 1), in which case the caller
+     * falls back to per-key removal for the group.
+     */
+    private final int removeFromBin(Node<K,V>[] tab, int i, Object[] ks,
+                                    int[] hashes, long[] slots,
+                                    int lo, int hi) {
+        Node<K,V> f = tabAt(tab, i);
+        if (f == null)
+            return 0;
+        if (f.hash == MOVED)
+            return -1;
+        int removed = 0;
+        synchronized (f) {
+            if (tabAt(tab, i) != f)
+                return -1;
+            if (f.hash >= 0) {
+                for (Node<K,V> e = f, pred = null; e != null; e = e.next) {
+                    boolean match = false;
+                    for (int j = lo; j < hi; ++j) {
+                        int k = (int)slots[j];
+                        Object key = ks[k]; K ek;
+                        if (e.hash == hashes[k] &&
+                            ((ek = e.key) == key || key.equals(ek))) {
+                            match = true;
+                            break;
+                        }
+                    }
+                    if (match) {
+                        if (pred != null)
+                            pred.next = e.next;
+                        else
+                            setTabAt(tab, i, e.next);
+                        ++removed;
+                    }
+                    else
+                        pred = e;
+                }
+            }
+            else if (f instanceof TreeBin) {
+                TreeBin<K,V> t = (TreeBin<K,V>)f;
+                for (int j = lo; j < hi; ++j) {
+                    int k = (int)slots[j];
+                    TreeNode<K,V> r, p;
+                    if ((r = t.root) != null &&
+                        (p = r.findTreeNode(hashes[k], ks[k], null)) != null) {
+                        ++removed;
+                        if (t.removeTreeNode(p)) {
+                            setTabAt(tab, i, untreeify(t.first));
+                            if (j + 1 < hi)
+                                return -(removed + 1);
+                        }
+                    }
+                }
+            }
+            else
+                return -1;
+        }
+        return removed;
+    }
+
+    /**
+     * Inserts or replaces a mapping on behalf of a bulk load, exactly as
+     * {@code putVal(key, value, false)} does except that the count is not
+     * updated.  Returns true if a new mapping was added.
+     */
+    final boolean putForLoad(int hash, K key, V value) {
+        int binCount = 0;
+        boolean added = false;
+        for (Node<K,V>[] tab = table;;) {
+            Node<K,V> f; int n, i, fh;
+            if (tab == null || (n = tab.length) == 0)
+                tab = initTable();
+            else if ((f = tabAt(tab, i = (n - 1) & hash)) == null) {
+                if (casTabAt(tab, i, null,
+                             new Node<K,V>(hash, key, value, null)))
+                    return true;
+            }
+            else if ((fh = f.hash) == MOVED)
+                tab = helpTransfer(tab, f);
+            else {
+                synchronized (f) {
+                    if (tabAt(tab, i) == f) {
+                        if (fh >= 0) {
+                            binCount = 1;
+                            for (Node<K,V> e = f;; ++binCount) {
+                                K ek;
+                                if (e.hash == hash &&
+                                    ((ek = e.key) == key ||
+                                     (ek != null && key.equals(ek)))) {
+                                    e.val = value;
+                                    break;
+                                }
+                                Node<K,V> pred = e;
+                                if ((e = e.next) == null) {
+                                    pred.next = new Node<K,V>(hash, key,
+                                                              value, null);
+                                    added = true;
+                                    break;
+                                }
+                            }
+                        }
+                        else if (f instanceof TreeBin) {
+                            Node<K,V> p;
+                            binCount = 2;
+                            if ((p = ((TreeBin<K,V>)f).putTreeVal(hash, key,
+                                                           value)) != null)
+                                p.val = value;
+                            else
+                                added = true;
+                        }
+                    }
+                }
+                if (binCount != 0) {
+                    if (binCount >= TREEIFY_THRESHOLD)
+                        treeifyBin(tab, i);
+                    return added;
+                }
+            }
+        }
+    }
+
     /**
      * Removes the key (and its corresponding value) from this map.
      * This method does nothing if the key is not in the map.
@@ -6292,6 +6530,45 @@ public class ConcurrentHashMap<K,V> extends AbstractMap<K,V>
         }
     }
 
+    /**
+     * Task for putAll(long, Map): loads the entries of partitions
+     * [lo, hi), splitting in halves while more than one remains.
+     */
+    @SuppressWarnings("serial")
+    static final class PutAllTask<K,V> extends CountedCompleter<Void> {
+        final ConcurrentHashMap<K,V> map;
+        final Object[] keys, vals;
+        final int[] hashes, order, starts;
+        final int lo;
+        int hi;
+        PutAllTask(CountedCompleter<?> p, ConcurrentHashMap<K,V> map,
+                   Object[] keys, Object[] vals, int[] hashes,
+                   int[] order, int[] starts, int lo, int hi) {
+            super(p);
+            this.map = map; this.keys = keys; this.vals = vals;
+            this.hashes = hashes; this.order = order; this.starts = starts;
+            this.lo = lo; this.hi = hi;
+        }
+        @SuppressWarnings("unchecked")
+        public final void compute() {
+            for (int h; (h = (lo + hi) >>> 1) > lo;) {
+                addToPendingCount(1);
+                new PutAllTask<K,V>(this, map, keys, vals, hashes, order,
+                                    starts, h, hi).fork();
+                hi = h;
+            }
+            long added = 0L;
+            for (int j = starts[lo], end = starts[hi]; j < end; ++j) {
+                int k = order[j];
+                if (map.putForLoad(hashes[k], (K)keys[k], (V)vals[k]))
+                    ++added;
+            }
+            if (added != 0L)
+                map.addCount(added, -1);
+            propagateCompletion();
+        }
+    }
+
     // Unsafe mechanics
     private static final sun.misc.Unsafe U;
     private static final long SIZECTL;
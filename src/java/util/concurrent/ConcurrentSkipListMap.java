@@ -58,6 +58,10 @@ import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.LongBinaryOperator;
+import java.util.function.ToLongBiFunction;
 
 /**
  * A scalable concurrent {@link ConcurrentNavigableMap} implementation.
@@ -2902,6 +2906,14 @@ public class ConcurrentSkipListMap<K,V> extends AbstractMap<K,V>
             }
         }
 
+        public void forEach(BiConsumer<? super K, ? super V> action) {
+            if (action == null) throw new NullPointerException();
+            if (isDescending)
+                ConcurrentNavigableMap.super.forEach(action);
+            else
+                m.doForEachInRange(lo, loInclusive, hi, hiInclusive, action);
+        }
+
         /* ----------------  ConcurrentMap API methods -------------- */
 
         public V putIfAbsent(K key, V value) {
@@ -3283,6 +3295,254 @@ public class ConcurrentSkipListMap<K,V> extends AbstractMap<K,V>
         }
     }
 
+    /* ---------------- Range scans -------------- */
+
+    /*
+     * The range scans below locate the first node of the range with a
+     * single findNear and then walk the base-level list, comparing
+     * each key only against the upper bound, without creating
+     * iterators, submaps or entries.  Like iterators, they are weakly
+     * consistent.  A null bound means the range is unbounded at that
+     * end; the public methods require both bounds, as does subMap.
+     */
+
+    /**
+     * Returns the first node at or above the lower bound, which might
+     * be beyond the upper bound, or null if none.
+     */
+    private Node<K,V> findRangeStart(K lo, boolean loInclusive,
+                                     Comparator<? super K> cmp) {
+        return (lo == null) ? findFirst()
+            : findNear(lo, loInclusive ? GT|EQ : GT, cmp);
+    }
+
+    /**
+     * Returns true if the key is above the upper bound hi.
+     */
+    static boolean isAfterRange(Comparator<?> cmp, Object key,
+                                Object hi, boolean hiInclusive) {
+        int c;
+        return (hi != null && ((c = cpr(cmp, key, hi)) > 0 ||
+                               (c == 0 && !hiInclusive)));
+    }
+
+    /**
+     * Checks the bounds of a public range scan, as for subMap.
+     */
+    private void checkRange(K fromKey, K toKey) {
+        if (fromKey == null || toKey == null)
+            throw new NullPointerException();
+        if (cpr(comparator, fromKey, toKey) > 0)
+            throw new IllegalArgumentException("inconsistent range");
+    }
+
+    final void doForEachInRange(K lo, boolean loInclusive,
+                                K hi, boolean hiInclusive,
+                                BiConsumer<? super K, ? super V> action) {
+        Comparator<? super K> cmp = comparator;
+        V v;
+        for (Node<K,V> n = findRangeStart(lo, loInclusive, cmp); n != null;
+             n = n.next) {
+            if ((v = n.getValidValue()) != null) {
+                K k = n.key;
+                if (isAfterRange(cmp, k, hi, hiInclusive))
+                    break;
+                action.accept(k, v);
+            }
+        }
+    }
+
+    /**
+     * Performs the given action for each mapping whose key lies in the
+     * given range, in ascending key order.  This has the same effect as
+     * {@code subMap(fromKey, fromInclusive, toKey, toInclusive).forEach(action)},
+     * but locates the start of the range once and then steps directly
+     * from one mapping to the next, without allocating.  Like the
+     * iterators of this map, it is weakly consistent with concurrent
+     * updates.
+     *
+     * @param fromKey low endpoint of the keys
+     * @param fromInclusive {@code true} if the low endpoint
+     *        is to be included
+     * @param toKey high endpoint of the keys
+     * @param toInclusive {@code true} if the high endpoint
+     *        is to be included
+     * @param action the action
+     * @throws ClassCastException if the bounds cannot be compared with
+     *         the keys of this map
+     * @throws NullPointerException if {@code fromKey}, {@code toKey} or
+     *         the action is null
+     * @throws IllegalArgumentException if {@code fromKey} is greater than
+     *         {@code toKey}
+     * @since 9
+     */
+    public void forEachInRange(K fromKey, boolean fromInclusive,
+                               K toKey, boolean toInclusive,
+                               BiConsumer<? super K, ? super V> action) {
+        if (action == null) throw new NullPointerException();
+        checkRange(fromKey, toKey);
+        doForEachInRange(fromKey, fromInclusive, toKey, toInclusive, action);
+    }
+
+    /**
+     * Returns the result of accumulating the given transformation of
+     * the mappings whose keys lie in the given range, in ascending key
+     * order, using the given reducer to combine values and the given
+     * basis as an identity value.  No boxing or allocation occurs
+     * beyond what the functions themselves perform.
+     *
+     * @param fromKey low endpoint of the keys
+     * @param fromInclusive {@code true} if the low endpoint
+     *        is to be included
+     * @param toKey high endpoint of the keys
+     * @param toInclusive {@code true} if the high endpoint
+     *        is to be included
+     * @param transformer a function returning the transformation
+     * for a mapping
+     * @param basis the identity (initial default value) for the reduction
+     * @param reducer a combining function
+     * @return the result of accumulating the given transformation
+     * of the mappings in the range
+     * @throws ClassCastException if the bounds cannot be compared with
+     *         the keys of this map
+     * @throws NullPointerException if any argument is null
+     * @throws IllegalArgumentException if {@code fromKey} is greater than
+     *         {@code toKey}
+     * @since 9
+     */
+    public long reduceInRangeToLong(K fromKey, boolean fromInclusive,
+                                    K toKey, boolean toInclusive,
+                                    ToLongBiFunction<? super K, ? super V> transformer,
+                                    long basis,
+                                    LongBinaryOperator reducer) {
+        if (transformer == null || reducer == null)
+            throw new NullPointerException();
+        checkRange(fromKey, toKey);
+        Comparator<? super K> cmp = comparator;
+        long r = basis;
+        V v;
+        for (Node<K,V> n = findRangeStart(fromKey, fromInclusive, cmp);
+             n != null; n = n.next) {
+            if ((v = n.getValidValue()) != null) {
+                K k = n.key;
+                if (isAfterRange(cmp, k, toKey, toInclusive))
+                    break;
+                r = reducer.applyAsLong(r, transformer.applyAsLong(k, v));
+            }
+        }
+        return r;
+    }
+
+    /**
+     * Copies the mappings whose keys lie in the given range, in
+     * ascending key order, into the given arrays in batches, invoking
+     * the action with the number of mappings in each batch.  A batch
+     * fills the key array (and the value array, if not null), except
+     * for a final partial batch; the arrays are reused for each batch,
+     * so the action must consume their contents before returning.
+     * Processing mappings a batch at a time keeps the traversal of the
+     * map apart from the work done on each mapping, and allocates
+     * nothing.
+     *
+     * @param fromKey low endpoint of the keys
+     * @param fromInclusive {@code true} if the low endpoint
+     *        is to be included
+     * @param toKey high endpoint of the keys
+     * @param toInclusive {@code true} if the high endpoint
+     *        is to be included
+     * @param keys the array into which to copy keys
+     * @param values the array into which to copy values, or null if
+     *        only keys are wanted
+     * @param action the action, accepting the number of mappings copied
+     * @return the total number of mappings in the range
+     * @throws ClassCastException if the bounds cannot be compared with
+     *         the keys of this map
+     * @throws NullPointerException if {@code fromKey}, {@code toKey},
+     *         the key array or the action is null
+     * @throws IllegalArgumentException if {@code fromKey} is greater than
+     *         {@code toKey}, the key array is empty, or the value array
+     *         is shorter than the key array
+     * @since 9
+     */
+    public long forEachBatchInRange(K fromKey, boolean fromInclusive,
+                                    K toKey, boolean toInclusive,
+                                    K[] keys, V[] values,
+                                    IntConsumer action) {
+        if (keys == null || action == null)
+            throw new NullPointerException();
+        int batch = keys.length;
+        if (batch == 0 || (values != null && values.length < batch))
+            throw new IllegalArgumentException();
+        checkRange(fromKey, toKey);
+        Comparator<? super K> cmp = comparator;
+        long total = 0L;
+        int i = 0;
+        V v;
+        for (Node<K,V> n = findRangeStart(fromKey, fromInclusive, cmp);
+             n != null; n = n.next) {
+            if ((v = n.getValidValue()) != null) {
+                K k = n.key;
+                if (isAfterRange(cmp, k, toKey, toInclusive))
+                    break;
+                keys[i] = k;
+                if (values != null)
+                    values[i] = v;
+                if (++i == batch) {
+                    total += i;
+                    i = 0;
+                    action.accept(batch);
+                }
+            }
+        }
+        if (i > 0) {
+            total += i;
+            action.accept(i);
+        }
+        return total;
+    }
+
+    /**
+     * Returns an array holding a snapshot of the keys in the given
+     * range, in ascending order.  The array is created by the given
+     * generator, as for {@link java.util.stream.Stream#toArray(IntFunction)},
+     * once the number of keys is known.
+     *
+     * @param fromKey low endpoint of the keys
+     * @param fromInclusive {@code true} if the low endpoint
+     *        is to be included
+     * @param toKey high endpoint of the keys
+     * @param toInclusive {@code true} if the high endpoint
+     *        is to be included
+     * @param generator a function producing a new array of the desired
+     *        type and the provided length
+     * @return an array of the keys in the range
+     * @throws ClassCastException if the bounds cannot be compared with
+     *         the keys of this map
+     * @throws NullPointerException if any argument is null
+     * @throws IllegalArgumentException if {@code fromKey} is greater than
+     *         {@code toKey}
+     * @since 9
+     */
+    public K[] keysInRange(K fromKey, boolean fromInclusive,
+                           K toKey, boolean toInclusive,
+                           IntFunction<K[]> generator) {
+        if (generator == null)
+            throw new NullPointerException();
+        checkRange(fromKey, toKey);
+        Comparator<? super K> cmp = comparator;
+        ArrayList<K> list = new ArrayList<K>();
+        for (Node<K,V> n = findRangeStart(fromKey, fromInclusive, cmp);
+             n != null; n = n.next) {
+            if (n.getValidValue() != null) {
+                K k = n.key;
+                if (isAfterRange(cmp, k, toKey, toInclusive))
+                    break;
+                list.add(k);
+            }
+        }
+        return list.toArray(generator.apply(list.size()));
+    }
+
     /**
      * Base class providing common structure for Spliterators.
      * (Although not all that much common functionality; as usual for
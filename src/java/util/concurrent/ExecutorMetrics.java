@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.lang.management.ExecutorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Task metrics of a {@link ThreadPoolExecutor}, {@link
+ * ScheduledThreadPoolExecutor} or {@link ForkJoinPool}: counts of tasks
+ * started, completed and rejected, and histograms of the time tasks wait
+ * in the queue and the time they take to execute.  Recording is opt-in:
+ * an executor creates its metrics on the first call to its {@code
+ * getMetrics} method, and until then does no work for them.  From then
+ * on it records them using only lock-free updates, so all methods may be
+ * polled at high frequency without interfering with the executor.
+ *
+ * <p>Calling {@link #publish} registers the metrics with the platform
+ * {@code MBeanServer} as an {@link ExecutorMXBean}; they are unregistered
+ * automatically when the executor terminates.  Values reported while
+ * tasks are running are estimates, and are not atomic with respect to
+ * one another.
+ *
+ * <p>For a {@code ForkJoinPool}, times are recorded for tasks taken
+ * from a queue by a worker at top level, not for those run while
+ * joining another task, and no queue wait is recorded, since that would
+ * need a timestamp in every task.
+ *
+ * @since 9
+ */
+public final class ExecutorMetrics implements ExecutorMXBean {
+
+    private static final String DOMAIN_AND_TYPE =
+        "java.util.concurrent:type=Executor";
+
+    private final Executor executor;
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram executionTime = new LatencyHistogram();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /** The published name, or null; written under synchronization. */
+    private volatile String name;
+
+    /** Whether the executor has terminated; guarded by this. */
+    private boolean terminated;
+
+    ExecutorMetrics(Executor executor) {
+        this.executor = executor;
+    }
+
+    // Recording, by the executor
+
+    /**
+     * Records the start of a task that waited the given time, or for
+     * which no wait is known if negative.
+     */
+    void taskStarted(long queueWaitNanos) {
+        started.increment();
+        if (queueWaitNanos >= 0L)
+            queueWait.record(queueWaitNanos);
+    }
+
+    void taskCompleted(long executionNanos) {
+        completed.increment();
+        executionTime.record(executionNanos);
+    }
+
+    void taskRejected() {
+        rejected.increment();
+    }
+
+    /**
+     * Unpublishes the metrics, if published, when the executor
+     * terminates, so that the platform MBeanServer does not retain it.
+     */
+    void executorTerminated() {
+        synchronized (this) {
+            terminated = true;
+        }
+        try {
+            unpublish();
+        } catch (RuntimeException ignore) {
+            // e.g. SecurityException; registration outlives the executor
+        }
+    }
+
+    // Publication
+
+    /**
+     * Registers these metrics with the {@linkplain
+     * ManagementFactory#getPlatformMBeanServer platform MBeanServer}
+     * under the name {@code java.util.concurrent:type=Executor,name=}
+     * <i>name</i>.  They remain registered until {@link #unpublish} is
+     * called or the executor terminates.
+     *
+     * @param name the name of the executor, which must be a legal
+     *        {@link ObjectName} key property value
+     * @throws NullPointerException if name is null
+     * @throws IllegalArgumentException if the name is malformed or is
+     *         already registered
+     * @throws IllegalStateException if these metrics are already
+     *         published or the executor has terminated
+     * @throws SecurityException if the caller does not have the
+     *         permissions needed to register an MBean
+     */
+    public synchronized void publish(String name) {
+        if (name == null)
+            throw new NullPointerException();
+        if (this.name != null || terminated)
+            throw new IllegalStateException();
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                .registerMBean(this, objectNameFor(name));
+        } catch (JMException ex) {
+            throw new IllegalArgumentException(ex);
+        }
+        this.name = name;
+    }
+
+    /**
+     * Unregisters these metrics from the platform MBeanServer if they
+     * are published.
+     *
+     * @throws SecurityException if the caller does not have the
+     *         permissions needed to unregister an MBean
+     */
+    public synchronized void unpublish() {
+        String n = name;
+        if (n != null) {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            try {
+                ObjectName on = objectNameFor(n);
+                if (server.isRegistered(on))
+                    server.unregisterMBean(on);
+            } catch (JMException ignore) {
+                // someone else unregistered it
+            }
+            name = null;
+        }
+    }
+
+    private static ObjectName objectNameFor(String name) throws JMException {
+        return new ObjectName(DOMAIN_AND_TYPE + ",name=" + name);
+    }
+
+    // ExecutorMXBean
+
+    public String getName() {
+        return name;
+    }
+
+    public String getExecutorClassName() {
+        return executor.getClass().getName();
+    }
+
+    public long getStartedTaskCount() {
+        return started.sum();
+    }
+
+    public long getCompletedTaskCount() {
+        return completed.sum();
+    }
+
+    public long getActiveTaskCount() {
+        long n = completed.sum();   // read first to avoid negative results
+        n = started.sum() - n;
+        return (n < 0L) ? 0L : n;
+    }
+
+    public long getRejectedTaskCount() {
+        return rejected.sum();
+    }
+
+    public long getQueueWaitCount() {
+        return queueWait.count();
+    }
+
+    public double getQueueWaitMean() {
+        return queueWait.mean();
+    }
+
+    public long getQueueWaitMax() {
+        return queueWait.max();
+    }
+
+    public long getQueueWaitPercentile(double percentile) {
+        return queueWait.percentile(percentile);
+    }
+
+    public long getExecutionTimeCount() {
+        return executionTime.count();
+    }
+
+    public double getExecutionTimeMean() {
+        return executionTime.mean();
+    }
+
+    public long getExecutionTimeMax() {
+        return executionTime.max();
+    }
+
+    public long getExecutionTimePercentile(double percentile) {
+        return executionTime.percentile(percentile);
+    }
+
+    public void resetHistograms() {
+        queueWait.reset();
+        executionTime.reset();
+        rejected.reset();
+    }
+}
@@ -1053,7 +1053,15 @@ public class ForkJoinPool extends AbstractExecutorService {
         final void runTask(ForkJoinTask<?> task) {
             if (task != null) {
                 scanState &= ~SCANNING; // mark as busy
+                ExecutorMetrics m = (pool == null) ? null : pool.metrics;
+                long start = 0L;
+                if (m != null) {
+                    m.taskStarted(-1L);
+                    start = System.nanoTime();
+                }
                 (currentSteal = task).doExec();
+                if (m != null)
+                    m.taskCompleted(System.nanoTime() - start);
                 U.putOrderedObject(this, QCURRENTSTEAL, null); // release for GC
                 execLocalTasks();
                 ForkJoinWorkerThread thread = owner;
@@ -1396,6 +1404,7 @@ public class ForkJoinPool extends AbstractExecutorService {
     final UncaughtExceptionHandler ueh;  // per-worker UEH
     final String workerNamePrefix;       // to create worker name string
     volatile AtomicLong stealCounter;    // also used as sync monitor
+    volatile ExecutorMetrics metrics;    // null until getMetrics
 
     /**
      * Acquires the runState lock; returns current (locked) runState.
@@ -2266,6 +2275,9 @@ public class ForkJoinPool extends AbstractExecutorService {
                     rs = lockRunState();          // done
                     unlockRunState(rs, (rs & ~RSLOCK) | TERMINATED);
                     synchronized (this) { notifyAll(); } // for awaitTermination
+                    ExecutorMetrics em = metrics;
+                    if (em != null)
+                        em.executorTerminated();
                 }
                 break;
             }
@@ -2325,6 +2337,9 @@ public class ForkJoinPool extends AbstractExecutorService {
             boolean move = false;
             if ((rs = runState) < 0) {
                 tryTerminate(false, false);     // help terminate
+                ExecutorMetrics em = metrics;
+                if (em != null)
+                    em.taskRejected();
                 throw new RejectedExecutionException();
             }
             else if ((rs & STARTED) == 0 ||     // initialize
@@ -2840,6 +2855,31 @@ public class ForkJoinPool extends AbstractExecutorService {
         return (config & SMASK) + (int)(ctl >> AC_SHIFT) <= 0;
     }
 
+    /**
+     * Returns the task metrics of this pool, which are recorded without
+     * locking and may be {@linkplain ExecutorMetrics#publish published}
+     * as an MXBean.  Metrics are not recorded until this method is first
+     * called, so they cover only the tasks started or rejected after
+     * that.
+     *
+     * @return the task metrics
+     * @since 9
+     */
+    public ExecutorMetrics getMetrics() {
+        ExecutorMetrics m = metrics;
+        if (m == null) {
+            synchronized (this) {
+                if ((m = metrics) == null)
+                    metrics = m = new ExecutorMetrics(this);
+            }
+            // Termination reads metrics after setting its state, so
+            // either it saw m or m sees that the pool terminated
+            if (isTerminated())
+                m.executorTerminated();
+        }
+        return m;
+    }
+
     /**
      * Returns an estimate of the total number of tasks stolen from
      * one thread's work queue by another. The reported value
@@ -119,6 +119,11 @@ public class FutureTask<V> implements RunnableFuture<V> {
      * Treiber stack of waiting threads
      */
     private volatile WaitNode waiters;
+    /**
+     * The System.nanoTime at which ThreadPoolExecutor.execute queued
+     * this task, or zero; read when the task starts, for metrics
+     */
+    long queuedNanos;
 
     /**
      * Returns result or throws exception for completed task.
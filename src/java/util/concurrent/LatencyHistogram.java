@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent histogram of non-negative long values, typically
+ * nanosecond durations, with bounded relative error in the manner of an
+ * HDR histogram.  Values below 16 have a bucket each; above that, each
+ * power of two is divided into 16 equal buckets, so a value is reported
+ * as the upper bound of its bucket, at most one part in sixteen above
+ * it.  Every long value can be recorded in the 960 buckets.
+ *
+ * <p>Recording is lock-free.  Counts are first kept in a single array;
+ * once recording threads are seen to collide, each thread instead
+ * updates one of a set of arrays chosen by its probe, in the manner of
+ * {@link LongAdder}, and reads sum over all of them.  Reads are not
+ * atomic with respect to concurrent recording.
+ */
+final class LatencyHistogram {
+
+    /** Log2 of the number of buckets per power of two. */
+    static final int SUB_BITS = 4;
+    static final int SUB_COUNT = 1 << SUB_BITS;
+
+    /** Enough buckets for Long.MAX_VALUE. */
+    static final int BUCKETS = (Long.SIZE - SUB_BITS) << SUB_BITS;
+
+    /** Upper bound on the number of striped count arrays. */
+    static final int MAX_CELLS =
+        Math.min(Integer.highestOneBit(
+                     Runtime.getRuntime().availableProcessors() - 1) << 1,
+                 8);
+
+    /** The counts until contention is seen. */
+    final AtomicLongArray base = new AtomicLongArray(BUCKETS);
+
+    /** Striped counts, created on first contention. */
+    volatile AtomicLongArray[] cells;
+
+    final LongAdder count = new LongAdder();
+    final LongAdder sum = new LongAdder();
+    final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    /** Returns the bucket holding the given non-negative value. */
+    static int bucketOf(long v) {
+        if (v < SUB_COUNT)
+            return (int)v;
+        int e = 63 - Long.numberOfLeadingZeros(v);
+        int sub = (int)(v >>> (e - SUB_BITS)) & (SUB_COUNT - 1);
+        return ((e - SUB_BITS + 1) << SUB_BITS) + sub;
+    }
+
+    /** Returns the largest value held by the given bucket. */
+    static long highestValueOf(int bucket) {
+        if (bucket < SUB_COUNT)
+            return bucket;
+        int shift = (bucket >>> SUB_BITS) - 1;
+        long low = (long)(SUB_COUNT + (bucket & (SUB_COUNT - 1))) << shift;
+        return low + ((1L << shift) - 1L);
+    }
+
+    /**
+     * Records a value; negative values, as may arise from a clock
+     * adjustment, are recorded as zero.
+     */
+    void record(long v) {
+        if (v < 0L)
+            v = 0L;
+        int i = bucketOf(v);
+        AtomicLongArray[] cs;
+        if ((cs = cells) == null) {
+            long n = base.get(i);
+            if (!base.compareAndSet(i, n, n + 1L))
+                cs = expand();
+        }
+        if (cs != null) {
+            int p;
+            if ((p = ThreadLocalRandom.getProbe()) == 0) {
+                ThreadLocalRandom.localInit();
+                p = ThreadLocalRandom.getProbe();
+            }
+            cs[p & (cs.length - 1)].getAndIncrement(i);
+        }
+        count.increment();
+        sum.add(v);
+        if (v > max.get())
+            max.accumulate(v);
+    }
+
+    /**
+     * Creates the striped arrays, if not already present, and returns
+     * them.
+     */
+    private AtomicLongArray[] expand() {
+        AtomicLongArray[] cs;
+        synchronized (this) {
+            if ((cs = cells) == null) {
+                cs = new AtomicLongArray[Math.max(MAX_CELLS, 1)];
+                cs[0] = base;
+                for (int j = 1; j < cs.length; ++j)
+                    cs[j] = new AtomicLongArray(BUCKETS);
+                cells = cs;
+            }
+        }
+        return cs;
+    }
+
+    long count() {
+        return count.sum();
+    }
+
+    long max() {
+        return max.get();
+    }
+
+    double mean() {
+        long n = count.sum();
+        return (n == 0L) ? 0.0 : (double)sum.sum() / n;
+    }
+
+    /**
+     * Returns the upper bound of the bucket holding the value at the
+     * given percentile, capped at the largest value recorded.
+     */
+    long percentile(double percentile) {
+        if (!(percentile >= 0.0 && percentile <= 100.0))
+            throw new IllegalArgumentException();
+        long[] counts = new long[BUCKETS];
+        long total = 0L;
+        AtomicLongArray[] cs = cells;
+        if (cs == null)
+            cs = new AtomicLongArray[] { base };
+        for (AtomicLongArray c : cs) {
+            for (int i = 0; i < BUCKETS; ++i) {
+                long n = c.get(i);
+                counts[i] += n;
+                total += n;
+            }
+        }
+        if (total == 0L)
+            return 0L;
+        long rank = Math.max(1L, (long)Math.ceil(percentile / 100.0 * total));
+        long seen = 0L;
+        for (int i = 0; i < BUCKETS; ++i) {
+            if ((seen += counts[i]) >= rank)
+                return Math.min(highestValueOf(i), max.get());
+        }
+        return max.get();
+    }
+
+    /**
+     * Discards all recorded values.  Values recorded concurrently may be
+     * partly retained.
+     */
+    void reset() {
+        AtomicLongArray[] cs = cells;
+        if (cs == null)
+            cs = new AtomicLongArray[] { base };
+        for (AtomicLongArray c : cs) {
+            for (int i = 0; i < BUCKETS; ++i)
+                c.set(i, 0L);
+        }
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+}
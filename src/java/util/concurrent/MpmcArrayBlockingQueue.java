@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+
+package java.util.concurrent;
+
+import java.util.Collection;
+
+/**
+ * A bounded {@linkplain BlockingQueue blocking queue} backed by a ring
+ * array, for use by any number of producer and consumer threads.  Each
+ * slot carries a sequence number recording which lap of the ring it is
+ * ready for: a producer may fill slot {@code i} for index {@code p} only
+ * when its sequence equals {@code p}, and a consumer may empty it for
+ * index {@code c} only when its sequence equals {@code c + 1}.  Producers
+ * and consumers claim indices by compare-and-set on their own padded
+ * counters, so the two ends never contend with each other, and a slot
+ * is handed between them by a single ordered store of its sequence.
+ *
+ * <p>Blocking methods wait according to the queue's {@link
+ * WaitStrategy}.  This queue does not permit {@code null} elements.  A
+ * {@code poll} may transiently report the queue empty while a producer
+ * that has claimed the head slot has not yet published its element.
+ *
+ * <p>Any thread may remove interior elements, as {@link
+ * ThreadPoolExecutor#remove} and {@link ThreadPoolExecutor#purge} do.  A
+ * removed element keeps its slot, and so still counts towards {@code
+ * size}, until it reaches the head.  Since a remover may race with a
+ * consumer for the same element, consumers take elements from their
+ * claimed slots by atomic exchange, rather than by a plain read and
+ * write.
+ *
+ * @param <E> the type of elements held in this queue
+ * @see SpscArrayBlockingQueue
+ * @see MpscArrayBlockingQueue
+ * @since 9
+ */
+public class MpmcArrayBlockingQueue<E> extends RingBlockingQueue<E> {
+
+    /** Per-slot sequence numbers, parallel to buffer. */
+    private final long[] sequences;
+
+    /**
+     * Creates a queue with the given capacity that parks waiting threads.
+     *
+     * @param capacity the capacity of this queue
+     * @throws IllegalArgumentException if capacity is not in [1, 2^30]
+     */
+    public MpmcArrayBlockingQueue(int capacity) {
+        this(capacity, WaitStrategy.parking(TimeUnit.MILLISECONDS.toNanos(1L)));
+    }
+
+    /**
+     * Creates a queue with the given capacity and wait strategy.
+     *
+     * @param capacity the capacity of this queue
+     * @param waitStrategy how blocking methods wait
+     * @throws IllegalArgumentException if capacity is not in [1, 2^30]
+     * @throws NullPointerException if waitStrategy is null
+     */
+    public MpmcArrayBlockingQueue(int capacity, WaitStrategy waitStrategy) {
+        super(capacity, waitStrategy);
+        long[] seq = new long[buffer.length];
+        for (int i = 0; i < seq.length; ++i)
+            seq[i] = i;
+        this.sequences = seq;
+    }
+
+    private long seqOffset(long index) {
+        return ((long)((int)index & mask) << 3) + LBASE;
+    }
+
+    private long sequence(long index) {
+        return U.getLongVolatile(sequences, seqOffset(index));
+    }
+
+    public boolean offer(E e) {
+        checkNotNull(e);
+        for (;;) {
+            long p = producerIndex;
+            long s = sequence(p);
+            if (s == p) {
+                if (p - consumerIndex >= capacity)
+                    return false;
+                if (U.compareAndSwapLong(this, PINDEX, p, p + 1L)) {
+                    U.putObject(buffer, slotOffset(p), e);
+                    U.putOrderedLong(sequences, seqOffset(p), p + 1L);
+                    return true;
+                }
+            }
+            else if (s < p)
+                return false;           // slot not yet emptied: full
+        }
+    }
+
+    public E poll() {
+        for (;;) {
+            long c = consumerIndex;
+            long s = sequence(c);
+            if (s == c + 1L) {
+                if (U.compareAndSwapLong(this, CINDEX, c, c + 1L)) {
+                    Object e = U.getAndSetObject(buffer, slotOffset(c), null);
+                    U.putOrderedLong(sequences, seqOffset(c), c + mask + 1L);
+                    if (e != REMOVED) {
+                        @SuppressWarnings("unchecked") E r = (E)e;
+                        return r;
+                    }
+                }
+            }
+            else if (s < c + 1L)
+                return null;            // slot not yet filled: empty
+        }
+    }
+
+    public E peek() {
+        for (;;) {
+            long c = consumerIndex;
+            if (sequence(c) != c + 1L)
+                return null;
+            long off = slotOffset(c);
+            Object e = U.getObjectVolatile(buffer, off);
+            if (e == REMOVED) {
+                // Discard the placeholder, which no other thread changes
+                if (U.compareAndSwapLong(this, CINDEX, c, c + 1L)) {
+                    U.putObject(buffer, off, null);
+                    U.putOrderedLong(sequences, seqOffset(c), c + mask + 1L);
+                }
+            }
+            else if (e != null && c == consumerIndex) {
+                @SuppressWarnings("unchecked") E r = (E)e;
+                return r;
+            }
+        }
+    }
+
+    /**
+     * Claims the run of filled slots at the head (at most max) with one
+     * compare-and-set, releases them all, and only then hands the
+     * elements to the collection, so that a failing add cannot leave
+     * claimed slots unreleased.  If the run held only placeholders,
+     * claims the next.
+     */
+    final int drain(Collection<? super E> dst, int max) {
+        for (;;) {
+            long c = consumerIndex;
+            int n = 0;
+            while (n < max && n <= mask && sequence(c + n) == c + n + 1L)
+                ++n;
+            if (n == 0)
+                return 0;
+            if (U.compareAndSwapLong(this, CINDEX, c, c + n)) {
+                Object[] es = new Object[n];
+                int moved = 0;
+                for (int i = 0; i < n; ++i) {
+                    Object e = U.getAndSetObject(buffer, slotOffset(c + i), null);
+                    U.putOrderedLong(sequences, seqOffset(c + i), c + i + mask + 1L);
+                    if (e != REMOVED)
+                        es[moved++] = e;
+                }
+                for (int i = 0; i < moved; ++i) {
+                    @SuppressWarnings("unchecked") E x = (E)es[i];
+                    dst.add(x);
+                }
+                if (moved > 0)
+                    return moved;
+            }
+        }
+    }
+
+    final int fill(Object[] es, int off, int len) {
+        for (;;) {
+            long p = producerIndex;
+            int room = (int)Math.min(capacity - (p - consumerIndex), (long)len);
+            int n = 0;
+            while (n < room && sequence(p + n) == p + n)
+                ++n;
+            if (n == 0)
+                return 0;
+            if (U.compareAndSwapLong(this, PINDEX, p, p + n)) {
+                for (int i = 0; i < n; ++i) {
+                    U.putObject(buffer, slotOffset(p + i), es[off + i]);
+                    U.putOrderedLong(sequences, seqOffset(p + i), p + i + 1L);
+                }
+                return n;
+            }
+        }
+    }
+
+    private static final long LBASE = U.arrayBaseOffset(long[].class);
+}
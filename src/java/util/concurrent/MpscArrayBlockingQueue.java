@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+
+package java.util.concurrent;
+
+import java.util.Collection;
+
+/**
+ * A bounded {@linkplain BlockingQueue blocking queue} backed by a ring
+ * array, for use by any number of producer threads and exactly one
+ * consumer thread at a time.  Producers claim slots by compare-and-set
+ * on the shared producer index and then publish the element into the
+ * claimed slot; the consumer, having no competitor, advances its index
+ * with ordered stores only.  When it finds a claimed slot whose element
+ * has not yet been published, it waits for the producer, idling
+ * according to the queue's {@link WaitStrategy}, even in non-blocking
+ * methods; publication normally follows the claim within a few
+ * instructions, but may be delayed if the producer is descheduled.
+ *
+ * <p>Removal methods ({@code poll}, {@code take}, {@code peek}, {@code
+ * drainTo}, {@link #remove(Object)} and removal through an iterator) may
+ * be called by only one thread at a time; the results of violating this
+ * are undefined.  Blocking methods wait according to the queue's {@link
+ * WaitStrategy}.  This queue does not permit {@code null} elements.  An
+ * interior element that is removed keeps its slot, and so still counts
+ * towards {@code size}, until it reaches the head.
+ *
+ * @param <E> the type of elements held in this queue
+ * @see SpscArrayBlockingQueue
+ * @see MpmcArrayBlockingQueue
+ * @since 9
+ */
+public class MpscArrayBlockingQueue<E> extends RingBlockingQueue<E> {
+
+    /**
+     * Creates a queue with the given capacity that parks waiting threads.
+     *
+     * @param capacity the capacity of this queue
+     * @throws IllegalArgumentException if capacity is not in [1, 2^30]
+     */
+    public MpscArrayBlockingQueue(int capacity) {
+        this(capacity, WaitStrategy.parking(TimeUnit.MILLISECONDS.toNanos(1L)));
+    }
+
+    /**
+     * Creates a queue with the given capacity and wait strategy.
+     *
+     * @param capacity the capacity of this queue
+     * @param waitStrategy how blocking methods wait
+     * @throws IllegalArgumentException if capacity is not in [1, 2^30]
+     * @throws NullPointerException if waitStrategy is null
+     */
+    public MpscArrayBlockingQueue(int capacity, WaitStrategy waitStrategy) {
+        super(capacity, waitStrategy);
+    }
+
+    public boolean offer(E e) {
+        checkNotNull(e);
+        for (;;) {
+            long p = producerIndex;
+            if (p - consumerIndex >= capacity)
+                return false;
+            if (U.compareAndSwapLong(this, PINDEX, p, p + 1L)) {
+                U.putOrderedObject(buffer, slotOffset(p), e);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the element in slot c, waiting for its producer to publish
+     * it if the slot has been claimed, or null if the queue is empty.
+     */
+    private Object await(long c) {
+        long off = slotOffset(c);
+        Object e = U.getObjectVolatile(buffer, off);
+        if (e == null && c != producerIndex)
+            e = awaitPublished(off);
+        return e;
+    }
+
+    /**
+     * Waits for the element of a claimed slot to be published.
+     */
+    private Object awaitPublished(long off) {
+        Object e;
+        for (int attempts = 0;
+             (e = U.getObjectVolatile(buffer, off)) == null; ++attempts)
+            waitStrategy.idle(attempts);
+        return e;
+    }
+
+    public E poll() {
+        for (;;) {
+            long c = consumerIndex;
+            Object e = await(c);
+            if (e == null)
+                return null;
+            U.putOrderedObject(buffer, slotOffset(c), null);
+            U.putOrderedLong(this, CINDEX, c + 1L);
+            if (e != REMOVED) {
+                @SuppressWarnings("unchecked") E r = (E)e;
+                return r;
+            }
+        }
+    }
+
+    public E peek() {
+        for (;;) {
+            long c = consumerIndex;
+            Object e = await(c);
+            if (e != REMOVED) {
+                @SuppressWarnings("unchecked") E r = (E)e;
+                return r;
+            }
+            U.putOrderedObject(buffer, slotOffset(c), null);
+            U.putOrderedLong(this, CINDEX, c + 1L);
+        }
+    }
+
+    final int drain(Collection<? super E> dst, int max) {
+        long c = consumerIndex, p = producerIndex;
+        int i = 0, moved = 0;
+        try {
+            for (; c + i < p && moved < max; ++i) {
+                long off = slotOffset(c + i);
+                Object e = U.getObjectVolatile(buffer, off);
+                if (e == null)
+                    e = awaitPublished(off);
+                if (e != REMOVED) {
+                    @SuppressWarnings("unchecked") E x = (E)e;
+                    dst.add(x);
+                    ++moved;
+                }
+                U.putOrderedObject(buffer, off, null);
+            }
+        } finally {
+            if (i > 0)
+                U.putOrderedLong(this, CINDEX, c + i);
+        }
+        return moved;
+    }
+
+    final int fill(Object[] es, int off, int len) {
+        for (;;) {
+            long p = producerIndex;
+            int n = (int)Math.min(capacity - (p - consumerIndex), (long)len);
+            if (n <= 0)
+                return 0;
+            if (U.compareAndSwapLong(this, PINDEX, p, p + n)) {
+                for (int i = 0; i < n; ++i)
+                    U.putOrderedObject(buffer, slotOffset(p + i), es[off + i]);
+                return n;
+            }
+        }
+    }
+}
@@ -0,0 +1,954 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+
+/**
+ * A hash table mapping byte-string keys to byte-string values in which
+ * all keys, values and the bin table itself live outside the Java heap,
+ * in direct {@link ByteBuffer} slabs.  Heap occupancy therefore stays
+ * essentially constant however many mappings are held, and the garbage
+ * collector never traces or copies cached data.
+ *
+ * <p>Keys and values are supplied and returned either as {@code byte[]}
+ * or as {@code ByteBuffer} (whose remaining bytes are used; positions of
+ * argument buffers are never changed).  Two keys are equal if they hold
+ * the same bytes.  Neither keys nor values may be {@code null}; empty
+ * arrays are permitted.
+ *
+ * <p>Concurrency follows the design of {@link ConcurrentHashMap}:
+ * retrievals do not ordinarily block, updates to different bins proceed
+ * in parallel, each bin being guarded by a lock, and the table is
+ * doubled (with the same lo/hi bin split as {@code
+ * ConcurrentHashMap.transfer}) once the element count crosses
+ * three-quarters of capacity, by the inserting threads transferring bins
+ * cooperatively while other operations continue.  Since off-heap entries cannot themselves be
+ * locked, bins are guarded by a fixed array of striped {@link
+ * java.util.concurrent.locks.StampedLock StampedLocks}, and the table
+ * length is never smaller than the number of stripes, so a bin and its
+ * two successors after a doubling always share a stripe.  Transfers
+ * therefore proceed a stripe, rather than a bin, at a time.
+ *
+ * <p>Memory of removed entries is recycled immediately, so unlike in
+ * {@code ConcurrentHashMap} a reader may come upon a block that has been
+ * reused by another entry.  Retrievals therefore read under an
+ * optimistic stamp of their stripe and validate it afterwards,
+ * repeating the read under the stripe's read lock if an update to the
+ * stripe intervened.  Uncontended retrievals write no shared state; a
+ * retrieval that keeps racing with updates of its stripe waits for them.
+ *
+ * <p>Entry storage is obtained from slabs of a fixed size by a simple
+ * segregated-fit allocator: each entry occupies a block whose size is the
+ * next power of two of its encoded length, and freed blocks are kept on
+ * per-size free lists for reuse.  Slabs are never returned to the system
+ * until {@link #clear} is invoked, after which they become unreachable
+ * and are released by the usual {@code DirectByteBuffer} cleaner.  An
+ * entry must fit in one slab.
+ *
+ * <p>Like {@code ConcurrentHashMap}, iteration by {@link #forEach} is
+ * weakly consistent.  The buffers passed to the action are read-only
+ * views of off-heap storage that are valid only for the duration of the
+ * call.
+ *
+ * @since 9
+ */
+public class OffHeapConcurrentHashMap {
+
+    /* ---------------- Constants -------------- */
+
+    /**
+     * The largest possible table capacity.  The bin table is a single
+     * direct buffer of eight-byte addresses, so it is bounded by the
+     * maximum buffer size.
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 27;
+
+    /**
+     * The default initial table capacity.
+     */
+    private static final int DEFAULT_CAPACITY = 1 << 10;
+
+    /**
+     * The default slab size: 16 megabytes.
+     */
+    private static final int DEFAULT_SLAB_SIZE = 1 << 24;
+
+    /**
+     * The smallest allocation block, as a shift.  Must hold a header.
+     */
+    private static final int MIN_BLOCK_SHIFT = 5;
+
+    /**
+     * Entry layout within a block:  next entry address (long), spread
+     * hash (int), key length (int), value length (int), block size class
+     * (int), then the key bytes immediately followed by the value bytes.
+     * A free block reuses the first word as its free-list link.
+     */
+    private static final int NEXT = 0, HASH = 8, KLEN = 12, VLEN = 16,
+        CLASS = 20, HEADER = 24;
+
+    /** Number of CPUS, to place bounds on the number of stripes */
+    private static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Marks a bin whose entries have been transferred to the next table.
+     * Never a valid entry address.
+     */
+    private static final long MOVED = -1L;
+
+    /* ---------------- Fields -------------- */
+
+    /**
+     * The current bin table.  While it is being doubled, bins already
+     * transferred hold {@link #MOVED} and their entries are found in
+     * {@code table.next}.
+     */
+    private volatile Table table;
+
+    /**
+     * Bin locks.  The lock for bin i is stripes[i & (stripes.length-1)].
+     * Updates hold the write lock; retrievals read optimistically.
+     */
+    private final StampedLock[] stripes;
+
+    /**
+     * Per-stripe element counts, each guarded by its stripe lock.
+     */
+    private final int[] counts;
+
+    /**
+     * Table element count at which to resize, like {@code sizeCtl}.
+     */
+    private volatile int threshold;
+
+    /**
+     * Approximate element count used only to trigger resizing.
+     */
+    private final LongAdder sizeHint = new LongAdder();
+
+    /**
+     * Source of entry storage.
+     */
+    private volatile Slabs slabs;
+
+    private final int slabSize;
+
+    /* ---------------- Construction -------------- */
+
+    /**
+     * Creates a new, empty map with the default initial table size and
+     * slab size.
+     */
+    public OffHeapConcurrentHashMap() {
+        this(DEFAULT_CAPACITY, DEFAULT_SLAB_SIZE);
+    }
+
+    /**
+     * Creates a new, empty map able to hold the given number of mappings
+     * without resizing.
+     *
+     * @param initialCapacity the expected number of mappings
+     * @throws IllegalArgumentException if the initial capacity is negative
+     */
+    public OffHeapConcurrentHashMap(int initialCapacity) {
+        this(initialCapacity, DEFAULT_SLAB_SIZE);
+    }
+
+    /**
+     * Creates a new, empty map able to hold the given number of mappings
+     * without resizing, allocating entry storage in slabs of the given
+     * size.
+     *
+     * @param initialCapacity the expected number of mappings
+     * @param slabSize the size in bytes of each direct buffer slab; entries
+     *        are stored in power-of-two blocks, so the encoded size of a
+     *        single entry is bounded by the largest power of two not
+     *        exceeding the slab size
+     * @throws IllegalArgumentException if the initial capacity is negative
+     *         or the slab size is smaller than 4096 bytes
+     */
+    public OffHeapConcurrentHashMap(int initialCapacity, int slabSize) {
+        if (initialCapacity < 0 || slabSize < 4096)
+            throw new IllegalArgumentException();
+        int ns = 1;
+        while (ns < NCPU << 3 && ns < 1 << 10)
+            ns <<= 1;
+        StampedLock[] ls = new StampedLock[ns];
+        for (int i = 0; i < ns; ++i)
+            ls[i] = new StampedLock();
+        this.stripes = ls;
+        this.counts = new int[ns];
+        this.slabSize = slabSize;
+        this.slabs = new Slabs(slabSize);
+        long want = (long)initialCapacity + (initialCapacity >>> 1) + 1L;
+        int cap = ns;
+        while (cap < want && cap < MAXIMUM_CAPACITY)
+            cap <<= 1;
+        this.threshold = thresholdFor(cap);
+        this.table = new Table(cap);
+    }
+
+    private static int thresholdFor(int n) {
+        return (n >= MAXIMUM_CAPACITY) ? Integer.MAX_VALUE : n - (n >>> 2);
+    }
+
+    /* ---------------- Hashing and comparison -------------- */
+
+    /**
+     * Hashes the remaining bytes of the given buffer as {@link
+     * Arrays#hashCode(byte[])} does, then spreads the result as {@code
+     * ConcurrentHashMap.spread} does.
+     */
+    static int hash(ByteBuffer key) {
+        int h = 1;
+        for (int i = key.position(), end = key.limit(); i < end; ++i)
+            h = 31 * h + key.get(i);
+        return (h ^ (h >>> 16)) & 0x7fffffff;
+    }
+
+    /**
+     * Returns true if the key stored at the given slab offset holds the
+     * same bytes as the remaining bytes of key.
+     */
+    static boolean keyEquals(ByteBuffer slab, int off, ByteBuffer key) {
+        int n = key.remaining();
+        if (slab.getInt(off + KLEN) != n)
+            return false;
+        int p = off + HEADER, q = key.position(), i = 0;
+        if (key.order() == ByteOrder.BIG_ENDIAN) {
+            for (; i + 8 <= n; i += 8) {
+                if (slab.getLong(p + i) != key.getLong(q + i))
+                    return false;
+            }
+        }
+        for (; i < n; ++i) {
+            if (slab.get(p + i) != key.get(q + i))
+                return false;
+        }
+        return true;
+    }
+
+    /* ---------------- Table -------------- */
+
+    /**
+     * A bin table: one eight-byte entry address per bin, zero if empty.
+     * A table is doubled by setting next, then transferring its bins a
+     * stripe at a time; claim counts down the stripes not yet taken by a
+     * transferring thread, and done counts those finished.
+     */
+    static final class Table {
+        final ByteBuffer bins;
+        final int length;
+        volatile Table next;
+        final AtomicInteger claim = new AtomicInteger();
+        final AtomicInteger done = new AtomicInteger();
+
+        Table(int n) {
+            bins = ByteBuffer.allocateDirect(n << 3);
+            length = n;
+        }
+
+        long bin(int i) {
+            return bins.getLong(i << 3);
+        }
+
+        void setBin(int i, long e) {
+            bins.putLong(i << 3, e);
+        }
+    }
+
+    /**
+     * Returns the table holding the bins of the given stripe, following
+     * forwarding from t.  A stripe is transferred as a whole, so bin
+     * {@code stripe} (which belongs to it in every table) is moved
+     * exactly when all of the stripe's bins are.
+     */
+    private static Table tableFor(Table t, int stripe) {
+        while (t.bin(stripe) == MOVED)
+            t = t.next;
+        return t;
+    }
+
+    /* ---------------- Internal access -------------- */
+
+    private StampedLock stripeFor(int h) {
+        return stripes[h & (stripes.length - 1)];
+    }
+
+    /**
+     * Returns the address of the entry for key in the bin of hash h, or
+     * 0.  Must be called either with the bin's stripe lock held, and
+     * stamp zero, or under an optimistic read of it with the given
+     * stamp.  In the latter case the result is meaningful only if the
+     * stamp still validates afterwards, and the traversal gives up early
+     * once it does not, since an intervening update may have linked the
+     * chain into a cycle.
+     */
+    private long find(Table t, Slabs s, int h, ByteBuffer key, long stamp) {
+        StampedLock lock = stripeFor(h);
+        t = tableFor(t, h & (stripes.length - 1));
+        int steps = 0;
+        for (long e = t.bin(h & (t.length - 1)); e != 0L;) {
+            ByteBuffer slab = s.slab(e);
+            int off = Slabs.offset(e);
+            if (slab.getInt(off + HASH) == h && keyEquals(slab, off, key))
+                return e;
+            e = slab.getLong(off + NEXT);
+            if (stamp != 0L && (++steps & 63) == 0 && !lock.validate(stamp))
+                return 0L;
+        }
+        return 0L;
+    }
+
+    private static byte[] copyValue(ByteBuffer slab, int off) {
+        int klen = slab.getInt(off + KLEN), vlen = slab.getInt(off + VLEN);
+        byte[] v = new byte[vlen];
+        ByteBuffer d = slab.duplicate();
+        d.position(off + HEADER + klen);
+        d.get(v);
+        return v;
+    }
+
+    /* ---------------- Public operations -------------- */
+
+    /*
+     * Retrievals first read under an optimistic stamp of their stripe.
+     * Since blocks of removed entries are recycled at once, perhaps by an
+     * entry of another stripe, such a read may see any bytes at all: an
+     * unrelated entry, lengths that exceed the slab, or an address of no
+     * slab.  So nothing read is trusted, or allocated for, until the
+     * stamp validates; accesses stay within the bounds-checked slab
+     * buffers, any RuntimeException they throw is taken as a failed
+     * validation; and results are validated again after copying.  On
+     * failure, the retrieval is repeated under the read lock.
+     */
+
+    /**
+     * Returns a copy of the value to which the specified key is mapped,
+     * or {@code null} if this map contains no mapping for the key.
+     *
+     * @param key the key
+     * @return the value, or {@code null} if absent
+     * @throws NullPointerException if the specified key is null
+     */
+    public byte[] get(byte[] key) {
+        ByteBuffer k = ByteBuffer.wrap(key);
+        int h = hash(k);
+        StampedLock lock = stripeFor(h);
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            try {
+                Slabs s = slabs;
+                long e = find(table, s, h, k, stamp);
+                if (e == 0L) {
+                    if (lock.validate(stamp))
+                        return null;
+                }
+                else {
+                    ByteBuffer slab = s.slab(e);
+                    int off = Slabs.offset(e);
+                    int klen = slab.getInt(off + KLEN);
+                    int vlen = slab.getInt(off + VLEN);
+                    if (lock.validate(stamp)) {
+                        byte[] v = new byte[vlen];
+                        ByteBuffer d = slab.duplicate();
+                        d.position(off + HEADER + klen);
+                        d.get(v);
+                        if (lock.validate(stamp))
+                            return v;
+                    }
+                }
+            } catch (RuntimeException inconsistent) {
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            Slabs s = slabs;
+            long e = find(table, s, h, k, 0L);
+            return (e == 0L) ? null : copyValue(s.slab(e), Slabs.offset(e));
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Copies the value to which the remaining bytes of the specified key
+     * are mapped into {@code dst}, advancing its position.  If the value
+     * does not fit in the remaining space of {@code dst}, its position is
+     * not changed.  The position of {@code key} is not changed.
+     *
+     * <p>Bytes of {@code dst} beyond its final position may be
+     * overwritten if the mapping is concurrently updated.
+     *
+     * @param key the key
+     * @param dst the buffer to receive the value
+     * @return the length of the value, or -1 if there is no mapping for
+     *         the key
+     * @throws NullPointerException if either argument is null
+     * @throws java.nio.ReadOnlyBufferException if dst is read-only
+     */
+    public int get(ByteBuffer key, ByteBuffer dst) {
+        if (dst == null)
+            throw new NullPointerException();
+        int h = hash(key);
+        StampedLock lock = stripeFor(h);
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            int pos = dst.position();
+            try {
+                Slabs s = slabs;
+                long e = find(table, s, h, key, stamp);
+                if (e == 0L) {
+                    if (lock.validate(stamp))
+                        return -1;
+                }
+                else {
+                    int vlen = copyValue(s.slab(e), Slabs.offset(e), dst);
+                    if (lock.validate(stamp))
+                        return vlen;
+                }
+            } catch (RuntimeException inconsistent) {
+            }
+            dst.position(pos);
+        }
+        stamp = lock.readLock();
+        try {
+            Slabs s = slabs;
+            long e = find(table, s, h, key, 0L);
+            return (e == 0L) ? -1 : copyValue(s.slab(e), Slabs.offset(e), dst);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Copies the value at the given slab offset into dst if it fits,
+     * returning its length.
+     */
+    private static int copyValue(ByteBuffer slab, int off, ByteBuffer dst) {
+        int klen = slab.getInt(off + KLEN), vlen = slab.getInt(off + VLEN);
+        if (vlen <= dst.remaining()) {
+            ByteBuffer d = slab.duplicate();
+            d.limit(off + HEADER + klen + vlen).position(off + HEADER + klen);
+            dst.put(d);
+        }
+        return vlen;
+    }
+
+    /**
+     * Tests if the specified key is a key in this map.
+     *
+     * @param key the key
+     * @return {@code true} if there is a mapping for the key
+     * @throws NullPointerException if the specified key is null
+     */
+    public boolean containsKey(byte[] key) {
+        ByteBuffer k = ByteBuffer.wrap(key);
+        int h = hash(k);
+        StampedLock lock = stripeFor(h);
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            try {
+                boolean found = find(table, slabs, h, k, stamp) != 0L;
+                if (lock.validate(stamp))
+                    return found;
+            } catch (RuntimeException inconsistent) {
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return find(table, slabs, h, k, 0L) != 0L;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Maps the specified key to the specified value, both copied into
+     * off-heap storage.
+     *
+     * @param key the key
+     * @param value the value
+     * @return a copy of the previous value associated with {@code key},
+     *         or {@code null} if there was no mapping for {@code key}
+     * @throws NullPointerException if the specified key or value is null
+     * @throws IllegalArgumentException if the entry does not fit in a slab
+     */
+    public byte[] put(byte[] key, byte[] value) {
+        return putVal(ByteBuffer.wrap(key), ByteBuffer.wrap(value), false, true);
+    }
+
+    /**
+     * If the specified key is not already associated with a value,
+     * associates it with the given value.
+     *
+     * @param key the key
+     * @param value the value
+     * @return a copy of the current value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}
+     * @throws NullPointerException if the specified key or value is null
+     * @throws IllegalArgumentException if the entry does not fit in a slab
+     */
+    public byte[] putIfAbsent(byte[] key, byte[] value) {
+        return putVal(ByteBuffer.wrap(key), ByteBuffer.wrap(value), true, true);
+    }
+
+    /**
+     * Maps the remaining bytes of the specified key to the remaining
+     * bytes of the specified value.  Positions are not changed.  Unlike
+     * {@link #put(byte[], byte[])}, no copy of a previous value is made.
+     *
+     * @param key the key
+     * @param value the value
+     * @return {@code true} if a previous mapping was replaced
+     * @throws NullPointerException if the specified key or value is null
+     * @throws IllegalArgumentException if the entry does not fit in a slab
+     */
+    public boolean put(ByteBuffer key, ByteBuffer value) {
+        return putVal(key, value, false, false) != null;
+    }
+
+    private static final byte[] EMPTY = new byte[0];
+
+    /** Implementation for put and putIfAbsent */
+    private byte[] putVal(ByteBuffer key, ByteBuffer value,
+                          boolean onlyIfAbsent, boolean copyOld) {
+        if (value == null)
+            throw new NullPointerException();
+        int h = hash(key);
+        byte[] old = null;
+        boolean added = false;
+        StampedLock lock = stripeFor(h);
+        long stamp = lock.writeLock();
+        try {
+            Table tab = tableFor(table, h & (stripes.length - 1));
+            Slabs s = slabs;
+            int bin = h & (tab.length - 1);
+            long pred = 0L;
+            long e = tab.bin(bin);
+            while (e != 0L) {
+                ByteBuffer slab = s.slab(e);
+                int off = Slabs.offset(e);
+                if (slab.getInt(off + HASH) == h && keyEquals(slab, off, key))
+                    break;
+                pred = e;
+                e = slab.getLong(off + NEXT);
+            }
+            if (e != 0L) {
+                ByteBuffer slab = s.slab(e);
+                int off = Slabs.offset(e);
+                old = copyOld ? copyValue(slab, off) : EMPTY;
+                if (onlyIfAbsent)
+                    return old;
+                long next = slab.getLong(off + NEXT);
+                int cls = slab.getInt(off + CLASS);
+                long r = s.allocate(HEADER + key.remaining() + value.remaining());
+                write(s, r, h, key, value, next);
+                if (pred == 0L)
+                    tab.setBin(bin, r);
+                else
+                    s.slab(pred).putLong(Slabs.offset(pred) + NEXT, r);
+                s.free(e, cls);
+            }
+            else {
+                long r = s.allocate(HEADER + key.remaining() + value.remaining());
+                write(s, r, h, key, value, tab.bin(bin));
+                tab.setBin(bin, r);
+                ++counts[h & (stripes.length - 1)];
+                added = true;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        if (added) {
+            sizeHint.add(1L);
+            if (sizeHint.sum() > threshold)
+                tryResize();
+        }
+        return old;
+    }
+
+    private static void write(Slabs s, long r, int h, ByteBuffer key,
+                              ByteBuffer value, long next) {
+        ByteBuffer slab = s.slab(r);
+        int off = Slabs.offset(r);
+        int klen = key.remaining(), vlen = value.remaining();
+        slab.putLong(off + NEXT, next);
+        slab.putInt(off + HASH, h);
+        slab.putInt(off + KLEN, klen);
+        slab.putInt(off + VLEN, vlen);
+        ByteBuffer d = slab.duplicate();
+        d.position(off + HEADER);
+        d.put(key.duplicate());
+        d.put(value.duplicate());
+    }
+
+    /**
+     * Removes the key (and its corresponding value) from this map.  This
+     * method does nothing if the key is not in the map.
+     *
+     * @param key the key that needs to be removed
+     * @return a copy of the previous value associated with {@code key},
+     *         or {@code null} if there was no mapping for {@code key}
+     * @throws NullPointerException if the specified key is null
+     */
+    public byte[] remove(byte[] key) {
+        return removeVal(ByteBuffer.wrap(key), true);
+    }
+
+    /**
+     * Removes the mapping for the remaining bytes of the specified key.
+     *
+     * @param key the key that needs to be removed
+     * @return {@code true} if a mapping was removed
+     * @throws NullPointerException if the specified key is null
+     */
+    public boolean remove(ByteBuffer key) {
+        return removeVal(key, false) != null;
+    }
+
+    private byte[] removeVal(ByteBuffer key, boolean copyOld) {
+        int h = hash(key);
+        byte[] old = null;
+        StampedLock lock = stripeFor(h);
+        long stamp = lock.writeLock();
+        try {
+            Table tab = tableFor(table, h & (stripes.length - 1));
+            Slabs s = slabs;
+            int bin = h & (tab.length - 1);
+            long pred = 0L;
+            for (long e = tab.bin(bin); e != 0L;) {
+                ByteBuffer slab = s.slab(e);
+                int off = Slabs.offset(e);
+                long next = slab.getLong(off + NEXT);
+                if (slab.getInt(off + HASH) == h && keyEquals(slab, off, key)) {
+                    old = copyOld ? copyValue(slab, off) : EMPTY;
+                    if (pred == 0L)
+                        tab.setBin(bin, next);
+                    else
+                        s.slab(pred).putLong(Slabs.offset(pred) + NEXT, next);
+                    s.free(e, slab.getInt(off + CLASS));
+                    --counts[h & (stripes.length - 1)];
+                    break;
+                }
+                pred = e;
+                e = next;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        if (old != null)
+            sizeHint.add(-1L);
+        return old;
+    }
+
+    /**
+     * Returns the number of mappings.  The result is a snapshot taken
+     * stripe by stripe, and may not reflect concurrent updates.
+     *
+     * @return the number of mappings
+     */
+    public long mappingCount() {
+        long sum = 0L;
+        for (int i = 0; i < stripes.length; ++i) {
+            StampedLock lock = stripes[i];
+            long stamp = lock.tryOptimisticRead();
+            int c = counts[i];
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    c = counts[i];
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            sum += c;
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the number of mappings, or {@link Integer#MAX_VALUE} if
+     * there are more.  {@link #mappingCount} should be preferred.
+     *
+     * @return the number of mappings
+     */
+    public int size() {
+        long n = mappingCount();
+        return (n > (long)Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int)n;
+    }
+
+    /**
+     * Returns {@code true} if this map contains no mappings.
+     *
+     * @return {@code true} if this map contains no mappings
+     */
+    public boolean isEmpty() {
+        return mappingCount() == 0L;
+    }
+
+    /**
+     * Returns the number of bytes of direct memory currently reserved
+     * by this map for its bin tables and slabs, whether or not in use.
+     * While the table is being doubled, this includes both tables.
+     *
+     * @return the off-heap footprint in bytes
+     */
+    public long offHeapBytes() {
+        long n = slabs.reserved();
+        for (Table t = table; t != null; t = t.next)
+            n += t.bins.capacity();
+        return n;
+    }
+
+    /**
+     * Removes all of the mappings from this map, releasing its slabs.
+     */
+    public void clear() {
+        long[] stamps = lockAll();
+        try {
+            // Bins already transferred by a doubling in progress stay
+            // forwarded; their successors are cleared in the next table.
+            for (Table t = table; t != null; t = t.next) {
+                for (int i = 0, n = t.length; i < n; ++i) {
+                    if (t.bin(i) != MOVED)
+                        t.setBin(i, 0L);
+                }
+            }
+            Arrays.fill(counts, 0);
+            sizeHint.reset();
+            slabs = new Slabs(slabSize);
+        } finally {
+            unlockAll(stamps);
+        }
+    }
+
+    /**
+     * Performs the given action for each mapping, passing read-only views
+     * of the key and value that are valid only during the call.  The
+     * action must not access this map.
+     *
+     * @param action the action
+     * @throws NullPointerException if the action is null
+     */
+    public void forEach(BiConsumer<? super ByteBuffer, ? super ByteBuffer> action) {
+        if (action == null)
+            throw new NullPointerException();
+        int ns = stripes.length;
+        for (int i = 0; i < ns; ++i) {
+            StampedLock lock = stripes[i];
+            long stamp = lock.readLock();
+            try {
+                Table tab = tableFor(table, i);
+                Slabs s = slabs;
+                for (int b = i, n = tab.length; b < n; b += ns) {
+                    for (long e = tab.bin(b); e != 0L;) {
+                        ByteBuffer slab = s.slab(e);
+                        int off = Slabs.offset(e);
+                        int klen = slab.getInt(off + KLEN);
+                        int vlen = slab.getInt(off + VLEN);
+                        ByteBuffer k = slab.asReadOnlyBuffer(), v = k.duplicate();
+                        k.limit(off + HEADER + klen).position(off + HEADER);
+                        v.limit(off + HEADER + klen + vlen).position(off + HEADER + klen);
+                        action.accept(k.slice(), v.slice());
+                        e = slab.getLong(off + NEXT);
+                    }
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    /* ---------------- Resizing -------------- */
+
+    private long[] lockAll() {
+        long[] stamps = new long[stripes.length];
+        for (int i = 0; i < stripes.length; ++i)
+            stamps[i] = stripes[i].writeLock();
+        return stamps;
+    }
+
+    private void unlockAll(long[] stamps) {
+        for (int i = stripes.length - 1; i >= 0; --i)
+            stripes[i].unlockWrite(stamps[i]);
+    }
+
+    /**
+     * Doubles the table if still over threshold, or helps a doubling
+     * already in progress.  The first thread to find the table over
+     * threshold allocates the next table; it and any other thread that
+     * inserts meanwhile then claim stripes one at a time and transfer
+     * them, so that no operation waits for more than one stripe's worth
+     * of work, and operations on stripes not being transferred proceed
+     * throughout.  The thread finishing the last stripe installs the
+     * next table.
+     */
+    private void tryResize() {
+        Table tab = table, nt;
+        if ((nt = tab.next) == null) {
+            synchronized (tab) {
+                if ((nt = tab.next) == null) {
+                    if (table != tab || tab.length >= MAXIMUM_CAPACITY ||
+                        sizeHint.sum() <= threshold)
+                        return;
+                    nt = new Table(tab.length << 1);
+                    tab.claim.set(stripes.length);
+                    tab.next = nt;
+                }
+            }
+        }
+        for (int i; (i = tab.claim.get()) > 0; ) {
+            if (tab.claim.compareAndSet(i, i - 1)) {
+                transfer(tab, nt, i - 1);
+                if (tab.done.incrementAndGet() == stripes.length) {
+                    threshold = thresholdFor(nt.length);
+                    table = nt;
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the bins of the given stripe from tab to nt, holding the
+     * stripe's write lock.  Each bin i is split into a lo list at i and a
+     * hi list at i + n of the next table, as in {@code
+     * ConcurrentHashMap.transfer}, then marked {@link #MOVED}.  Entries
+     * are relinked in place and never copied.  Both new bins belong to
+     * the same stripe as i, since n is a multiple of the stripe count.
+     */
+    private void transfer(Table tab, Table nt, int stripe) {
+        StampedLock lock = stripes[stripe];
+        long stamp = lock.writeLock();
+        try {
+            Slabs s = slabs;
+            int n = tab.length;
+            for (int i = stripe; i < n; i += stripes.length) {
+                long lo = 0L, hi = 0L;
+                for (long e = tab.bin(i); e != 0L;) {
+                    ByteBuffer slab = s.slab(e);
+                    int off = Slabs.offset(e);
+                    long next = slab.getLong(off + NEXT);
+                    if ((slab.getInt(off + HASH) & n) == 0) {
+                        slab.putLong(off + NEXT, lo);
+                        lo = e;
+                    }
+                    else {
+                        slab.putLong(off + NEXT, hi);
+                        hi = e;
+                    }
+                    e = next;
+                }
+                nt.setBin(i, lo);
+                nt.setBin(i + n, hi);
+                tab.setBin(i, MOVED);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /* ---------------- Storage -------------- */
+
+    /**
+     * Slab allocator.  An address encodes (slab index + 1) in its high
+     * word and the block offset in its low word, so that zero is never a
+     * valid address.  All methods that change allocation state are
+     * synchronized; they are short and called with a bin lock held, so
+     * the allocator is never held while waiting for a bin.
+     */
+    static final class Slabs {
+        final int slabSize;
+        final int maxClass;
+        volatile ByteBuffer[] slabs = new ByteBuffer[4];
+        int nslabs;
+        int top;                 // bump pointer within the last slab
+        final long[] freeHeads;  // per-class free list heads
+
+        Slabs(int slabSize) {
+            this.slabSize = slabSize;
+            int c = 0;          // largest class whose blocks fit in a slab
+            while ((1L << (c + 1 + MIN_BLOCK_SHIFT)) <= slabSize)
+                ++c;
+            this.maxClass = c;
+            this.freeHeads = new long[c + 1];
+            this.top = slabSize;
+        }
+
+        static int offset(long addr) {
+            return (int)addr;
+        }
+
+        ByteBuffer slab(long addr) {
+            return slabs[(int)(addr >>> 32) - 1];
+        }
+
+        static int classFor(int size) {
+            int c = 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_BLOCK_SHIFT;
+            return (c < 0) ? 0 : c;
+        }
+
+        long reserved() {
+            return (long)slabSize * nslabs;
+        }
+
+        synchronized long allocate(int size) {
+            int cls = classFor(size);
+            if (size <= 0 || cls > maxClass)
+                throw new IllegalArgumentException("Entry too large: " + size);
+            long r = freeHeads[cls];
+            if (r != 0L)
+                freeHeads[cls] = slab(r).getLong(offset(r) + NEXT);
+            else {
+                int bs = 1 << (cls + MIN_BLOCK_SHIFT);
+                if (top + bs > slabSize) {
+                    ByteBuffer[] ss = slabs;
+                    if (nslabs == ss.length)
+                        ss = Arrays.copyOf(ss, nslabs << 1);
+                    ss[nslabs++] = ByteBuffer.allocateDirect(slabSize);
+                    slabs = ss;
+                    top = 0;
+                }
+                r = ((long)nslabs << 32) | top;
+                top += bs;
+            }
+            slab(r).putInt(offset(r) + CLASS, cls);
+            return r;
+        }
+
+        synchronized void free(long addr, int cls) {
+            slab(addr).putLong(offset(addr) + NEXT, freeHeads[cls]);
+            freeHeads[cls] = addr;
+        }
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Shared skeleton of the lock-free bounded array queues.  Elements live
+ * in a power-of-two ring indexed by two ever-increasing counters, the
+ * producer index (tail) and the consumer index (head), each padded onto
+ * its own cache line so that producers and consumers do not false-share.
+ * Subclasses supply the non-blocking {@link #offer(Object)}, {@link
+ * #poll()}, {@link #peek()} and batch primitives for their particular
+ * number of producers and consumers; the blocking methods here retry
+ * those primitives, idling according to a {@link WaitStrategy} between
+ * attempts, since there is no lock with which to await a signal.
+ *
+ * <p>Iteration is over a weakly consistent snapshot of the elements
+ * present.  An interior element, removed by {@link #remove(Object)} or
+ * through an iterator, cannot be unlinked from a ring; its slot is
+ * instead overwritten with a placeholder, {@link #REMOVED}, that
+ * consumers discard when it reaches the head.  Until then the slot still
+ * counts towards {@link #size} and against the capacity.
+ *
+ * @param <E> the type of elements held in this queue
+ */
+abstract class RingBlockingQueue<E> extends AbstractQueue<E>
+        implements BlockingQueue<E> {
+
+    /** The ring; length is a power of two at least the capacity. */
+    final Object[] buffer;
+
+    /** buffer.length - 1 */
+    final int mask;
+
+    /** The maximum number of elements, as requested at construction. */
+    final int capacity;
+
+    /** How to wait in blocking methods. */
+    final WaitStrategy waitStrategy;
+
+    /** Placeholder for an element removed from the interior. */
+    static final Object REMOVED = new Object();
+
+    /** Index of the next slot to be filled. */
+    @sun.misc.Contended("tail") volatile long producerIndex;
+
+    /** Index of the next slot to be emptied. */
+    @sun.misc.Contended("head") volatile long consumerIndex;
+
+    RingBlockingQueue(int capacity, WaitStrategy waitStrategy) {
+        if (capacity <= 0 || capacity > 1 << 30)
+            throw new IllegalArgumentException();
+        if (waitStrategy == null)
+            throw new NullPointerException();
+        int n = 1;
+        while (n < capacity)
+            n <<= 1;
+        this.buffer = new Object[n];
+        this.mask = n - 1;
+        this.capacity = capacity;
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * Moves up to max elements, in order, to the given collection, and
+     * returns the number moved, discarding without counting any REMOVED
+     * placeholders met on the way.  Returns zero only if no element was
+     * available.  At most one thread may drain at a time in
+     * single-consumer queues.
+     */
+    abstract int drain(Collection<? super E> c, int max);
+
+    /**
+     * Inserts as many as possible of the elements es[off, off+len) in
+     * order, without waiting, and returns the number inserted.  Elements
+     * are known to be non-null.
+     */
+    abstract int fill(Object[] es, int off, int len);
+
+    /**
+     * Inserts as many of the given elements as there is room for, in
+     * array order, without waiting.  The elements inserted are always a
+     * prefix of the array, and where the implementation allows, a batch
+     * is published with a single update of the producer index.
+     *
+     * @param es the elements to add
+     * @return the number of elements inserted
+     * @throws NullPointerException if the array or any element is null
+     */
+    public int offerAll(E[] es) {
+        for (E e : es)
+            checkNotNull(e);
+        int n = es.length, done = 0;
+        while (done < n) {
+            int k = fill(es, done, n - done);
+            if (k == 0)
+                break;
+            done += k;
+        }
+        return done;
+    }
+
+    static void checkNotNull(Object e) {
+        if (e == null)
+            throw new NullPointerException();
+    }
+
+    /**
+     * Inserts the specified element, waiting if necessary for space to
+     * become available.
+     *
+     * @throws InterruptedException {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public void put(E e) throws InterruptedException {
+        checkNotNull(e);
+        for (int attempts = 0; !offer(e); ++attempts) {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            waitStrategy.idle(attempts);
+        }
+    }
+
+    /**
+     * Inserts the specified element, waiting up to the specified wait
+     * time if necessary for space to become available.
+     *
+     * @return {@code true} if successful, or {@code false} if
+     *         the specified waiting time elapses before space is available
+     * @throws InterruptedException {@inheritDoc}
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public boolean offer(E e, long timeout, TimeUnit unit)
+        throws InterruptedException {
+        checkNotNull(e);
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (int attempts = 0; !offer(e); ++attempts) {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            if (deadline - System.nanoTime() <= 0L)
+                return false;
+            waitStrategy.idle(attempts);
+        }
+        return true;
+    }
+
+    public E take() throws InterruptedException {
+        E e;
+        for (int attempts = 0; (e = poll()) == null; ++attempts) {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            waitStrategy.idle(attempts);
+        }
+        return e;
+    }
+
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        E e;
+        for (int attempts = 0; (e = poll()) == null; ++attempts) {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            if (deadline - System.nanoTime() <= 0L)
+                return null;
+            waitStrategy.idle(attempts);
+        }
+        return e;
+    }
+
+    /**
+     * Returns the number of elements in this queue.  The result is a
+     * momentary estimate when producers or consumers are active.
+     *
+     * @return the number of elements in this queue
+     */
+    public int size() {
+        for (;;) {
+            long c = consumerIndex, p = producerIndex;
+            if (c == consumerIndex) {
+                long n = p - c;
+                return (n < 0L) ? 0 : (n > capacity) ? capacity : (int)n;
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return producerIndex == consumerIndex;
+    }
+
+    public int remainingCapacity() {
+        return capacity - size();
+    }
+
+    /**
+     * Removes a single instance of the specified element from this queue,
+     * if it is present.  The element's slot is released only when it
+     * reaches the head, so that until then the queue's size and remaining
+     * capacity are unchanged.
+     *
+     * @param o element to be removed from this queue, if present
+     * @return {@code true} if this queue changed as a result of the call
+     */
+    public boolean remove(Object o) {
+        return o != null && removeSlot(o, false);
+    }
+
+    /**
+     * Replaces the first element at or after the head that equals o, or
+     * is o if identity is true, with REMOVED.  The replacement is a
+     * compare-and-set, and consumers that may race with it take elements
+     * by atomic exchange, so an element is either removed here or
+     * consumed, never both.  Slots claimed but not yet published are
+     * empty and skipped.
+     */
+    final boolean removeSlot(Object o, boolean identity) {
+        Object[] b = buffer;
+        long c = consumerIndex, p = producerIndex;
+        for (long i = c; i < p && i - c < capacity; ++i) {
+            long off = slotOffset(i);
+            Object e = U.getObjectVolatile(b, off);
+            if (e != null && e != REMOVED &&
+                (identity ? e == o : o.equals(e)) &&
+                U.compareAndSwapObject(b, off, e, REMOVED))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     */
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @throws UnsupportedOperationException {@inheritDoc}
+     * @throws ClassCastException            {@inheritDoc}
+     * @throws NullPointerException          {@inheritDoc}
+     * @throws IllegalArgumentException      {@inheritDoc}
+     */
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        checkNotNull(c);
+        if (c == this)
+            throw new IllegalArgumentException();
+        int done = 0;
+        while (done < maxElements) {
+            int k = drain(c, maxElements - done);
+            if (k == 0)
+                break;
+            done += k;
+        }
+        return done;
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the elements in this queue,
+     * in order.  Elements may be missed, or be ones already consumed, if
+     * the queue is concurrently modified.  The iterator's {@code remove}
+     * method removes the element last returned, if it is still present,
+     * as {@link #remove(Object)} does, but matching by identity.
+     *
+     * @return an iterator over the elements in this queue
+     */
+    public Iterator<E> iterator() {
+        List<E> snapshot = new ArrayList<E>();
+        Object[] b = buffer;
+        long c = consumerIndex, p = producerIndex;
+        for (long i = c; i < p && i - c < capacity; ++i) {
+            Object x = U.getObjectVolatile(b, slotOffset(i));
+            if (x != null && x != REMOVED) {
+                @SuppressWarnings("unchecked") E e = (E)x;
+                snapshot.add(e);
+            }
+        }
+        final Iterator<E> it = snapshot.iterator();
+        return new Iterator<E>() {
+            private E lastRet;
+            public boolean hasNext() { return it.hasNext(); }
+            public E next() { return lastRet = it.next(); }
+            public void remove() {
+                if (lastRet == null)
+                    throw new IllegalStateException();
+                removeSlot(lastRet, true);
+                lastRet = null;
+            }
+        };
+    }
+
+    // Unsafe mechanics
+    static final sun.misc.Unsafe U;
+    static final long PINDEX;
+    static final long CINDEX;
+    static final long ABASE;
+    static final int ASHIFT;
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            Class<?> k = RingBlockingQueue.class;
+            PINDEX = U.objectFieldOffset
+                (k.getDeclaredField("producerIndex"));
+            CINDEX = U.objectFieldOffset
+                (k.getDeclaredField("consumerIndex"));
+            ABASE = U.arrayBaseOffset(Object[].class);
+            int scale = U.arrayIndexScale(Object[].class);
+            if ((scale & (scale - 1)) != 0)
+                throw new Error("data type scale not a power of two");
+            ASHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+
+    /** Returns the Unsafe offset of the slot for the given index. */
+    final long slotOffset(long index) {
+        return ((long)((int)index & mask) << ASHIFT) + ABASE;
+    }
+}
@@ -360,6 +360,16 @@ public class ScheduledThreadPoolExecutor
         }
     }
 
+    /**
+     * Measures the queue wait of a scheduled task from the time it
+     * became due rather than from its submission.
+     */
+    @Override long queueWaitNanos(Runnable task, long now) {
+        if (task instanceof ScheduledFutureTask)
+            return Math.max(0L, now - ((ScheduledFutureTask<?>)task).time);
+        return super.queueWaitNanos(task, now);
+    }
+
     /**
      * Cancels and clears the queue of all tasks that should not be run
      * due to shutdown policy.  Invoked within super.shutdown.
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+
+package java.util.concurrent;
+
+import java.util.Collection;
+
+/**
+ * A bounded {@linkplain BlockingQueue blocking queue} backed by a ring
+ * array, for use by exactly one producer thread and one consumer thread
+ * at a time.  Neither side uses atomic read-modify-write instructions:
+ * each publishes progress with an ordered store of its own index and
+ * re-reads the other side's index only when its cached copy suggests the
+ * queue is full or empty.  Compared with {@link ArrayBlockingQueue},
+ * there is no lock shared by the two ends and no allocation per element.
+ *
+ * <p>Insertion methods ({@code offer}, {@code put}, {@link #offerAll})
+ * may be called by only one thread at a time, and likewise removal
+ * methods ({@code poll}, {@code take}, {@code peek}, {@code drainTo},
+ * {@link #remove(Object)} and removal through an iterator); the results
+ * of violating this are undefined.  Blocking methods wait according to
+ * the queue's {@link WaitStrategy}.  This queue does not permit {@code
+ * null} elements.  An interior element that is removed keeps its slot,
+ * and so still counts towards {@code size}, until it reaches the head.
+ *
+ * @param <E> the type of elements held in this queue
+ * @see MpscArrayBlockingQueue
+ * @see MpmcArrayBlockingQueue
+ * @since 9
+ */
+public class SpscArrayBlockingQueue<E> extends RingBlockingQueue<E> {
+
+    /** Producer's cached copy of consumerIndex. */
+    @sun.misc.Contended("tail") long headCache;
+
+    /** Consumer's cached copy of producerIndex. */
+    @sun.misc.Contended("head") long tailCache;
+
+    /**
+     * Creates a queue with the given capacity that parks waiting threads.
+     *
+     * @param capacity the capacity of this queue
+     * @throws IllegalArgumentException if capacity is not in [1, 2^30]
+     */
+    public SpscArrayBlockingQueue(int capacity) {
+        this(capacity, WaitStrategy.parking(TimeUnit.MILLISECONDS.toNanos(1L)));
+    }
+
+    /**
+     * Creates a queue with the given capacity and wait strategy.
+     *
+     * @param capacity the capacity of this queue
+     * @param waitStrategy how blocking methods wait
+     * @throws IllegalArgumentException if capacity is not in [1, 2^30]
+     * @throws NullPointerException if waitStrategy is null
+     */
+    public SpscArrayBlockingQueue(int capacity, WaitStrategy waitStrategy) {
+        super(capacity, waitStrategy);
+    }
+
+    public boolean offer(E e) {
+        checkNotNull(e);
+        long p = producerIndex;
+        if (p - headCache >= capacity &&
+            p - (headCache = consumerIndex) >= capacity)
+            return false;
+        U.putOrderedObject(buffer, slotOffset(p), e);
+        U.putOrderedLong(this, PINDEX, p + 1L);
+        return true;
+    }
+
+    public E poll() {
+        for (;;) {
+            long c = consumerIndex;
+            if (c >= tailCache && c >= (tailCache = producerIndex))
+                return null;
+            long off = slotOffset(c);
+            Object e = U.getObject(buffer, off);
+            U.putObject(buffer, off, null);
+            U.putOrderedLong(this, CINDEX, c + 1L);
+            if (e != REMOVED) {
+                @SuppressWarnings("unchecked") E r = (E)e;
+                return r;
+            }
+        }
+    }
+
+    public E peek() {
+        for (;;) {
+            long c = consumerIndex;
+            if (c >= tailCache && c >= (tailCache = producerIndex))
+                return null;
+            long off = slotOffset(c);
+            Object e = U.getObject(buffer, off);
+            if (e != REMOVED) {
+                @SuppressWarnings("unchecked") E r = (E)e;
+                return r;
+            }
+            U.putObject(buffer, off, null);
+            U.putOrderedLong(this, CINDEX, c + 1L);
+        }
+    }
+
+    final int drain(Collection<? super E> dst, int max) {
+        long c = consumerIndex, p = producerIndex;
+        int i = 0, moved = 0;
+        try {
+            for (; c + i < p && moved < max; ++i) {
+                long off = slotOffset(c + i);
+                Object e = U.getObject(buffer, off);
+                if (e != REMOVED) {
+                    @SuppressWarnings("unchecked") E x = (E)e;
+                    dst.add(x);
+                    ++moved;
+                }
+                U.putObject(buffer, off, null);
+            }
+        } finally {
+            if (i > 0)
+                U.putOrderedLong(this, CINDEX, c + i);
+        }
+        return moved;
+    }
+
+    final int fill(Object[] es, int off, int len) {
+        long p = producerIndex;
+        int n = (int)Math.min(capacity - (p - consumerIndex), (long)len);
+        if (n <= 0)
+            return 0;
+        for (int i = 0; i < n; ++i)
+            U.putObject(buffer, slotOffset(p + i), es[off + i]);
+        U.putOrderedLong(this, PINDEX, p + n);
+        return n;
+    }
+}
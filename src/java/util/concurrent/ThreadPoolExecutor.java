@@ -282,6 +282,13 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
     /* The context to be used when executing the finalizer, or null. */
     private final AccessControlContext acc;
 
+    /**
+     * Task metrics, recorded in runWorker, reject and execute once
+     * created by getMetrics; null until then, so that executors that are
+     * not monitored do no work for them.
+     */
+    volatile ExecutorMetrics metrics;
+
     /**
      * Class Worker mainly maintains interrupt control state for
      * threads running tasks, along with other minor bookkeeping.
@@ -453,6 +460,9 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
                         ctl.set(ctlOf(TERMINATED, 0));
                         //激活因为调用条件变量termination的wait方法而被阻塞的所有线程
                         termination.signalAll();
+                        ExecutorMetrics m = metrics;
+                        if (m != null)
+                            m.executorTerminated();
                     }
                     return;
                 }
@@ -575,9 +585,26 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
      */
     //拒绝策略，可自定义
     final void reject(Runnable command) {
+        ExecutorMetrics m = metrics;
+        if (m != null)
+            m.taskRejected();
         handler.rejectedExecution(command, this);
     }
 
+    /**
+     * Returns the time the given task has waited to start, or -1 if
+     * unknown.  Tasks created by submit are stamped in execute while
+     * metrics are recorded.  Overridden by ScheduledThreadPoolExecutor
+     * to measure from the time a task became due.
+     */
+    long queueWaitNanos(Runnable task, long now) {
+        long t;
+        if (task instanceof FutureTask &&
+            (t = ((FutureTask<?>)task).queuedNanos) != 0L)
+            return Math.max(0L, now - t);
+        return -1L;
+    }
+
     /**
      * Performs any further cleanup following run state transition on
      * invocation of shutdown.  A no-op here, but used by
@@ -967,6 +994,12 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
                     // 这是一个钩子方法，留给需要的子类实现(模板方法)
                     beforeExecute(wt, task);
                     Throwable thrown = null;
+                    ExecutorMetrics m = metrics;
+                    long start = 0L;
+                    if (m != null) {
+                        start = System.nanoTime();
+                        m.taskStarted(queueWaitNanos(task, start));
+                    }
                     try {
                         // 到这里终于可以执行任务了
                         task.run();
@@ -980,6 +1013,8 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
                         thrown = x;
                         throw new Error(x);
                     } finally {
+                        if (m != null)
+                            m.taskCompleted(System.nanoTime() - start);
                         afterExecute(task, thrown);
                     }
                 } finally {
@@ -1180,6 +1215,8 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         //执行的为空，抛异常
         if (command == null)
             throw new NullPointerException();
+        if (metrics != null && command instanceof FutureTask)
+            ((FutureTask<?>)command).queuedNanos = System.nanoTime();
         /**
          * 1.如果正在运行少于corePoolSize的线程，请尝试*使用给定命令作为其第一个*任务启动新线程。
          * 对addWorker的调用以原子方式检查runState和workerCount，
@@ -1607,6 +1644,35 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
 
     /* User-level queue utilities */
 
+    /**
+     * Returns the task metrics of this executor, which are recorded
+     * without locking and may be {@linkplain ExecutorMetrics#publish
+     * published} as an MXBean.  Metrics are not recorded until this
+     * method is first called, so they cover only the tasks submitted,
+     * started or rejected after that.
+     *
+     * @return the task metrics
+     * @since 9
+     */
+    public ExecutorMetrics getMetrics() {
+        ExecutorMetrics m = metrics;
+        if (m == null) {
+            final ReentrantLock mainLock = this.mainLock;
+            mainLock.lock();
+            try {
+                if ((m = metrics) == null)
+                    metrics = m = new ExecutorMetrics(this);
+            } finally {
+                mainLock.unlock();
+            }
+            // Termination reads metrics after setting its state, so
+            // either it saw m or m sees that the executor terminated
+            if (isTerminated())
+                m.executorTerminated();
+        }
+        return m;
+    }
+
     /**
      * Returns the task queue used by this executor. Access to the
      * task queue is intended primarily for debugging and monitoring.
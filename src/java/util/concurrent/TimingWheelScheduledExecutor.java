@@ -0,0 +1,965 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link ScheduledExecutorService} that keeps delayed tasks in a
+ * hierarchical hashed timing wheel rather than a priority queue, so that
+ * scheduling and cancelling a task each take constant time however many
+ * tasks are pending.  This suits workloads such as request timeouts, in
+ * which very many tasks are scheduled and nearly all are cancelled
+ * before they become due.
+ *
+ * <p>Time advances in ticks of a fixed duration chosen at construction,
+ * and a task runs no earlier than its delay and normally within one tick
+ * after it.  A single ticker thread owns the wheel: scheduling and
+ * cancelling threads hand tasks to it through lock-free queues, and at
+ * each tick it passes the tasks that have become due, in order of their
+ * trigger times, to a dispatching executor in batches.  The dispatcher
+ * is either a fixed-size pool owned by this executor or any {@link
+ * Executor} supplied at construction.  If the dispatcher rejects a
+ * batch, its tasks complete exceptionally with the {@link
+ * RejectedExecutionException}.  Tasks submitted with no delay are passed
+ * to the dispatcher directly.
+ *
+ * <p>Batching lets many tasks due at once be dispatched at the cost of a
+ * few executions, but the tasks of a batch run one after another.  So
+ * that long-running tasks do not hold up the rest of their batch
+ * indefinitely, a batch that has been running for longer than a tick
+ * passes its remaining tasks back to the dispatcher as a new batch,
+ * which another thread of the dispatcher may pick up.  A task may thus
+ * still be delayed by up to a tick's worth of the tasks before it in its
+ * batch, plus the one running when the tick elapsed; tasks that may run
+ * long, or that must run promptly however others behave, are better
+ * given a dispatcher of their own.
+ *
+ * <p>Cancelled tasks are removed from the wheel at the next tick.
+ * After {@link #shutdown}, delayed tasks still run when due but periodic
+ * tasks are cancelled, as by default in {@link
+ * ScheduledThreadPoolExecutor}; the executor terminates when no tasks
+ * remain.  {@link #shutdownNow} returns the tasks not yet dispatched,
+ * together with those queued in an owned pool.
+ *
+ * @since 9
+ */
+public class TimingWheelScheduledExecutor extends AbstractExecutorService
+        implements ScheduledExecutorService {
+
+    /*
+     * Implementation notes.
+     *
+     * The wheel has levels of 2^bits buckets each.  A bucket at level k
+     * spans 2^(bits*k) ticks, so a task whose trigger tick lies d ticks
+     * ahead of the current tick T is placed at the lowest level k with
+     * d < 2^(bits*(k+1)), in the bucket indexed by the bits of its
+     * absolute trigger tick for that level.  Whenever T is a multiple of
+     * 2^(bits*k), the level-k bucket for T is emptied and its tasks
+     * re-placed relative to T, which moves each down at least one level;
+     * this is done for the highest such level first.  Level-0 bucket
+     * (T mod 2^bits) then holds exactly the tasks due at tick T.  Levels
+     * are added as longer delays are seen, so each task is moved at most
+     * once per level.
+     *
+     * Only the ticker thread touches buckets and the links of tasks in
+     * them.  New and periodic tasks are offered to the pending queue and
+     * cancelled ones to the cancelled queue, both drained by the ticker
+     * at every pass: pending tasks already cancelled are dropped, and
+     * cancelled tasks in the wheel are unlinked, so cancelled tasks are
+     * retained for at most a tick.
+     *
+     * When the wheel and pending queue are empty the ticker parks until
+     * signalled, and on waking jumps the current tick to the present,
+     * which is safe since there is nothing to cascade.  The parked flag
+     * and the pending queue are written and read in opposite orders by
+     * the ticker and by schedulers, so a signal cannot be lost.
+     *
+     * Dispatched batches are counted in activeBatches so that
+     * termination can wait for them, and so that a batch completing
+     * after shutdown can wake the ticker to check for termination.
+     */
+
+    /** Run states */
+    private static final int RUNNING    = 0;
+    private static final int SHUTDOWN   = 1;
+    private static final int STOP       = 2;
+    private static final int TERMINATED = 3;
+
+    /** The default tick duration, one millisecond. */
+    static final long DEFAULT_TICK_NANOS = 1000L * 1000L;
+
+    /** The default number of buckets per level. */
+    static final int DEFAULT_TICKS_PER_WHEEL = 512;
+
+    /**
+     * The largest number of due tasks passed to the dispatcher as one
+     * batch.  A batch that runs for longer than a tick hands its
+     * remaining tasks back to the dispatcher.
+     */
+    static final int DISPATCH_BATCH_SIZE = 32;
+
+    /** Sequence number to break scheduling ties FIFO. */
+    private static final AtomicLong sequencer = new AtomicLong();
+
+    private final AtomicInteger runState = new AtomicInteger(RUNNING);
+
+    private final long tickNanos;
+    private final int wheelBits;
+    private final int wheelMask;
+
+    /** The nanoTime of tick zero. */
+    private final long startTime;
+
+    private final ThreadFactory threadFactory;
+    private final Executor dispatcher;
+
+    /** The dispatcher if created and shut down by this executor, else null. */
+    private final ExecutorService ownedPool;
+
+    private final ConcurrentLinkedQueue<WheelTask<?>> pendingTasks =
+        new ConcurrentLinkedQueue<WheelTask<?>>();
+    private final ConcurrentLinkedQueue<WheelTask<?>> cancelledTasks =
+        new ConcurrentLinkedQueue<WheelTask<?>>();
+
+    /** The number of batches dispatched and not yet finished. */
+    private final AtomicInteger activeBatches = new AtomicInteger();
+
+    /** The ticker thread, started with the first task. */
+    private volatile Thread ticker;
+
+    /** True while the ticker is parked with nothing to do. */
+    private volatile boolean tickerParked;
+
+    private final ReentrantLock mainLock = new ReentrantLock();
+
+    /** Signalled when the ticker exits and on termination. */
+    private final Condition termination = mainLock.newCondition();
+
+    /** Whether the ticker has exited; guarded by mainLock. */
+    private boolean tickerDone;
+
+    /** Tasks drained by the ticker on STOP; guarded by mainLock. */
+    private List<Runnable> stoppedTasks;
+
+    // Ticker-owned state
+
+    /** The buckets, by level; grown as longer delays are seen. */
+    private Bucket[][] wheels;
+
+    /** The number of tasks in the wheel. */
+    private long wheelCount;
+
+    /**
+     * Creates a new {@code TimingWheelScheduledExecutor} with a one
+     * millisecond tick that runs tasks in a pool of the given number of
+     * threads.
+     *
+     * @param corePoolSize the number of threads that run due tasks
+     * @throws IllegalArgumentException if {@code corePoolSize <= 0}
+     */
+    public TimingWheelScheduledExecutor(int corePoolSize) {
+        this(corePoolSize, DEFAULT_TICK_NANOS, NANOSECONDS,
+             DEFAULT_TICKS_PER_WHEEL, Executors.defaultThreadFactory());
+    }
+
+    /**
+     * Creates a new {@code TimingWheelScheduledExecutor} that runs tasks
+     * in a pool of the given number of threads.
+     *
+     * @param corePoolSize the number of threads that run due tasks
+     * @param tickDuration the resolution of the timer
+     * @param unit the time unit of {@code tickDuration}
+     * @param ticksPerWheel the number of buckets per level of the wheel,
+     *        rounded up to a power of two
+     * @param threadFactory the factory for the ticker and pool threads
+     * @throws IllegalArgumentException if {@code corePoolSize},
+     *         {@code tickDuration} or {@code ticksPerWheel} is not
+     *         positive, or {@code ticksPerWheel > 2^20}
+     * @throws NullPointerException if {@code unit} or
+     *         {@code threadFactory} is null
+     */
+    public TimingWheelScheduledExecutor(int corePoolSize,
+                                        long tickDuration,
+                                        TimeUnit unit,
+                                        int ticksPerWheel,
+                                        ThreadFactory threadFactory) {
+        this(tickDuration, unit, ticksPerWheel, threadFactory,
+             newPool(corePoolSize, threadFactory), true);
+    }
+
+    /**
+     * Creates a new {@code TimingWheelScheduledExecutor} that passes due
+     * tasks to the given executor, which is not shut down with this one.
+     *
+     * @param tickDuration the resolution of the timer
+     * @param unit the time unit of {@code tickDuration}
+     * @param ticksPerWheel the number of buckets per level of the wheel,
+     *        rounded up to a power of two
+     * @param threadFactory the factory for the ticker thread
+     * @param dispatcher the executor that runs due tasks
+     * @throws IllegalArgumentException if {@code tickDuration} or
+     *         {@code ticksPerWheel} is not positive, or
+     *         {@code ticksPerWheel > 2^20}
+     * @throws NullPointerException if {@code unit}, {@code threadFactory}
+     *         or {@code dispatcher} is null
+     */
+    public TimingWheelScheduledExecutor(long tickDuration,
+                                        TimeUnit unit,
+                                        int ticksPerWheel,
+                                        ThreadFactory threadFactory,
+                                        Executor dispatcher) {
+        this(tickDuration, unit, ticksPerWheel, threadFactory,
+             dispatcher, false);
+    }
+
+    private TimingWheelScheduledExecutor(long tickDuration,
+                                         TimeUnit unit,
+                                         int ticksPerWheel,
+                                         ThreadFactory threadFactory,
+                                         Executor dispatcher,
+                                         boolean owned) {
+        if (unit == null || threadFactory == null || dispatcher == null)
+            throw new NullPointerException();
+        long tick = unit.toNanos(tickDuration);
+        if (tick <= 0L || ticksPerWheel <= 0 || ticksPerWheel > 1 << 20)
+            throw new IllegalArgumentException();
+        int bits = 32 - Integer.numberOfLeadingZeros(ticksPerWheel - 1);
+        this.tickNanos = tick;
+        this.wheelBits = Math.max(bits, 1);
+        this.wheelMask = (1 << wheelBits) - 1;
+        this.threadFactory = threadFactory;
+        this.dispatcher = dispatcher;
+        this.ownedPool = owned ? (ExecutorService)dispatcher : null;
+        this.wheels = new Bucket[0][];
+        this.startTime = System.nanoTime();
+    }
+
+    private static ExecutorService newPool(int corePoolSize,
+                                           ThreadFactory threadFactory) {
+        if (corePoolSize <= 0)
+            throw new IllegalArgumentException();
+        if (threadFactory == null)
+            throw new NullPointerException();
+        return new ThreadPoolExecutor(corePoolSize, corePoolSize,
+                                      0L, TimeUnit.MILLISECONDS,
+                                      new LinkedBlockingQueue<Runnable>(),
+                                      threadFactory);
+    }
+
+    /**
+     * A list of the tasks in one slot of the wheel.
+     */
+    static final class Bucket {
+        WheelTask<?> head;
+    }
+
+    /**
+     * A scheduled task, linked into a bucket while in the wheel.
+     */
+    private final class WheelTask<V>
+            extends FutureTask<V> implements RunnableScheduledFuture<V> {
+
+        /** Sequence number to break ties FIFO */
+        private final long sequenceNumber;
+
+        /** The time the task is enabled to execute in nanoTime units */
+        private long time;
+
+        /**
+         * Period in nanoseconds for repeating tasks.  A positive
+         * value indicates fixed-rate execution.  A negative value
+         * indicates fixed-delay execution.  A value of 0 indicates a
+         * non-repeating task.
+         */
+        private final long period;
+
+        /** The bucket holding this task, and its links; ticker only */
+        Bucket bucket;
+        WheelTask<?> prev, next;
+
+        WheelTask(Runnable r, V result, long ns, long period) {
+            super(r, result);
+            this.time = ns;
+            this.period = period;
+            this.sequenceNumber = sequencer.getAndIncrement();
+        }
+
+        WheelTask(Callable<V> callable, long ns) {
+            super(callable);
+            this.time = ns;
+            this.period = 0;
+            this.sequenceNumber = sequencer.getAndIncrement();
+        }
+
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(time - System.nanoTime(), NANOSECONDS);
+        }
+
+        public int compareTo(Delayed other) {
+            if (other == this) // compare zero if same object
+                return 0;
+            if (other instanceof WheelTask) {
+                WheelTask<?> x = (WheelTask<?>)other;
+                long diff = time - x.time;
+                if (diff < 0)
+                    return -1;
+                else if (diff > 0)
+                    return 1;
+                else if (sequenceNumber < x.sequenceNumber)
+                    return -1;
+                else
+                    return 1;
+            }
+            long diff = getDelay(NANOSECONDS) - other.getDelay(NANOSECONDS);
+            return (diff < 0) ? -1 : (diff > 0) ? 1 : 0;
+        }
+
+        public boolean isPeriodic() {
+            return period != 0;
+        }
+
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled)
+                cancelledTasks.offer(this);
+            return cancelled;
+        }
+
+        /**
+         * Overrides FutureTask version so as to reschedule if periodic.
+         */
+        public void run() {
+            boolean periodic = isPeriodic();
+            if (periodic && runState.get() != RUNNING)
+                cancel(false);
+            else if (!periodic)
+                super.run();
+            else if (super.runAndReset()) {
+                long p = period;
+                time = (p > 0) ? time + p : triggerTime(-p);
+                reExecutePeriodic(this);
+            }
+        }
+
+        void reject(RejectedExecutionException ex) {
+            setException(ex);
+        }
+    }
+
+    /**
+     * A group of due tasks, tasks[from] onwards, run in order by one
+     * dispatcher thread until a tick has elapsed, when any remaining
+     * tasks are handed back to the dispatcher as a new batch.
+     */
+    private final class Batch implements Runnable {
+        final WheelTask<?>[] tasks;
+        final int from;
+
+        Batch(WheelTask<?>[] tasks, int from) {
+            this.tasks = tasks;
+            this.from = from;
+        }
+
+        public void run() {
+            try {
+                WheelTask<?>[] ts = tasks;
+                long start = System.nanoTime();
+                for (int i = from; i < ts.length; ++i) {
+                    if (i > from && System.nanoTime() - start >= tickNanos &&
+                        handOff(i))
+                        break;
+                    WheelTask<?> t = ts[i];
+                    if (runState.get() >= STOP)
+                        t.cancel(false);
+                    else
+                        t.run();
+                }
+            } finally {
+                batchDone();
+            }
+        }
+
+        /**
+         * Dispatches tasks[i] onwards as a new batch, returning false if
+         * the dispatcher rejects it, in which case this batch runs them.
+         * The new batch is counted before this one finishes, so that
+         * activeBatches does not pass through zero.
+         */
+        private boolean handOff(int i) {
+            activeBatches.incrementAndGet();
+            try {
+                dispatcher.execute(new Batch(tasks, i));
+                return true;
+            } catch (RejectedExecutionException ex) {
+                batchDone();
+                return false;
+            }
+        }
+
+        /** Returns the unrun tasks to a shutdownNow caller. */
+        void abandon(List<Runnable> list) {
+            list.addAll(Arrays.asList(tasks).subList(from, tasks.length));
+            batchDone();
+        }
+    }
+
+    /**
+     * Returns the nanoTime-based trigger time of a delayed action.
+     */
+    private static long triggerTime(long delay) {
+        return System.nanoTime() +
+            ((delay < (Long.MAX_VALUE >> 1)) ? delay : (Long.MAX_VALUE >> 1));
+    }
+
+    private static long triggerTime(long delay, TimeUnit unit) {
+        return triggerTime(unit.toNanos((delay < 0) ? 0 : delay));
+    }
+
+    // Submission
+
+    /**
+     * Accepts a new task, passing it straight to the dispatcher if it is
+     * already due and otherwise to the ticker.
+     */
+    private void delayedExecute(WheelTask<?> task) {
+        if (runState.get() != RUNNING)
+            throw new RejectedExecutionException();
+        ensureTicker();
+        if (task.time - System.nanoTime() <= 0L) {
+            activeBatches.incrementAndGet();
+            try {
+                dispatcher.execute(new Batch(new WheelTask<?>[] { task }, 0));
+            } catch (RejectedExecutionException ex) {
+                batchDone();
+                throw ex;
+            }
+        }
+        else {
+            pendingTasks.offer(task);
+            if (runState.get() != RUNNING && pendingTasks.remove(task))
+                throw new RejectedExecutionException();
+            if (tickerParked)
+                LockSupport.unpark(ticker);
+        }
+    }
+
+    /**
+     * Requeues a periodic task for its next run unless shut down.
+     */
+    void reExecutePeriodic(WheelTask<?> task) {
+        if (runState.get() == RUNNING) {
+            pendingTasks.offer(task);
+            if (tickerParked)
+                LockSupport.unpark(ticker);
+        }
+        else
+            task.cancel(false);
+    }
+
+    private void ensureTicker() {
+        if (ticker == null) {
+            final ReentrantLock mainLock = this.mainLock;
+            mainLock.lock();
+            try {
+                if (ticker == null) {
+                    Thread t = threadFactory.newThread(new Runnable() {
+                        public void run() { runTicker(); }
+                    });
+                    if (t == null)
+                        throw new RejectedExecutionException();
+                    t.start();
+                    ticker = t;
+                }
+            } finally {
+                mainLock.unlock();
+            }
+        }
+    }
+
+    private void batchDone() {
+        if (activeBatches.decrementAndGet() == 0 &&
+            runState.get() != RUNNING) {
+            LockSupport.unpark(ticker);
+            tryTerminate();
+        }
+    }
+
+    // The ticker
+
+    private void runTicker() {
+        long tick = 0L;             // the next tick to expire
+        boolean swept = false;      // periodic tasks cancelled on shutdown
+        try {
+            for (;;) {
+                int rs = runState.get();
+                if (rs >= STOP) {
+                    drainAll();
+                    break;
+                }
+                if (rs == SHUTDOWN && !swept) {
+                    swept = true;
+                    cancelPeriodicTasks();
+                }
+                transferPending(tick, rs);
+                removeCancelled();
+                if (wheelCount == 0L && pendingTasks.isEmpty()) {
+                    if (rs == SHUTDOWN && activeBatches.get() == 0)
+                        break;
+                    tickerParked = true;
+                    if (pendingTasks.isEmpty() && runState.get() == rs &&
+                        (rs == RUNNING || activeBatches.get() != 0))
+                        LockSupport.park(this);
+                    tickerParked = false;
+                    Thread.interrupted();
+                    long now = (System.nanoTime() - startTime) / tickNanos;
+                    if (now > tick)
+                        tick = now;
+                    continue;
+                }
+                long delay = startTime + tick * tickNanos - System.nanoTime();
+                if (delay > 0L) {
+                    LockSupport.parkNanos(this, delay);
+                    Thread.interrupted();
+                    continue;
+                }
+                cascade(tick);
+                expire(tick);
+                ++tick;
+            }
+        } finally {
+            final ReentrantLock mainLock = this.mainLock;
+            mainLock.lock();
+            try {
+                tickerDone = true;
+                termination.signalAll();
+            } finally {
+                mainLock.unlock();
+            }
+            tryTerminate();
+        }
+    }
+
+    /** Returns the tick at or after the given time. */
+    private long tickOf(long time) {
+        long d = time - startTime;
+        return (d <= 0L) ? 0L : (d + tickNanos - 1L) / tickNanos;
+    }
+
+    /** Places the task in the wheel relative to the current tick. */
+    private void place(WheelTask<?> t, long tick) {
+        long due = Math.max(tickOf(t.time), tick);
+        int level = 0;
+        for (long d = (due - tick) >>> wheelBits; d != 0L; d >>>= wheelBits)
+            ++level;
+        Bucket[][] ws = wheels;
+        if (level >= ws.length) {
+            ws = wheels = Arrays.copyOf(ws, level + 1);
+            for (int k = 0; k <= level; ++k) {
+                if (ws[k] == null) {
+                    Bucket[] bs = ws[k] = new Bucket[wheelMask + 1];
+                    for (int i = 0; i <= wheelMask; ++i)
+                        bs[i] = new Bucket();
+                }
+            }
+        }
+        Bucket b = ws[level][(int)(due >>> (wheelBits * level)) & wheelMask];
+        WheelTask<?> h = b.head;
+        t.bucket = b;
+        t.prev = null;
+        t.next = h;
+        if (h != null)
+            h.prev = t;
+        b.head = t;
+    }
+
+    private void unlink(WheelTask<?> t) {
+        Bucket b = t.bucket;
+        WheelTask<?> p = t.prev, n = t.next;
+        if (p == null)
+            b.head = n;
+        else
+            p.next = n;
+        if (n != null)
+            n.prev = p;
+        t.bucket = null;
+        t.prev = t.next = null;
+    }
+
+    private void transferPending(long tick, int rs) {
+        for (WheelTask<?> t; (t = pendingTasks.poll()) != null;) {
+            if (t.isCancelled())
+                continue;
+            if (rs != RUNNING && t.isPeriodic())
+                t.cancel(false);
+            else {
+                place(t, tick);
+                ++wheelCount;
+            }
+        }
+    }
+
+    private void removeCancelled() {
+        for (WheelTask<?> t; (t = cancelledTasks.poll()) != null;) {
+            if (t.bucket != null) {
+                unlink(t);
+                --wheelCount;
+            }
+        }
+    }
+
+    /**
+     * Re-places the tasks of each higher-level bucket that the given
+     * tick starts, highest level first.
+     */
+    private void cascade(long tick) {
+        Bucket[][] ws = wheels;
+        int top = 0;
+        while (top + 1 < ws.length &&
+               (tick & ((1L << (wheelBits * (top + 1))) - 1L)) == 0L)
+            ++top;
+        for (int k = top; k > 0; --k) {
+            Bucket b = ws[k][(int)(tick >>> (wheelBits * k)) & wheelMask];
+            WheelTask<?> t = b.head;
+            b.head = null;
+            while (t != null) {
+                WheelTask<?> n = t.next;
+                place(t, tick);
+                t = n;
+            }
+        }
+    }
+
+    /**
+     * Dispatches the tasks due at the given tick, in trigger order, in
+     * batches of at most DISPATCH_BATCH_SIZE.
+     */
+    private void expire(long tick) {
+        Bucket[][] ws = wheels;
+        if (ws.length == 0)
+            return;
+        Bucket b = ws[0][(int)tick & wheelMask];
+        WheelTask<?> h = b.head;
+        if (h == null)
+            return;
+        b.head = null;
+        ArrayList<WheelTask<?>> due = new ArrayList<WheelTask<?>>();
+        for (WheelTask<?> t = h, n; t != null; t = n) {
+            n = t.next;
+            t.bucket = null;
+            t.prev = t.next = null;
+            --wheelCount;
+            if (!t.isCancelled())
+                due.add(t);
+        }
+        int n = due.size();
+        if (n > 1)
+            due.sort(null);
+        for (int i = 0; i < n; i += DISPATCH_BATCH_SIZE) {
+            int k = Math.min(n - i, DISPATCH_BATCH_SIZE);
+            Batch batch = new Batch(due.subList(i, i + k)
+                                    .toArray(new WheelTask<?>[k]), 0);
+            activeBatches.incrementAndGet();
+            try {
+                dispatcher.execute(batch);
+            } catch (RejectedExecutionException ex) {
+                for (WheelTask<?> t : batch.tasks)
+                    t.reject(ex);
+                batchDone();
+            }
+        }
+    }
+
+    /** Cancels all periodic tasks in the wheel, on shutdown. */
+    private void cancelPeriodicTasks() {
+        for (Bucket[] bs : wheels) {
+            for (Bucket b : bs) {
+                for (WheelTask<?> t = b.head, n; t != null; t = n) {
+                    n = t.next;
+                    if (t.isPeriodic()) {
+                        unlink(t);
+                        --wheelCount;
+                        t.cancel(false);
+                    }
+                }
+            }
+        }
+    }
+
+    /** Empties the wheel and pending queue into stoppedTasks, on STOP. */
+    private void drainAll() {
+        ArrayList<Runnable> list = new ArrayList<Runnable>();
+        for (WheelTask<?> t; (t = pendingTasks.poll()) != null;) {
+            if (!t.isCancelled())
+                list.add(t);
+        }
+        for (Bucket[] bs : wheels) {
+            for (Bucket b : bs) {
+                for (WheelTask<?> t = b.head; t != null; t = t.next) {
+                    if (!t.isCancelled())
+                        list.add(t);
+                }
+                b.head = null;
+            }
+        }
+        wheelCount = 0L;
+        cancelledTasks.clear();
+        final ReentrantLock mainLock = this.mainLock;
+        mainLock.lock();
+        try {
+            stoppedTasks = list;
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Transitions to TERMINATED once shut down, the ticker has exited
+     * or never started, and no batches are outstanding.
+     */
+    private void tryTerminate() {
+        final ReentrantLock mainLock = this.mainLock;
+        mainLock.lock();
+        try {
+            int rs = runState.get();
+            if (rs == RUNNING || rs == TERMINATED ||
+                (ticker != null && !tickerDone) ||
+                activeBatches.get() != 0)
+                return;
+            runState.set(TERMINATED);
+            termination.signalAll();
+        } finally {
+            mainLock.unlock();
+        }
+        if (ownedPool != null)
+            ownedPool.shutdown();
+    }
+
+    // Public methods
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public ScheduledFuture<?> schedule(Runnable command,
+                                       long delay,
+                                       TimeUnit unit) {
+        if (command == null || unit == null)
+            throw new NullPointerException();
+        WheelTask<Void> t = new WheelTask<Void>(command, null,
+                                                triggerTime(delay, unit), 0L);
+        delayedExecute(t);
+        return t;
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable,
+                                           long delay,
+                                           TimeUnit unit) {
+        if (callable == null || unit == null)
+            throw new NullPointerException();
+        WheelTask<V> t = new WheelTask<V>(callable, triggerTime(delay, unit));
+        delayedExecute(t);
+        return t;
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     * @throws IllegalArgumentException   {@inheritDoc}
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command,
+                                                  long initialDelay,
+                                                  long period,
+                                                  TimeUnit unit) {
+        if (command == null || unit == null)
+            throw new NullPointerException();
+        if (period <= 0)
+            throw new IllegalArgumentException();
+        WheelTask<Void> t =
+            new WheelTask<Void>(command, null,
+                                triggerTime(initialDelay, unit),
+                                unit.toNanos(period));
+        delayedExecute(t);
+        return t;
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     * @throws IllegalArgumentException   {@inheritDoc}
+     */
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command,
+                                                     long initialDelay,
+                                                     long delay,
+                                                     TimeUnit unit) {
+        if (command == null || unit == null)
+            throw new NullPointerException();
+        if (delay <= 0)
+            throw new IllegalArgumentException();
+        WheelTask<Void> t =
+            new WheelTask<Void>(command, null,
+                                triggerTime(initialDelay, unit),
+                                unit.toNanos(-delay));
+        delayedExecute(t);
+        return t;
+    }
+
+    /**
+     * Executes {@code command} with zero required delay.
+     *
+     * @throws RejectedExecutionException if this executor has been
+     *         shut down or the dispatcher rejects the task
+     * @throws NullPointerException {@inheritDoc}
+     */
+    public void execute(Runnable command) {
+        schedule(command, 0, NANOSECONDS);
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public Future<?> submit(Runnable task) {
+        return schedule(task, 0, NANOSECONDS);
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public <T> Future<T> submit(Runnable task, T result) {
+        return schedule(Executors.callable(task, result), 0, NANOSECONDS);
+    }
+
+    /**
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        return schedule(task, 0, NANOSECONDS);
+    }
+
+    /**
+     * Initiates an orderly shutdown in which delayed tasks already
+     * scheduled are run when due, periodic tasks are cancelled, and no
+     * new tasks are accepted.  An owned pool is shut down once all
+     * tasks have run.
+     */
+    public void shutdown() {
+        if (runState.compareAndSet(RUNNING, SHUTDOWN))
+            LockSupport.unpark(ticker);
+        tryTerminate();
+    }
+
+    /**
+     * Stops the ticker and returns the tasks that were scheduled but not
+     * yet dispatched, along with those dispatched to an owned pool but
+     * not yet started, which is itself shut down with {@link
+     * ExecutorService#shutdownNow}.  Tasks dispatched to an external
+     * executor but not yet started are cancelled when they are reached.
+     *
+     * @return the list of tasks that never commenced execution.  Each
+     *         element of this list is a {@link ScheduledFuture}.
+     */
+    public List<Runnable> shutdownNow() {
+        for (int rs; (rs = runState.get()) < STOP;) {
+            if (runState.compareAndSet(rs, STOP))
+                break;
+        }
+        List<Runnable> tasks;
+        final ReentrantLock mainLock = this.mainLock;
+        mainLock.lock();
+        try {
+            Thread t = ticker;
+            if (t != null) {
+                LockSupport.unpark(t);
+                while (!tickerDone)
+                    termination.awaitUninterruptibly();
+            }
+            tasks = (stoppedTasks != null) ? stoppedTasks :
+                new ArrayList<Runnable>();
+            stoppedTasks = null;
+        } finally {
+            mainLock.unlock();
+        }
+        if (ownedPool != null) {
+            for (Runnable r : ownedPool.shutdownNow()) {
+                if (r instanceof Batch)
+                    ((Batch)r).abandon(tasks);
+            }
+        }
+        tryTerminate();
+        return tasks;
+    }
+
+    public boolean isShutdown() {
+        return runState.get() != RUNNING;
+    }
+
+    public boolean isTerminated() {
+        return runState.get() == TERMINATED;
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit)
+        throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        final ReentrantLock mainLock = this.mainLock;
+        mainLock.lock();
+        try {
+            for (;;) {
+                if (runState.get() == TERMINATED)
+                    return true;
+                if (nanos <= 0)
+                    return false;
+                nanos = termination.awaitNanos(nanos);
+            }
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the duration of a tick, the resolution of this timer.
+     *
+     * @param unit the desired time unit
+     * @return the tick duration
+     */
+    public long getTickDuration(TimeUnit unit) {
+        return unit.convert(tickNanos, NANOSECONDS);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A policy for how a thread waits for a condition that will be made true
+ * by another thread without any signal, such as a lock-free queue
+ * becoming non-empty.  The waiting thread repeatedly checks the condition
+ * and, each time it is false, calls {@link #idle} with the number of
+ * previous unsuccessful checks.  Implementations trade latency against
+ * CPU consumption: a busy spin reacts fastest but occupies a core for the
+ * whole wait, while parking frees the core but adds wake-up delay.
+ *
+ * <p>Implementations must be thread-safe and should not block for long
+ * in any one call, since the caller checks for interrupts and timeouts
+ * only between calls.
+ *
+ * @see SpscArrayBlockingQueue
+ * @see MpscArrayBlockingQueue
+ * @see MpmcArrayBlockingQueue
+ * @since 9
+ */
+@FunctionalInterface
+public interface WaitStrategy {
+
+    /**
+     * Waits briefly before the caller checks its condition again.
+     *
+     * @param attempts the number of consecutive unsuccessful checks
+     *        so far, starting at zero
+     */
+    void idle(int attempts);
+
+    /**
+     * Returns a strategy that busy-spins, never giving up the processor.
+     * Appropriate only when the waiting thread has a core to itself.
+     *
+     * @return a spinning strategy
+     */
+    static WaitStrategy spinning() {
+        return attempts -> { };
+    }
+
+    /**
+     * Returns a strategy that spins briefly and then calls {@link
+     * Thread#yield} between checks.
+     *
+     * @return a yielding strategy
+     */
+    static WaitStrategy yielding() {
+        return attempts -> {
+            if (attempts >= 128)        // spin a while first
+                Thread.yield();
+        };
+    }
+
+    /**
+     * Returns a strategy that spins, then yields, then parks the thread
+     * with {@link LockSupport#parkNanos(long)} for periods that double
+     * from one microsecond up to the given maximum.
+     *
+     * @param maxParkNanos the longest single park, in nanoseconds
+     * @return a parking strategy
+     * @throws IllegalArgumentException if maxParkNanos is not positive
+     */
+    static WaitStrategy parking(long maxParkNanos) {
+        if (maxParkNanos <= 0L)
+            throw new IllegalArgumentException();
+        return attempts -> {
+            if (attempts >= 144) {      // 128 spins, then 16 yields
+                int shift = Math.min(attempts - 144, 30);
+                LockSupport.parkNanos(Math.min(1000L << shift, maxParkNanos));
+            }
+            else if (attempts >= 128)
+                Thread.yield();
+        };
+    }
+}
@@ -0,0 +1,1363 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link ThreadPoolExecutor} that holds waiting tasks in a set of
+ * bounded per-worker queues instead of a single shared {@link
+ * BlockingQueue}.  Worker threads take tasks from their own queue and,
+ * when it is empty, steal from the others, so that submission and
+ * retrieval by many threads do not all contend on one lock.  Tasks
+ * submitted by a worker of this pool are placed on that worker's own
+ * queue where possible.
+ *
+ * <p>Pool sizing follows {@code ThreadPoolExecutor} with a bounded
+ * queue: while fewer than {@code corePoolSize} threads are running a
+ * new thread is started for each task; otherwise the task is queued if
+ * any queue has room, and only if all are full is a thread started up
+ * to {@code maximumPoolSize}, failing which the task is passed to the
+ * {@link RejectedExecutionHandler}.  Keep-alive times, {@link
+ * #allowCoreThreadTimeOut(boolean)}, the extension hooks {@link
+ * #beforeExecute}, {@link #afterExecute} and {@link #terminated}, and
+ * the shutdown methods behave as they do in {@code ThreadPoolExecutor}.
+ *
+ * <p>The queues are drained first-in-first-out, but since there are
+ * several of them, tasks submitted from different threads may start in
+ * any order.  Each queue holds at most the {@code queueCapacity} given
+ * at construction, and there is one queue per processor, or per core
+ * thread if there are more of those, up to {@code maximumPoolSize}.
+ * The queue returned by {@link #getQueue} is a view of all of them
+ * that supports removal but not insertion.
+ *
+ * @since 9
+ */
+public class WorkStealingThreadPoolExecutor extends ThreadPoolExecutor {
+
+    /*
+     * Overview:
+     *
+     * The state inherited from ThreadPoolExecutor (its ctl, worker set
+     * and work queue) is left unused: the superclass holds only the
+     * configuration, read back through its accessors, and everything
+     * else is kept here.  The run state and worker count are encoded in
+     * ctl exactly as in ThreadPoolExecutor, and addWorker,
+     * processWorkerExit and tryTerminatePool follow their counterparts
+     * there.
+     *
+     * Each WorkQueue is a ring of task slots indexed by base (next to
+     * take) and top (next to fill), in the manner of ForkJoinPool's
+     * WorkQueue.  All takers -- the owner and thieves alike -- claim the
+     * slot at base by CASing it to null and then advancing base, so
+     * taking never blocks.  Pushes come both from the owning worker
+     * and from external submitters, so they are serialized by the
+     * queue's monitor, which is uncontended in the common case where a
+     * worker feeds its own queue or submitters are spread by probe.  A
+     * task removed from the middle of a queue is overwritten with the
+     * REMOVED sentinel, which takers discard, rather than leaving a
+     * null that takers would mistake for a take in progress.
+     *
+     * Queues are not owned in the sense of being created and destroyed
+     * with workers: there is a fixed power-of-two number of them, and
+     * each worker is assigned the least-shared one as its home when it
+     * starts.  Workers scan from home outwards, so tasks in a queue
+     * whose worker has timed out are still run by the others.
+     *
+     * Idle workers park, after publishing themselves on the idle stack
+     * and then rescanning all queues.  A submitter pushes its task and
+     * then pops an idle worker, if any, to unpark.  Since both the push
+     * and the publication are volatile writes followed by reads of the
+     * other, either the worker's rescan sees the task or the
+     * submitter sees the worker.  A worker's idle field is CASed from
+     * 1 to 0 by whichever of the signaller or the worker itself gets
+     * there first, so stale entries left on the stack by workers that
+     * woke on their own are simply discarded when popped.
+     */
+
+    private final AtomicInteger ctl = new AtomicInteger(ctlOf(RUNNING, 0));
+    private static final int COUNT_BITS = Integer.SIZE - 3;
+    private static final int CAPACITY   = (1 << COUNT_BITS) - 1;
+
+    // runState is stored in the high-order bits
+    private static final int RUNNING    = -1 << COUNT_BITS;
+    private static final int SHUTDOWN   =  0 << COUNT_BITS;
+    private static final int STOP       =  1 << COUNT_BITS;
+    private static final int TIDYING    =  2 << COUNT_BITS;
+    private static final int TERMINATED =  3 << COUNT_BITS;
+
+    // Packing and unpacking ctl
+    private static int runStateOf(int c)     { return c & ~CAPACITY; }
+    private static int workerCountOf(int c)  { return c & CAPACITY; }
+    private static int ctlOf(int rs, int wc) { return rs | wc; }
+
+    private static boolean runStateLessThan(int c, int s) {
+        return c < s;
+    }
+
+    private static boolean runStateAtLeast(int c, int s) {
+        return c >= s;
+    }
+
+    private static boolean isRunning(int c) {
+        return c < SHUTDOWN;
+    }
+
+    /** The maximum number of queues. */
+    private static final int MAX_QUEUES = 1 << 16;
+
+    /** Marks a slot whose task was removed by remove(Runnable). */
+    static final Runnable REMOVED = () -> { };
+
+    private static final RuntimePermission shutdownPerm =
+        new RuntimePermission("modifyThread");
+
+    /** The worker, if any, that the current thread runs. */
+    private static final ThreadLocal<Worker> currentWorker =
+        new ThreadLocal<Worker>();
+
+    /** The task queues; length is a power of two. */
+    private final WorkQueue[] queues;
+
+    /** The number of workers whose home is each queue; guarded by mainLock. */
+    private final int[] queueOwners;
+
+    /** Workers that are parked or about to park, possibly with stale entries. */
+    private final ConcurrentLinkedDeque<Worker> idleWorkers =
+        new ConcurrentLinkedDeque<Worker>();
+
+    private final ReentrantLock mainLock = new ReentrantLock();
+
+    /** Wait condition to support awaitTermination. */
+    private final Condition termination = mainLock.newCondition();
+
+    /** Set containing all worker threads in pool; guarded by mainLock. */
+    private final HashSet<Worker> workers = new HashSet<Worker>();
+
+    /** Largest attained pool size; guarded by mainLock. */
+    private int largestPoolSize;
+
+    /** Tasks completed and steals by terminated workers; guarded by mainLock. */
+    private long completedTaskCount;
+    private long stealCount;
+
+    /** The view returned by getQueue. */
+    private final BlockingQueue<Runnable> queueView;
+
+    /**
+     * Creates a new {@code WorkStealingThreadPoolExecutor} with the given
+     * initial parameters and default thread factory and rejected
+     * execution handler.
+     *
+     * @param corePoolSize the number of threads to keep in the pool, even
+     *        if they are idle, unless {@code allowCoreThreadTimeOut} is set
+     * @param maximumPoolSize the maximum number of threads to allow in the
+     *        pool
+     * @param keepAliveTime when the number of threads is greater than
+     *        the core, this is the maximum time that excess idle threads
+     *        will wait for new tasks before terminating.
+     * @param unit the time unit for the {@code keepAliveTime} argument
+     * @param queueCapacity the maximum number of waiting tasks held by
+     *        each of the pool's queues
+     * @throws IllegalArgumentException if one of the following holds:<br>
+     *         {@code corePoolSize < 0}<br>
+     *         {@code keepAliveTime < 0}<br>
+     *         {@code maximumPoolSize <= 0}<br>
+     *         {@code maximumPoolSize < corePoolSize}<br>
+     *         {@code queueCapacity <= 0} or {@code queueCapacity > 2^30}
+     * @throws NullPointerException if {@code unit} is null
+     */
+    public WorkStealingThreadPoolExecutor(int corePoolSize,
+                                          int maximumPoolSize,
+                                          long keepAliveTime,
+                                          TimeUnit unit,
+                                          int queueCapacity) {
+        this(corePoolSize, maximumPoolSize, keepAliveTime, unit,
+             queueCapacity, Executors.defaultThreadFactory(),
+             new AbortPolicy());
+    }
+
+    /**
+     * Creates a new {@code WorkStealingThreadPoolExecutor} with the given
+     * initial parameters.
+     *
+     * @param corePoolSize the number of threads to keep in the pool, even
+     *        if they are idle, unless {@code allowCoreThreadTimeOut} is set
+     * @param maximumPoolSize the maximum number of threads to allow in the
+     *        pool
+     * @param keepAliveTime when the number of threads is greater than
+     *        the core, this is the maximum time that excess idle threads
+     *        will wait for new tasks before terminating.
+     * @param unit the time unit for the {@code keepAliveTime} argument
+     * @param queueCapacity the maximum number of waiting tasks held by
+     *        each of the pool's queues
+     * @param threadFactory the factory to use when the executor
+     *        creates a new thread
+     * @param handler the handler to use when execution is blocked
+     *        because the thread bounds and queue capacities are reached
+     * @throws IllegalArgumentException if one of the following holds:<br>
+     *         {@code corePoolSize < 0}<br>
+     *         {@code keepAliveTime < 0}<br>
+     *         {@code maximumPoolSize <= 0}<br>
+     *         {@code maximumPoolSize < corePoolSize}<br>
+     *         {@code queueCapacity <= 0} or {@code queueCapacity > 2^30}
+     * @throws NullPointerException if {@code unit}, {@code threadFactory}
+     *         or {@code handler} is null
+     */
+    public WorkStealingThreadPoolExecutor(int corePoolSize,
+                                          int maximumPoolSize,
+                                          long keepAliveTime,
+                                          TimeUnit unit,
+                                          int queueCapacity,
+                                          ThreadFactory threadFactory,
+                                          RejectedExecutionHandler handler) {
+        super(corePoolSize, maximumPoolSize, keepAliveTime, unit,
+              new SynchronousQueue<Runnable>(), threadFactory, handler);
+        if (queueCapacity <= 0 || queueCapacity > 1 << 30)
+            throw new IllegalArgumentException();
+        int p = Math.max(corePoolSize,
+                         Runtime.getRuntime().availableProcessors());
+        int n = Math.min(Math.min(p, maximumPoolSize), MAX_QUEUES);
+        n = (n <= 1) ? 1 : Integer.highestOneBit(n - 1) << 1;
+        WorkQueue[] qs = new WorkQueue[n];
+        for (int i = 0; i < n; ++i)
+            qs[i] = new WorkQueue(queueCapacity);
+        this.queues = qs;
+        this.queueOwners = new int[n];
+        this.queueView = new QueueView();
+    }
+
+    /**
+     * Bounded ring of tasks taken FIFO by any thread; see Overview.
+     */
+    static final class WorkQueue {
+        final Runnable[] array;
+        final int mask;
+        volatile int base;
+        volatile int top;
+
+        WorkQueue(int capacity) {
+            int n = 1;
+            while (n < capacity)
+                n <<= 1;
+            array = new Runnable[n];
+            mask = n - 1;
+        }
+
+        /** Appends the task, returning false if the queue is full. */
+        synchronized boolean push(Runnable task) {
+            int s = top;
+            if (s - base > mask)
+                return false;
+            U.putOrderedObject(array, slotOffset(s & mask), task);
+            top = s + 1;
+            return true;
+        }
+
+        /** Takes the oldest task, or returns null if empty. */
+        Runnable poll() {
+            Runnable[] a = array;
+            for (int b; (b = base) - top < 0;) {
+                long j = slotOffset(b & mask);
+                Runnable t = (Runnable)U.getObjectVolatile(a, j);
+                if (base == b && t != null &&
+                    U.compareAndSwapObject(a, j, t, null)) {
+                    base = b + 1;
+                    if (t != REMOVED)
+                        return t;
+                }
+                // else lost a race, or a take of slot b is in progress
+            }
+            return null;
+        }
+
+        /** Replaces the first occurrence of task with REMOVED. */
+        synchronized boolean remove(Object task) {
+            Runnable[] a = array;
+            for (int i = base, s = top; i - s < 0; ++i) {
+                long j = slotOffset(i & mask);
+                if (U.getObjectVolatile(a, j) == task &&
+                    U.compareAndSwapObject(a, j, task, REMOVED))
+                    return true;
+            }
+            return false;
+        }
+
+        /** Adds the tasks present, excluding removed ones, to the list. */
+        void snapshot(List<Runnable> list) {
+            Runnable[] a = array;
+            for (int i = base, s = top; i - s < 0; ++i) {
+                Runnable t = (Runnable)U.getObjectVolatile(a, slotOffset(i & mask));
+                if (t != null && t != REMOVED)
+                    list.add(t);
+            }
+        }
+
+        int size() {
+            int n = top - base;
+            return (n < 0) ? 0 : n;
+        }
+
+        boolean isEmpty() {
+            return top - base <= 0;
+        }
+    }
+
+    /**
+     * A worker thread's bookkeeping.  The counters are written only by
+     * the worker's own thread.
+     */
+    private final class Worker implements Runnable {
+        final Thread thread;
+        Runnable firstTask;
+        final int home;
+        /** 1 while published as idle, CASed to 0 by whoever wakes it. */
+        volatile int idle;
+        volatile boolean busy;
+        volatile long completedTasks;
+        volatile long steals;
+
+        Worker(Runnable firstTask, int home) {
+            this.firstTask = firstTask;
+            this.home = home;
+            this.thread = getThreadFactory().newThread(this);
+        }
+
+        public void run() {
+            runWorker(this);
+        }
+
+        WorkStealingThreadPoolExecutor pool() {
+            return WorkStealingThreadPoolExecutor.this;
+        }
+
+        boolean tryWake() {
+            return idle == 1 && U.compareAndSwapInt(this, IDLE, 1, 0);
+        }
+    }
+
+    /*
+     * Methods for setting control state
+     */
+
+    private void advanceRunState(int targetState) {
+        for (;;) {
+            int c = ctl.get();
+            if (runStateAtLeast(c, targetState) ||
+                ctl.compareAndSet(c, ctlOf(targetState, workerCountOf(c))))
+                break;
+        }
+    }
+
+    private boolean compareAndDecrementWorkerCount(int expect) {
+        return ctl.compareAndSet(expect, expect - 1);
+    }
+
+    private void decrementWorkerCount() {
+        do {} while (! compareAndDecrementWorkerCount(ctl.get()));
+    }
+
+    /**
+     * Transitions to TERMINATED state if either (SHUTDOWN and all queues
+     * empty) or (STOP), and there are no workers, as in
+     * ThreadPoolExecutor.  If otherwise eligible to terminate but workers
+     * remain, wakes one idle worker to ensure that shutdown propagates:
+     * a worker may have rechecked the run state and parked just before
+     * the queues drained, and each worker that then exits calls this
+     * method in turn.
+     */
+    private void tryTerminatePool() {
+        for (;;) {
+            int c = ctl.get();
+            if (isRunning(c) ||
+                runStateAtLeast(c, TIDYING) ||
+                (runStateOf(c) == SHUTDOWN && !queuesEmpty()))
+                return;
+            if (workerCountOf(c) != 0) { // Eligible to terminate
+                signalWork();
+                return;
+            }
+            final ReentrantLock mainLock = this.mainLock;
+            mainLock.lock();
+            try {
+                if (ctl.compareAndSet(c, ctlOf(TIDYING, 0))) {
+                    try {
+                        terminated();
+                    } finally {
+                        ctl.set(ctlOf(TERMINATED, 0));
+                        termination.signalAll();
+                        ExecutorMetrics m = metrics;
+                        if (m != null)
+                            m.executorTerminated();
+                    }
+                    return;
+                }
+            } finally {
+                mainLock.unlock();
+            }
+            // else retry on failed CAS
+        }
+    }
+
+    private void checkShutdownAccess() {
+        SecurityManager security = System.getSecurityManager();
+        if (security != null) {
+            security.checkPermission(shutdownPerm);
+            final ReentrantLock mainLock = this.mainLock;
+            mainLock.lock();
+            try {
+                for (Worker w : workers)
+                    security.checkAccess(w.thread);
+            } finally {
+                mainLock.unlock();
+            }
+        }
+    }
+
+    /** Unparks all workers so that they recheck state and settings. */
+    private void wakeAllWorkers() {
+        final ReentrantLock mainLock = this.mainLock;
+        mainLock.lock();
+        try {
+            for (Worker w : workers) {
+                w.tryWake();
+                LockSupport.unpark(w.thread);
+            }
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    private void interruptWorkers() {
+        final ReentrantLock mainLock = this.mainLock;
+        mainLock.lock();
+        try {
+            for (Worker w : workers) {
+                try {
+                    w.thread.interrupt();
+                } catch (SecurityException ignore) {
+                }
+            }
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /*
+     * Queue access
+     */
+
+    /** Wakes one idle worker, if there is one. */
+    private void signalWork() {
+        Worker w;
+        while ((w = idleWorkers.pollFirst()) != null) {
+            if (w.tryWake()) {
+                LockSupport.unpark(w.thread);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Queues a task from a thread that is not a worker of this pool,
+     * starting at a queue chosen by the caller's probe and moving the
+     * probe on if that queue is full.
+     */
+    private boolean externalPush(Runnable task) {
+        WorkQueue[] qs = queues;
+        int m = qs.length - 1;
+        int r;
+        if ((r = ThreadLocalRandom.getProbe()) == 0) {
+            ThreadLocalRandom.localInit();
+            r = ThreadLocalRandom.getProbe();
+        }
+        for (int i = 0; i <= m; ++i) {
+            if (qs[(r + i) & m].push(task)) {
+                if (i != 0)
+                    ThreadLocalRandom.advanceProbe(r);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Takes a task, trying the worker's home queue first and then
+     * stealing from the others in turn.
+     */
+    private Runnable scan(Worker w) {
+        WorkQueue[] qs = queues;
+        int m = qs.length - 1;
+        for (int i = 0; i <= m; ++i) {
+            Runnable t = qs[(w.home + i) & m].poll();
+            if (t != null) {
+                if (i != 0)
+                    w.steals = w.steals + 1;
+                return t;
+            }
+        }
+        return null;
+    }
+
+    /** Takes a task on behalf of a non-worker, or returns null. */
+    private Runnable pollAny() {
+        WorkQueue[] qs = queues;
+        int m = qs.length - 1;
+        int r = ThreadLocalRandom.current().nextInt();
+        for (int i = 0; i <= m; ++i) {
+            Runnable t = qs[(r + i) & m].poll();
+            if (t != null)
+                return t;
+        }
+        return null;
+    }
+
+    private boolean queuesEmpty() {
+        for (WorkQueue q : queues) {
+            if (!q.isEmpty())
+                return false;
+        }
+        return true;
+    }
+
+    private int queuedTaskCount() {
+        long n = 0L;
+        for (WorkQueue q : queues)
+            n += q.size();
+        return (int)Math.min(n, Integer.MAX_VALUE);
+    }
+
+    private List<Runnable> drainQueues() {
+        ArrayList<Runnable> taskList = new ArrayList<Runnable>();
+        for (Runnable t; (t = pollAny()) != null;)
+            taskList.add(t);
+        return taskList;
+    }
+
+    /*
+     * Methods for creating, running and cleaning up after workers
+     */
+
+    /**
+     * Checks if a new worker can be added with respect to current pool
+     * state and the given bound, and if so starts it running firstTask;
+     * as in ThreadPoolExecutor.addWorker.
+     */
+    private boolean addWorker(Runnable firstTask, boolean core) {
+        retry:
+        for (;;) {
+            int c = ctl.get();
+            int rs = runStateOf(c);
+
+            // Check if queues empty only if necessary.
+            if (rs >= SHUTDOWN &&
+                ! (rs == SHUTDOWN &&
+                   firstTask == null &&
+                   ! queuesEmpty()))
+                return false;
+
+            for (;;) {
+                int wc = workerCountOf(c);
+                if (wc >= CAPACITY ||
+                    wc >= (core ? getCorePoolSize() : getMaximumPoolSize()))
+                    return false;
+                if (ctl.compareAndSet(c, c + 1))
+                    break retry;
+                c = ctl.get();  // Re-read ctl
+                if (runStateOf(c) != rs)
+                    continue retry;
+                // else CAS failed due to workerCount change; retry inner loop
+            }
+        }
+
+        boolean workerStarted = false;
+        boolean workerAdded = false;
+        Worker w = null;
+        final ReentrantLock mainLock = this.mainLock;
+        try {
+            mainLock.lock();
+            try {
+                w = new Worker(firstTask, leastSharedQueue());
+                final Thread t = w.thread;
+                if (t != null) {
+                    int rs = runStateOf(ctl.get());
+                    if (rs < SHUTDOWN ||
+                        (rs == SHUTDOWN && firstTask == null)) {
+                        if (t.isAlive()) // precheck that t is startable
+                            throw new IllegalThreadStateException();
+                        workers.add(w);
+                        ++queueOwners[w.home];
+                        int s = workers.size();
+                        if (s > largestPoolSize)
+                            largestPoolSize = s;
+                        workerAdded = true;
+                    }
+                }
+            } finally {
+                mainLock.unlock();
+            }
+            if (workerAdded) {
+                w.thread.start();
+                workerStarted = true;
+            }
+        } finally {
+            if (! workerStarted)
+                addWorkerFailed(w);
+        }
+        return workerStarted;
+    }
+
+    /** Returns the index of a queue with fewest owners; call under mainLock. */
+    private int leastSharedQueue() {
+        int[] owners = queueOwners;
+        int best = 0;
+        for (int i = 1; i < owners.length && owners[best] != 0; ++i) {
+            if (owners[i] < owners[best])
+                best = i;
+        }
+        return best;
+    }
+
+    private void addWorkerFailed(Worker w) {
+        final ReentrantLock mainLock = this.mainLock;
+        mainLock.lock();
+        try {
+            if (w != null && workers.remove(w))
+                --queueOwners[w.home];
+            decrementWorkerCount();
+            tryTerminatePool();
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Performs cleanup and bookkeeping for a dying worker, replacing it
+     * if needed; as in ThreadPoolExecutor.processWorkerExit.
+     */
+    private void processWorkerExit(Worker w, boolean completedAbruptly) {
+        if (completedAbruptly) // If abrupt, then workerCount wasn't adjusted
+            decrementWorkerCount();
+
+        final ReentrantLock mainLock = this.mainLock;
+        mainLock.lock();
+        try {
+            completedTaskCount += w.completedTasks;
+            stealCount += w.steals;
+            if (workers.remove(w))
+                --queueOwners[w.home];
+        } finally {
+            mainLock.unlock();
+        }
+        while (idleWorkers.remove(w))   // drop stale entries
+            ;
+
+        tryTerminatePool();
+
+        int c = ctl.get();
+        if (runStateLessThan(c, STOP)) {
+            if (!completedAbruptly) {
+                int min = allowsCoreThreadTimeOut() ? 0 : getCorePoolSize();
+                if (min == 0 && ! queuesEmpty())
+                    min = 1;
+                if (workerCountOf(c) >= min)
+                    return; // replacement not needed
+            }
+            addWorker(null, false);
+        }
+    }
+
+    /**
+     * Takes a task, parking while there is none, or returns null if the
+     * worker must exit for the reasons given in
+     * ThreadPoolExecutor.getTask, in which case the worker count has
+     * been decremented.
+     */
+    private Runnable getTask(Worker w) {
+        boolean timedOut = false; // Did the last park time out?
+
+        for (;;) {
+            int c = ctl.get();
+            int rs = runStateOf(c);
+
+            // Check if queues empty only if necessary.
+            if (rs >= SHUTDOWN && (rs >= STOP || queuesEmpty())) {
+                decrementWorkerCount();
+                return null;
+            }
+
+            Runnable t = scan(w);
+            if (t != null)
+                return t;
+
+            int wc = workerCountOf(c);
+
+            // Are workers subject to culling?
+            boolean timed = allowsCoreThreadTimeOut() || wc > getCorePoolSize();
+
+            if ((wc > getMaximumPoolSize() || (timed && timedOut))
+                && (wc > 1 || queuesEmpty())) {
+                if (compareAndDecrementWorkerCount(c))
+                    return null;
+                continue;
+            }
+
+            w.idle = 1;
+            idleWorkers.offerFirst(w);
+            if ((t = scan(w)) != null) {
+                w.tryWake();
+                return t;
+            }
+            if (ctl.get() != c) {       // recheck state before parking
+                w.tryWake();
+                continue;
+            }
+            long nanos = getKeepAliveTime(TimeUnit.NANOSECONDS);
+            long start = System.nanoTime();
+            if (timed)
+                LockSupport.parkNanos(this, nanos);
+            else
+                LockSupport.park(this);
+            timedOut = (w.tryWake() && timed &&
+                        System.nanoTime() - start >= nanos);
+            Thread.interrupted();   // runWorker restores it if stopping
+        }
+    }
+
+    /**
+     * Main worker run loop, as in ThreadPoolExecutor.runWorker except
+     * that there is no per-worker lock: interrupts are only ever sent by
+     * shutdownNow, so need not be fenced off from running tasks.
+     */
+    final void runWorker(Worker w) {
+        Thread wt = Thread.currentThread();
+        currentWorker.set(w);
+        Runnable task = w.firstTask;
+        w.firstTask = null;
+        boolean completedAbruptly = true;
+        try {
+            while (task != null || (task = getTask(w)) != null) {
+                // If pool is stopping, ensure thread is interrupted;
+                // if not, ensure thread is not interrupted.  This
+                // requires a recheck in second case to deal with
+                // shutdownNow race while clearing interrupt
+                if ((runStateAtLeast(ctl.get(), STOP) ||
+                     (Thread.interrupted() &&
+                      runStateAtLeast(ctl.get(), STOP))) &&
+                    !wt.isInterrupted())
+                    wt.interrupt();
+                w.busy = true;
+                try {
+                    beforeExecute(wt, task);
+                    Throwable thrown = null;
+                    ExecutorMetrics m = metrics;
+                    long start = 0L;
+                    if (m != null) {
+                        start = System.nanoTime();
+                        m.taskStarted(queueWaitNanos(task, start));
+                    }
+                    try {
+                        task.run();
+                    } catch (RuntimeException x) {
+                        thrown = x; throw x;
+                    } catch (Error x) {
+                        thrown = x; throw x;
+                    } catch (Throwable x) {
+                        thrown = x; throw new Error(x);
+                    } finally {
+                        if (m != null)
+                            m.taskCompleted(System.nanoTime() - start);
+                        afterExecute(task, thrown);
+                    }
+                } finally {
+                    task = null;
+                    w.completedTasks = w.completedTasks + 1;
+                    w.busy = false;
+                }
+            }
+            completedAbruptly = false;
+        } finally {
+            currentWorker.remove();
+            processWorkerExit(w, completedAbruptly);
+        }
+    }
+
+    // Public methods
+
+    /**
+     * Executes the given task sometime in the future.  The task may
+     * execute in a new thread or in an existing pooled thread.  When
+     * called from a worker of this pool the task is placed on that
+     * worker's own queue if it has room.
+     *
+     * If the task cannot be submitted for execution, either because this
+     * executor has been shutdown or because its queues and thread bound
+     * are full, the task is handled by the current {@code
+     * RejectedExecutionHandler}.
+     *
+     * @param command the task to execute
+     * @throws RejectedExecutionException at discretion of
+     *         {@code RejectedExecutionHandler}, if the task
+     *         cannot be accepted for execution
+     * @throws NullPointerException if {@code command} is null
+     */
+    public void execute(Runnable command) {
+        if (command == null)
+            throw new NullPointerException();
+        if (metrics != null && command instanceof FutureTask)
+            ((FutureTask<?>)command).queuedNanos = System.nanoTime();
+        int c = ctl.get();
+        if (workerCountOf(c) < getCorePoolSize()) {
+            if (addWorker(command, true))
+                return;
+            c = ctl.get();
+        }
+        if (isRunning(c) && push(command)) {
+            int recheck = ctl.get();
+            if (! isRunning(recheck) && remove(command))
+                reject(command);
+            else if (workerCountOf(recheck) == 0)
+                addWorker(null, false);
+            else
+                signalWork();
+        }
+        else if (!addWorker(command, false))
+            reject(command);
+    }
+
+    /** Queues the task, preferring the current worker's home queue. */
+    private boolean push(Runnable task) {
+        Worker w = currentWorker.get();
+        if (w != null && w.pool() == this && queues[w.home].push(task))
+            return true;
+        return externalPush(task);
+    }
+
+    /**
+     * Initiates an orderly shutdown in which previously submitted
+     * tasks are executed, but no new tasks will be accepted.
+     * Invocation has no additional effect if already shut down.
+     *
+     * <p>This method does not wait for previously submitted tasks to
+     * complete execution.  Use {@link #awaitTermination awaitTermination}
+     * to do that.
+     *
+     * @throws SecurityException {@inheritDoc}
+     */
+    public void shutdown() {
+        final ReentrantLock mainLock = this.mainLock;
+        mainLock.lock();
+        try {
+            checkShutdownAccess();
+            advanceRunState(SHUTDOWN);
+            onShutdown();
+        } finally {
+            mainLock.unlock();
+        }
+        wakeAllWorkers();
+        tryTerminatePool();
+    }
+
+    /**
+     * Attempts to stop all actively executing tasks, halts the
+     * processing of waiting tasks, and returns a list of the tasks
+     * that were awaiting execution. These tasks are drained (removed)
+     * from the task queues upon return from this method.
+     *
+     * <p>This method does not wait for actively executing tasks to
+     * terminate.  Use {@link #awaitTermination awaitTermination} to
+     * do that.
+     *
+     * <p>There are no guarantees beyond best-effort attempts to stop
+     * processing actively executing tasks.  This implementation
+     * cancels tasks via {@link Thread#interrupt}, so any task that
+     * fails to respond to interrupts may never terminate.
+     *
+     * @throws SecurityException {@inheritDoc}
+     */
+    public List<Runnable> shutdownNow() {
+        List<Runnable> tasks;
+        final ReentrantLock mainLock = this.mainLock;
+        mainLock.lock();
+        try {
+            checkShutdownAccess();
+            advanceRunState(STOP);
+            interruptWorkers();
+            tasks = drainQueues();
+        } finally {
+            mainLock.unlock();
+        }
+        tryTerminatePool();
+        return tasks;
+    }
+
+    public boolean isShutdown() {
+        return ! isRunning(ctl.get());
+    }
+
+    public boolean isTerminating() {
+        int c = ctl.get();
+        return ! isRunning(c) && runStateLessThan(c, TERMINATED);
+    }
+
+    public boolean isTerminated() {
+        return runStateAtLeast(ctl.get(), TERMINATED);
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit)
+        throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        final ReentrantLock mainLock = this.mainLock;
+        mainLock.lock();
+        try {
+            for (;;) {
+                if (runStateAtLeast(ctl.get(), TERMINATED))
+                    return true;
+                if (nanos <= 0)
+                    return false;
+                nanos = termination.awaitNanos(nanos);
+            }
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Sets the core number of threads, starting new threads if there are
+     * queued tasks and waking idle ones if there are now too many.
+     *
+     * @param corePoolSize the new core size
+     * @throws IllegalArgumentException if {@code corePoolSize < 0}
+     *         or {@code corePoolSize} is greater than the {@linkplain
+     *         #getMaximumPoolSize() maximum pool size}
+     * @see #getCorePoolSize
+     */
+    public void setCorePoolSize(int corePoolSize) {
+        int delta = corePoolSize - getCorePoolSize();
+        super.setCorePoolSize(corePoolSize);
+        if (workerCountOf(ctl.get()) > corePoolSize)
+            wakeAllWorkers();
+        else if (delta > 0) {
+            int k = Math.min(delta, queuedTaskCount());
+            while (k-- > 0 && addWorker(null, true)) {
+                if (queuesEmpty())
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Starts a core thread, causing it to idly wait for work. This
+     * overrides the default policy of starting core threads only when
+     * new tasks are executed. This method will return {@code false}
+     * if all core threads have already been started.
+     *
+     * @return {@code true} if a thread was started
+     */
+    public boolean prestartCoreThread() {
+        return workerCountOf(ctl.get()) < getCorePoolSize() &&
+            addWorker(null, true);
+    }
+
+    /**
+     * Starts all core threads, causing them to idly wait for work. This
+     * overrides the default policy of starting core threads only when
+     * new tasks are executed.
+     *
+     * @return the number of threads started
+     */
+    public int prestartAllCoreThreads() {
+        int n = 0;
+        while (addWorker(null, true))
+            ++n;
+        return n;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public void allowCoreThreadTimeOut(boolean value) {
+        super.allowCoreThreadTimeOut(value);
+        if (value)
+            wakeAllWorkers();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public void setMaximumPoolSize(int maximumPoolSize) {
+        super.setMaximumPoolSize(maximumPoolSize);
+        if (workerCountOf(ctl.get()) > maximumPoolSize)
+            wakeAllWorkers();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public void setKeepAliveTime(long time, TimeUnit unit) {
+        long delta = unit.toNanos(time) -
+            getKeepAliveTime(TimeUnit.NANOSECONDS);
+        super.setKeepAliveTime(time, unit);
+        if (delta < 0)
+            wakeAllWorkers();
+    }
+
+    /* User-level queue utilities */
+
+    /**
+     * Returns a view of the task queues of this executor, intended
+     * primarily for debugging and monitoring.  The view supports
+     * removal of tasks, for example by {@link DiscardOldestPolicy}, but
+     * throws {@code UnsupportedOperationException} on insertion and on
+     * the blocking retrieval methods.  Its iterator traverses a
+     * snapshot.
+     *
+     * @return the task queue
+     */
+    public BlockingQueue<Runnable> getQueue() {
+        return queueView;
+    }
+
+    /**
+     * Removes this task from the executor's queues if it is present,
+     * thus causing it not to be run if it has not already started.
+     *
+     * @param task the task to remove
+     * @return {@code true} if the task was removed
+     */
+    public boolean remove(Runnable task) {
+        boolean removed = false;
+        for (WorkQueue q : queues) {
+            if (q.remove(task)) {
+                removed = true;
+                break;
+            }
+        }
+        tryTerminatePool(); // In case SHUTDOWN and now empty
+        return removed;
+    }
+
+    /**
+     * Tries to remove from the queues all {@link Future} tasks that have
+     * been cancelled.
+     */
+    public void purge() {
+        ArrayList<Runnable> tasks = new ArrayList<Runnable>();
+        for (WorkQueue q : queues) {
+            tasks.clear();
+            q.snapshot(tasks);
+            for (Runnable r : tasks)
+                if (r instanceof Future<?> && ((Future<?>) r).isCancelled())
+                    q.remove(r);
+        }
+        tryTerminatePool(); // In case SHUTDOWN and now empty
+    }
+
+    /* Statistics */
+
+    /**
+     * Returns the current number of threads in the pool.
+     *
+     * @return the number of threads
+     */
+    public int getPoolSize() {
+        final ReentrantLock mainLock = this.mainLock;
+        mainLock.lock();
+        try {
+            return runStateAtLeast(ctl.get(), TIDYING) ? 0
+                : workers.size();
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the approximate number of threads that are actively
+     * executing tasks.
+     *
+     * @return the number of threads
+     */
+    public int getActiveCount() {
+        final ReentrantLock mainLock = this.mainLock;
+        mainLock.lock();
+        try {
+            int n = 0;
+            for (Worker w : workers)
+                if (w.busy)
+                    ++n;
+            return n;
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the largest number of threads that have ever
+     * simultaneously been in the pool.
+     *
+     * @return the number of threads
+     */
+    public int getLargestPoolSize() {
+        final ReentrantLock mainLock = this.mainLock;
+        mainLock.lock();
+        try {
+            return largestPoolSize;
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the approximate total number of tasks that have ever been
+     * scheduled for execution.
+     *
+     * @return the number of tasks
+     */
+    public long getTaskCount() {
+        final ReentrantLock mainLock = this.mainLock;
+        mainLock.lock();
+        try {
+            long n = completedTaskCount;
+            for (Worker w : workers) {
+                n += w.completedTasks;
+                if (w.busy)
+                    ++n;
+            }
+            return n + queuedTaskCount();
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the approximate total number of tasks that have
+     * completed execution.
+     *
+     * @return the number of tasks
+     */
+    public long getCompletedTaskCount() {
+        final ReentrantLock mainLock = this.mainLock;
+        mainLock.lock();
+        try {
+            long n = completedTaskCount;
+            for (Worker w : workers)
+                n += w.completedTasks;
+            return n;
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Returns an estimate of the total number of tasks taken by a worker
+     * from a queue other than its own.  This value may be useful for
+     * monitoring and tuning the queue capacity and pool size.
+     *
+     * @return the number of steals
+     */
+    public long getStealCount() {
+        final ReentrantLock mainLock = this.mainLock;
+        mainLock.lock();
+        try {
+            long n = stealCount;
+            for (Worker w : workers)
+                n += w.steals;
+            return n;
+        } finally {
+            mainLock.unlock();
+        }
+    }
+
+    /**
+     * Returns a string identifying this pool, as well as its state,
+     * including indications of run state and estimated worker and
+     * task counts.
+     *
+     * @return a string identifying this pool, as well as its state
+     */
+    public String toString() {
+        long ncompleted, nsteals;
+        int nworkers, nactive;
+        final ReentrantLock mainLock = this.mainLock;
+        mainLock.lock();
+        try {
+            ncompleted = completedTaskCount;
+            nsteals = stealCount;
+            nactive = 0;
+            nworkers = workers.size();
+            for (Worker w : workers) {
+                ncompleted += w.completedTasks;
+                nsteals += w.steals;
+                if (w.busy)
+                    ++nactive;
+            }
+        } finally {
+            mainLock.unlock();
+        }
+        int c = ctl.get();
+        String rs = (runStateLessThan(c, SHUTDOWN) ? "Running" :
+                     (runStateAtLeast(c, TERMINATED) ? "Terminated" :
+                      "Shutting down"));
+        return getClass().getName() + "@" +
+            Integer.toHexString(hashCode()) +
+            "[" + rs +
+            ", pool size = " + nworkers +
+            ", active threads = " + nactive +
+            ", queues = " + queues.length +
+            ", queued tasks = " + queuedTaskCount() +
+            ", completed tasks = " + ncompleted +
+            ", steals = " + nsteals +
+            "]";
+    }
+
+    /**
+     * The view of all task queues returned by getQueue.
+     */
+    final class QueueView extends AbstractQueue<Runnable>
+        implements BlockingQueue<Runnable> {
+
+        public Iterator<Runnable> iterator() {
+            ArrayList<Runnable> tasks = new ArrayList<Runnable>();
+            for (WorkQueue q : queues)
+                q.snapshot(tasks);
+            final Iterator<Runnable> it = tasks.iterator();
+            return new Iterator<Runnable>() {
+                Runnable last;
+                public boolean hasNext() { return it.hasNext(); }
+                public Runnable next() { return last = it.next(); }
+                public void remove() {
+                    if (last == null)
+                        throw new IllegalStateException();
+                    WorkStealingThreadPoolExecutor.this.remove(last);
+                    last = null;
+                }
+            };
+        }
+
+        public int size() { return queuedTaskCount(); }
+        public boolean isEmpty() { return queuesEmpty(); }
+        public Runnable poll() { return pollAny(); }
+
+        public Runnable peek() {
+            for (WorkQueue q : queues) {
+                ArrayList<Runnable> tasks = new ArrayList<Runnable>();
+                q.snapshot(tasks);
+                if (!tasks.isEmpty())
+                    return tasks.get(0);
+            }
+            return null;
+        }
+
+        public boolean remove(Object o) {
+            for (WorkQueue q : queues) {
+                if (q.remove(o))
+                    return true;
+            }
+            return false;
+        }
+
+        public int remainingCapacity() {
+            long n = 0L;
+            for (WorkQueue q : queues)
+                n += q.array.length - q.size();
+            return (int)Math.min(n, Integer.MAX_VALUE);
+        }
+
+        public int drainTo(Collection<? super Runnable> c) {
+            return drainTo(c, Integer.MAX_VALUE);
+        }
+
+        public int drainTo(Collection<? super Runnable> c, int maxElements) {
+            if (c == null)
+                throw new NullPointerException();
+            if (c == this)
+                throw new IllegalArgumentException();
+            int n = 0;
+            for (Runnable t; n < maxElements && (t = pollAny()) != null; ++n)
+                c.add(t);
+            return n;
+        }
+
+        public boolean offer(Runnable e) {
+            throw new UnsupportedOperationException();
+        }
+
+        public void put(Runnable e) {
+            throw new UnsupportedOperationException();
+        }
+
+        public boolean offer(Runnable e, long timeout, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+
+        public Runnable take() {
+            throw new UnsupportedOperationException();
+        }
+
+        public Runnable poll(long timeout, TimeUnit unit) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe U;
+    private static final long IDLE;
+    private static final long ABASE;
+    private static final int ASHIFT;
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            IDLE = U.objectFieldOffset
+                (Worker.class.getDeclaredField("idle"));
+            ABASE = U.arrayBaseOffset(Runnable[].class);
+            int scale = U.arrayIndexScale(Runnable[].class);
+            if ((scale & (scale - 1)) != 0)
+                throw new Error("data type scale not a power of two");
+            ASHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+
+    static long slotOffset(int i) {
+        return ((long)i << ASHIFT) + ABASE;
+    }
+}
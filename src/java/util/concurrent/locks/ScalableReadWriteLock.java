@@ -0,0 +1,908 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent.locks;
+
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link ReadWriteLock} for read-mostly data accessed from many cores.
+ * {@link ReentrantReadWriteLock} counts readers in a single
+ * synchronization word, so every read acquisition and release writes the
+ * same cache line, and read-heavy code scales poorly however rarely it
+ * writes.  This lock instead records readers in a set of padded counters
+ * that grows, as in {@link java.util.concurrent.atomic.LongAdder}, when
+ * readers are seen to contend, so concurrent readers usually update
+ * different cache lines.  A writer announces itself and then waits
+ * until the sum of the counters falls to zero, so writing costs a scan
+ * of the counters and is slower than with {@code
+ * ReentrantReadWriteLock}.
+ *
+ * <p>The lock otherwise behaves like {@code ReentrantReadWriteLock}:
+ *
+ * <ul>
+ * <li>Both locks are reentrant, and reentrant read acquisitions touch
+ * only thread-local state.
+ *
+ * <li>The write lock may be downgraded to a read lock by acquiring the
+ * read lock and then releasing the write lock.  Upgrading from read to
+ * write is not possible; a thread that holds the read lock and requests
+ * the write lock waits forever.
+ *
+ * <li>Readers never enter while a writer holds or is waiting for the
+ * write lock, except a thread already holding a read lock, so writers
+ * are not starved by a stream of readers.  Waiting readers and writers
+ * queue for an internal {@link ReentrantLock}, whose optional fairness
+ * policy is that of this lock.
+ *
+ * <li>The write lock provides a {@link Condition}; the read lock does
+ * not.
+ * </ul>
+ *
+ * <p>Each thread's read hold count is kept in a {@link ThreadLocal} that
+ * is retained for the life of the thread once it has acquired the read
+ * lock.  Unlike {@code ReentrantReadWriteLock}, this class is not
+ * serializable.
+ *
+ * @since 9
+ */
+public class ScalableReadWriteLock implements ReadWriteLock {
+
+    /*
+     * Overview.
+     *
+     * A thread acquiring a read lock for the first time increments one
+     * reader counter and then reads the writer field; a writer sets the
+     * writer field and then sums the counters.  All of these are
+     * volatile accesses, so either the reader sees the writer, in which
+     * case it decrements its counter again and waits for the writer by
+     * passing through the internal lock, or the writer sees the
+     * reader's increment and waits for it to be undone.  A reader
+     * releasing its last hold decrements the same counter it
+     * incremented, so that a writer summing the counters concurrently
+     * cannot see a hold moved from a counter not yet read to one already
+     * read, and then unparks any waiting writer.
+     *
+     * The counters start as just the base cell; a failed CAS on a cell
+     * doubles the cells array, up to the number of CPUs, and moves the
+     * thread's probe as in Striped64.  A grown array is filled with
+     * cells before it is published and keeps the old cells, so a writer
+     * that reads the array after announcing itself sees every cell that
+     * a reader it has not seen could have incremented.
+     *
+     * The internal lock serializes writers.  A writer holds it from
+     * before announcing itself until after withdrawing, and waiting
+     * readers acquire and release it, so they queue behind the writer.
+     */
+
+    /** The read lock view. */
+    private final ReadLock readerLock;
+
+    /** The write lock view. */
+    private final WriteLock writerLock;
+
+    /** Serializes writers and queues readers behind them. */
+    final ReentrantLock sync;
+
+    /** The thread holding or waiting to drain readers for the write lock. */
+    volatile Thread writer;
+
+    /** The reader counter used until readers contend. */
+    final Cell base = new Cell();
+
+    /** Contention cells; null until needed, then a power of two in size. */
+    volatile Cell[] cells;
+
+    /** Spinlock (locked via CAS) used when growing cells. */
+    volatile int cellsBusy;
+
+    /** The per-thread read hold counts. */
+    private final ThreadLocal<ReadHold> readHolds =
+        new ThreadLocal<ReadHold>() {
+            protected ReadHold initialValue() { return new ReadHold(); }
+        };
+
+    /** Number of CPUS, to place bound on table size */
+    static final int NCPU = Runtime.getRuntime().availableProcessors();
+
+    /** The number of sum checks a writer spins for before parking. */
+    static final int WRITER_SPINS = (NCPU > 1) ? 1 << 6 : 0;
+
+    /**
+     * Creates a new {@code ScalableReadWriteLock} with the default
+     * (nonfair) ordering properties.
+     */
+    public ScalableReadWriteLock() {
+        this(false);
+    }
+
+    /**
+     * Creates a new {@code ScalableReadWriteLock} with the given
+     * fairness policy.
+     *
+     * @param fair {@code true} if threads waiting for the lock should
+     *        be queued fairly
+     */
+    public ScalableReadWriteLock(boolean fair) {
+        sync = new ReentrantLock(fair);
+        readerLock = new ReadLock(this);
+        writerLock = new WriteLock(this);
+    }
+
+    public ScalableReadWriteLock.WriteLock writeLock() { return writerLock; }
+    public ScalableReadWriteLock.ReadLock  readLock()  { return readerLock; }
+
+    /**
+     * A padded reader counter.
+     */
+    @sun.misc.Contended static final class Cell {
+        volatile long value;
+        final boolean cas(long cmp, long val) {
+            return UNSAFE.compareAndSwapLong(this, VALUE, cmp, val);
+        }
+        final void add(long x) {
+            UNSAFE.getAndAddLong(this, VALUE, x);
+        }
+    }
+
+    /**
+     * A thread's read holds, and the counter recording them.
+     */
+    static final class ReadHold {
+        int count;
+        Cell cell;
+    }
+
+    // Reader indicator
+
+    /**
+     * Increments a reader counter and returns it.
+     */
+    final Cell arrive() {
+        Cell[] cs = cells;
+        Cell c = (cs == null) ? base : cs[getProbe() & (cs.length - 1)];
+        long v = c.value;
+        return c.cas(v, v + 1L) ? c : contendedArrive();
+    }
+
+    /**
+     * Handles a failed first attempt by growing the cells if possible
+     * and incrementing a cell chosen by a new probe.
+     */
+    private Cell contendedArrive() {
+        int h = getProbe();
+        if (h == 0) {
+            ThreadLocalRandom.current(); // force initialization
+            h = getProbe();
+        }
+        else
+            h = advanceProbe(h);
+        Cell[] cs = cells;
+        if ((cs == null || cs.length < NCPU) &&
+            cellsBusy == 0 && casCellsBusy()) {
+            try {
+                if (cells == cs) {
+                    int n = (cs == null) ? 0 : cs.length;
+                    Cell[] rs = new Cell[(n == 0) ? 2 : n << 1];
+                    for (int i = 0; i < rs.length; ++i)
+                        rs[i] = (i < n) ? cs[i] : new Cell();
+                    cells = rs;
+                }
+            } finally {
+                cellsBusy = 0;
+            }
+            cs = cells;
+        }
+        Cell c = (cs == null) ? base : cs[h & (cs.length - 1)];
+        c.add(1L);
+        return c;
+    }
+
+    /**
+     * Returns the number of threads holding read locks; exact only
+     * when no reader is arriving or departing.
+     */
+    final long readerCount() {
+        long sum = base.value;
+        Cell[] cs = cells;
+        if (cs != null) {
+            for (Cell c : cs)
+                sum += c.value;
+        }
+        return sum;
+    }
+
+    final boolean casCellsBusy() {
+        return UNSAFE.compareAndSwapInt(this, CELLSBUSY, 0, 1);
+    }
+
+    static final int getProbe() {
+        return UNSAFE.getInt(Thread.currentThread(), PROBE);
+    }
+
+    static final int advanceProbe(int probe) {
+        probe ^= probe << 13;   // xorshift
+        probe ^= probe >>> 17;
+        probe ^= probe << 5;
+        UNSAFE.putInt(Thread.currentThread(), PROBE, probe);
+        return probe;
+    }
+
+    // Read lock
+
+    /**
+     * Acquires a first read hold if no writer is present, returning
+     * {@code false} without holding if one is.
+     */
+    final boolean tryArrive(ReadHold rh) {
+        Cell c = arrive();
+        if (writer == null) {
+            rh.cell = c;
+            rh.count = 1;
+            return true;
+        }
+        depart(c);
+        return false;
+    }
+
+    /**
+     * Decrements a reader counter and wakes any writer waiting for
+     * readers to drain.
+     */
+    final void depart(Cell c) {
+        c.add(-1L);
+        Thread w = writer;
+        if (w != null && w != Thread.currentThread())
+            LockSupport.unpark(w);
+    }
+
+    /**
+     * Takes a read hold without touching the counters, or counts the
+     * first read hold of the writer, returning false if the caller
+     * must contend.
+     */
+    final boolean tryReenterRead(ReadHold rh) {
+        if (rh.count > 0) {
+            if (rh.count == Integer.MAX_VALUE)
+                throw new Error("Maximum lock count exceeded");
+            ++rh.count;
+            return true;
+        }
+        if (writer == Thread.currentThread()) {
+            Cell c = arrive();
+            rh.cell = c;
+            rh.count = 1;
+            return true;
+        }
+        return false;
+    }
+
+    final void acquireRead() {
+        ReadHold rh = readHolds.get();
+        if (!tryReenterRead(rh)) {
+            while (!tryArrive(rh)) {
+                sync.lock();   // wait for the writer
+                sync.unlock();
+            }
+        }
+    }
+
+    final void acquireReadInterruptibly() throws InterruptedException {
+        if (Thread.interrupted())
+            throw new InterruptedException();
+        ReadHold rh = readHolds.get();
+        if (!tryReenterRead(rh)) {
+            while (!tryArrive(rh)) {
+                sync.lockInterruptibly();
+                sync.unlock();
+            }
+        }
+    }
+
+    final boolean tryAcquireRead() {
+        ReadHold rh = readHolds.get();
+        return tryReenterRead(rh) || tryArrive(rh);
+    }
+
+    final boolean tryAcquireReadNanos(long nanos)
+            throws InterruptedException {
+        if (Thread.interrupted())
+            throw new InterruptedException();
+        ReadHold rh = readHolds.get();
+        if (tryReenterRead(rh))
+            return true;
+        final long deadline = System.nanoTime() + nanos;
+        while (!tryArrive(rh)) {
+            if (!sync.tryLock(deadline - System.nanoTime(),
+                              TimeUnit.NANOSECONDS))
+                return false;
+            sync.unlock();
+        }
+        return true;
+    }
+
+    final void releaseRead() {
+        ReadHold rh = readHolds.get();
+        int n = rh.count;
+        if (n <= 0)
+            throw new IllegalMonitorStateException();
+        rh.count = n - 1;
+        if (n == 1) {
+            Cell c = rh.cell;
+            rh.cell = null;
+            depart(c);
+        }
+    }
+
+    // Write lock
+
+    /**
+     * Announces the current thread, which has just acquired the
+     * internal lock for the first time, as the writer.
+     */
+    private void announce() {
+        writer = Thread.currentThread();
+    }
+
+    /**
+     * Withdraws the writer and releases the internal lock, letting
+     * readers in.
+     */
+    private void withdraw() {
+        writer = null;
+        sync.unlock();
+    }
+
+    /**
+     * Waits for readers to drain after announcing.  Returns a negative
+     * value if interrupted and interruptible, zero if timed out, and
+     * otherwise a positive value.
+     */
+    private int awaitReaders(boolean interruptible, boolean timed,
+                             long deadline) {
+        boolean interrupted = false;
+        int spins = WRITER_SPINS;
+        int result = 1;
+        while (readerCount() != 0L) {
+            if (spins > 0)
+                --spins;
+            else if (timed) {
+                long nanos = deadline - System.nanoTime();
+                if (nanos <= 0L) {
+                    result = 0;
+                    break;
+                }
+                LockSupport.parkNanos(this, nanos);
+            }
+            else
+                LockSupport.park(this);
+            if (Thread.interrupted()) {
+                if (interruptible) {
+                    result = -1;
+                    break;
+                }
+                interrupted = true;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+        return result;
+    }
+
+    final void acquireWrite() {
+        sync.lock();
+        if (sync.getHoldCount() == 1) {
+            announce();
+            awaitReaders(false, false, 0L);
+        }
+    }
+
+    final void acquireWriteInterruptibly() throws InterruptedException {
+        sync.lockInterruptibly();
+        if (sync.getHoldCount() == 1) {
+            announce();
+            if (awaitReaders(true, false, 0L) < 0) {
+                withdraw();
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    final boolean tryAcquireWrite() {
+        if (!sync.tryLock())
+            return false;
+        if (sync.getHoldCount() == 1) {
+            announce();
+            if (readerCount() != 0L) {
+                withdraw();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    final boolean tryAcquireWriteNanos(long nanos)
+            throws InterruptedException {
+        final long deadline = System.nanoTime() + nanos;
+        if (!sync.tryLock(nanos, TimeUnit.NANOSECONDS))
+            return false;
+        if (sync.getHoldCount() == 1) {
+            announce();
+            int r = awaitReaders(true, true, deadline);
+            if (r <= 0) {
+                withdraw();
+                if (r < 0)
+                    throw new InterruptedException();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    final void releaseWrite() {
+        if (sync.isHeldByCurrentThread() && sync.getHoldCount() == 1)
+            withdraw();
+        else
+            sync.unlock();  // throws if not held
+    }
+
+    /**
+     * The lock returned by method {@link ScalableReadWriteLock#readLock}.
+     */
+    public static class ReadLock implements Lock {
+        private final ScalableReadWriteLock lock;
+
+        /**
+         * Constructor for use by subclasses
+         *
+         * @param lock the outer lock object
+         * @throws NullPointerException if the lock is null
+         */
+        protected ReadLock(ScalableReadWriteLock lock) {
+            if (lock == null)
+                throw new NullPointerException();
+            this.lock = lock;
+        }
+
+        /**
+         * Acquires the read lock.
+         *
+         * <p>Acquires the read lock if the write lock is not held by
+         * another thread and no other thread is waiting for it, or if
+         * the current thread already holds the read lock, and returns
+         * immediately.  Otherwise the current thread waits until the
+         * writer has released the write lock.
+         */
+        public void lock() {
+            lock.acquireRead();
+        }
+
+        /**
+         * Acquires the read lock unless the current thread is
+         * {@linkplain Thread#interrupt interrupted}.
+         *
+         * @throws InterruptedException if the current thread is interrupted
+         */
+        public void lockInterruptibly() throws InterruptedException {
+            lock.acquireReadInterruptibly();
+        }
+
+        /**
+         * Acquires the read lock only if the write lock is not held or
+         * awaited by another thread at the time of invocation.
+         *
+         * @return {@code true} if the read lock was acquired
+         */
+        public boolean tryLock() {
+            return lock.tryAcquireRead();
+        }
+
+        /**
+         * Acquires the read lock if it becomes available within the
+         * given waiting time and the current thread has not been
+         * {@linkplain Thread#interrupt interrupted}.
+         *
+         * @param timeout the time to wait for the read lock
+         * @param unit the time unit of the timeout argument
+         * @return {@code true} if the read lock was acquired
+         * @throws InterruptedException if the current thread is interrupted
+         * @throws NullPointerException if the time unit is null
+         */
+        public boolean tryLock(long timeout, TimeUnit unit)
+                throws InterruptedException {
+            return lock.tryAcquireReadNanos(unit.toNanos(timeout));
+        }
+
+        /**
+         * Attempts to release this lock.
+         *
+         * @throws IllegalMonitorStateException if the current thread
+         *         does not hold this lock
+         */
+        public void unlock() {
+            lock.releaseRead();
+        }
+
+        /**
+         * Throws {@code UnsupportedOperationException} because
+         * {@code ReadLocks} do not support conditions.
+         *
+         * @throws UnsupportedOperationException always
+         */
+        public Condition newCondition() {
+            throw new UnsupportedOperationException();
+        }
+
+        /**
+         * Returns a string identifying this lock, as well as its lock state.
+         * The state, in brackets, includes the String {@code "Read locks ="}
+         * followed by the number of threads holding read locks.
+         *
+         * @return a string identifying this lock, as well as its lock state
+         */
+        public String toString() {
+            return super.toString() +
+                "[Read locks = " + lock.getReadLockCount() + "]";
+        }
+    }
+
+    /**
+     * The lock returned by method {@link ScalableReadWriteLock#writeLock}.
+     */
+    public static class WriteLock implements Lock {
+        private final ScalableReadWriteLock lock;
+
+        /**
+         * Constructor for use by subclasses
+         *
+         * @param lock the outer lock object
+         * @throws NullPointerException if the lock is null
+         */
+        protected WriteLock(ScalableReadWriteLock lock) {
+            if (lock == null)
+                throw new NullPointerException();
+            this.lock = lock;
+        }
+
+        /**
+         * Acquires the write lock, waiting for any other writer and then
+         * for threads holding read locks to release them.  If the
+         * current thread already holds the write lock its hold count is
+         * incremented.
+         */
+        public void lock() {
+            lock.acquireWrite();
+        }
+
+        /**
+         * Acquires the write lock unless the current thread is
+         * {@linkplain Thread#interrupt interrupted}.
+         *
+         * @throws InterruptedException if the current thread is interrupted
+         */
+        public void lockInterruptibly() throws InterruptedException {
+            lock.acquireWriteInterruptibly();
+        }
+
+        /**
+         * Acquires the write lock only if neither the read nor write
+         * lock is held by another thread at the time of invocation.
+         *
+         * @return {@code true} if the lock was free and was acquired
+         * by the current thread, or the write lock was already held
+         * by the current thread; and {@code false} otherwise
+         */
+        public boolean tryLock() {
+            return lock.tryAcquireWrite();
+        }
+
+        /**
+         * Acquires the write lock if it becomes available within the
+         * given waiting time and the current thread has not been
+         * {@linkplain Thread#interrupt interrupted}.
+         *
+         * @param timeout the time to wait for the write lock
+         * @param unit the time unit of the timeout argument
+         * @return {@code true} if the lock was acquired
+         * @throws InterruptedException if the current thread is interrupted
+         * @throws NullPointerException if the time unit is null
+         */
+        public boolean tryLock(long timeout, TimeUnit unit)
+                throws InterruptedException {
+            return lock.tryAcquireWriteNanos(unit.toNanos(timeout));
+        }
+
+        /**
+         * Attempts to release this lock.
+         *
+         * <p>If the current thread is the holder of this lock then
+         * the hold count is decremented. If the hold count is now
+         * zero then the lock is released.  If the current thread is
+         * not the holder of this lock then {@link
+         * IllegalMonitorStateException} is thrown.
+         *
+         * @throws IllegalMonitorStateException if the current thread does not
+         *         hold this lock
+         */
+        public void unlock() {
+            lock.releaseWrite();
+        }
+
+        /**
+         * Returns a {@link Condition} for use with this write lock.
+         * Awaiting the condition releases the write lock, letting
+         * readers in, and reacquires it, waiting for readers to drain,
+         * before returning.
+         *
+         * @return the Condition object
+         */
+        public Condition newCondition() {
+            return lock.new WriteCondition(lock.sync.newCondition());
+        }
+
+        /**
+         * Returns a string identifying this lock, as well as its lock
+         * state.  The state, in brackets includes either the String
+         * {@code "Unlocked"} or the String {@code "Locked by"}
+         * followed by the {@linkplain Thread#getName name} of the owning thread.
+         *
+         * @return a string identifying this lock, as well as its lock state
+         */
+        public String toString() {
+            Thread o = lock.getOwner();
+            return super.toString() + ((o == null) ?
+                    "[Unlocked]" :
+                    "[Locked by thread " + o.getName() + "]");
+        }
+
+        /**
+         * Queries if this write lock is held by the current thread.
+         * Identical in effect to {@link
+         * ScalableReadWriteLock#isWriteLockedByCurrentThread}.
+         *
+         * @return {@code true} if the current thread holds this lock and
+         * {@code false} otherwise
+         */
+        public boolean isHeldByCurrentThread() {
+            return lock.isWriteLockedByCurrentThread();
+        }
+
+        /**
+         * Queries the number of holds on this write lock by the current
+         * thread.  Identical in effect to {@link
+         * ScalableReadWriteLock#getWriteHoldCount}.
+         *
+         * @return the number of holds on this lock by the current thread,
+         * or zero if this lock is not held by the current thread
+         */
+        public int getHoldCount() {
+            return lock.getWriteHoldCount();
+        }
+    }
+
+    /**
+     * A condition of the internal lock that withdraws the writer while
+     * waiting, and on waking waits for readers to drain again.
+     */
+    final class WriteCondition implements Condition {
+        private final Condition cond;
+
+        WriteCondition(Condition cond) {
+            this.cond = cond;
+        }
+
+        private void beforeWait() {
+            if (!sync.isHeldByCurrentThread())
+                throw new IllegalMonitorStateException();
+            writer = null;
+        }
+
+        private void afterWait() {
+            announce();
+            awaitReaders(false, false, 0L);
+        }
+
+        public void await() throws InterruptedException {
+            beforeWait();
+            try {
+                cond.await();
+            } finally {
+                afterWait();
+            }
+        }
+
+        public void awaitUninterruptibly() {
+            beforeWait();
+            try {
+                cond.awaitUninterruptibly();
+            } finally {
+                afterWait();
+            }
+        }
+
+        public long awaitNanos(long nanosTimeout) throws InterruptedException {
+            beforeWait();
+            try {
+                return cond.awaitNanos(nanosTimeout);
+            } finally {
+                afterWait();
+            }
+        }
+
+        public boolean await(long time, TimeUnit unit)
+                throws InterruptedException {
+            beforeWait();
+            try {
+                return cond.await(time, unit);
+            } finally {
+                afterWait();
+            }
+        }
+
+        public boolean awaitUntil(Date deadline) throws InterruptedException {
+            beforeWait();
+            try {
+                return cond.awaitUntil(deadline);
+            } finally {
+                afterWait();
+            }
+        }
+
+        public void signal() {
+            cond.signal();
+        }
+
+        public void signalAll() {
+            cond.signalAll();
+        }
+    }
+
+    // Instrumentation and status
+
+    /**
+     * Returns {@code true} if this lock has fairness set true.
+     *
+     * @return {@code true} if this lock has fairness set true
+     */
+    public final boolean isFair() {
+        return sync.isFair();
+    }
+
+    /**
+     * Returns the thread that currently owns the write lock, or
+     * {@code null} if not owned.  A thread that has acquired the
+     * internal writer lock but is still waiting for readers to drain
+     * is reported as the owner.
+     *
+     * @return the owner, or {@code null} if not owned
+     */
+    protected Thread getOwner() {
+        return writer;
+    }
+
+    /**
+     * Queries the number of threads holding read locks for this lock.
+     * Unlike {@link ReentrantReadWriteLock#getReadLockCount}, reentrant
+     * holds of a thread count once.  This method is designed for use in
+     * monitoring system state, not for synchronization control.
+     *
+     * @return the number of threads holding read locks
+     */
+    public int getReadLockCount() {
+        long n = readerCount();
+        return (n <= 0L) ? 0 : (n >= Integer.MAX_VALUE) ?
+            Integer.MAX_VALUE : (int)n;
+    }
+
+    /**
+     * Queries if the write lock is held by any thread. This method is
+     * designed for use in monitoring system state, not for
+     * synchronization control.
+     *
+     * @return {@code true} if any thread holds the write lock and
+     * {@code false} otherwise
+     */
+    public boolean isWriteLocked() {
+        return sync.isLocked();
+    }
+
+    /**
+     * Queries if the write lock is held by the current thread.
+     *
+     * @return {@code true} if the current thread holds the write lock and
+     * {@code false} otherwise
+     */
+    public boolean isWriteLockedByCurrentThread() {
+        return sync.isHeldByCurrentThread();
+    }
+
+    /**
+     * Queries the number of reentrant write holds on this lock by the
+     * current thread.
+     *
+     * @return the number of holds on the write lock by the current thread,
+     * or zero if the write lock is not held by the current thread
+     */
+    public int getWriteHoldCount() {
+        return sync.getHoldCount();
+    }
+
+    /**
+     * Queries the number of reentrant read holds on this lock by the
+     * current thread.
+     *
+     * @return the number of holds on the read lock by the current thread,
+     *         or zero if the read lock is not held by the current thread
+     */
+    public int getReadHoldCount() {
+        return readHolds.get().count;
+    }
+
+    /**
+     * Queries whether any threads are waiting to acquire the read or
+     * write lock behind a writer.
+     *
+     * @return {@code true} if there may be other threads waiting
+     */
+    public final boolean hasQueuedThreads() {
+        return sync.hasQueuedThreads();
+    }
+
+    /**
+     * Returns a string identifying this lock, as well as its lock state.
+     * The state, in brackets, includes the String {@code "Write locks ="}
+     * followed by the number of reentrantly held write locks, and the
+     * String {@code "Read locks ="} followed by the number of threads
+     * holding read locks.
+     *
+     * @return a string identifying this lock, as well as its lock state
+     */
+    public String toString() {
+        return super.toString() +
+            "[Write locks = " + (sync.isLocked() ? 1 : 0) +
+            ", Read locks = " + getReadLockCount() + "]";
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe UNSAFE;
+    private static final long VALUE;
+    private static final long CELLSBUSY;
+    private static final long PROBE;
+    static {
+        try {
+            UNSAFE = sun.misc.Unsafe.getUnsafe();
+            VALUE = UNSAFE.objectFieldOffset
+                (Cell.class.getDeclaredField("value"));
+            CELLSBUSY = UNSAFE.objectFieldOffset
+                (ScalableReadWriteLock.class.getDeclaredField("cellsBusy"));
+            PROBE = UNSAFE.objectFieldOffset
+                (Thread.class.getDeclaredField("threadLocalRandomProbe"));
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
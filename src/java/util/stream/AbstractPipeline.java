@@ -26,7 +26,13 @@ package java.util.stream;
 
 import java.util.Objects;
 import java.util.Spliterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
 import java.util.function.IntFunction;
+import java.util.function.LongConsumer;
 import java.util.function.Supplier;
 
 /**
@@ -148,6 +154,26 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
      */
     private boolean parallel;
 
+    /**
+     * The pool in which parallel evaluation runs, or null to run in the pool
+     * of the calling thread, or else the common pool; only valid for the
+     * source stage.
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * The parallelism for which parallel evaluation splits its work, or zero
+     * to use that of the pool; only valid for the source stage.
+     */
+    private int parallelism;
+
+    /**
+     * The number of elements below which parallel evaluation does not split
+     * the source, or zero if there is no such minimum; only valid for the
+     * source stage.
+     */
+    private long leafSize;
+
     /**
      * Constructor for the head of a stream pipeline.
      *
@@ -230,10 +256,28 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
         linkedOrConsumed = true;
 
         return isParallel()
-               ? terminalOp.evaluateParallel(this, sourceSpliterator(terminalOp.getOpFlags()))
+               ? evaluateInPool(() -> terminalOp.evaluateParallel(this, sourceSpliterator(terminalOp.getOpFlags())))
                : terminalOp.evaluateSequential(this, sourceSpliterator(terminalOp.getOpFlags()));
     }
 
+    /**
+     * Runs a parallel evaluation in the pool attached to this pipeline by
+     * {@link #parallel(ForkJoinPool)}, so that the tasks it forks are
+     * executed by workers of that pool.  Runs it directly if no pool is
+     * attached or the current thread is already a worker of the pool.
+     *
+     * @param <R> the type of result
+     * @param evaluation the evaluation
+     * @return the result of the evaluation
+     */
+    private <R> R evaluateInPool(Supplier<R> evaluation) {
+        ForkJoinPool p = sourceStage.pool;
+        if (p == null || ForkJoinTask.getPool() == p)
+            return evaluation.get();
+        Callable<R> task = evaluation::get;
+        return p.invoke(ForkJoinTask.adapt(task));
+    }
+
     /**
      * Collect the elements output from the pipeline stage.
      *
@@ -254,7 +298,10 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
             // upstream slice and upstream operations will not be included
             // in this slice
             depth = 0;
-            return opEvaluateParallel(previousStage, previousStage.sourceSpliterator(0), generator);
+            return evaluateInPool(() -> opEvaluateParallel(previousStage, previousStage.sourceSpliterator(0), generator));
+        }
+        else if (isParallel()) {
+            return evaluateInPool(() -> evaluate(sourceSpliterator(0), true, generator));
         }
         else {
             return evaluate(sourceSpliterator(0), true, generator);
@@ -301,14 +348,37 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
     @Override
     @SuppressWarnings("unchecked")
     public final S sequential() {
-        sourceStage.parallel = false;
-        return (S) this;
+        return configure(false, null, 0, 0L);
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public final S parallel() {
-        sourceStage.parallel = true;
+        return configure(true, null, 0, 0L);
+    }
+
+    @Override
+    public final S parallel(ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return configure(true, pool, 0, 0L);
+    }
+
+    @Override
+    public final S parallel(ForkJoinPool pool, int parallelism, long leafSize) {
+        Objects.requireNonNull(pool);
+        if (parallelism <= 0)
+            throw new IllegalArgumentException(Integer.toString(parallelism));
+        if (leafSize <= 0L)
+            throw new IllegalArgumentException(Long.toString(leafSize));
+        return configure(true, pool, parallelism, leafSize);
+    }
+
+    @SuppressWarnings("unchecked")
+    private S configure(boolean parallel, ForkJoinPool pool, int parallelism, long leafSize) {
+        AbstractPipeline<?, ?, ?> s = sourceStage;
+        s.parallel = parallel;
+        s.pool = pool;
+        s.parallelism = parallelism;
+        s.leafSize = leafSize;
         return (S) this;
     }
 
@@ -361,7 +431,9 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
             }
         }
         else {
-            return wrap(this, () -> sourceSpliterator(0), isParallel());
+            return isParallel()
+                   ? wrap(this, () -> evaluateInPool(() -> sourceSpliterator(0)), true)
+                   : wrap(this, () -> sourceSpliterator(0), false);
         }
     }
 
@@ -461,11 +533,32 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
         return p.getOutputShape();
     }
 
+    /**
+     * Returns the upstream pipeline stage, or null if this is the source
+     * stage.
+     */
+    final AbstractPipeline<?, ?, ?> previousStage() {
+        return previousStage;
+    }
+
     @Override
     final <P_IN> long exactOutputSizeIfKnown(Spliterator<P_IN> spliterator) {
         return StreamOpFlag.SIZED.isKnown(getStreamAndOpFlags()) ? spliterator.getExactSizeIfKnown() : -1;
     }
 
+    @Override
+    final long targetLeafSize(long sizeEstimate) {
+        AbstractPipeline<?, ?, ?> s = sourceStage;
+        int p = s.parallelism;
+        if (p == 0) {
+            if (s.pool == null)
+                return AbstractTask.suggestTargetSize(sizeEstimate);
+            p = s.pool.getParallelism();
+        }
+        long est = sizeEstimate / ((long) p << 2);
+        return Math.max(est, Math.max(s.leafSize, 1L));
+    }
+
     @Override
     final <P_IN, S extends Sink<E_OUT>> S wrapAndCopyInto(S sink, Spliterator<P_IN> spliterator) {
         copyInto(wrapSink(Objects.requireNonNull(sink)), spliterator);
@@ -478,7 +571,8 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
 
         if (!StreamOpFlag.SHORT_CIRCUIT.isKnown(getStreamAndOpFlags())) {
             wrappedSink.begin(spliterator.getExactSizeIfKnown());
-            spliterator.forEachRemaining(wrappedSink);
+            if (!copyInChunks(wrappedSink, spliterator))
+                spliterator.forEachRemaining(wrappedSink);
             wrappedSink.end();
         }
         else {
@@ -486,6 +580,140 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
         }
     }
 
+    /** The largest chunk of elements pushed by {@link #copyInChunks}. */
+    static final int CHUNK_SIZE = 1 << 10;
+
+    /** The smallest source for which elements are pushed in chunks. */
+    static final int MIN_CHUNKED_SIZE = 1 << 4;
+
+    /**
+     * Pushes the remaining elements of a primitive spliterator to the sink
+     * in chunks, as by {@link Sink#accept(int[], int, int)} and its long
+     * and double counterparts, so that sinks may process each chunk in a
+     * single loop.  Only spliterators with a known size are chunked, so
+     * that no element of a source that produces elements slowly, such as
+     * one reading from a channel, is held back waiting for a chunk to
+     * fill.  Returns false, having done nothing, if the spliterator is
+     * not chunked.
+     */
+    private static boolean copyInChunks(Sink<?> sink, Spliterator<?> spliterator) {
+        long size = spliterator.getExactSizeIfKnown();
+        if (size < MIN_CHUNKED_SIZE)
+            return false;
+        int n = (int) Math.min(size, CHUNK_SIZE);
+        if (spliterator instanceof Spliterator.OfInt && sink instanceof Sink.OfInt) {
+            if (spliterator instanceof Streams.RangeIntSpliterator)
+                ((Streams.RangeIntSpliterator) spliterator).forEachRemaining(sink, new int[n]);
+            else {
+                IntChunker c = new IntChunker(sink, new int[n]);
+                ((Spliterator.OfInt) spliterator).forEachRemaining(c);
+                c.flush();
+            }
+            return true;
+        }
+        else if (spliterator instanceof Spliterator.OfLong && sink instanceof Sink.OfLong) {
+            if (spliterator instanceof Streams.RangeLongSpliterator)
+                ((Streams.RangeLongSpliterator) spliterator).forEachRemaining(sink, new long[n]);
+            else {
+                LongChunker c = new LongChunker(sink, new long[n]);
+                ((Spliterator.OfLong) spliterator).forEachRemaining(c);
+                c.flush();
+            }
+            return true;
+        }
+        else if (spliterator instanceof Spliterator.OfDouble && sink instanceof Sink.OfDouble) {
+            DoubleChunker c = new DoubleChunker(sink, new double[n]);
+            ((Spliterator.OfDouble) spliterator).forEachRemaining(c);
+            c.flush();
+            return true;
+        }
+        return false;
+    }
+
+    /** Gathers int elements into chunks for a sink. */
+    private static final class IntChunker implements IntConsumer {
+        private final Sink<?> sink;
+        private final int[] chunk;
+        private int count;
+
+        IntChunker(Sink<?> sink, int[] chunk) {
+            this.sink = sink;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public void accept(int value) {
+            int[] c = chunk;
+            c[count++] = value;
+            if (count == c.length) {
+                sink.accept(c, 0, count);
+                count = 0;
+            }
+        }
+
+        void flush() {
+            if (count > 0)
+                sink.accept(chunk, 0, count);
+            count = 0;
+        }
+    }
+
+    /** Gathers long elements into chunks for a sink. */
+    private static final class LongChunker implements LongConsumer {
+        private final Sink<?> sink;
+        private final long[] chunk;
+        private int count;
+
+        LongChunker(Sink<?> sink, long[] chunk) {
+            this.sink = sink;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public void accept(long value) {
+            long[] c = chunk;
+            c[count++] = value;
+            if (count == c.length) {
+                sink.accept(c, 0, count);
+                count = 0;
+            }
+        }
+
+        void flush() {
+            if (count > 0)
+                sink.accept(chunk, 0, count);
+            count = 0;
+        }
+    }
+
+    /** Gathers double elements into chunks for a sink. */
+    private static final class DoubleChunker implements DoubleConsumer {
+        private final Sink<?> sink;
+        private final double[] chunk;
+        private int count;
+
+        DoubleChunker(Sink<?> sink, double[] chunk) {
+            this.sink = sink;
+            this.chunk = chunk;
+        }
+
+        @Override
+        public void accept(double value) {
+            double[] c = chunk;
+            c[count++] = value;
+            if (count == c.length) {
+                sink.accept(c, 0, count);
+                count = 0;
+            }
+        }
+
+        void flush() {
+            if (count > 0)
+                sink.accept(chunk, 0, count);
+            count = 0;
+        }
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     final <P_IN> void copyIntoWithCancel(Sink<P_IN> wrappedSink, Spliterator<P_IN> spliterator) {
@@ -90,8 +90,10 @@ abstract class AbstractSpinedBuffer {
         if (initialCapacity < 0)
             throw new IllegalArgumentException("Illegal Capacity: "+ initialCapacity);
 
-        this.initialChunkPower = Math.max(MIN_CHUNK_POWER,
-                                          Integer.SIZE - Integer.numberOfLeadingZeros(initialCapacity - 1));
+        // A capacity of zero must not wrap around to a chunk power of 32
+        this.initialChunkPower = (initialCapacity <= 1 << MIN_CHUNK_POWER)
+                                 ? MIN_CHUNK_POWER
+                                 : Integer.SIZE - Integer.numberOfLeadingZeros(initialCapacity - 1);
     }
 
     /**
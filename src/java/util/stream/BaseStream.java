@@ -29,8 +29,10 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.Objects;
 import java.util.Spliterator;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.IntConsumer;
 import java.util.function.Predicate;
 
@@ -85,6 +87,86 @@ public interface BaseStream<T, S extends BaseStream<T, S>>
     //返回一个并行流，如果流本身是并行的，就返回其本身
     S parallel();
 
+    /**
+     * Returns an equivalent stream that is parallel, and whose parallel
+     * evaluation runs in the given pool rather than in the common pool.
+     * The work is split according to the parallelism of the pool.  May
+     * return itself, either because the stream was already parallel, or
+     * because the underlying stream state was modified to be parallel.
+     *
+     * <p>This is an <a href="package-summary.html#StreamOps">intermediate
+     * operation</a>.  As with {@link #parallel()}, the most recent call to
+     * {@code parallel} or {@link #sequential()} applies to the whole
+     * pipeline; calling {@code parallel()} detaches the pool again.
+     *
+     * @apiNote
+     * This isolates the parallel work of a pipeline, such as a batch job,
+     * from other users of the common pool, such as latency-critical request
+     * handlers.  The terminal operation, and any evaluation of stateful
+     * intermediate operations, runs in a task submitted to the pool, and the
+     * calling thread waits for that task.  If the calling thread is already a
+     * worker in the pool the evaluation runs directly in it.
+     *
+     * @implSpec
+     * The default implementation checks that {@code pool} is not null and
+     * returns {@link #parallel()}, so that evaluation runs where it would
+     * for any parallel stream of this implementation.  The streams returned
+     * by the JDK override it to run in the given pool.
+     *
+     * @param pool the pool in which to run parallel evaluation
+     * @return a parallel stream
+     * @throws NullPointerException if {@code pool} is null
+     * @since 9
+     */
+    default S parallel(ForkJoinPool pool) {
+        Objects.requireNonNull(pool);
+        return parallel();
+    }
+
+    /**
+     * Returns an equivalent stream that is parallel, whose parallel
+     * evaluation runs in the given pool, and whose work is split as if for
+     * the given parallelism, but never into leaves of fewer than
+     * {@code leafSize} elements.  May return itself, either because the
+     * stream was already parallel, or because the underlying stream state
+     * was modified to be parallel.
+     *
+     * <p>This is an <a href="package-summary.html#StreamOps">intermediate
+     * operation</a>.  The most recent call to {@code parallel} or
+     * {@link #sequential()} applies to the whole pipeline.
+     *
+     * @apiNote
+     * By default the source is split into about four leaf tasks per worker
+     * of the pool, so that workers that finish early can help the others.
+     * The given parallelism only changes how finely the work is split: a
+     * smaller one produces fewer, larger leaves.  It does not limit how
+     * many workers of the pool run those leaves at once, which is bounded
+     * only by the number of leaves and by the parallelism of the pool; to
+     * bound the number of threads a pipeline occupies, run it in a pool of
+     * that parallelism.  A larger leaf size reduces per-task overhead when
+     * each element is cheap to process.
+     *
+     * @implSpec
+     * The default implementation checks its arguments and returns
+     * {@link #parallel(ForkJoinPool) parallel(pool)}.
+     *
+     * @param pool the pool in which to run parallel evaluation
+     * @param parallelism the number of workers for which to split the work
+     * @param leafSize the minimum number of source elements in a leaf task
+     * @return a parallel stream
+     * @throws NullPointerException if {@code pool} is null
+     * @throws IllegalArgumentException if {@code parallelism} or
+     *         {@code leafSize} is not positive
+     * @since 9
+     */
+    default S parallel(ForkJoinPool pool, int parallelism, long leafSize) {
+        Objects.requireNonNull(pool);
+        if (parallelism <= 0)
+            throw new IllegalArgumentException(Integer.toString(parallelism));
+        if (leafSize <= 0L)
+            throw new IllegalArgumentException(Long.toString(leafSize));
+        return parallel(pool);
+    }
 
     //返回一个无序流，如果其本身是无序的，则返回其本身
     S unordered();
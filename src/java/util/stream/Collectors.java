@@ -40,12 +40,15 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.LongSummaryStatistics;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.StringJoiner;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.BinaryOperator;
@@ -115,6 +118,8 @@ public final class Collectors {
     static final Set<Collector.Characteristics> CH_UNORDERED_ID
             = Collections.unmodifiableSet(EnumSet.of(Collector.Characteristics.UNORDERED,
                                                      Collector.Characteristics.IDENTITY_FINISH));
+    static final Set<Collector.Characteristics> CH_UNORDERED_NOID
+            = Collections.unmodifiableSet(EnumSet.of(Collector.Characteristics.UNORDERED));
     static final Set<Collector.Characteristics> CH_NOID = Collections.emptySet();
 
     private Collectors() { }
@@ -1091,6 +1096,140 @@ public final class Collectors {
         }
     }
 
+    /**
+     * Returns a {@code Collector} implementing a "group by" operation on
+     * input elements of type {@code T}, grouping elements according to a
+     * classification function, and returning the results in a {@code Map},
+     * without merging maps when used with a parallel stream.
+     *
+     * <p>The result is the same as that of {@link #groupingBy(Function)}.
+     * The difference lies in how a parallel stream computes it.
+     * {@code groupingBy} builds a map for each part of the input and then
+     * merges the maps pairwise, which for many distinct keys can cost
+     * more than building them.  This collector instead routes each
+     * element, by the hash code of its key, to one of a fixed number of
+     * partitions, combines the parts of the input by concatenating their
+     * partitions, and finally builds a separate map for each partition in
+     * parallel.  Since no key occurs in two partitions, the partition maps
+     * together form the result and need never be merged.
+     *
+     * <p>The elements of each group are in encounter order.  There are no
+     * guarantees on the type, mutability, serializability, or
+     * thread-safety of the {@code Map} or {@code List} objects returned.
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of the keys
+     * @param classifier the classifier function mapping input elements to keys
+     * @return a {@code Collector} implementing the group-by operation
+     *
+     * @see #groupingBy(Function)
+     * @see #groupingByPartitioned(Function, Collector)
+     */
+    public static <T, K> Collector<T, ?, Map<K, List<T>>>
+    groupingByPartitioned(Function<? super T, ? extends K> classifier) {
+        return groupingByPartitioned(classifier, toList());
+    }
+
+    /**
+     * Returns a {@code Collector} implementing a cascaded "group by"
+     * operation on input elements of type {@code T}, grouping elements
+     * according to a classification function, and then performing a
+     * reduction operation on the values associated with a given key using
+     * the specified downstream {@code Collector}, without merging maps
+     * when used with a parallel stream.
+     *
+     * <p>The result is the same as that of
+     * {@link #groupingBy(Function, Collector)}, but is computed as
+     * described for {@link #groupingByPartitioned(Function)}: elements are
+     * routed to hash partitions by key, and each partition's map is built
+     * by a single task.  Each downstream reduction therefore sees all the
+     * elements of its group, in encounter order, and its combiner is never
+     * used.
+     *
+     * <p>There are no guarantees on the type, mutability,
+     * serializability, or thread-safety of the {@code Map} returned.
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of the keys
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param classifier a classifier function mapping input elements to keys
+     * @param downstream a {@code Collector} implementing the downstream reduction
+     * @return a {@code Collector} implementing the cascaded group-by operation
+     *
+     * @see #groupingBy(Function, Collector)
+     * @see #groupingByPartitioned(Function)
+     */
+    public static <T, K, A, D>
+    Collector<T, ?, Map<K, D>> groupingByPartitioned(Function<? super T, ? extends K> classifier,
+                                                     Collector<? super T, A, D> downstream) {
+        Objects.requireNonNull(classifier);
+        Supplier<A> downstreamSupplier = downstream.supplier();
+        BiConsumer<A, ? super T> downstreamAccumulator = downstream.accumulator();
+        @SuppressWarnings("unchecked")
+        Function<A, A> downstreamFinisher =
+                downstream.characteristics().contains(Collector.Characteristics.IDENTITY_FINISH)
+                ? null : (Function<A, A>) downstream.finisher();
+        int shift = partitionShift();
+        BiConsumer<Shuffle, T> accumulator = (s, t) -> {
+            K key = Objects.requireNonNull(classifier.apply(t), "element cannot be mapped to a null key");
+            s.add(key, t);
+        };
+        Function<Shuffle, Map<K, D>> finisher = s -> {
+            HashPartitionedMap<K, A> intermediate = s.build((m, k, v) -> {
+                @SuppressWarnings("unchecked")
+                A container = (A) m.computeIfAbsent(k, x -> downstreamSupplier.get());
+                @SuppressWarnings("unchecked")
+                T t = (T) v;
+                downstreamAccumulator.accept(container, t);
+            }, downstreamFinisher);
+            @SuppressWarnings("unchecked")
+            Map<K, D> castResult = (Map<K, D>) (Map<K, ?>) intermediate;
+            return castResult;
+        };
+        return new CollectorImpl<>(() -> new Shuffle(shift), accumulator,
+                                   Shuffle::append, finisher, CH_NOID);
+    }
+
+    /**
+     * Returns a {@code Collector} that accumulates the input elements into
+     * a new {@code Set}, without merging sets when used with a parallel
+     * stream.
+     *
+     * <p>The result is the same as that of {@link #toSet()}.  As for
+     * {@link #groupingByPartitioned(Function)}, elements are routed to
+     * hash partitions, parts of the input are combined by concatenating
+     * their partitions, and the set of each partition is built by a single
+     * task at the end.  This suits parallel de-duplication of many
+     * distinct elements, which with {@code toSet()}, or with
+     * {@link Stream#distinct()} on an unordered stream, is dominated by
+     * merging the sets built for each part of the input.
+     *
+     * <p>There are no guarantees on the type, mutability,
+     * serializability, or thread-safety of the {@code Set} returned; it
+     * does not support the addition of elements.
+     *
+     * @param <T> the type of the input elements
+     * @return a {@code Collector} which collects all the input elements
+     *         into a {@code Set}
+     *
+     * @see #toSet()
+     */
+    public static <T>
+    Collector<T, ?, Set<T>> toPartitionedSet() {
+        int shift = partitionShift();
+        return new CollectorImpl<T, Shuffle, Set<T>>(
+                () -> new Shuffle(shift),
+                (s, t) -> s.add(t, Boolean.TRUE),
+                Shuffle::append,
+                s -> {
+                    @SuppressWarnings("unchecked")
+                    Set<T> keys = (Set<T>) s.build((m, k, v) -> m.putIfAbsent(k, v), null).keySet();
+                    return keys;
+                },
+                CH_UNORDERED_NOID);
+    }
+
     /**
      * Returns a {@code Collector} which partitions the input elements according
      * to a {@code Predicate}, and organizes them into a
@@ -1565,4 +1704,249 @@ public final class Collectors {
             };
         }
     }
+
+    /**
+     * Returns the shift that selects a partition from the top bits of a
+     * mixed hash code, for a power-of-two number of partitions of about
+     * four per worker thread of the common pool, and at least two.
+     */
+    private static int partitionShift() {
+        int p = Math.max(2, ForkJoinPool.getCommonPoolParallelism() << 2);
+        int bits = 32 - Integer.numberOfLeadingZeros(Math.min(p, 1 << 10) - 1);
+        return 32 - bits;
+    }
+
+    /**
+     * Returns the partition of the given key.  Partitions are chosen by the
+     * high bits of the key's hash code times the golden ratio, so that they
+     * are independent of the low bits that index the buckets of each
+     * partition's {@code HashMap}.
+     */
+    private static int partitionOf(Object key, int shift) {
+        int h = (key == null) ? 0 : key.hashCode();
+        return (h * 0x9e3779b9) >>> shift;
+    }
+
+    /**
+     * The result container used by groupingByPartitioned and
+     * toPartitionedSet: for each partition, a list of segments of
+     * key-value pairs in encounter order.  Two containers are combined by
+     * concatenating their lists, which takes time proportional to the
+     * number of partitions, not of elements.
+     */
+    private static final class Shuffle {
+        /** Elements below which partitions are built by the caller alone */
+        static final int SEQUENTIAL_THRESHOLD = 1 << 12;
+        static final int MIN_SEGMENT = 1 << 4, MAX_SEGMENT = 1 << 11;
+
+        static final class Segment {
+            final Object[] items;           // alternating keys and values
+            int size;
+            Segment next;
+
+            Segment(int capacity) {
+                items = new Object[capacity];
+            }
+        }
+
+        @FunctionalInterface
+        interface Builder {
+            void add(HashMap<Object, Object> map, Object key, Object value);
+        }
+
+        final int shift;
+        final Segment[] heads, tails;
+        long count;
+
+        Shuffle(int shift) {
+            this.shift = shift;
+            int n = 1 << (32 - shift);
+            heads = new Segment[n];
+            tails = new Segment[n];
+        }
+
+        void add(Object key, Object value) {
+            int i = partitionOf(key, shift);
+            Segment s = tails[i];
+            if (s == null || s.size == s.items.length) {
+                Segment t = new Segment((s == null) ? MIN_SEGMENT
+                                        : Math.min(s.items.length << 1, MAX_SEGMENT));
+                if (s == null)
+                    heads[i] = t;
+                else
+                    s.next = t;
+                tails[i] = s = t;
+            }
+            Object[] items = s.items;
+            items[s.size] = key;
+            items[s.size + 1] = value;
+            s.size += 2;
+            count++;
+        }
+
+        Shuffle append(Shuffle other) {
+            for (int i = 0; i < heads.length; i++) {
+                Segment h = other.heads[i];
+                if (h != null) {
+                    if (tails[i] == null)
+                        heads[i] = h;
+                    else
+                        tails[i].next = h;
+                    tails[i] = other.tails[i];
+                }
+            }
+            count += other.count;
+            return this;
+        }
+
+        /**
+         * Builds the map of each partition by passing its pairs, in order,
+         * to the builder, then applying the finisher, if non-null, to each
+         * value.  Partitions are built in parallel unless there are few
+         * elements.
+         */
+        @SuppressWarnings("unchecked")
+        <K, V> HashPartitionedMap<K, V> build(Builder builder,
+                                              Function<V, V> finisher) {
+            HashMap<Object, Object>[] parts = (HashMap<Object, Object>[]) new HashMap<?, ?>[heads.length];
+            if (count < SEQUENTIAL_THRESHOLD) {
+                for (int i = 0; i < parts.length; i++)
+                    parts[i] = buildPartition(i, builder, (Function<Object, Object>) finisher);
+            }
+            else {
+                ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[parts.length];
+                for (int i = 0; i < parts.length; i++) {
+                    int p = i;
+                    tasks[i] = ForkJoinTask.adapt(() -> {
+                        parts[p] = buildPartition(p, builder, (Function<Object, Object>) finisher);
+                    });
+                }
+                ForkJoinTask.invokeAll(tasks);
+            }
+            return new HashPartitionedMap<>((HashMap<K, V>[]) (HashMap<?, ?>[]) parts, shift);
+        }
+
+        private HashMap<Object, Object> buildPartition(int i, Builder builder,
+                                                       Function<Object, Object> finisher) {
+            HashMap<Object, Object> m = new HashMap<>();
+            for (Segment s = heads[i]; s != null; s = s.next) {
+                Object[] items = s.items;
+                for (int j = 0; j < s.size; j += 2)
+                    builder.add(m, items[j], items[j + 1]);
+            }
+            heads[i] = tails[i] = null;
+            if (finisher != null)
+                m.replaceAll((k, v) -> finisher.apply(v));
+            return m;
+        }
+    }
+
+    /**
+     * Implementation class used by groupingByPartitioned and
+     * toPartitionedSet: a map made up of disjoint hash maps, each holding
+     * the keys of one partition.
+     */
+    private static final class HashPartitionedMap<K, V> extends AbstractMap<K, V> {
+        final HashMap<K, V>[] parts;
+        final int shift;
+
+        HashPartitionedMap(HashMap<K, V>[] parts, int shift) {
+            this.parts = parts;
+            this.shift = shift;
+        }
+
+        private HashMap<K, V> partFor(Object key) {
+            return parts[partitionOf(key, shift)];
+        }
+
+        @Override
+        public int size() {
+            long n = 0;
+            for (HashMap<K, V> m : parts)
+                n += m.size();
+            return (int) Math.min(n, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            for (HashMap<K, V> m : parts)
+                if (!m.isEmpty())
+                    return false;
+            return true;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return partFor(key).containsKey(key);
+        }
+
+        @Override
+        public V get(Object key) {
+            return partFor(key).get(key);
+        }
+
+        @Override
+        public V put(K key, V value) {
+            return partFor(key).put(key, value);
+        }
+
+        @Override
+        public V remove(Object key) {
+            return partFor(key).remove(key);
+        }
+
+        @Override
+        public void clear() {
+            for (HashMap<K, V> m : parts)
+                m.clear();
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super K, ? super V> action) {
+            for (HashMap<K, V> m : parts)
+                m.forEach(action);
+        }
+
+        @Override
+        public Set<Map.Entry<K, V>> entrySet() {
+            return new AbstractSet<Map.Entry<K, V>>() {
+                @Override
+                public Iterator<Map.Entry<K, V>> iterator() {
+                    return new Iterator<Map.Entry<K, V>>() {
+                        int index;
+                        Iterator<Map.Entry<K, V>> it = parts[0].entrySet().iterator();
+                        Iterator<Map.Entry<K, V>> last;
+
+                        @Override
+                        public boolean hasNext() {
+                            while (!it.hasNext() && index < parts.length - 1)
+                                it = parts[++index].entrySet().iterator();
+                            return it.hasNext();
+                        }
+
+                        @Override
+                        public Map.Entry<K, V> next() {
+                            if (!hasNext())
+                                throw new NoSuchElementException();
+                            last = it;
+                            return it.next();
+                        }
+
+                        @Override
+                        public void remove() {
+                            if (last == null)
+                                throw new IllegalStateException();
+                            last.remove();
+                            last = null;
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return HashPartitionedMap.this.size();
+                }
+            };
+        }
+    }
 }
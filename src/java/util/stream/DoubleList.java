@@ -0,0 +1,414 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.stream;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.DoubleConsumer;
+
+/**
+ * A growable, ordered list of {@code double} values, indexed from zero by
+ * {@code long} positions.
+ *
+ * <p>Values are stored in a sequence of arrays ("chunks") whose sizes
+ * double as the list grows, so that growing the list allocates a new chunk
+ * rather than copying the values already stored.  Random access locates
+ * the chunk by a binary search over the few chunk boundaries.
+ *
+ * <p>The {@link #spliterator() spliterator} splits along chunk boundaries
+ * and reports {@link Spliterator#SIZED}, {@link Spliterator#SUBSIZED} and
+ * {@link Spliterator#ORDERED}, so {@link #stream() streams} over a list
+ * parallelize well.  The list must not be structurally modified while it
+ * is being traversed; spliterators and iterators do not detect such
+ * modification.
+ *
+ * <p>Instances are not safe for use by multiple threads without external
+ * synchronization.
+ *
+ * @see DoubleStream
+ * @since 9
+ */
+public final class DoubleList implements DoubleConsumer {
+
+    private final SpinedBuffer.OfDouble buffer;
+
+    /**
+     * Constructs an empty list.
+     */
+    public DoubleList() {
+        buffer = new SpinedBuffer.OfDouble();
+    }
+
+    /**
+     * Constructs an empty list with room for at least the given number of
+     * values in its first chunk.
+     *
+     * @param initialCapacity the initial capacity
+     * @throws IllegalArgumentException if {@code initialCapacity} is negative
+     */
+    public DoubleList(int initialCapacity) {
+        buffer = new SpinedBuffer.OfDouble(initialCapacity);
+    }
+
+    /**
+     * Constructs a list holding the given values, in order.
+     *
+     * @param values the values
+     */
+    public DoubleList(double[] values) {
+        this(values.length);
+        buffer.addAll(values, 0, values.length);
+    }
+
+    /**
+     * Returns the number of values in this list.
+     *
+     * @return the number of values in this list
+     */
+    public long size() {
+        return buffer.count();
+    }
+
+    /**
+     * Returns {@code true} if this list holds no values.
+     *
+     * @return {@code true} if this list holds no values
+     */
+    public boolean isEmpty() {
+        return buffer.isEmpty();
+    }
+
+    /**
+     * Returns the value at the given position.
+     *
+     * @param index the position of the value
+     * @return the value at the given position
+     * @throws IndexOutOfBoundsException if {@code index} is negative or not
+     *         less than {@link #size()}
+     */
+    public double get(long index) {
+        return buffer.get(index);
+    }
+
+    /**
+     * Replaces the value at the given position.
+     *
+     * @param index the position of the value
+     * @param value the new value
+     * @return the previous value at the given position
+     * @throws IndexOutOfBoundsException if {@code index} is negative or not
+     *         less than {@link #size()}
+     */
+    public double set(long index, double value) {
+        SpinedBuffer.OfDouble b = buffer;
+        int ch = b.chunkFor(index);
+        double[] chunk;
+        int i;
+        if (b.spineIndex == 0) {
+            chunk = b.curChunk;
+            i = (int) index;
+        }
+        else {
+            chunk = b.spine[ch];
+            i = (int) (index - b.priorElementCount[ch]);
+        }
+        double old = chunk[i];
+        chunk[i] = value;
+        return old;
+    }
+
+    /**
+     * Appends a value to this list.
+     *
+     * @param value the value to append
+     */
+    public void add(double value) {
+        buffer.accept(value);
+    }
+
+    /**
+     * Appends a value to this list; equivalent to {@link #add(double)}, so
+     * that a list can collect the elements of a stream, as by
+     * {@code stream.forEachOrdered(list)}.
+     *
+     * @param value the value to append
+     */
+    @Override
+    public void accept(double value) {
+        buffer.accept(value);
+    }
+
+    /**
+     * Appends all of the given values to this list, in order.
+     *
+     * @param values the values to append
+     */
+    public void addAll(double[] values) {
+        buffer.addAll(values, 0, values.length);
+    }
+
+    /**
+     * Appends {@code len} of the given values, starting at {@code offset},
+     * to this list, in order.
+     *
+     * @param values the array holding the values to append
+     * @param offset the index in {@code values} of the first value
+     * @param len the number of values to append
+     * @throws IndexOutOfBoundsException if {@code offset} or {@code len} is
+     *         negative, or {@code offset + len} is greater than
+     *         {@code values.length}
+     */
+    public void addAll(double[] values, int offset, int len) {
+        if (offset < 0 || len < 0 || len > values.length - offset)
+            throw new IndexOutOfBoundsException();
+        buffer.addAll(values, offset, len);
+    }
+
+    /**
+     * Appends all of the values of the given list, which may be this list,
+     * to this list, in order.  This can serve as the combiner when
+     * collecting a stream into a list, as by
+     * {@code stream.collect(DoubleList::new, DoubleList::add, DoubleList::addAll)}.
+     *
+     * @param values the list of values to append
+     */
+    public void addAll(DoubleList values) {
+        buffer.addAll(values.buffer);
+    }
+
+    /**
+     * Removes all of the values from this list.
+     */
+    public void clear() {
+        buffer.clear();
+    }
+
+    /**
+     * Sorts this list into ascending numerical order, ordering values as
+     * by {@link Double#compare(double, double)}.
+     *
+     * @implNote
+     * Each chunk is sorted by {@link Arrays#sort(double[], int, int)}, and each
+     * chunk in turn is then merged into the sorted values before it, working
+     * backwards from its end.  Since a chunk is no larger than all the
+     * chunks before it together, this takes linear time after the chunk
+     * sorts, and the only temporary storage is a copy of one chunk.
+     */
+    public void sort() {
+        SpinedBuffer.OfDouble b = buffer;
+        int last = b.spineIndex;
+        if (last == 0) {
+            Arrays.sort(b.curChunk, 0, b.elementIndex);
+            return;
+        }
+        double[][] spine = b.spine;
+        for (int j = 0; j <= last; j++)
+            Arrays.sort(spine[j], 0, (j < last) ? spine[j].length : b.elementIndex);
+        double[] tmp = null;
+        for (int j = 1; j <= last; j++) {
+            double[] c = spine[j];
+            int n = (j < last) ? c.length : b.elementIndex;
+            double[] prev = spine[j - 1];
+            if (n == 0 || Double.compare(prev[prev.length - 1], c[0]) <= 0)
+                continue;
+            if (tmp == null)
+                tmp = new double[Math.max(spine[last - 1].length, b.elementIndex)];
+            System.arraycopy(c, 0, tmp, 0, n);
+            // Merge backwards: the source cursor walks down the chunks
+            // before j, the destination cursor down from the end of chunk j
+            int sc = j - 1, si = prev.length - 1;
+            double[] src = prev;
+            int dc = j, di = n - 1;
+            double[] dst = c;
+            int t = n - 1;
+            while (t >= 0) {
+                double v;
+                if (sc >= 0 && Double.compare(src[si], tmp[t]) > 0) {
+                    v = src[si];
+                    if (--si < 0 && --sc >= 0) {
+                        src = spine[sc];
+                        si = src.length - 1;
+                    }
+                }
+                else
+                    v = tmp[t--];
+                dst[di] = v;
+                if (--di < 0 && dc > 0) {
+                    dst = spine[--dc];
+                    di = dst.length - 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Searches this list, which must be sorted into ascending order, for
+     * the given value, as by {@link Arrays#binarySearch(double[], double)}.  If
+     * the list holds several equal values, there is no guarantee which one
+     * will be found.
+     *
+     * @param key the value to search for
+     * @return the position of the value, if it is in this list; otherwise,
+     *         <tt>(-(<i>insertion point</i>) - 1)</tt>, where the insertion
+     *         point is the position of the first value greater than the
+     *         key, or {@link #size()} if there is none
+     */
+    public long binarySearch(double key) {
+        SpinedBuffer.OfDouble b = buffer;
+        int last = b.spineIndex;
+        for (int j = 0; j <= last; j++) {
+            double[] c;
+            long prior;
+            if (last == 0) {
+                c = b.curChunk;
+                prior = 0L;
+            }
+            else {
+                c = b.spine[j];
+                prior = b.priorElementCount[j];
+            }
+            int n = (j < last) ? c.length : b.elementIndex;
+            if (n > 0 && Double.compare(c[n - 1], key) >= 0) {
+                int r = Arrays.binarySearch(c, 0, n, key);
+                return (r >= 0) ? prior + r : -(prior + (-r - 1)) - 1;
+            }
+        }
+        return -size() - 1;
+    }
+
+    /**
+     * Returns an array holding the values of this list, in order.
+     *
+     * @return an array holding the values of this list
+     * @throws IllegalArgumentException if the list is too large to be held
+     *         in an array
+     */
+    public double[] toArray() {
+        return buffer.asPrimitiveArray();
+    }
+
+    /**
+     * Performs the given action on each value of this list, in order.
+     *
+     * @param action the action to perform
+     */
+    public void forEach(DoubleConsumer action) {
+        buffer.forEach(action);
+    }
+
+    /**
+     * Returns an iterator over the values of this list, in order.
+     *
+     * @return an iterator over the values of this list
+     */
+    public PrimitiveIterator.OfDouble iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    /**
+     * Returns a spliterator over the values of this list, in order.
+     *
+     * @return a spliterator over the values of this list
+     */
+    public Spliterator.OfDouble spliterator() {
+        return buffer.spliterator();
+    }
+
+    /**
+     * Returns a sequential {@code DoubleStream} of the values of this list.
+     *
+     * @return a sequential stream of the values of this list
+     */
+    public DoubleStream stream() {
+        return StreamSupport.doubleStream(spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel {@code DoubleStream} of the values of this list.
+     *
+     * @return a parallel stream of the values of this list
+     */
+    public DoubleStream parallelStream() {
+        return StreamSupport.doubleStream(spliterator(), true);
+    }
+
+    /**
+     * Compares the given object with this list for equality.  Returns
+     * {@code true} if the object is also an {@code DoubleList}, and both lists
+     * hold the same values in the same order.
+     *
+     * @param o the object to compare with this list
+     * @return {@code true} if the object is equal to this list
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof DoubleList))
+            return false;
+        DoubleList other = (DoubleList) o;
+        if (size() != other.size())
+            return false;
+        PrimitiveIterator.OfDouble i = iterator(), j = other.iterator();
+        while (i.hasNext()) {
+            if (Double.compare(i.nextDouble(), j.nextDouble()) != 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns a hash code for this list, computed as by
+     * {@link Arrays#hashCode(double[])} on its values.
+     *
+     * @return a hash code for this list
+     */
+    @Override
+    public int hashCode() {
+        int[] h = { 1 };
+        forEach(v -> h[0] = 31 * h[0] + Double.hashCode(v));
+        return h[0];
+    }
+
+    /**
+     * Returns a string representation of this list, formatted as by
+     * {@link Arrays#toString(double[])}.
+     *
+     * @return a string representation of this list
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        forEach(v -> {
+            if (sb.length() > 1)
+                sb.append(", ");
+            sb.append(v);
+        });
+        return sb.append(']').toString();
+    }
+}
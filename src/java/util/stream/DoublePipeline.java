@@ -196,6 +196,13 @@ abstract class DoublePipeline<E_IN>
                     public void accept(double t) {
                         downstream.accept(mapper.applyAsDouble(t));
                     }
+
+                    @Override
+                    public void accept(double[] chunk, int off, int len) {
+                        for (int i = off, end = off + len; i < end; i++)
+                            chunk[i] = mapper.applyAsDouble(chunk[i]);
+                        downstream.accept(chunk, off, len);
+                    }
                 };
             }
         };
@@ -307,6 +314,18 @@ abstract class DoublePipeline<E_IN>
                         if (predicate.test(t))
                             downstream.accept(t);
                     }
+
+                    @Override
+                    public void accept(double[] chunk, int off, int len) {
+                        int n = off;
+                        for (int i = off, end = off + len; i < end; i++) {
+                            double t = chunk[i];
+                            if (predicate.test(t))
+                                chunk[n++] = t;
+                        }
+                        if (n > off)
+                            downstream.accept(chunk, off, n - off);
+                    }
                 };
             }
         };
@@ -351,6 +370,28 @@ abstract class DoublePipeline<E_IN>
         }
     }
 
+    @Override
+    public final Stream<DoubleSummaryStatistics> windowed(int size) {
+        if (size <= 0)
+            throw new IllegalArgumentException(Integer.toString(size));
+        return WindowOps.makeDouble(this, size, size, true, null);
+    }
+
+    @Override
+    public final Stream<DoubleSummaryStatistics> windowed(int size, int step) {
+        if (size <= 0)
+            throw new IllegalArgumentException(Integer.toString(size));
+        if (step <= 0)
+            throw new IllegalArgumentException(Integer.toString(step));
+        return WindowOps.makeDouble(this, size, step, false, null);
+    }
+
+    @Override
+    public final Stream<DoubleSummaryStatistics> windowedBy(DoubleFunction<?> classifier) {
+        Objects.requireNonNull(classifier);
+        return WindowOps.makeDouble(this, 0, 0, true, classifier);
+    }
+
     @Override
     public final DoubleStream sorted() {
         return SortedOps.makeDouble(this);
@@ -446,7 +487,7 @@ abstract class DoublePipeline<E_IN>
 
     @Override
     public final long count() {
-        return mapToLong(e -> 1L).sum();
+        return evaluate(ReduceOps.makeDoubleCounting());
     }
 
     @Override
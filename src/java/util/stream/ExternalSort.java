@@ -0,0 +1,948 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.stream;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * External merge sorting for the sequential {@code sorted()} operations.
+ *
+ * <p>When the system property {@code java.util.stream.sortSpillThreshold}
+ * is set to a positive number, a sorting sink holds at most that many
+ * elements in memory.  Each time its buffer fills, the buffer is sorted and
+ * written out as a run to a temporary file, and filling starts again.  At
+ * the end of the input the runs, together with whatever remains in memory,
+ * are merged and pushed downstream.  At most {@value #MAX_FAN_IN} runs are
+ * merged at once, each read through a buffer of at most
+ * {@value #BLOCK_SIZE} bytes; if there are more, groups of runs are first
+ * merged into longer runs, in as many passes as needed.
+ *
+ * <p>All runs of one sort share a single file, written sequentially
+ * through a {@link FileChannel} and read back with positional reads.
+ * Primitive runs hold raw big-endian values.  Reference runs are
+ * serialized; if an element turns out not to be serializable, spilling
+ * stops and the remaining elements are kept in memory.  The file is opened
+ * with {@link StandardOpenOption#DELETE_ON_CLOSE}, and closed and deleted
+ * when the merge ends, whether it completes or is cancelled, and when
+ * accepting an element fails.  A pipeline may also be abandoned before the
+ * end of its input, as when an upstream operation throws, without the
+ * sorting sink being told; the sorting operation registers a close handler
+ * with the stream so that the file is then released when the stream is
+ * closed.  I/O errors are thrown as {@link UncheckedIOException}.
+ *
+ * <p>Merging is stable: runs are only ever merged with their neighbours,
+ * and ties go to the earlier run, so reference elements that compare
+ * equal keep their encounter order.
+ */
+final class ExternalSort {
+
+    private ExternalSort() { }
+
+    /**
+     * The maximum number of elements buffered in memory by a sorting sink,
+     * or zero if sorts never spill to disk.
+     */
+    static final int SPILL_THRESHOLD = AccessController.doPrivileged(
+            (PrivilegedAction<Integer>) () ->
+                    Math.max(0, Integer.getInteger("java.util.stream.sortSpillThreshold", 0)));
+
+    /** Size of the I/O buffers used to write and read runs. */
+    static final int BLOCK_SIZE = 1 << 14;
+
+    /** The maximum number of runs merged at once. */
+    static final int MAX_FAN_IN = 64;
+
+    /** The number of objects serialized between resets of the stream. */
+    private static final int RESET_INTERVAL = 1 << 10;
+
+    /** Initial capacity of the in-memory buffer when the size is unknown. */
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    /**
+     * The temporary file holding the runs spilled by one sort.  Runs
+     * {@code [first, runs)} are live; earlier ones have been merged into
+     * later ones.
+     */
+    static final class RunFile implements AutoCloseable {
+        private final Path path;
+        private final FileChannel channel;
+        private final boolean objects;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BLOCK_SIZE);
+        private ObjectOutputStream objectOut;
+        private long objectsWritten;
+        /** offsets[i] and offsets[i + 1] delimit run i */
+        private long[] offsets = new long[9];
+        /** counts[i] is the number of elements in run i */
+        private long[] counts = new long[8];
+        int first, runs;
+
+        RunFile(boolean objects) {
+            this.objects = objects;
+            try {
+                Path p = Files.createTempFile("stream-sort", ".run");
+                try {
+                    this.channel = FileChannel.open(p,
+                                                    StandardOpenOption.READ,
+                                                    StandardOpenOption.WRITE,
+                                                    StandardOpenOption.DELETE_ON_CLOSE);
+                } catch (IOException | RuntimeException e) {
+                    Files.deleteIfExists(p);
+                    throw e;
+                }
+                this.path = p;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /** Returns the total number of elements in the live runs. */
+        long elements() {
+            long n = 0;
+            for (int i = first; i < runs; i++)
+                n += counts[i];
+            return n;
+        }
+
+        /** Returns a reader positioned at the start of the given run. */
+        RunReader reader(int run) {
+            return new RunReader(channel, offsets[run], offsets[run + 1]);
+        }
+
+        /** Returns the number of elements in the given run. */
+        long count(int run) {
+            return counts[run];
+        }
+
+        /** Prepares to write a run element by element. */
+        void beginRun() throws IOException {
+            if (objects)
+                objectOut = new ObjectOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(channel), BLOCK_SIZE));
+        }
+
+        void putInt(int v) throws IOException {
+            if (buffer.remaining() < Integer.BYTES)
+                flush();
+            buffer.putInt(v);
+        }
+
+        void putLong(long v) throws IOException {
+            if (buffer.remaining() < Long.BYTES)
+                flush();
+            buffer.putLong(v);
+        }
+
+        void putDouble(double v) throws IOException {
+            if (buffer.remaining() < Double.BYTES)
+                flush();
+            buffer.putDouble(v);
+        }
+
+        void putObject(Object v) throws IOException {
+            // Reset periodically so that neither the writer nor the
+            // reader of the run retains every object in it
+            if (++objectsWritten % RESET_INTERVAL == 0)
+                objectOut.reset();
+            objectOut.writeObject(v);
+        }
+
+        /** Completes the run being written, of the given length. */
+        void endRun(long count) throws IOException {
+            if (objectOut != null) {
+                // Flush but do not close, which would close the channel
+                objectOut.flush();
+                objectOut = null;
+            }
+            flush();
+            if (runs + 1 == counts.length) {
+                counts = Arrays.copyOf(counts, runs << 1);
+                offsets = Arrays.copyOf(offsets, (runs << 1) + 1);
+            }
+            counts[runs] = count;
+            offsets[++runs] = channel.position();
+        }
+
+        private void flush() throws IOException {
+            ByteBuffer b = buffer;
+            b.flip();
+            while (b.hasRemaining())
+                channel.write(b);
+            b.clear();
+        }
+
+        /** Appends a[0, n), already sorted, as a new run. */
+        void writeInts(int[] a, int n) throws IOException {
+            for (int i = 0; i < n; ) {
+                int m = Math.min(n - i, BLOCK_SIZE / Integer.BYTES);
+                buffer.asIntBuffer().put(a, i, m);
+                buffer.position(m * Integer.BYTES);
+                flush();
+                i += m;
+            }
+            endRun(n);
+        }
+
+        /** Appends a[0, n), already sorted, as a new run. */
+        void writeLongs(long[] a, int n) throws IOException {
+            for (int i = 0; i < n; ) {
+                int m = Math.min(n - i, BLOCK_SIZE / Long.BYTES);
+                buffer.asLongBuffer().put(a, i, m);
+                buffer.position(m * Long.BYTES);
+                flush();
+                i += m;
+            }
+            endRun(n);
+        }
+
+        /** Appends a[0, n), already sorted, as a new run. */
+        void writeDoubles(double[] a, int n) throws IOException {
+            for (int i = 0; i < n; ) {
+                int m = Math.min(n - i, BLOCK_SIZE / Double.BYTES);
+                buffer.asDoubleBuffer().put(a, i, m);
+                buffer.position(m * Double.BYTES);
+                flush();
+                i += m;
+            }
+            endRun(n);
+        }
+
+        /**
+         * Appends a[0, n), already sorted, as a new run of serialized
+         * objects.  If an element is not serializable, the partial run is
+         * discarded and false is returned.
+         */
+        boolean writeObjects(Object[] a, int n) throws IOException {
+            long start = channel.position();
+            try {
+                beginRun();
+                for (int i = 0; i < n; i++)
+                    putObject(a[i]);
+            } catch (NotSerializableException e) {
+                objectOut = null;
+                channel.truncate(start);
+                channel.position(start);
+                return false;
+            }
+            endRun(n);
+            return true;
+        }
+
+        /**
+         * Closes the channel and deletes the file, if the platform has not
+         * already done so on close.  Closing a closed file has no effect.
+         */
+        @Override
+        public void close() {
+            try {
+                try {
+                    channel.close();
+                } finally {
+                    Files.deleteIfExists(path);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Reads the bytes of one run, a block at a time, with positional reads
+     * so that the readers of all runs can share the file's channel.
+     */
+    static final class RunReader extends InputStream {
+        private final FileChannel channel;
+        private final long end;
+        private long position;
+        final ByteBuffer buffer;
+
+        RunReader(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.position = start;
+            this.end = end;
+            this.buffer = ByteBuffer.allocate((int) Math.min(BLOCK_SIZE, end - start));
+            buffer.limit(0);
+        }
+
+        /**
+         * Reads the next block of the run into the buffer, returning false
+         * if the run is exhausted.  Primitive runs are read in whole values
+         * since the buffer size is either the whole run or a multiple of
+         * every value's size.
+         */
+        boolean refill() throws IOException {
+            ByteBuffer b = buffer;
+            b.clear();
+            if (end - position < b.capacity())
+                b.limit((int) (end - position));
+            while (b.hasRemaining()) {
+                int r = channel.read(b, position);
+                if (r < 0)
+                    throw new EOFException();
+                position += r;
+            }
+            b.flip();
+            return b.hasRemaining();
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!buffer.hasRemaining() && !refill())
+                return -1;
+            return buffer.get() & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0)
+                return 0;
+            if (!buffer.hasRemaining() && !refill())
+                return -1;
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+    }
+
+    /**
+     * A sorted sequence of elements being merged, positioned at its head
+     * element.  Cursors are ordered by head element, then by {@code order},
+     * which is the position of the sequence among those being merged.
+     */
+    abstract static class Cursor {
+        final int order;
+
+        Cursor(int order) {
+            this.order = order;
+        }
+
+        /** Moves to the next element, returning false if there is none. */
+        abstract boolean advance() throws IOException;
+
+        /** Passes the head element to the sink. */
+        abstract void pushHead(Sink<?> sink);
+
+        /** Appends the head element to the run being written. */
+        abstract void writeHead(RunFile file) throws IOException;
+    }
+
+    /**
+     * The shape-independent part of a spilling sort: an in-memory buffer
+     * of up to {@code threshold} elements, and the file of runs already
+     * spilled.
+     */
+    abstract static class Sorter {
+        final int threshold;
+        int count;
+        RunFile file;
+
+        Sorter(int threshold) {
+            this.threshold = threshold;
+        }
+
+        /**
+         * Closes the file of runs, if any, when the pipeline is abandoned
+         * before the end of its input.
+         */
+        final void close() {
+            RunFile f = file;
+            if (f != null) {
+                file = null;
+                f.close();
+            }
+        }
+
+        /**
+         * Closes the file of runs, if any, after a failure while accepting
+         * elements, adding any error in closing it to the given exception.
+         */
+        final void closeOnFailure(Throwable ex) {
+            RunFile f = file;
+            if (f != null) {
+                file = null;
+                try {
+                    f.close();
+                } catch (RuntimeException e) {
+                    ex.addSuppressed(e);
+                }
+            }
+        }
+
+        /** Returns the capacity for the in-memory buffer. */
+        final int initialCapacity(long sizeIfKnown) {
+            if (sizeIfKnown >= 0)
+                return (int) Math.min(sizeIfKnown, threshold);
+            return Math.min(INITIAL_CAPACITY, threshold);
+        }
+
+        /**
+         * Returns the capacity to which a full buffer of the given length
+         * should grow, bounded by the threshold unless {@code unbounded}.
+         */
+        final int grownCapacity(int length, boolean unbounded) {
+            long cap = Math.max(16L, 2L * length);
+            if (!unbounded)
+                cap = Math.min(cap, threshold);
+            if (cap >= Nodes.MAX_ARRAY_SIZE)
+                throw new IllegalArgumentException(Nodes.BAD_SIZE);
+            return (int) cap;
+        }
+
+        /** Sorts buffer[0, count). */
+        abstract void sortBuffer();
+
+        /** Returns a cursor over the sorted buffer, not yet advanced. */
+        abstract Cursor bufferCursor(int order);
+
+        /** Returns a cursor over the given run, not yet advanced. */
+        abstract Cursor runCursor(int order, int run) throws IOException;
+
+        /** The order of cursors, by head element then by order. */
+        abstract Comparator<Cursor> cursorComparator();
+
+        /**
+         * Pushes all elements accepted, in sorted order, downstream,
+         * checking for cancellation before each element if
+         * {@code cancellable}, and releases all resources.
+         */
+        final void pushTo(Sink<?> downstream, boolean cancellable) {
+            RunFile f = file;
+            try {
+                sortBuffer();
+                PriorityQueue<Cursor> q = new PriorityQueue<>(MAX_FAN_IN + 1, cursorComparator());
+                if (f != null) {
+                    while (f.runs - f.first > MAX_FAN_IN)
+                        mergePass(f, q);
+                    for (int r = f.first; r < f.runs; r++)
+                        add(q, runCursor(r, r));
+                }
+                add(q, bufferCursor(Integer.MAX_VALUE));
+                downstream.begin(((f != null) ? f.elements() : 0L) + count);
+                merge(q, downstream, cancellable, null);
+                downstream.end();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                file = null;
+                if (f != null)
+                    f.close();
+            }
+        }
+
+        /**
+         * Merges the live runs in consecutive groups of at most
+         * {@link #MAX_FAN_IN}, appending the results as new runs.
+         */
+        private void mergePass(RunFile f, PriorityQueue<Cursor> q) throws IOException {
+            int end = f.runs;
+            for (int g = f.first; g < end; g += MAX_FAN_IN) {
+                long n = 0;
+                for (int r = g, e = Math.min(end, g + MAX_FAN_IN); r < e; r++) {
+                    add(q, runCursor(r, r));
+                    n += f.count(r);
+                }
+                f.beginRun();
+                merge(q, null, false, f);
+                f.endRun(n);
+            }
+            f.first = end;
+        }
+
+        private static void add(PriorityQueue<Cursor> q, Cursor c) throws IOException {
+            if (c.advance())
+                q.add(c);
+        }
+
+        /**
+         * Drains the queue of cursors in order, to the sink if non-null,
+         * else to the run being written.  Elements are taken from the least
+         * cursor until its head passes that of the next cursor, so that
+         * the queue is only consulted when the source run changes.
+         */
+        private void merge(PriorityQueue<Cursor> q, Sink<?> sink,
+                           boolean cancellable, RunFile out) throws IOException {
+            Comparator<Cursor> cmp = cursorComparator();
+            Cursor c;
+            while ((c = q.poll()) != null) {
+                Cursor next = q.peek();
+                do {
+                    if (sink == null)
+                        c.writeHead(out);
+                    else if (cancellable && sink.cancellationRequested()) {
+                        q.clear();
+                        return;
+                    }
+                    else
+                        c.pushHead(sink);
+                    if (!c.advance()) {
+                        c = null;
+                        break;
+                    }
+                } while (next == null || cmp.compare(c, next) < 0);
+                if (c != null)
+                    q.add(c);
+            }
+        }
+    }
+
+    // Primitive cursors read either the sorted buffer or a spilled run
+
+    private static final class IntCursor extends Cursor {
+        private final RunReader reader;
+        private final int[] array;
+        private final int fence;
+        private int index;
+        int head;
+
+        IntCursor(int order, RunReader reader, int[] array, int fence) {
+            super(order);
+            this.reader = reader;
+            this.array = array;
+            this.fence = fence;
+        }
+
+        @Override
+        boolean advance() throws IOException {
+            if (reader == null) {
+                if (index >= fence)
+                    return false;
+                head = array[index++];
+            }
+            else {
+                if (!reader.buffer.hasRemaining() && !reader.refill())
+                    return false;
+                head = reader.buffer.getInt();
+            }
+            return true;
+        }
+
+        @Override
+        void pushHead(Sink<?> sink) {
+            sink.accept(head);
+        }
+
+        @Override
+        void writeHead(RunFile file) throws IOException {
+            file.putInt(head);
+        }
+
+        static final Comparator<Cursor> COMPARATOR = (a, b) -> {
+            int c = Integer.compare(((IntCursor) a).head, ((IntCursor) b).head);
+            return (c != 0) ? c : Integer.compare(a.order, b.order);
+        };
+    }
+
+    private static final class LongCursor extends Cursor {
+        private final RunReader reader;
+        private final long[] array;
+        private final int fence;
+        private int index;
+        long head;
+
+        LongCursor(int order, RunReader reader, long[] array, int fence) {
+            super(order);
+            this.reader = reader;
+            this.array = array;
+            this.fence = fence;
+        }
+
+        @Override
+        boolean advance() throws IOException {
+            if (reader == null) {
+                if (index >= fence)
+                    return false;
+                head = array[index++];
+            }
+            else {
+                if (!reader.buffer.hasRemaining() && !reader.refill())
+                    return false;
+                head = reader.buffer.getLong();
+            }
+            return true;
+        }
+
+        @Override
+        void pushHead(Sink<?> sink) {
+            sink.accept(head);
+        }
+
+        @Override
+        void writeHead(RunFile file) throws IOException {
+            file.putLong(head);
+        }
+
+        static final Comparator<Cursor> COMPARATOR = (a, b) -> {
+            int c = Long.compare(((LongCursor) a).head, ((LongCursor) b).head);
+            return (c != 0) ? c : Integer.compare(a.order, b.order);
+        };
+    }
+
+    private static final class DoubleCursor extends Cursor {
+        private final RunReader reader;
+        private final double[] array;
+        private final int fence;
+        private int index;
+        double head;
+
+        DoubleCursor(int order, RunReader reader, double[] array, int fence) {
+            super(order);
+            this.reader = reader;
+            this.array = array;
+            this.fence = fence;
+        }
+
+        @Override
+        boolean advance() throws IOException {
+            if (reader == null) {
+                if (index >= fence)
+                    return false;
+                head = array[index++];
+            }
+            else {
+                if (!reader.buffer.hasRemaining() && !reader.refill())
+                    return false;
+                head = reader.buffer.getDouble();
+            }
+            return true;
+        }
+
+        @Override
+        void pushHead(Sink<?> sink) {
+            sink.accept(head);
+        }
+
+        @Override
+        void writeHead(RunFile file) throws IOException {
+            file.putDouble(head);
+        }
+
+        // Double.compare is the total order used by Arrays.sort(double[])
+        static final Comparator<Cursor> COMPARATOR = (a, b) -> {
+            int c = Double.compare(((DoubleCursor) a).head, ((DoubleCursor) b).head);
+            return (c != 0) ? c : Integer.compare(a.order, b.order);
+        };
+    }
+
+    private static final class RefCursor<T> extends Cursor {
+        private final ObjectInputStream in;
+        private final Object[] array;
+        private final long fence;
+        private long index;
+        T head;
+
+        RefCursor(int order, ObjectInputStream in, Object[] array, long fence) {
+            super(order);
+            this.in = in;
+            this.array = array;
+            this.fence = fence;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        boolean advance() throws IOException {
+            if (index >= fence)
+                return false;
+            if (in == null)
+                head = (T) array[(int) index];
+            else {
+                try {
+                    head = (T) in.readObject();
+                } catch (ClassNotFoundException e) {
+                    throw new IOException(e);
+                }
+            }
+            index++;
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void pushHead(Sink<?> sink) {
+            ((Sink<T>) sink).accept(head);
+        }
+
+        @Override
+        void writeHead(RunFile file) throws IOException {
+            file.putObject(head);
+        }
+    }
+
+    /**
+     * Sorts int elements, spilling sorted runs to a file whenever
+     * {@code threshold} elements are buffered.
+     */
+    static final class OfInt extends Sorter {
+        private int[] array;
+
+        OfInt(long sizeIfKnown, int threshold) {
+            super(threshold);
+            this.array = new int[initialCapacity(sizeIfKnown)];
+        }
+
+        void accept(int t) {
+            if (count == array.length) {
+                if (count < threshold)
+                    array = Arrays.copyOf(array, grownCapacity(count, false));
+                else
+                    spill();
+            }
+            array[count++] = t;
+        }
+
+        private void spill() {
+            sortBuffer();
+            try {
+                if (file == null)
+                    file = new RunFile(false);
+                file.writeInts(array, count);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count = 0;
+        }
+
+        @Override
+        void sortBuffer() {
+            Arrays.sort(array, 0, count);
+        }
+
+        @Override
+        Cursor bufferCursor(int order) {
+            return new IntCursor(order, null, array, count);
+        }
+
+        @Override
+        Cursor runCursor(int order, int run) {
+            return new IntCursor(order, file.reader(run), null, 0);
+        }
+
+        @Override
+        Comparator<Cursor> cursorComparator() {
+            return IntCursor.COMPARATOR;
+        }
+    }
+
+    /**
+     * Sorts long elements, spilling sorted runs to a file whenever
+     * {@code threshold} elements are buffered.
+     */
+    static final class OfLong extends Sorter {
+        private long[] array;
+
+        OfLong(long sizeIfKnown, int threshold) {
+            super(threshold);
+            this.array = new long[initialCapacity(sizeIfKnown)];
+        }
+
+        void accept(long t) {
+            if (count == array.length) {
+                if (count < threshold)
+                    array = Arrays.copyOf(array, grownCapacity(count, false));
+                else
+                    spill();
+            }
+            array[count++] = t;
+        }
+
+        private void spill() {
+            sortBuffer();
+            try {
+                if (file == null)
+                    file = new RunFile(false);
+                file.writeLongs(array, count);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count = 0;
+        }
+
+        @Override
+        void sortBuffer() {
+            Arrays.sort(array, 0, count);
+        }
+
+        @Override
+        Cursor bufferCursor(int order) {
+            return new LongCursor(order, null, array, count);
+        }
+
+        @Override
+        Cursor runCursor(int order, int run) {
+            return new LongCursor(order, file.reader(run), null, 0);
+        }
+
+        @Override
+        Comparator<Cursor> cursorComparator() {
+            return LongCursor.COMPARATOR;
+        }
+    }
+
+    /**
+     * Sorts double elements, spilling sorted runs to a file whenever
+     * {@code threshold} elements are buffered.
+     */
+    static final class OfDouble extends Sorter {
+        private double[] array;
+
+        OfDouble(long sizeIfKnown, int threshold) {
+            super(threshold);
+            this.array = new double[initialCapacity(sizeIfKnown)];
+        }
+
+        void accept(double t) {
+            if (count == array.length) {
+                if (count < threshold)
+                    array = Arrays.copyOf(array, grownCapacity(count, false));
+                else
+                    spill();
+            }
+            array[count++] = t;
+        }
+
+        private void spill() {
+            sortBuffer();
+            try {
+                if (file == null)
+                    file = new RunFile(false);
+                file.writeDoubles(array, count);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count = 0;
+        }
+
+        @Override
+        void sortBuffer() {
+            Arrays.sort(array, 0, count);
+        }
+
+        @Override
+        Cursor bufferCursor(int order) {
+            return new DoubleCursor(order, null, array, count);
+        }
+
+        @Override
+        Cursor runCursor(int order, int run) {
+            return new DoubleCursor(order, file.reader(run), null, 0);
+        }
+
+        @Override
+        Comparator<Cursor> cursorComparator() {
+            return DoubleCursor.COMPARATOR;
+        }
+    }
+
+    /**
+     * Sorts reference elements, spilling sorted runs to a file whenever
+     * {@code threshold} elements are buffered, for as long as the elements
+     * are serializable.
+     */
+    static final class OfRef<T> extends Sorter {
+        private final Comparator<? super T> comparator;
+        private final Comparator<Cursor> cursorComparator;
+        private Object[] array;
+        private boolean spilling = true;
+
+        @SuppressWarnings("unchecked")
+        OfRef(Comparator<? super T> comparator, long sizeIfKnown, int threshold) {
+            super(threshold);
+            this.comparator = comparator;
+            this.cursorComparator = (a, b) -> {
+                int c = comparator.compare(((RefCursor<T>) a).head, ((RefCursor<T>) b).head);
+                return (c != 0) ? c : Integer.compare(a.order, b.order);
+            };
+            this.array = new Object[initialCapacity(sizeIfKnown)];
+        }
+
+        void accept(T t) {
+            if (count == array.length) {
+                if (count < threshold || !spilling || !spill())
+                    array = Arrays.copyOf(array, grownCapacity(count, !spilling));
+            }
+            array[count++] = t;
+        }
+
+        /**
+         * Writes the buffer as a run, returning false, and disabling
+         * further spills, if the elements cannot be serialized.
+         */
+        private boolean spill() {
+            sortBuffer();
+            try {
+                if (file == null)
+                    file = new RunFile(true);
+                if (!file.writeObjects(array, count))
+                    return spilling = false;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            Arrays.fill(array, 0, count, null);
+            count = 0;
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void sortBuffer() {
+            Arrays.sort((T[]) array, 0, count, comparator);
+        }
+
+        @Override
+        Cursor bufferCursor(int order) {
+            return new RefCursor<T>(order, null, array, count);
+        }
+
+        @Override
+        Cursor runCursor(int order, int run) throws IOException {
+            ObjectInputStream in = new ObjectInputStream(
+                    new BufferedInputStream(file.reader(run), 1 << 8));
+            return new RefCursor<T>(order, in, null, file.count(run));
+        }
+
+        @Override
+        Comparator<Cursor> cursorComparator() {
+            return cursorComparator;
+        }
+    }
+}
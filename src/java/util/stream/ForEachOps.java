@@ -280,7 +280,7 @@ final class ForEachOps {
             Spliterator<S> rightSplit = spliterator, leftSplit;
             long sizeEstimate = rightSplit.estimateSize(), sizeThreshold;
             if ((sizeThreshold = targetSize) == 0L)
-                targetSize = sizeThreshold = AbstractTask.suggestTargetSize(sizeEstimate);
+                targetSize = sizeThreshold = helper.targetLeafSize(sizeEstimate);
             boolean isShortCircuit = StreamOpFlag.SHORT_CIRCUIT.isKnown(helper.getStreamAndOpFlags());
             boolean forkRight = false;
             Sink<S> taskSink = sink;
@@ -376,7 +376,7 @@ final class ForEachOps {
             super(null);
             this.helper = helper;
             this.spliterator = spliterator;
-            this.targetSize = AbstractTask.suggestTargetSize(spliterator.estimateSize());
+            this.targetSize = helper.targetLeafSize(spliterator.estimateSize());
             // Size map to avoid concurrent re-sizes
             this.completionMap = new ConcurrentHashMap<>(Math.max(16, AbstractTask.LEAF_TARGET << 1));
             this.action = action;
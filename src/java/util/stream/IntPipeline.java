@@ -232,6 +232,13 @@ abstract class IntPipeline<E_IN>
                     public void accept(int t) {
                         downstream.accept(mapper.applyAsInt(t));
                     }
+
+                    @Override
+                    public void accept(int[] chunk, int off, int len) {
+                        for (int i = off, end = off + len; i < end; i++)
+                            chunk[i] = mapper.applyAsInt(chunk[i]);
+                        downstream.accept(chunk, off, len);
+                    }
                 };
             }
         };
@@ -343,6 +350,18 @@ abstract class IntPipeline<E_IN>
                         if (predicate.test(t))
                             downstream.accept(t);
                     }
+
+                    @Override
+                    public void accept(int[] chunk, int off, int len) {
+                        int n = off;
+                        for (int i = off, end = off + len; i < end; i++) {
+                            int t = chunk[i];
+                            if (predicate.test(t))
+                                chunk[n++] = t;
+                        }
+                        if (n > off)
+                            downstream.accept(chunk, off, n - off);
+                    }
                 };
             }
         };
@@ -385,6 +404,28 @@ abstract class IntPipeline<E_IN>
             return SliceOps.makeInt(this, n, -1);
     }
 
+    @Override
+    public final Stream<IntSummaryStatistics> windowed(int size) {
+        if (size <= 0)
+            throw new IllegalArgumentException(Integer.toString(size));
+        return WindowOps.makeInt(this, size, size, true, null);
+    }
+
+    @Override
+    public final Stream<IntSummaryStatistics> windowed(int size, int step) {
+        if (size <= 0)
+            throw new IllegalArgumentException(Integer.toString(size));
+        if (step <= 0)
+            throw new IllegalArgumentException(Integer.toString(step));
+        return WindowOps.makeInt(this, size, step, false, null);
+    }
+
+    @Override
+    public final Stream<IntSummaryStatistics> windowedBy(IntFunction<?> classifier) {
+        Objects.requireNonNull(classifier);
+        return WindowOps.makeInt(this, 0, 0, true, classifier);
+    }
+
     @Override
     public final IntStream sorted() {
         return SortedOps.makeInt(this);
@@ -426,7 +467,7 @@ abstract class IntPipeline<E_IN>
 
     @Override
     public final long count() {
-        return mapToLong(e -> 1L).sum();
+        return evaluate(ReduceOps.makeIntCounting());
     }
 
     @Override
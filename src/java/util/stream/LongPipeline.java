@@ -213,6 +213,13 @@ abstract class LongPipeline<E_IN>
                     public void accept(long t) {
                         downstream.accept(mapper.applyAsLong(t));
                     }
+
+                    @Override
+                    public void accept(long[] chunk, int off, int len) {
+                        for (int i = off, end = off + len; i < end; i++)
+                            chunk[i] = mapper.applyAsLong(chunk[i]);
+                        downstream.accept(chunk, off, len);
+                    }
                 };
             }
         };
@@ -324,6 +331,18 @@ abstract class LongPipeline<E_IN>
                         if (predicate.test(t))
                             downstream.accept(t);
                     }
+
+                    @Override
+                    public void accept(long[] chunk, int off, int len) {
+                        int n = off;
+                        for (int i = off, end = off + len; i < end; i++) {
+                            long t = chunk[i];
+                            if (predicate.test(t))
+                                chunk[n++] = t;
+                        }
+                        if (n > off)
+                            downstream.accept(chunk, off, n - off);
+                    }
                 };
             }
         };
@@ -366,6 +385,28 @@ abstract class LongPipeline<E_IN>
             return SliceOps.makeLong(this, n, -1);
     }
 
+    @Override
+    public final Stream<LongSummaryStatistics> windowed(int size) {
+        if (size <= 0)
+            throw new IllegalArgumentException(Integer.toString(size));
+        return WindowOps.makeLong(this, size, size, true, null);
+    }
+
+    @Override
+    public final Stream<LongSummaryStatistics> windowed(int size, int step) {
+        if (size <= 0)
+            throw new IllegalArgumentException(Integer.toString(size));
+        if (step <= 0)
+            throw new IllegalArgumentException(Integer.toString(step));
+        return WindowOps.makeLong(this, size, step, false, null);
+    }
+
+    @Override
+    public final Stream<LongSummaryStatistics> windowedBy(LongFunction<?> classifier) {
+        Objects.requireNonNull(classifier);
+        return WindowOps.makeLong(this, 0, 0, true, classifier);
+    }
+
     @Override
     public final LongStream sorted() {
         return SortedOps.makeLong(this);
@@ -424,7 +465,7 @@ abstract class LongPipeline<E_IN>
 
     @Override
     public final long count() {
-        return map(e -> 1L).sum();
+        return evaluate(ReduceOps.makeLongCounting());
     }
 
     @Override
@@ -277,6 +277,76 @@ public interface LongStream extends BaseStream<Long, LongStream> {
      */
     LongStream skip(long n);
 
+    /**
+     * Returns a stream of {@code LongSummaryStatistics} describing consecutive,
+     * non-overlapping windows of {@code size} elements of this stream, in
+     * encounter order.  The last window holds the remaining elements, and may
+     * be smaller.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.  Each summary is produced as soon as its
+     * window is complete, and no elements are retained.
+     *
+     * @apiNote
+     * On an ordered parallel stream whose size is known, and whose source
+     * splits into parts of known size, each part is summarized independently
+     * and the summaries of windows spanning two parts are combined.
+     *
+     * @param size the number of elements in each window
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code size} is not positive
+     * @since 9
+     */
+    default Stream<LongSummaryStatistics> windowed(int size) {
+        return boxed().windowed(size, WindowOps.longSummary());
+    }
+
+    /**
+     * Returns a stream of {@code LongSummaryStatistics} describing windows of
+     * {@code size} consecutive elements of this stream, the first starting
+     * at the first element and each later one {@code step} elements after
+     * the one before.  If {@code step} is less than {@code size} the windows
+     * overlap (sliding windows); if it is greater, the elements between
+     * windows are discarded.  Only complete windows are summarized.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.  Each summary is produced as soon as its
+     * window is complete.  At most {@code size} elements are retained.
+     *
+     * @param size the number of elements in each window
+     * @param step the distance, in elements, from the start of one window
+     *        to the start of the next
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code size} or {@code step} is
+     *         not positive
+     * @since 9
+     */
+    default Stream<LongSummaryStatistics> windowed(int size, int step) {
+        return boxed().windowed(size, step, WindowOps.longSummary());
+    }
+
+    /**
+     * Returns a stream of {@code LongSummaryStatistics} describing each maximal run of
+     * consecutive elements of this stream that have equal keys, in encounter
+     * order.  Keys are computed by the classifier function and compared with
+     * {@link Object#equals(Object)}.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.  Each summary is produced as soon as an
+     * element with a different key, or the end of the stream, is reached, and
+     * no elements are retained.
+     *
+     * @param classifier a <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *        <a href="package-summary.html#Statelessness">stateless</a>
+     *        function computing the key of each element
+     * @return the new stream
+     * @since 9
+     */
+    default Stream<LongSummaryStatistics> windowedBy(LongFunction<?> classifier) {
+        Objects.requireNonNull(classifier);
+        return boxed().windowedBy(classifier::apply, WindowOps.longSummary());
+    }
+
     /**
      * Performs an action for each element of this stream.
      *
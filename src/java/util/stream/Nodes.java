@@ -1837,7 +1837,7 @@ final class Nodes {
             assert spliterator.hasCharacteristics(Spliterator.SUBSIZED);
             this.spliterator = spliterator;
             this.helper = helper;
-            this.targetSize = AbstractTask.suggestTargetSize(spliterator.estimateSize());
+            this.targetSize = helper.targetLeafSize(spliterator.estimateSize());
             this.offset = 0;
             this.length = arrayLength;
         }
@@ -90,6 +90,22 @@ abstract class PipelineHelper<P_OUT> {
      */
     abstract<P_IN> long exactOutputSizeIfKnown(Spliterator<P_IN> spliterator);
 
+    /**
+     * Returns the number of elements below which a parallel evaluation of
+     * this pipeline stops splitting the source, given an estimate of the
+     * size of the source.
+     *
+     * @implSpec
+     * The source is split into about four leaf tasks per unit of the
+     * parallelism requested for the pipeline, or failing that, of the pool
+     * attached to it, or of the common pool.  Leaves are never smaller than
+     * the leaf size requested for the pipeline.
+     *
+     * @param sizeEstimate the estimated number of elements in the source
+     * @return the target leaf size, at least one
+     */
+    abstract long targetLeafSize(long sizeEstimate);
+
     /**
      * Applies the pipeline stages described by this {@code PipelineHelper} to
      * the provided {@code Spliterator} and send the results to the provided
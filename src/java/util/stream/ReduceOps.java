@@ -258,6 +258,14 @@ final class ReduceOps {
                 state = operator.applyAsInt(state, t);
             }
 
+            @Override
+            public void accept(int[] chunk, int off, int len) {
+                int s = state;
+                for (int i = off, end = off + len; i < end; i++)
+                    s = operator.applyAsInt(s, chunk[i]);
+                state = s;
+            }
+
             @Override
             public Integer get() {
                 return state;
@@ -307,6 +315,24 @@ final class ReduceOps {
                 }
             }
 
+            @Override
+            public void accept(int[] chunk, int off, int len) {
+                if (len == 0)
+                    return;
+                int i = off, end = off + len;
+                int s;
+                if (empty) {
+                    empty = false;
+                    s = chunk[i++];
+                }
+                else {
+                    s = state;
+                }
+                for (; i < end; i++)
+                    s = operator.applyAsInt(s, chunk[i]);
+                state = s;
+            }
+
             @Override
             public OptionalInt get() {
                 return empty ? OptionalInt.empty() : OptionalInt.of(state);
@@ -356,6 +382,13 @@ final class ReduceOps {
                 accumulator.accept(state, t);
             }
 
+            @Override
+            public void accept(int[] chunk, int off, int len) {
+                R s = state;
+                for (int i = off, end = off + len; i < end; i++)
+                    accumulator.accept(s, chunk[i]);
+            }
+
             @Override
             public void combine(ReducingSink other) {
                 state = combiner.apply(state, other.state);
@@ -394,6 +427,14 @@ final class ReduceOps {
                 state = operator.applyAsLong(state, t);
             }
 
+            @Override
+            public void accept(long[] chunk, int off, int len) {
+                long s = state;
+                for (int i = off, end = off + len; i < end; i++)
+                    s = operator.applyAsLong(s, chunk[i]);
+                state = s;
+            }
+
             @Override
             public Long get() {
                 return state;
@@ -443,6 +484,24 @@ final class ReduceOps {
                 }
             }
 
+            @Override
+            public void accept(long[] chunk, int off, int len) {
+                if (len == 0)
+                    return;
+                int i = off, end = off + len;
+                long s;
+                if (empty) {
+                    empty = false;
+                    s = chunk[i++];
+                }
+                else {
+                    s = state;
+                }
+                for (; i < end; i++)
+                    s = operator.applyAsLong(s, chunk[i]);
+                state = s;
+            }
+
             @Override
             public OptionalLong get() {
                 return empty ? OptionalLong.empty() : OptionalLong.of(state);
@@ -492,6 +551,13 @@ final class ReduceOps {
                 accumulator.accept(state, t);
             }
 
+            @Override
+            public void accept(long[] chunk, int off, int len) {
+                R s = state;
+                for (int i = off, end = off + len; i < end; i++)
+                    accumulator.accept(s, chunk[i]);
+            }
+
             @Override
             public void combine(ReducingSink other) {
                 state = combiner.apply(state, other.state);
@@ -530,6 +596,14 @@ final class ReduceOps {
                 state = operator.applyAsDouble(state, t);
             }
 
+            @Override
+            public void accept(double[] chunk, int off, int len) {
+                double s = state;
+                for (int i = off, end = off + len; i < end; i++)
+                    s = operator.applyAsDouble(s, chunk[i]);
+                state = s;
+            }
+
             @Override
             public Double get() {
                 return state;
@@ -579,6 +653,24 @@ final class ReduceOps {
                 }
             }
 
+            @Override
+            public void accept(double[] chunk, int off, int len) {
+                if (len == 0)
+                    return;
+                int i = off, end = off + len;
+                double s;
+                if (empty) {
+                    empty = false;
+                    s = chunk[i++];
+                }
+                else {
+                    s = state;
+                }
+                for (; i < end; i++)
+                    s = operator.applyAsDouble(s, chunk[i]);
+                state = s;
+            }
+
             @Override
             public OptionalDouble get() {
                 return empty ? OptionalDouble.empty() : OptionalDouble.of(state);
@@ -628,6 +720,13 @@ final class ReduceOps {
                 accumulator.accept(state, t);
             }
 
+            @Override
+            public void accept(double[] chunk, int off, int len) {
+                R s = state;
+                for (int i = off, end = off + len; i < end; i++)
+                    accumulator.accept(s, chunk[i]);
+            }
+
             @Override
             public void combine(ReducingSink other) {
                 state = combiner.apply(state, other.state);
@@ -641,6 +740,115 @@ final class ReduceOps {
         };
     }
 
+    /**
+     * Constructs a {@code TerminalOp} that counts the number of int values.
+     * Chunks of values are counted without being examined.
+     *
+     * @return a {@code TerminalOp} implementing the counting
+     */
+    public static TerminalOp<Integer, Long>
+    makeIntCounting() {
+        return new ReduceOp<Integer, Long, CountingSink<Integer>>(StreamShape.INT_VALUE) {
+            @Override
+            public CountingSink<Integer> makeSink() {
+                return new CountingSink.OfInt();
+            }
+        };
+    }
+
+    /**
+     * Constructs a {@code TerminalOp} that counts the number of long values.
+     * Chunks of values are counted without being examined.
+     *
+     * @return a {@code TerminalOp} implementing the counting
+     */
+    public static TerminalOp<Long, Long>
+    makeLongCounting() {
+        return new ReduceOp<Long, Long, CountingSink<Long>>(StreamShape.LONG_VALUE) {
+            @Override
+            public CountingSink<Long> makeSink() {
+                return new CountingSink.OfLong();
+            }
+        };
+    }
+
+    /**
+     * Constructs a {@code TerminalOp} that counts the number of double values.
+     * Chunks of values are counted without being examined.
+     *
+     * @return a {@code TerminalOp} implementing the counting
+     */
+    public static TerminalOp<Double, Long>
+    makeDoubleCounting() {
+        return new ReduceOp<Double, Long, CountingSink<Double>>(StreamShape.DOUBLE_VALUE) {
+            @Override
+            public CountingSink<Double> makeSink() {
+                return new CountingSink.OfDouble();
+            }
+        };
+    }
+
+    /**
+     * A sink that counts elements.
+     *
+     * @param <T> the type of elements counted
+     */
+    private abstract static class CountingSink<T>
+            implements AccumulatingSink<T, Long, CountingSink<T>> {
+        long count;
+
+        @Override
+        public void begin(long size) {
+            count = 0L;
+        }
+
+        @Override
+        public Long get() {
+            return count;
+        }
+
+        @Override
+        public void combine(CountingSink<T> other) {
+            count += other.count;
+        }
+
+        static final class OfInt extends CountingSink<Integer> implements Sink.OfInt {
+            @Override
+            public void accept(int t) {
+                count++;
+            }
+
+            @Override
+            public void accept(int[] chunk, int off, int len) {
+                count += len;
+            }
+        }
+
+        static final class OfLong extends CountingSink<Long> implements Sink.OfLong {
+            @Override
+            public void accept(long t) {
+                count++;
+            }
+
+            @Override
+            public void accept(long[] chunk, int off, int len) {
+                count += len;
+            }
+        }
+
+        static final class OfDouble extends CountingSink<Double> implements Sink.OfDouble {
+            @Override
+            public void accept(double t) {
+                count++;
+            }
+
+            @Override
+            public void accept(double[] chunk, int off, int len) {
+                count += len;
+            }
+        }
+    }
+
     /**
      * A type of {@code TerminalSink} that implements an associative reducing
      * operation on elements of type {@code T} and producing a result of type
@@ -411,6 +411,33 @@ abstract class ReferencePipeline<P_IN, P_OUT>
             return SliceOps.makeRef(this, n, -1);
     }
 
+    @Override
+    public final <R> Stream<R> windowed(int size, Collector<? super P_OUT, ?, R> collector) {
+        if (size <= 0)
+            throw new IllegalArgumentException(Integer.toString(size));
+        Objects.requireNonNull(collector);
+        return WindowOps.makeRef(this, size, size, true, collector);
+    }
+
+    @Override
+    public final <R> Stream<R> windowed(int size, int step,
+                                        Collector<? super P_OUT, ?, R> collector) {
+        if (size <= 0)
+            throw new IllegalArgumentException(Integer.toString(size));
+        if (step <= 0)
+            throw new IllegalArgumentException(Integer.toString(step));
+        Objects.requireNonNull(collector);
+        return WindowOps.makeRef(this, size, step, false, collector);
+    }
+
+    @Override
+    public final <R> Stream<R> windowedBy(Function<? super P_OUT, ?> classifier,
+                                          Collector<? super P_OUT, ?, R> collector) {
+        Objects.requireNonNull(classifier);
+        Objects.requireNonNull(collector);
+        return WindowOps.makeRef(this, classifier, collector);
+    }
+
     // Terminal operations from Stream
 
     @Override
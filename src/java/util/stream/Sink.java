@@ -181,6 +181,66 @@ interface Sink<T> extends Consumer<T> {
         throw new IllegalStateException("called wrong accept method");
     }
 
+    /**
+     * Accepts the int values {@code chunk[off, off + len)}, in order.
+     *
+     * <p>Primitive sources that are known to be finite push their elements
+     * in chunks through this method when the pipeline is not
+     * short-circuiting, so no cancellation check is needed between the
+     * elements of a chunk.  A sink that can process a chunk in a single
+     * loop, such as a map, filter or sum, overrides this method so that
+     * the JIT can unroll and vectorize that loop.  The sink may overwrite
+     * {@code chunk[off, off + len)}, for example to map or compact the
+     * values in place before passing them on, but must not retain the
+     * array.
+     *
+     * @implSpec The default implementation calls {@link #accept(int)} on
+     * each value in turn.
+     *
+     * @param chunk the array holding the values
+     * @param off the index of the first value
+     * @param len the number of values
+     * @throws IllegalStateException if this sink does not accept int values
+     */
+    default void accept(int[] chunk, int off, int len) {
+        for (int i = off, end = off + len; i < end; i++)
+            accept(chunk[i]);
+    }
+
+    /**
+     * Accepts the long values {@code chunk[off, off + len)}, in order, as
+     * described for {@link #accept(int[], int, int)}.
+     *
+     * @implSpec The default implementation calls {@link #accept(long)} on
+     * each value in turn.
+     *
+     * @param chunk the array holding the values
+     * @param off the index of the first value
+     * @param len the number of values
+     * @throws IllegalStateException if this sink does not accept long values
+     */
+    default void accept(long[] chunk, int off, int len) {
+        for (int i = off, end = off + len; i < end; i++)
+            accept(chunk[i]);
+    }
+
+    /**
+     * Accepts the double values {@code chunk[off, off + len)}, in order,
+     * as described for {@link #accept(int[], int, int)}.
+     *
+     * @implSpec The default implementation calls {@link #accept(double)} on
+     * each value in turn.
+     *
+     * @param chunk the array holding the values
+     * @param off the index of the first value
+     * @param len the number of values
+     * @throws IllegalStateException if this sink does not accept double values
+     */
+    default void accept(double[] chunk, int off, int len) {
+        for (int i = off, end = off + len; i < end; i++)
+            accept(chunk[i]);
+    }
+
     /**
      * {@code Sink} that implements {@code Sink<Integer>}, re-abstracts
      * {@code accept(int)}, and wires {@code accept(Integer)} to bridge to
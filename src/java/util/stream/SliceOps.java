@@ -116,8 +116,9 @@ final class SliceOps {
         if (skip < 0)
             throw new IllegalArgumentException("Skip must be non-negative: " + skip);
 
-        return new ReferencePipeline.StatefulOp<T, T>(upstream, StreamShape.REFERENCE,
-                                                      flags(limit)) {
+        ReferencePipeline.StatefulOp<T, T> stage;
+        stage = new ReferencePipeline.StatefulOp<T, T>(upstream, StreamShape.REFERENCE,
+                                                       flags(limit)) {
             Spliterator<T> unorderedSkipLimitSpliterator(Spliterator<T> s,
                                                          long skip, long limit, long sizeIfKnown) {
                 if (skip <= sizeIfKnown) {
@@ -216,6 +217,8 @@ final class SliceOps {
                 };
             }
         };
+        SortedOps.sliced(upstream, stage, skip, limit);
+        return stage;
     }
 
     /**
@@ -232,8 +235,9 @@ final class SliceOps {
         if (skip < 0)
             throw new IllegalArgumentException("Skip must be non-negative: " + skip);
 
-        return new IntPipeline.StatefulOp<Integer>(upstream, StreamShape.INT_VALUE,
-                                                   flags(limit)) {
+        IntPipeline.StatefulOp<Integer> stage;
+        stage = new IntPipeline.StatefulOp<Integer>(upstream, StreamShape.INT_VALUE,
+                                                    flags(limit)) {
             Spliterator.OfInt unorderedSkipLimitSpliterator(
                     Spliterator.OfInt s, long skip, long limit, long sizeIfKnown) {
                 if (skip <= sizeIfKnown) {
@@ -325,6 +329,8 @@ final class SliceOps {
                 };
             }
         };
+        SortedOps.sliced(upstream, stage, skip, limit);
+        return stage;
     }
 
     /**
@@ -341,8 +347,9 @@ final class SliceOps {
         if (skip < 0)
             throw new IllegalArgumentException("Skip must be non-negative: " + skip);
 
-        return new LongPipeline.StatefulOp<Long>(upstream, StreamShape.LONG_VALUE,
-                                                 flags(limit)) {
+        LongPipeline.StatefulOp<Long> stage;
+        stage = new LongPipeline.StatefulOp<Long>(upstream, StreamShape.LONG_VALUE,
+                                                  flags(limit)) {
             Spliterator.OfLong unorderedSkipLimitSpliterator(
                     Spliterator.OfLong s, long skip, long limit, long sizeIfKnown) {
                 if (skip <= sizeIfKnown) {
@@ -434,6 +441,8 @@ final class SliceOps {
                 };
             }
         };
+        SortedOps.sliced(upstream, stage, skip, limit);
+        return stage;
     }
 
     /**
@@ -450,8 +459,9 @@ final class SliceOps {
         if (skip < 0)
             throw new IllegalArgumentException("Skip must be non-negative: " + skip);
 
-        return new DoublePipeline.StatefulOp<Double>(upstream, StreamShape.DOUBLE_VALUE,
-                                                     flags(limit)) {
+        DoublePipeline.StatefulOp<Double> stage;
+        stage = new DoublePipeline.StatefulOp<Double>(upstream, StreamShape.DOUBLE_VALUE,
+                                                      flags(limit)) {
             Spliterator.OfDouble unorderedSkipLimitSpliterator(
                     Spliterator.OfDouble s, long skip, long limit, long sizeIfKnown) {
                 if (skip <= sizeIfKnown) {
@@ -543,6 +553,8 @@ final class SliceOps {
                 };
             }
         };
+        SortedOps.sliced(upstream, stage, skip, limit);
+        return stage;
     }
 
     private static int flags(long limit) {
@@ -93,6 +93,76 @@ final class SortedOps {
         return new OfDouble(upstream);
     }
 
+    /**
+     * The largest number of leading elements for which a sort followed by
+     * a slice retains only those elements rather than sorting everything.
+     */
+    private static final long MAX_TOP_K = Nodes.MAX_ARRAY_SIZE / 2;
+
+    /**
+     * What a "sorted" stage knows of the slices that follow it.  If a
+     * limit follows, directly or after a skip, only the first
+     * {@code skip + limit} sorted elements are ever observed, so the stage
+     * need only retain that many least elements.  This reduces the space
+     * needed from the whole input to O(k), and the time from O(n log n) to
+     * O(n log k), where k is the number of elements retained.
+     */
+    private static final class SliceHint {
+        /** The number of least elements to retain, or 0 to retain all */
+        int topK;
+        /** The skip-only slice stage directly following, if any */
+        AbstractPipeline<?, ?, ?> skipStage;
+        /** The number of elements skipped by skipStage */
+        long skip;
+
+        void truncate(long skip, long limit) {
+            // skip or fence is negative on overflow
+            long fence = skip + limit;
+            if (skip >= 0 && fence > 0 && fence <= MAX_TOP_K)
+                topK = (int) fence;
+        }
+    }
+
+    private static SliceHint sliceHint(AbstractPipeline<?, ?, ?> stage) {
+        if (stage instanceof OfRef)
+            return ((OfRef<?>) stage).sliceHint;
+        else if (stage instanceof OfInt)
+            return ((OfInt) stage).sliceHint;
+        else if (stage instanceof OfLong)
+            return ((OfLong) stage).sliceHint;
+        else if (stage instanceof OfDouble)
+            return ((OfDouble) stage).sliceHint;
+        else
+            return null;
+    }
+
+    /**
+     * Informs any "sorted" stage preceding a newly linked slice stage of
+     * the slice, so that a sort followed by a limit retains only the
+     * elements the limit lets through.
+     *
+     * @param upstream the stage the slice was appended to
+     * @param slice the slice stage
+     * @param skip the number of elements the slice skips
+     * @param limit the maximum number of elements the slice passes, or -1
+     */
+    static void sliced(AbstractPipeline<?, ?, ?> upstream, AbstractPipeline<?, ?, ?> slice,
+                       long skip, long limit) {
+        SliceHint h = sliceHint(upstream);
+        if (h != null) {
+            if (limit >= 0)
+                h.truncate(skip, limit);
+            else {
+                h.skipStage = slice;
+                h.skip = skip;
+            }
+        }
+        else if (limit >= 0 && (h = sliceHint(upstream.previousStage())) != null &&
+                 h.skipStage == upstream) {
+            h.truncate(h.skip + skip, limit);
+        }
+    }
+
     /**
      * Specialized subtype for sorting reference streams
      */
@@ -103,6 +173,8 @@ final class SortedOps {
         private final boolean isNaturalSort;
         private final Comparator<? super T> comparator;
 
+        final SliceHint sliceHint = new SliceHint();
+
         /**
          * Sort using natural order of {@literal <T>} which must be
          * {@code Comparable}.
@@ -137,6 +209,13 @@ final class SortedOps {
             // also naturally sorted then this is a no-op
             if (StreamOpFlag.SORTED.isKnown(flags) && isNaturalSort)
                 return sink;
+            else if (sliceHint.topK > 0)
+                return new TopKRefSortingSink<>(sink, comparator, sliceHint.topK);
+            else if (ExternalSort.SPILL_THRESHOLD > 0) {
+                SpillingRefSortingSink<T> s = new SpillingRefSortingSink<>(sink, comparator);
+                onClose(s::release);
+                return s;
+            }
             else if (StreamOpFlag.SIZED.isKnown(flags))
                 return new SizedRefSortingSink<>(sink, comparator);
             else
@@ -152,6 +231,15 @@ final class SortedOps {
             if (StreamOpFlag.SORTED.isKnown(helper.getStreamAndOpFlags()) && isNaturalSort) {
                 return helper.evaluate(spliterator, false, generator);
             }
+            else if (sliceHint.topK > 0) {
+                // Reduce each leaf to its least elements, then combine
+                int k = sliceHint.topK;
+                Comparator<? super T> cmp = comparator;
+                RefTopK<T> top = ReduceOps.<T, RefTopK<T>>makeRef(
+                        () -> new RefTopK<>(cmp, k, -1), RefTopK::accept, RefTopK::combine)
+                        .evaluateParallel(helper, spliterator);
+                return Nodes.node(top.toArray(generator));
+            }
             else {
                 // @@@ Weak two-pass parallel implementation; parallel collect, parallel sort
                 T[] flattenedData = helper.evaluate(spliterator, true, generator).asArray(generator);
@@ -165,6 +253,8 @@ final class SortedOps {
      * Specialized subtype for sorting int streams.
      */
     private static final class OfInt extends IntPipeline.StatefulOp<Integer> {
+        final SliceHint sliceHint = new SliceHint();
+
         OfInt(AbstractPipeline<?, Integer, ?> upstream) {
             super(upstream, StreamShape.INT_VALUE,
                   StreamOpFlag.IS_ORDERED | StreamOpFlag.IS_SORTED);
@@ -176,6 +266,13 @@ final class SortedOps {
 
             if (StreamOpFlag.SORTED.isKnown(flags))
                 return sink;
+            else if (sliceHint.topK > 0)
+                return new TopKIntSortingSink(sink, sliceHint.topK);
+            else if (ExternalSort.SPILL_THRESHOLD > 0) {
+                SpillingIntSortingSink s = new SpillingIntSortingSink(sink);
+                onClose(s::release);
+                return s;
+            }
             else if (StreamOpFlag.SIZED.isKnown(flags))
                 return new SizedIntSortingSink(sink);
             else
@@ -189,6 +286,12 @@ final class SortedOps {
             if (StreamOpFlag.SORTED.isKnown(helper.getStreamAndOpFlags())) {
                 return helper.evaluate(spliterator, false, generator);
             }
+            else if (sliceHint.topK > 0) {
+                int k = sliceHint.topK;
+                IntTopK top = ReduceOps.makeInt(() -> new IntTopK(k, -1), IntTopK::accept, IntTopK::combine)
+                        .evaluateParallel(helper, spliterator);
+                return Nodes.node(top.toArray());
+            }
             else {
                 Node.OfInt n = (Node.OfInt) helper.evaluate(spliterator, true, generator);
 
@@ -204,6 +307,8 @@ final class SortedOps {
      * Specialized subtype for sorting long streams.
      */
     private static final class OfLong extends LongPipeline.StatefulOp<Long> {
+        final SliceHint sliceHint = new SliceHint();
+
         OfLong(AbstractPipeline<?, Long, ?> upstream) {
             super(upstream, StreamShape.LONG_VALUE,
                   StreamOpFlag.IS_ORDERED | StreamOpFlag.IS_SORTED);
@@ -215,6 +320,13 @@ final class SortedOps {
 
             if (StreamOpFlag.SORTED.isKnown(flags))
                 return sink;
+            else if (sliceHint.topK > 0)
+                return new TopKLongSortingSink(sink, sliceHint.topK);
+            else if (ExternalSort.SPILL_THRESHOLD > 0) {
+                SpillingLongSortingSink s = new SpillingLongSortingSink(sink);
+                onClose(s::release);
+                return s;
+            }
             else if (StreamOpFlag.SIZED.isKnown(flags))
                 return new SizedLongSortingSink(sink);
             else
@@ -228,6 +340,12 @@ final class SortedOps {
             if (StreamOpFlag.SORTED.isKnown(helper.getStreamAndOpFlags())) {
                 return helper.evaluate(spliterator, false, generator);
             }
+            else if (sliceHint.topK > 0) {
+                int k = sliceHint.topK;
+                LongTopK top = ReduceOps.makeLong(() -> new LongTopK(k, -1), LongTopK::accept, LongTopK::combine)
+                        .evaluateParallel(helper, spliterator);
+                return Nodes.node(top.toArray());
+            }
             else {
                 Node.OfLong n = (Node.OfLong) helper.evaluate(spliterator, true, generator);
 
@@ -243,6 +361,8 @@ final class SortedOps {
      * Specialized subtype for sorting double streams.
      */
     private static final class OfDouble extends DoublePipeline.StatefulOp<Double> {
+        final SliceHint sliceHint = new SliceHint();
+
         OfDouble(AbstractPipeline<?, Double, ?> upstream) {
             super(upstream, StreamShape.DOUBLE_VALUE,
                   StreamOpFlag.IS_ORDERED | StreamOpFlag.IS_SORTED);
@@ -254,6 +374,13 @@ final class SortedOps {
 
             if (StreamOpFlag.SORTED.isKnown(flags))
                 return sink;
+            else if (sliceHint.topK > 0)
+                return new TopKDoubleSortingSink(sink, sliceHint.topK);
+            else if (ExternalSort.SPILL_THRESHOLD > 0) {
+                SpillingDoubleSortingSink s = new SpillingDoubleSortingSink(sink);
+                onClose(s::release);
+                return s;
+            }
             else if (StreamOpFlag.SIZED.isKnown(flags))
                 return new SizedDoubleSortingSink(sink);
             else
@@ -267,6 +394,12 @@ final class SortedOps {
             if (StreamOpFlag.SORTED.isKnown(helper.getStreamAndOpFlags())) {
                 return helper.evaluate(spliterator, false, generator);
             }
+            else if (sliceHint.topK > 0) {
+                int k = sliceHint.topK;
+                DoubleTopK top = ReduceOps.makeDouble(() -> new DoubleTopK(k, -1), DoubleTopK::accept, DoubleTopK::combine)
+                        .evaluateParallel(helper, spliterator);
+                return Nodes.node(top.toArray());
+            }
             else {
                 Node.OfDouble n = (Node.OfDouble) helper.evaluate(spliterator, true, generator);
 
@@ -698,4 +831,590 @@ final class SortedOps {
             b.accept(t);
         }
     }
+
+    /**
+     * Retains the {@code k} least of the elements accepted, as a stable
+     * sort followed by a truncation to {@code k} elements would.  Elements
+     * are appended to an array of up to {@code 2k} elements; when it is
+     * full it is sorted and cut back to its first {@code k} elements, the
+     * greatest of which then bounds the elements worth appending.  So each
+     * element costs O(log k) comparisons amortized, and once the bound has
+     * settled most elements of a long input cost a single comparison.
+     *
+     * <p>Elements that compare equal stay in encounter order within the
+     * array, as the sort is stable and elements are only ever appended,
+     * so the buffers of adjacent parts of the input may be combined by
+     * accepting the right part's elements into the left part's buffer.
+     */
+    private static final class RefTopK<T> {
+        private final Comparator<? super T> comparator;
+        private final int k;
+        private Object[] array;
+        private int size;
+        // true if array[0, k) is sorted and array[k - 1] bounds the result
+        private boolean bounded;
+
+        RefTopK(Comparator<? super T> comparator, int k, long sizeIfKnown) {
+            this.comparator = comparator;
+            this.k = k;
+            this.array = new Object[initialTopKCapacity(k, sizeIfKnown)];
+        }
+
+        @SuppressWarnings("unchecked")
+        void accept(T t) {
+            if (bounded && comparator.compare(t, (T) array[k - 1]) >= 0)
+                return;
+            if (size == array.length) {
+                if (size < 2 * k)
+                    array = Arrays.copyOf(array, grownTopKCapacity(k, size));
+                else {
+                    truncate();
+                    if (comparator.compare(t, (T) array[k - 1]) >= 0)
+                        return;
+                }
+            }
+            array[size++] = t;
+        }
+
+        @SuppressWarnings("unchecked")
+        RefTopK<T> combine(RefTopK<T> other) {
+            for (int i = 0; i < other.size; i++)
+                accept((T) other.array[i]);
+            return this;
+        }
+
+        /**
+         * Sorts the retained elements and discards all but the least k.
+         */
+        @SuppressWarnings("unchecked")
+        void truncate() {
+            Arrays.sort((T[]) array, 0, size, comparator);
+            if (size > k) {
+                Arrays.fill(array, k, size, null);
+                size = k;
+                bounded = true;
+            }
+        }
+
+        T[] toArray(IntFunction<T[]> generator) {
+            truncate();
+            T[] result = generator.apply(size);
+            System.arraycopy(array, 0, result, 0, size);
+            return result;
+        }
+    }
+
+    /**
+     * Retains the {@code k} least of the int elements accepted.
+     *
+     * @see RefTopK
+     */
+    private static final class IntTopK {
+        private final int k;
+        private int[] array;
+        private int size;
+        private boolean bounded;
+
+        IntTopK(int k, long sizeIfKnown) {
+            this.k = k;
+            this.array = new int[initialTopKCapacity(k, sizeIfKnown)];
+        }
+
+        void accept(int t) {
+            if (bounded && t >= array[k - 1])
+                return;
+            if (size == array.length) {
+                if (size < 2 * k)
+                    array = Arrays.copyOf(array, grownTopKCapacity(k, size));
+                else {
+                    truncate();
+                    if (t >= array[k - 1])
+                        return;
+                }
+            }
+            array[size++] = t;
+        }
+
+        IntTopK combine(IntTopK other) {
+            for (int i = 0; i < other.size; i++)
+                accept(other.array[i]);
+            return this;
+        }
+
+        void truncate() {
+            Arrays.sort(array, 0, size);
+            if (size > k) {
+                size = k;
+                bounded = true;
+            }
+        }
+
+        int[] toArray() {
+            truncate();
+            return Arrays.copyOf(array, size);
+        }
+    }
+
+    /**
+     * Retains the {@code k} least of the long elements accepted.
+     *
+     * @see RefTopK
+     */
+    private static final class LongTopK {
+        private final int k;
+        private long[] array;
+        private int size;
+        private boolean bounded;
+
+        LongTopK(int k, long sizeIfKnown) {
+            this.k = k;
+            this.array = new long[initialTopKCapacity(k, sizeIfKnown)];
+        }
+
+        void accept(long t) {
+            if (bounded && t >= array[k - 1])
+                return;
+            if (size == array.length) {
+                if (size < 2 * k)
+                    array = Arrays.copyOf(array, grownTopKCapacity(k, size));
+                else {
+                    truncate();
+                    if (t >= array[k - 1])
+                        return;
+                }
+            }
+            array[size++] = t;
+        }
+
+        LongTopK combine(LongTopK other) {
+            for (int i = 0; i < other.size; i++)
+                accept(other.array[i]);
+            return this;
+        }
+
+        void truncate() {
+            Arrays.sort(array, 0, size);
+            if (size > k) {
+                size = k;
+                bounded = true;
+            }
+        }
+
+        long[] toArray() {
+            truncate();
+            return Arrays.copyOf(array, size);
+        }
+    }
+
+    /**
+     * Retains the {@code k} least of the double elements accepted, in the
+     * total order of {@link Double#compare}, as used by
+     * {@link Arrays#sort(double[])}.
+     *
+     * @see RefTopK
+     */
+    private static final class DoubleTopK {
+        private final int k;
+        private double[] array;
+        private int size;
+        private boolean bounded;
+
+        DoubleTopK(int k, long sizeIfKnown) {
+            this.k = k;
+            this.array = new double[initialTopKCapacity(k, sizeIfKnown)];
+        }
+
+        void accept(double t) {
+            if (bounded && Double.compare(t, array[k - 1]) >= 0)
+                return;
+            if (size == array.length) {
+                if (size < 2 * k)
+                    array = Arrays.copyOf(array, grownTopKCapacity(k, size));
+                else {
+                    truncate();
+                    if (Double.compare(t, array[k - 1]) >= 0)
+                        return;
+                }
+            }
+            array[size++] = t;
+        }
+
+        DoubleTopK combine(DoubleTopK other) {
+            for (int i = 0; i < other.size; i++)
+                accept(other.array[i]);
+            return this;
+        }
+
+        void truncate() {
+            Arrays.sort(array, 0, size);
+            if (size > k) {
+                size = k;
+                bounded = true;
+            }
+        }
+
+        double[] toArray() {
+            truncate();
+            return Arrays.copyOf(array, size);
+        }
+    }
+
+    private static int initialTopKCapacity(int k, long sizeIfKnown) {
+        return (int) Math.min(2L * k, sizeIfKnown >= 0 ? sizeIfKnown : 16L);
+    }
+
+    private static int grownTopKCapacity(int k, int size) {
+        return (int) Math.min(2L * k, Math.max(16L, 2L * size));
+    }
+
+    /**
+     * {@link Sink} for implementing sort followed by a slice on reference
+     * streams, retaining only the elements the slice can observe.
+     */
+    private static final class TopKRefSortingSink<T> extends AbstractRefSortingSink<T> {
+        private final int k;
+        private RefTopK<T> top;
+
+        TopKRefSortingSink(Sink<? super T> sink, Comparator<? super T> comparator, int k) {
+            super(sink, comparator);
+            this.k = k;
+        }
+
+        @Override
+        public void begin(long size) {
+            top = new RefTopK<>(comparator, k, size);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void end() {
+            top.truncate();
+            Object[] array = top.array;
+            int size = top.size;
+            downstream.begin(size);
+            if (!cancellationWasRequested) {
+                for (int i = 0; i < size; i++)
+                    downstream.accept((T) array[i]);
+            }
+            else {
+                for (int i = 0; i < size && !downstream.cancellationRequested(); i++)
+                    downstream.accept((T) array[i]);
+            }
+            downstream.end();
+            top = null;
+        }
+
+        @Override
+        public void accept(T t) {
+            top.accept(t);
+        }
+    }
+
+    /**
+     * {@link Sink} for implementing sort followed by a slice on int streams.
+     */
+    private static final class TopKIntSortingSink extends AbstractIntSortingSink {
+        private final int k;
+        private IntTopK top;
+
+        TopKIntSortingSink(Sink<? super Integer> sink, int k) {
+            super(sink);
+            this.k = k;
+        }
+
+        @Override
+        public void begin(long size) {
+            top = new IntTopK(k, size);
+        }
+
+        @Override
+        public void end() {
+            top.truncate();
+            int[] array = top.array;
+            int size = top.size;
+            downstream.begin(size);
+            if (!cancellationWasRequested) {
+                for (int i = 0; i < size; i++)
+                    downstream.accept(array[i]);
+            }
+            else {
+                for (int i = 0; i < size && !downstream.cancellationRequested(); i++)
+                    downstream.accept(array[i]);
+            }
+            downstream.end();
+            top = null;
+        }
+
+        @Override
+        public void accept(int t) {
+            top.accept(t);
+        }
+    }
+
+    /**
+     * {@link Sink} for implementing sort followed by a slice on long streams.
+     */
+    private static final class TopKLongSortingSink extends AbstractLongSortingSink {
+        private final int k;
+        private LongTopK top;
+
+        TopKLongSortingSink(Sink<? super Long> sink, int k) {
+            super(sink);
+            this.k = k;
+        }
+
+        @Override
+        public void begin(long size) {
+            top = new LongTopK(k, size);
+        }
+
+        @Override
+        public void end() {
+            top.truncate();
+            long[] array = top.array;
+            int size = top.size;
+            downstream.begin(size);
+            if (!cancellationWasRequested) {
+                for (int i = 0; i < size; i++)
+                    downstream.accept(array[i]);
+            }
+            else {
+                for (int i = 0; i < size && !downstream.cancellationRequested(); i++)
+                    downstream.accept(array[i]);
+            }
+            downstream.end();
+            top = null;
+        }
+
+        @Override
+        public void accept(long t) {
+            top.accept(t);
+        }
+    }
+
+    /**
+     * {@link Sink} for implementing sort followed by a slice on double
+     * streams.
+     */
+    private static final class TopKDoubleSortingSink extends AbstractDoubleSortingSink {
+        private final int k;
+        private DoubleTopK top;
+
+        TopKDoubleSortingSink(Sink<? super Double> sink, int k) {
+            super(sink);
+            this.k = k;
+        }
+
+        @Override
+        public void begin(long size) {
+            top = new DoubleTopK(k, size);
+        }
+
+        @Override
+        public void end() {
+            top.truncate();
+            double[] array = top.array;
+            int size = top.size;
+            downstream.begin(size);
+            if (!cancellationWasRequested) {
+                for (int i = 0; i < size; i++)
+                    downstream.accept(array[i]);
+            }
+            else {
+                for (int i = 0; i < size && !downstream.cancellationRequested(); i++)
+                    downstream.accept(array[i]);
+            }
+            downstream.end();
+            top = null;
+        }
+
+        @Override
+        public void accept(double t) {
+            top.accept(t);
+        }
+    }
+
+    /**
+     * {@link Sink} for implementing sort on reference streams, spilling
+     * sorted runs to disk as described in {@link ExternalSort}.
+     */
+    private static final class SpillingRefSortingSink<T> extends AbstractRefSortingSink<T> {
+        private ExternalSort.OfRef<T> sorter;
+
+        SpillingRefSortingSink(Sink<? super T> sink, Comparator<? super T> comparator) {
+            super(sink, comparator);
+        }
+
+        @Override
+        public void begin(long size) {
+            sorter = new ExternalSort.OfRef<>(comparator, size, ExternalSort.SPILL_THRESHOLD);
+        }
+
+        @Override
+        public void end() {
+            ExternalSort.OfRef<T> s = sorter;
+            sorter = null;
+            s.pushTo(downstream, cancellationWasRequested);
+        }
+
+        /**
+         * Releases the runs spilled so far if the pipeline is abandoned
+         * before {@link #end}, as when an upstream operation throws.
+         */
+        void release() {
+            ExternalSort.OfRef<T> s = sorter;
+            if (s != null) {
+                sorter = null;
+                s.close();
+            }
+        }
+
+        @Override
+        public void accept(T t) {
+            try {
+                sorter.accept(t);
+            } catch (RuntimeException | Error e) {
+                sorter.closeOnFailure(e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * {@link Sink} for implementing sort on int streams, spilling sorted
+     * runs to disk as described in {@link ExternalSort}.
+     */
+    private static final class SpillingIntSortingSink extends AbstractIntSortingSink {
+        private ExternalSort.OfInt sorter;
+
+        SpillingIntSortingSink(Sink<? super Integer> sink) {
+            super(sink);
+        }
+
+        @Override
+        public void begin(long size) {
+            sorter = new ExternalSort.OfInt(size, ExternalSort.SPILL_THRESHOLD);
+        }
+
+        @Override
+        public void end() {
+            ExternalSort.OfInt s = sorter;
+            sorter = null;
+            s.pushTo(downstream, cancellationWasRequested);
+        }
+
+        /**
+         * Releases the runs spilled so far if the pipeline is abandoned
+         * before {@link #end}, as when an upstream operation throws.
+         */
+        void release() {
+            ExternalSort.OfInt s = sorter;
+            if (s != null) {
+                sorter = null;
+                s.close();
+            }
+        }
+
+        @Override
+        public void accept(int t) {
+            try {
+                sorter.accept(t);
+            } catch (RuntimeException | Error e) {
+                sorter.closeOnFailure(e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * {@link Sink} for implementing sort on long streams, spilling sorted
+     * runs to disk as described in {@link ExternalSort}.
+     */
+    private static final class SpillingLongSortingSink extends AbstractLongSortingSink {
+        private ExternalSort.OfLong sorter;
+
+        SpillingLongSortingSink(Sink<? super Long> sink) {
+            super(sink);
+        }
+
+        @Override
+        public void begin(long size) {
+            sorter = new ExternalSort.OfLong(size, ExternalSort.SPILL_THRESHOLD);
+        }
+
+        @Override
+        public void end() {
+            ExternalSort.OfLong s = sorter;
+            sorter = null;
+            s.pushTo(downstream, cancellationWasRequested);
+        }
+
+        /**
+         * Releases the runs spilled so far if the pipeline is abandoned
+         * before {@link #end}, as when an upstream operation throws.
+         */
+        void release() {
+            ExternalSort.OfLong s = sorter;
+            if (s != null) {
+                sorter = null;
+                s.close();
+            }
+        }
+
+        @Override
+        public void accept(long t) {
+            try {
+                sorter.accept(t);
+            } catch (RuntimeException | Error e) {
+                sorter.closeOnFailure(e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * {@link Sink} for implementing sort on double streams, spilling sorted
+     * runs to disk as described in {@link ExternalSort}.
+     */
+    private static final class SpillingDoubleSortingSink extends AbstractDoubleSortingSink {
+        private ExternalSort.OfDouble sorter;
+
+        SpillingDoubleSortingSink(Sink<? super Double> sink) {
+            super(sink);
+        }
+
+        @Override
+        public void begin(long size) {
+            sorter = new ExternalSort.OfDouble(size, ExternalSort.SPILL_THRESHOLD);
+        }
+
+        @Override
+        public void end() {
+            ExternalSort.OfDouble s = sorter;
+            sorter = null;
+            s.pushTo(downstream, cancellationWasRequested);
+        }
+
+        /**
+         * Releases the runs spilled so far if the pipeline is abandoned
+         * before {@link #end}, as when an upstream operation throws.
+         */
+        void release() {
+            ExternalSort.OfDouble s = sorter;
+            if (s != null) {
+                sorter = null;
+                s.close();
+            }
+        }
+
+        @Override
+        public void accept(double t) {
+            try {
+                sorter.accept(t);
+            } catch (RuntimeException | Error e) {
+                sorter.closeOnFailure(e);
+                throw e;
+            }
+        }
+    }
 }
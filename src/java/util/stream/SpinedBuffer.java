@@ -518,20 +518,55 @@ class SpinedBuffer<E>
 
         protected int chunkFor(long index) {
             if (spineIndex == 0) {
-                if (index < elementIndex)
+                if (index >= 0 && index < elementIndex)
                     return 0;
                 else
                     throw new IndexOutOfBoundsException(Long.toString(index));
             }
 
-            if (index >= count())
+            if (index >= count() || index < 0)
                 throw new IndexOutOfBoundsException(Long.toString(index));
 
-            for (int j=0; j <= spineIndex; j++)
-                if (index < priorElementCount[j] + arrayLength(spine[j]))
-                    return j;
+            // Binary search for the last chunk starting at or before index
+            int lo = 0, hi = spineIndex;
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (priorElementCount[mid] <= index)
+                    lo = mid;
+                else
+                    hi = mid - 1;
+            }
+            return lo;
+        }
 
-            throw new IndexOutOfBoundsException(Long.toString(index));
+        /**
+         * Appends {@code len} elements of the array, starting at
+         * {@code offset}, copying them a chunk at a time.
+         */
+        void addAll(T_ARR array, int offset, int len) {
+            while (len > 0) {
+                preAccept();
+                int n = Math.min(len, arrayLength(curChunk) - elementIndex);
+                System.arraycopy(array, offset, curChunk, elementIndex, n);
+                elementIndex += n;
+                offset += n;
+                len -= n;
+            }
+        }
+
+        /**
+         * Appends the elements of the buffer, which may be this one, copying
+         * them a chunk at a time.
+         */
+        void addAll(OfPrimitive<E, T_ARR, T_CONS> buffer) {
+            // Chunks never move, so capture the extent before appending
+            int lastSpineIndex = buffer.spineIndex, lastFence = buffer.elementIndex;
+            T_ARR[] chunks = buffer.spine;
+            T_ARR last = buffer.curChunk;
+            ensureCapacity(count() + buffer.count());
+            for (int j = 0; j < lastSpineIndex; j++)
+                addAll(chunks[j], 0, arrayLength(chunks[j]));
+            addAll(last, 0, lastFence);
         }
 
         public void copyInto(T_ARR array, int offset) {
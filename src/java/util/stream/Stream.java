@@ -481,6 +481,116 @@ public interface Stream<T> extends BaseStream<T, Stream<T>> {
      */
     Stream<T> skip(long n);
 
+    /**
+     * Returns a stream consisting of the results of reducing consecutive,
+     * non-overlapping windows of {@code size} elements of this stream, in
+     * encounter order, using the given {@code Collector}.  The last window
+     * holds the remaining elements, and may be smaller.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.  Each result is produced as soon as its
+     * window is complete.  The elements of only one window are retained at a
+     * time, in the collector's container.
+     *
+     * @apiNote
+     * On an ordered parallel stream whose size is known, and whose source
+     * splits into parts of known size (as arrays and ranges do), each part
+     * is reduced independently.  The containers of windows spanning two
+     * parts are joined with the collector's combiner.
+     *
+     * <p>For example, the following computes the mean of each consecutive
+     * group of 60 readings:
+     * <pre>{@code
+     *     Stream<Double> means = readings.stream()
+     *         .windowed(60, Collectors.averagingDouble(Reading::getValue));
+     * }</pre>
+     *
+     * @param <R> the type of the window results
+     * @param size the number of elements in each window
+     * @param collector the {@code Collector} reducing each window
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code size} is not positive
+     * @since 9
+     */
+    default <R> Stream<R> windowed(int size, Collector<? super T, ?, R> collector) {
+        if (size <= 0)
+            throw new IllegalArgumentException(Integer.toString(size));
+        Objects.requireNonNull(collector);
+        return WindowOps.wrapRef(this, size, size, true, null, collector);
+    }
+
+    /**
+     * Returns a stream consisting of the results of reducing windows of
+     * {@code size} consecutive elements of this stream, the first starting
+     * at the first element and each later one {@code step} elements after
+     * the one before, using the given {@code Collector}.  If {@code step} is
+     * less than {@code size} the windows overlap (sliding windows); if it is
+     * greater, the elements between windows are discarded.  Only complete
+     * windows are reduced.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.  Each result is produced as soon as its
+     * window is complete.  At most {@code size} elements are retained, and
+     * each window is reduced into a fresh container.  Reducing a sliding
+     * window therefore costs {@code size} accumulations.
+     *
+     * @param <R> the type of the window results
+     * @param size the number of elements in each window
+     * @param step the distance, in elements, from the start of one window
+     *        to the start of the next
+     * @param collector the {@code Collector} reducing each window
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code size} or {@code step} is
+     *         not positive
+     * @since 9
+     */
+    default <R> Stream<R> windowed(int size, int step,
+                                   Collector<? super T, ?, R> collector) {
+        if (size <= 0)
+            throw new IllegalArgumentException(Integer.toString(size));
+        if (step <= 0)
+            throw new IllegalArgumentException(Integer.toString(step));
+        Objects.requireNonNull(collector);
+        return WindowOps.wrapRef(this, size, step, false, null, collector);
+    }
+
+    /**
+     * Returns a stream consisting of the results of reducing each maximal
+     * run of consecutive elements of this stream that have equal keys, in
+     * encounter order, using the given {@code Collector}.  Keys are computed
+     * by the classifier function and compared with
+     * {@link Object#equals(Object)}.  Unlike
+     * {@link Collectors#groupingBy(Function) groupingBy}, elements with
+     * equal keys that are not adjacent form separate windows.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.  Each result is produced as soon as an
+     * element with a different key, or the end of the stream, is reached.
+     * Only the open window's container is retained.
+     *
+     * @apiNote
+     * This is the natural way to aggregate a stream that is sorted by some
+     * key, such as events sorted by time, into per-key results:
+     * <pre>{@code
+     *     Stream<Long> perMinute = events.stream()
+     *         .windowedBy(e -> e.getTime() / 60_000, Collectors.counting());
+     * }</pre>
+     *
+     * @param <R> the type of the window results
+     * @param classifier a <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *        <a href="package-summary.html#Statelessness">stateless</a>
+     *        function computing the key of each element
+     * @param collector the {@code Collector} reducing each window
+     * @return the new stream
+     * @since 9
+     */
+    default <R> Stream<R> windowedBy(Function<? super T, ?> classifier,
+                                     Collector<? super T, ?, R> collector) {
+        Objects.requireNonNull(classifier);
+        Objects.requireNonNull(collector);
+        return WindowOps.wrapRef(this, 0, 0, true, classifier, collector);
+    }
+
     /**
      * Performs an action for each element of this stream.
      *
@@ -115,6 +115,29 @@ final class Streams {
             }
         }
 
+        /**
+         * Pushes the remaining elements to the sink in chunks, as by
+         * {@link Sink#accept(int[], int, int)}, using the given array.
+         */
+        void forEachRemaining(Sink<?> sink, int[] chunk) {
+            int i = from;
+            final int hUpTo = upTo;
+            int hLast = last;
+            from = upTo;
+            last = 0;
+            while (i < hUpTo) {
+                int n = (int) Math.min(chunk.length, (long) hUpTo - i);
+                for (int j = 0; j < n; j++)
+                    chunk[j] = i + j;
+                i += n;
+                sink.accept(chunk, 0, n);
+            }
+            if (hLast > 0) {
+                // Last element of closed range
+                sink.accept(i);
+            }
+        }
+
         @Override
         public long estimateSize() {
             // Ensure ranges of size > Integer.MAX_VALUE report the correct size
@@ -240,6 +263,31 @@ final class Streams {
             }
         }
 
+        /**
+         * Pushes the remaining elements to the sink in chunks, as by
+         * {@link Sink#accept(long[], int, int)}, using the given array.
+         */
+        void forEachRemaining(Sink<?> sink, long[] chunk) {
+            long i = from;
+            final long hUpTo = upTo;
+            int hLast = last;
+            from = upTo;
+            last = 0;
+            while (i < hUpTo) {
+                // hUpTo - i overflows to a negative value for huge ranges
+                long r = hUpTo - i;
+                int n = (r > 0 && r < chunk.length) ? (int) r : chunk.length;
+                for (int j = 0; j < n; j++)
+                    chunk[j] = i + j;
+                i += n;
+                sink.accept(chunk, 0, n);
+            }
+            if (hLast > 0) {
+                // Last element of closed range
+                sink.accept(i);
+            }
+        }
+
         @Override
         public long estimateSize() {
             return upTo - from + last;
@@ -0,0 +1,1165 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.stream;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.IntSummaryStatistics;
+import java.util.LongSummaryStatistics;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.CountedCompleter;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.DoubleFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Factory methods for transforming streams into streams of window results.
+ * A window is a run of consecutive elements reduced to a single result.
+ * Counted windows hold {@code size} elements, a new one starting every
+ * {@code step} elements.  Keyed windows hold each maximal run of elements
+ * with equal keys.
+ *
+ * <p>Each result is emitted as soon as its window closes.  Tumbling and
+ * hopping windows ({@code step >= size}) and keyed windows accumulate
+ * each element into the open window's container as it arrives.  Sliding
+ * windows ({@code step < size}) keep the last {@code size} elements in a
+ * ring and reduce them into a fresh container whenever a window closes.
+ * Either way, no more than one window's worth of elements is retained.
+ *
+ * <p>Parallel tumbling windows over a source whose splits have exact sizes
+ * are computed without a barrier.  Each leaf task reduces the windows that
+ * lie wholly inside its part of the source.  The windows at its edges are
+ * passed up as partial containers and joined to their neighbours' with the
+ * combiner.  Other parallel window operations traverse their upstream
+ * sequentially, since each window depends on the ones before it.
+ */
+final class WindowOps {
+
+    private WindowOps() { }
+
+    /**
+     * Appends a counted window operation to the provided stream, and returns
+     * the new stream.
+     *
+     * @param <T> the type of input elements
+     * @param <A> the mutable accumulation type of the collector
+     * @param <R> the type of window results
+     * @param upstream a reference stream with element type T
+     * @param size the number of elements in a window
+     * @param step the number of elements from the start of one window to the
+     *        start of the next
+     * @param partial whether a final window with fewer than {@code size}
+     *        elements is reduced, rather than dropped
+     * @param collector the collector reducing each window
+     * @return the new stream
+     */
+    static <T, A, R> Stream<R> makeRef(AbstractPipeline<?, T, ?> upstream,
+                                       int size, int step, boolean partial,
+                                       Collector<? super T, A, R> collector) {
+        return new OfRef<>(upstream, size, step, partial, null, collector);
+    }
+
+    /**
+     * Appends a keyed window operation to the provided stream, and returns
+     * the new stream.
+     *
+     * @param <T> the type of input elements
+     * @param <A> the mutable accumulation type of the collector
+     * @param <R> the type of window results
+     * @param upstream a reference stream with element type T
+     * @param classifier the function computing the key of each element
+     * @param collector the collector reducing each window
+     * @return the new stream
+     */
+    static <T, A, R> Stream<R> makeRef(AbstractPipeline<?, T, ?> upstream,
+                                       Function<? super T, ?> classifier,
+                                       Collector<? super T, A, R> collector) {
+        return new OfRef<>(upstream, 0, 0, true, classifier, collector);
+    }
+
+    /**
+     * Appends a window operation summarizing counted windows, or keyed ones
+     * if a classifier is given, to the provided stream, and returns the new
+     * stream.
+     *
+     * @param upstream an int stream
+     * @param size the number of elements in a window, if counted
+     * @param step the number of elements from the start of one window to the
+     *        start of the next, if counted
+     * @param partial whether a final short window is reduced
+     * @param classifier the function computing the key of each element, or
+     *        null for counted windows
+     * @return the new stream
+     */
+    static Stream<IntSummaryStatistics> makeInt(AbstractPipeline<?, Integer, ?> upstream,
+                                                int size, int step, boolean partial,
+                                                IntFunction<?> classifier) {
+        return new OfInt<IntSummaryStatistics, IntSummaryStatistics>(
+                upstream, size, step, partial, classifier,
+                IntSummaryStatistics::new, IntSummaryStatistics::accept,
+                (l, r) -> { l.combine(r); return l; }, Function.identity());
+    }
+
+    /**
+     * Appends a window operation summarizing counted windows, or keyed ones
+     * if a classifier is given, to the provided stream, and returns the new
+     * stream.
+     *
+     * @param upstream a long stream
+     * @param size the number of elements in a window, if counted
+     * @param step the number of elements from the start of one window to the
+     *        start of the next, if counted
+     * @param partial whether a final short window is reduced
+     * @param classifier the function computing the key of each element, or
+     *        null for counted windows
+     * @return the new stream
+     */
+    static Stream<LongSummaryStatistics> makeLong(AbstractPipeline<?, Long, ?> upstream,
+                                                  int size, int step, boolean partial,
+                                                  LongFunction<?> classifier) {
+        return new OfLong<LongSummaryStatistics, LongSummaryStatistics>(
+                upstream, size, step, partial, classifier,
+                LongSummaryStatistics::new, LongSummaryStatistics::accept,
+                (l, r) -> { l.combine(r); return l; }, Function.identity());
+    }
+
+    /**
+     * Appends a window operation summarizing counted windows, or keyed ones
+     * if a classifier is given, to the provided stream, and returns the new
+     * stream.
+     *
+     * @param upstream a double stream
+     * @param size the number of elements in a window, if counted
+     * @param step the number of elements from the start of one window to the
+     *        start of the next, if counted
+     * @param partial whether a final short window is reduced
+     * @param classifier the function computing the key of each element, or
+     *        null for counted windows
+     * @return the new stream
+     */
+    static Stream<DoubleSummaryStatistics> makeDouble(AbstractPipeline<?, Double, ?> upstream,
+                                                      int size, int step, boolean partial,
+                                                      DoubleFunction<?> classifier) {
+        return new OfDouble<DoubleSummaryStatistics, DoubleSummaryStatistics>(
+                upstream, size, step, partial, classifier,
+                DoubleSummaryStatistics::new, DoubleSummaryStatistics::accept,
+                (l, r) -> { l.combine(r); return l; }, Function.identity());
+    }
+
+    /**
+     * A window operation, holding the window geometry and the functions
+     * that create, combine and finish window containers.  Keyed operations
+     * have a size and step of zero.
+     *
+     * @param <T> the type of input elements
+     * @param <A> the type of window containers
+     * @param <R> the type of window results
+     */
+    private abstract static class WindowOp<T, A, R>
+            extends ReferencePipeline.StatefulOp<T, R> {
+        final int size, step;
+        final boolean partial;
+        final Supplier<A> supplier;
+        final BinaryOperator<A> combiner;
+        final Function<A, R> finisher;
+
+        WindowOp(AbstractPipeline<?, T, ?> upstream, StreamShape inputShape,
+                 int size, int step, boolean partial,
+                 Supplier<A> supplier, BinaryOperator<A> combiner,
+                 Function<A, R> finisher) {
+            super(upstream, inputShape,
+                  StreamOpFlag.NOT_SIZED | StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT);
+            this.size = size;
+            this.step = step;
+            this.partial = partial;
+            this.supplier = supplier;
+            this.combiner = combiner;
+            this.finisher = finisher;
+        }
+
+        /**
+         * Returns a sink accumulating each element into the container that
+         * the leaf supplies for it.
+         */
+        abstract Sink<T> leafSink(Leaf<A, R> leaf);
+
+        @Override
+        <P_IN> Node<R> opEvaluateParallel(PipelineHelper<R> helper,
+                                          Spliterator<P_IN> spliterator,
+                                          IntFunction<R[]> generator) {
+            // The helper describes the upstream stages, whose output is T
+            @SuppressWarnings("unchecked")
+            PipelineHelper<T> upstream = (PipelineHelper<T>) (PipelineHelper<?>) helper;
+            long count;
+            if (size > 0 && size == step
+                && spliterator.hasCharacteristics(Spliterator.SUBSIZED)
+                && (count = upstream.exactOutputSizeIfKnown(spliterator)) >= 0) {
+                long windows = count / size + (partial && count % size != 0 ? 1 : 0);
+                if (windows < Nodes.MAX_ARRAY_SIZE) {
+                    R[] results = generator.apply((int) windows);
+                    new TumblingTask<>(this, upstream, spliterator, results, count).invoke();
+                    return Nodes.node(results);
+                }
+            }
+            Node.Builder<R> nb = Nodes.builder(-1, generator);
+            upstream.wrapAndCopyInto(opWrapSink(upstream.getStreamAndOpFlags(), nb), spliterator);
+            return nb.build();
+        }
+    }
+
+    /**
+     * The open window of a counted operation whose windows do not overlap,
+     * or of a keyed operation.
+     */
+    private static final class Tumbler<A, R> {
+        private final WindowOp<?, A, R> op;
+        private final Sink<? super R> downstream;
+        private A container;        // null if no window is open
+        private Object key;         // key of the open keyed window
+        private int filled;         // elements in the open counted window
+        private int skip;           // elements to drop before the next window
+
+        Tumbler(WindowOp<?, A, R> op, Sink<? super R> downstream) {
+            this.op = op;
+            this.downstream = downstream;
+        }
+
+        /**
+         * Returns the container for the next element of a counted window,
+         * or null if the element falls in the gap between two windows.
+         */
+        A next() {
+            if (skip > 0) {
+                --skip;
+                return null;
+            }
+            A a = container;
+            if (a == null)
+                container = a = op.supplier.get();
+            return a;
+        }
+
+        /**
+         * Records that an element was accumulated into the container
+         * returned by {@link #next()}, closing the window if it is full.
+         */
+        void added() {
+            if (++filled == op.size) {
+                emit();
+                skip = op.step - op.size;
+            }
+        }
+
+        /**
+         * Returns the container for the next element of a keyed window,
+         * first closing the open window if the key differs from its key.
+         */
+        A next(Object k) {
+            A a = container;
+            if (a != null && !Objects.equals(k, key)) {
+                emit();
+                a = null;
+            }
+            if (a == null) {
+                container = a = op.supplier.get();
+                key = k;
+            }
+            return a;
+        }
+
+        /** Closes the open window, if any, at the end of the elements. */
+        void end() {
+            if (container != null && op.partial)
+                emit();
+            container = null;
+            key = null;
+            filled = skip = 0;
+        }
+
+        private void emit() {
+            A a = container;
+            container = null;
+            key = null;
+            filled = 0;
+            downstream.accept(op.finisher.apply(a));
+        }
+    }
+
+    /**
+     * Reduces the elements of a leaf task of a parallel tumbling window
+     * operation, whose positions in the stream are known, into windows.
+     * Windows lying wholly within the leaf are finished in place; the
+     * others are passed on as fragments.
+     */
+    private static final class Leaf<A, R> {
+        private final TumblingTask<?, ?, A, R> task;
+        private long position;      // of the next element
+        private long window = -1L;  // index of the open window
+        private long start;         // position of its first element here
+        private A container;        // null if no window is open
+        Fragment<A> fragments, last;
+
+        Leaf(TumblingTask<?, ?, A, R> task, long position) {
+            this.task = task;
+            this.position = position;
+        }
+
+        /** Returns the container for the next element. */
+        A next() {
+            long w = position / task.op.size;
+            if (w != window) {
+                end();
+                window = w;
+                start = position;
+                container = task.op.supplier.get();
+            }
+            ++position;
+            return container;
+        }
+
+        /** Closes the open window, if any. */
+        void end() {
+            A a = container;
+            if (a != null) {
+                container = null;
+                long n = position - start;
+                if (n == task.length(window))
+                    task.finish(window, a);
+                else {
+                    Fragment<A> f = new Fragment<>(window, a, n);
+                    if (last == null)
+                        fragments = f;
+                    else
+                        last.next = f;
+                    last = f;
+                }
+            }
+        }
+    }
+
+    /**
+     * The container of a window only part of whose elements have been
+     * accumulated, at an edge of a task's portion of the stream.
+     */
+    private static final class Fragment<A> {
+        final long window;
+        A container;
+        long count;
+        Fragment<A> next;
+
+        Fragment(long window, A container, long count) {
+            this.window = window;
+            this.container = container;
+            this.count = count;
+        }
+    }
+
+    /**
+     * {@code ForkJoinTask} computing tumbling windows over a source whose
+     * splits have exact sizes.  The result of each task is the list of its
+     * partially reduced edge windows, of which there are at most two.
+     *
+     * @param <P_IN> the type of source elements
+     * @param <T> the type of input elements of the window operation
+     * @param <A> the type of window containers
+     * @param <R> the type of window results
+     */
+    @SuppressWarnings("serial")
+    private static final class TumblingTask<P_IN, T, A, R>
+            extends AbstractTask<P_IN, T, Fragment<A>, TumblingTask<P_IN, T, A, R>> {
+        private final WindowOp<T, A, R> op;
+        private final R[] results;
+        private final long count;       // elements in the whole stream
+        private final long size;        // elements in this task's portion
+
+        TumblingTask(WindowOp<T, A, R> op, PipelineHelper<T> helper,
+                     Spliterator<P_IN> spliterator, R[] results, long count) {
+            super(helper, spliterator);
+            this.op = op;
+            this.results = results;
+            this.count = count;
+            this.size = spliterator.estimateSize();
+        }
+
+        TumblingTask(TumblingTask<P_IN, T, A, R> parent, Spliterator<P_IN> spliterator) {
+            super(parent, spliterator);
+            this.op = parent.op;
+            this.results = parent.results;
+            this.count = parent.count;
+            this.size = spliterator.estimateSize();
+        }
+
+        @Override
+        protected TumblingTask<P_IN, T, A, R> makeChild(Spliterator<P_IN> spliterator) {
+            return new TumblingTask<>(this, spliterator);
+        }
+
+        @Override
+        protected Fragment<A> doLeaf() {
+            long offset = 0L;
+            for (TumblingTask<P_IN, T, A, R> t = this, p; (p = t.getParent()) != null; t = p) {
+                if (t == p.rightChild)
+                    offset += p.leftChild.size;
+            }
+            Leaf<A, R> leaf = new Leaf<>(this, offset);
+            helper.wrapAndCopyInto(op.leafSink(leaf), spliterator);
+            return leaf.fragments;
+        }
+
+        @Override
+        public void onCompletion(CountedCompleter<?> caller) {
+            if (!isLeaf())
+                setLocalResult(join(leftChild.getLocalResult(),
+                                    rightChild.getLocalResult()));
+            super.onCompletion(caller);
+        }
+
+        /** Returns the number of elements in the given window. */
+        long length(long window) {
+            return Math.min(op.size, count - window * op.size);
+        }
+
+        /** Stores the result of the given complete window. */
+        void finish(long window, A container) {
+            // A final short window is dropped unless partial windows are wanted
+            if (window < results.length)
+                results[(int) window] = op.finisher.apply(container);
+        }
+
+        /**
+         * Joins the fragments of adjacent portions of the stream, combining
+         * the last fragment on the left with the first on the right if they
+         * belong to the same window.
+         */
+        private Fragment<A> join(Fragment<A> left, Fragment<A> right) {
+            if (left == null)
+                return right;
+            if (right == null)
+                return left;
+            Fragment<A> prev = null, last = left;
+            while (last.next != null) {
+                prev = last;
+                last = last.next;
+            }
+            if (last.window == right.window) {
+                last.container = op.combiner.apply(last.container, right.container);
+                last.count += right.count;
+                right = right.next;
+                if (last.count == length(last.window)) {
+                    finish(last.window, last.container);
+                    if (prev == null)
+                        return right;
+                    last = prev;
+                }
+            }
+            last.next = right;
+            return left;
+        }
+    }
+
+    /**
+     * A window operation over a reference stream.
+     */
+    private static final class OfRef<T, A, R> extends WindowOp<T, A, R> {
+        private final BiConsumer<A, ? super T> accumulator;
+        private final Function<? super T, ?> classifier;
+
+        OfRef(AbstractPipeline<?, T, ?> upstream, int size, int step, boolean partial,
+              Function<? super T, ?> classifier, Collector<? super T, A, R> collector) {
+            super(upstream, StreamShape.REFERENCE, size, step, partial,
+                  collector.supplier(), collector.combiner(), collector.finisher());
+            this.accumulator = collector.accumulator();
+            this.classifier = classifier;
+        }
+
+        @Override
+        Sink<T> opWrapSink(int flags, Sink<R> sink) {
+            Objects.requireNonNull(sink);
+            if (step < size)
+                return new SlidingSink<>(this, sink);
+            Tumbler<A, R> w = new Tumbler<>(this, sink);
+            if (classifier != null)
+                return new Sink.ChainedReference<T, R>(sink) {
+                    @Override
+                    public void begin(long size) {
+                        downstream.begin(-1);
+                    }
+
+                    @Override
+                    public void accept(T t) {
+                        accumulator.accept(w.next(classifier.apply(t)), t);
+                    }
+
+                    @Override
+                    public void end() {
+                        w.end();
+                        downstream.end();
+                    }
+                };
+            else
+                return new Sink.ChainedReference<T, R>(sink) {
+                    @Override
+                    public void begin(long size) {
+                        downstream.begin(-1);
+                    }
+
+                    @Override
+                    public void accept(T t) {
+                        A a = w.next();
+                        if (a != null) {
+                            accumulator.accept(a, t);
+                            w.added();
+                        }
+                    }
+
+                    @Override
+                    public void end() {
+                        w.end();
+                        downstream.end();
+                    }
+                };
+        }
+
+        @Override
+        Sink<T> leafSink(Leaf<A, R> leaf) {
+            return new Sink<T>() {
+                @Override
+                public void accept(T t) {
+                    accumulator.accept(leaf.next(), t);
+                }
+
+                @Override
+                public void end() {
+                    leaf.end();
+                }
+            };
+        }
+
+        /** Sink for sliding windows over a reference stream. */
+        private static final class SlidingSink<T, A, R> extends Sink.ChainedReference<T, R> {
+            private final OfRef<T, A, R> op;
+            private Object[] ring;  // the last op.size elements, allocated lazily
+            private int next;       // ring index of the next element
+            private int due;        // elements until the next window closes
+
+            SlidingSink(OfRef<T, A, R> op, Sink<? super R> downstream) {
+                super(downstream);
+                this.op = op;
+            }
+
+            @Override
+            public void begin(long size) {
+                due = op.size;
+                downstream.begin(-1);
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public void accept(T t) {
+                Object[] r = ring;
+                if (r == null)
+                    ring = r = new Object[op.size];
+                r[next] = t;
+                if (++next == r.length)
+                    next = 0;
+                if (--due == 0) {
+                    due = op.step;
+                    A a = op.supplier.get();
+                    for (int i = next; i < r.length; i++)
+                        op.accumulator.accept(a, (T) r[i]);
+                    for (int i = 0; i < next; i++)
+                        op.accumulator.accept(a, (T) r[i]);
+                    downstream.accept(op.finisher.apply(a));
+                }
+            }
+
+            @Override
+            public void end() {
+                ring = null;
+                next = 0;
+                downstream.end();
+            }
+        }
+    }
+
+    /**
+     * A window operation over an int stream.
+     */
+    private static final class OfInt<A, R> extends WindowOp<Integer, A, R> {
+        private final ObjIntConsumer<A> accumulator;
+        private final IntFunction<?> classifier;
+
+        OfInt(AbstractPipeline<?, Integer, ?> upstream, int size, int step, boolean partial,
+              IntFunction<?> classifier, Supplier<A> supplier, ObjIntConsumer<A> accumulator,
+              BinaryOperator<A> combiner, Function<A, R> finisher) {
+            super(upstream, StreamShape.INT_VALUE, size, step, partial,
+                  supplier, combiner, finisher);
+            this.accumulator = accumulator;
+            this.classifier = classifier;
+        }
+
+        @Override
+        Sink<Integer> opWrapSink(int flags, Sink<R> sink) {
+            Objects.requireNonNull(sink);
+            if (step < size)
+                return new SlidingSink<>(this, sink);
+            Tumbler<A, R> w = new Tumbler<>(this, sink);
+            if (classifier != null)
+                return new Sink.ChainedInt<R>(sink) {
+                    @Override
+                    public void begin(long size) {
+                        downstream.begin(-1);
+                    }
+
+                    @Override
+                    public void accept(int t) {
+                        accumulator.accept(w.next(classifier.apply(t)), t);
+                    }
+
+                    @Override
+                    public void end() {
+                        w.end();
+                        downstream.end();
+                    }
+                };
+            else
+                return new Sink.ChainedInt<R>(sink) {
+                    @Override
+                    public void begin(long size) {
+                        downstream.begin(-1);
+                    }
+
+                    @Override
+                    public void accept(int t) {
+                        A a = w.next();
+                        if (a != null) {
+                            accumulator.accept(a, t);
+                            w.added();
+                        }
+                    }
+
+                    @Override
+                    public void end() {
+                        w.end();
+                        downstream.end();
+                    }
+                };
+        }
+
+        @Override
+        Sink<Integer> leafSink(Leaf<A, R> leaf) {
+            return new Sink.OfInt() {
+                @Override
+                public void accept(int t) {
+                    accumulator.accept(leaf.next(), t);
+                }
+
+                @Override
+                public void end() {
+                    leaf.end();
+                }
+            };
+        }
+
+        /** Sink for sliding windows over an int stream. */
+        private static final class SlidingSink<A, R> extends Sink.ChainedInt<R> {
+            private final WindowOps.OfInt<A, R> op;
+            private int[] ring;     // the last op.size elements, allocated lazily
+            private int next;       // ring index of the next element
+            private int due;        // elements until the next window closes
+
+            SlidingSink(WindowOps.OfInt<A, R> op, Sink<? super R> downstream) {
+                super(downstream);
+                this.op = op;
+            }
+
+            @Override
+            public void begin(long size) {
+                due = op.size;
+                downstream.begin(-1);
+            }
+
+            @Override
+            public void accept(int t) {
+                int[] r = ring;
+                if (r == null)
+                    ring = r = new int[op.size];
+                r[next] = t;
+                if (++next == r.length)
+                    next = 0;
+                if (--due == 0) {
+                    due = op.step;
+                    A a = op.supplier.get();
+                    for (int i = next; i < r.length; i++)
+                        op.accumulator.accept(a, r[i]);
+                    for (int i = 0; i < next; i++)
+                        op.accumulator.accept(a, r[i]);
+                    downstream.accept(op.finisher.apply(a));
+                }
+            }
+
+            @Override
+            public void end() {
+                ring = null;
+                next = 0;
+                downstream.end();
+            }
+        }
+    }
+
+    /**
+     * A window operation over a long stream.
+     */
+    private static final class OfLong<A, R> extends WindowOp<Long, A, R> {
+        private final ObjLongConsumer<A> accumulator;
+        private final LongFunction<?> classifier;
+
+        OfLong(AbstractPipeline<?, Long, ?> upstream, int size, int step, boolean partial,
+               LongFunction<?> classifier, Supplier<A> supplier, ObjLongConsumer<A> accumulator,
+               BinaryOperator<A> combiner, Function<A, R> finisher) {
+            super(upstream, StreamShape.LONG_VALUE, size, step, partial,
+                  supplier, combiner, finisher);
+            this.accumulator = accumulator;
+            this.classifier = classifier;
+        }
+
+        @Override
+        Sink<Long> opWrapSink(int flags, Sink<R> sink) {
+            Objects.requireNonNull(sink);
+            if (step < size)
+                return new SlidingSink<>(this, sink);
+            Tumbler<A, R> w = new Tumbler<>(this, sink);
+            if (classifier != null)
+                return new Sink.ChainedLong<R>(sink) {
+                    @Override
+                    public void begin(long size) {
+                        downstream.begin(-1);
+                    }
+
+                    @Override
+                    public void accept(long t) {
+                        accumulator.accept(w.next(classifier.apply(t)), t);
+                    }
+
+                    @Override
+                    public void end() {
+                        w.end();
+                        downstream.end();
+                    }
+                };
+            else
+                return new Sink.ChainedLong<R>(sink) {
+                    @Override
+                    public void begin(long size) {
+                        downstream.begin(-1);
+                    }
+
+                    @Override
+                    public void accept(long t) {
+                        A a = w.next();
+                        if (a != null) {
+                            accumulator.accept(a, t);
+                            w.added();
+                        }
+                    }
+
+                    @Override
+                    public void end() {
+                        w.end();
+                        downstream.end();
+                    }
+                };
+        }
+
+        @Override
+        Sink<Long> leafSink(Leaf<A, R> leaf) {
+            return new Sink.OfLong() {
+                @Override
+                public void accept(long t) {
+                    accumulator.accept(leaf.next(), t);
+                }
+
+                @Override
+                public void end() {
+                    leaf.end();
+                }
+            };
+        }
+
+        /** Sink for sliding windows over a long stream. */
+        private static final class SlidingSink<A, R> extends Sink.ChainedLong<R> {
+            private final WindowOps.OfLong<A, R> op;
+            private long[] ring;    // the last op.size elements, allocated lazily
+            private int next;       // ring index of the next element
+            private int due;        // elements until the next window closes
+
+            SlidingSink(WindowOps.OfLong<A, R> op, Sink<? super R> downstream) {
+                super(downstream);
+                this.op = op;
+            }
+
+            @Override
+            public void begin(long size) {
+                due = op.size;
+                downstream.begin(-1);
+            }
+
+            @Override
+            public void accept(long t) {
+                long[] r = ring;
+                if (r == null)
+                    ring = r = new long[op.size];
+                r[next] = t;
+                if (++next == r.length)
+                    next = 0;
+                if (--due == 0) {
+                    due = op.step;
+                    A a = op.supplier.get();
+                    for (int i = next; i < r.length; i++)
+                        op.accumulator.accept(a, r[i]);
+                    for (int i = 0; i < next; i++)
+                        op.accumulator.accept(a, r[i]);
+                    downstream.accept(op.finisher.apply(a));
+                }
+            }
+
+            @Override
+            public void end() {
+                ring = null;
+                next = 0;
+                downstream.end();
+            }
+        }
+    }
+
+    /**
+     * A window operation over a double stream.
+     */
+    private static final class OfDouble<A, R> extends WindowOp<Double, A, R> {
+        private final ObjDoubleConsumer<A> accumulator;
+        private final DoubleFunction<?> classifier;
+
+        OfDouble(AbstractPipeline<?, Double, ?> upstream, int size, int step, boolean partial,
+                 DoubleFunction<?> classifier, Supplier<A> supplier, ObjDoubleConsumer<A> accumulator,
+                 BinaryOperator<A> combiner, Function<A, R> finisher) {
+            super(upstream, StreamShape.DOUBLE_VALUE, size, step, partial,
+                  supplier, combiner, finisher);
+            this.accumulator = accumulator;
+            this.classifier = classifier;
+        }
+
+        @Override
+        Sink<Double> opWrapSink(int flags, Sink<R> sink) {
+            Objects.requireNonNull(sink);
+            if (step < size)
+                return new SlidingSink<>(this, sink);
+            Tumbler<A, R> w = new Tumbler<>(this, sink);
+            if (classifier != null)
+                return new Sink.ChainedDouble<R>(sink) {
+                    @Override
+                    public void begin(long size) {
+                        downstream.begin(-1);
+                    }
+
+                    @Override
+                    public void accept(double t) {
+                        accumulator.accept(w.next(classifier.apply(t)), t);
+                    }
+
+                    @Override
+                    public void end() {
+                        w.end();
+                        downstream.end();
+                    }
+                };
+            else
+                return new Sink.ChainedDouble<R>(sink) {
+                    @Override
+                    public void begin(long size) {
+                        downstream.begin(-1);
+                    }
+
+                    @Override
+                    public void accept(double t) {
+                        A a = w.next();
+                        if (a != null) {
+                            accumulator.accept(a, t);
+                            w.added();
+                        }
+                    }
+
+                    @Override
+                    public void end() {
+                        w.end();
+                        downstream.end();
+                    }
+                };
+        }
+
+        @Override
+        Sink<Double> leafSink(Leaf<A, R> leaf) {
+            return new Sink.OfDouble() {
+                @Override
+                public void accept(double t) {
+                    accumulator.accept(leaf.next(), t);
+                }
+
+                @Override
+                public void end() {
+                    leaf.end();
+                }
+            };
+        }
+
+        /** Sink for sliding windows over a double stream. */
+        private static final class SlidingSink<A, R> extends Sink.ChainedDouble<R> {
+            private final WindowOps.OfDouble<A, R> op;
+            private double[] ring;  // the last op.size elements, allocated lazily
+            private int next;       // ring index of the next element
+            private int due;        // elements until the next window closes
+
+            SlidingSink(WindowOps.OfDouble<A, R> op, Sink<? super R> downstream) {
+                super(downstream);
+                this.op = op;
+            }
+
+            @Override
+            public void begin(long size) {
+                due = op.size;
+                downstream.begin(-1);
+            }
+
+            @Override
+            public void accept(double t) {
+                double[] r = ring;
+                if (r == null)
+                    ring = r = new double[op.size];
+                r[next] = t;
+                if (++next == r.length)
+                    next = 0;
+                if (--due == 0) {
+                    due = op.step;
+                    A a = op.supplier.get();
+                    for (int i = next; i < r.length; i++)
+                        op.accumulator.accept(a, r[i]);
+                    for (int i = 0; i < next; i++)
+                        op.accumulator.accept(a, r[i]);
+                    downstream.accept(op.finisher.apply(a));
+                }
+            }
+
+            @Override
+            public void end() {
+                ring = null;
+                next = 0;
+                downstream.end();
+            }
+        }
+    }
+
+    // Default implementations, for streams not built on AbstractPipeline
+
+    /**
+     * Returns a stream of the results of the given counted or keyed window
+     * operation on the given stream, for the default methods of
+     * {@link Stream}.  The windows are computed by a spliterator traversing
+     * the stream's spliterator sequentially.
+     *
+     * @param <T> the type of input elements
+     * @param <A> the mutable accumulation type of the collector
+     * @param <R> the type of window results
+     * @param stream the stream whose elements are windowed
+     * @param size the number of elements in a window, if counted
+     * @param step the number of elements from the start of one window to the
+     *        start of the next, if counted
+     * @param partial whether a final short window is reduced
+     * @param classifier the function computing the key of each element, or
+     *        null for counted windows
+     * @param collector the collector reducing each window
+     * @return the new stream
+     */
+    static <T, A, R> Stream<R> wrapRef(Stream<T> stream,
+                                       int size, int step, boolean partial,
+                                       Function<? super T, ?> classifier,
+                                       Collector<? super T, A, R> collector) {
+        return StreamSupport.stream(
+                new WindowSpliterator<>(stream.spliterator(), size, step,
+                                        partial, classifier, collector),
+                stream.isParallel()).onClose(stream::close);
+    }
+
+    /** Returns a collector summarizing int windows. */
+    static Collector<Integer, ?, IntSummaryStatistics> intSummary() {
+        return Collector.of(IntSummaryStatistics::new,
+                            IntSummaryStatistics::accept,
+                            (l, r) -> { l.combine(r); return l; });
+    }
+
+    /** Returns a collector summarizing long windows. */
+    static Collector<Long, ?, LongSummaryStatistics> longSummary() {
+        return Collector.of(LongSummaryStatistics::new,
+                            LongSummaryStatistics::accept,
+                            (l, r) -> { l.combine(r); return l; });
+    }
+
+    /** Returns a collector summarizing double windows. */
+    static Collector<Double, ?, DoubleSummaryStatistics> doubleSummary() {
+        return Collector.of(DoubleSummaryStatistics::new,
+                            DoubleSummaryStatistics::accept,
+                            (l, r) -> { l.combine(r); return l; });
+    }
+
+    /**
+     * A spliterator of window results, pulling elements from a source
+     * spliterator until a window closes.  Non-overlapping and keyed
+     * windows accumulate into the open container; sliding windows keep the
+     * last {@code size} elements in a ring, as the pipeline stages do.
+     * It does not split.
+     */
+    private static final class WindowSpliterator<T, A, R>
+            implements Spliterator<R>, Consumer<T> {
+        private final Spliterator<T> source;
+        private final int size, step;
+        private final boolean partial;
+        private final Function<? super T, ?> classifier;
+        private final Supplier<A> supplier;
+        private final BiConsumer<A, ? super T> accumulator;
+        private final Function<A, R> finisher;
+        private final Object[] ring;   // sliding windows only
+        private long seen;             // elements accepted
+        private A container;           // null if no window is open
+        private Object key;            // key of the open keyed window
+        private int filled;            // elements in the open counted window
+        private int skip;              // elements to drop before the next window
+        private boolean ready;         // whether result holds a closed window
+        private R result;
+
+        WindowSpliterator(Spliterator<T> source, int size, int step,
+                          boolean partial, Function<? super T, ?> classifier,
+                          Collector<? super T, A, R> collector) {
+            this.source = source;
+            this.size = size;
+            this.step = step;
+            this.partial = partial;
+            this.classifier = classifier;
+            this.supplier = collector.supplier();
+            this.accumulator = collector.accumulator();
+            this.finisher = collector.finisher();
+            this.ring = (classifier == null && step < size) ? new Object[size] : null;
+        }
+
+        @Override
+        public void accept(T t) {
+            if (classifier != null) {
+                Object k = classifier.apply(t);
+                if (container != null && !Objects.equals(k, key))
+                    emit();
+                if (container == null) {
+                    container = supplier.get();
+                    key = k;
+                }
+                accumulator.accept(container, t);
+            }
+            else if (ring != null) {
+                ring[(int) (seen++ % size)] = t;
+                if (seen >= size && (seen - size) % step == 0) {
+                    A a = supplier.get();
+                    for (int i = 0, j = (int) (seen % size); i < size; i++) {
+                        @SuppressWarnings("unchecked") T e = (T) ring[j];
+                        accumulator.accept(a, e);
+                        if (++j == size)
+                            j = 0;
+                    }
+                    container = a;
+                    emit();
+                }
+            }
+            else if (skip > 0)
+                --skip;
+            else {
+                if (container == null)
+                    container = supplier.get();
+                accumulator.accept(container, t);
+                if (++filled == size) {
+                    emit();
+                    skip = step - size;
+                }
+            }
+        }
+
+        private void emit() {
+            A a = container;
+            container = null;
+            key = null;
+            filled = 0;
+            result = finisher.apply(a);
+            ready = true;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super R> action) {
+            Objects.requireNonNull(action);
+            while (!ready && source.tryAdvance(this))
+                ;
+            if (!ready && container != null) {
+                if (partial)
+                    emit();
+                else
+                    container = null;
+            }
+            if (!ready)
+                return false;
+            R r = result;
+            result = null;
+            ready = false;
+            action.accept(r);
+            return true;
+        }
+
+        @Override
+        public Spliterator<R> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return source.characteristics() & Spliterator.ORDERED;
+        }
+    }
+}
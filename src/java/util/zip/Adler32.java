@@ -25,7 +25,10 @@
 
 package java.util.zip;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ForkJoinPool;
 import sun.nio.ch.DirectBuffer;
 
 /**
@@ -134,6 +137,64 @@ class Adler32 implements Checksum {
         return (long)adler & 0xffffffffL;
     }
 
+    /**
+     * Returns the Adler-32 checksum of the concatenation of two byte
+     * sequences, given the checksum of each and the length of the
+     * second.  This allows the checksum of data to be computed in parts,
+     * in any order or concurrently, and the results merged.
+     *
+     * @param adler1 the Adler-32 checksum of the first sequence
+     * @param adler2 the Adler-32 checksum of the second sequence
+     * @param len2 the length of the second sequence
+     * @return the Adler-32 checksum of the first sequence followed by
+     *         the second
+     * @throws IllegalArgumentException if {@code len2} is negative
+     * @since 9
+     */
+    public static long combine(long adler1, long adler2, long len2) {
+        // As zlib's adler32_combine: the second sum of the appended
+        // sequence is offset by len2 times the first sum of the first.
+        if (len2 < 0)
+            throw new IllegalArgumentException("negative length");
+        final long BASE = 65521L;   // largest prime smaller than 65536
+        long rem = len2 % BASE;
+        long sum1 = adler1 & 0xffff;
+        long sum2 = (rem * sum1) % BASE;
+        sum1 += (adler2 & 0xffff) + BASE - 1;
+        sum2 += ((adler1 >> 16) & 0xffff) + ((adler2 >> 16) & 0xffff) + BASE - rem;
+        if (sum1 >= BASE) sum1 -= BASE;
+        if (sum1 >= BASE) sum1 -= BASE;
+        if (sum2 >= (BASE << 1)) sum2 -= (BASE << 1);
+        if (sum2 >= BASE) sum2 -= BASE;
+        return sum1 | (sum2 << 16);
+    }
+
+    /**
+     * Returns the Adler-32 checksum of the given region of a file,
+     * computed in parallel in the given pool.  The region is divided
+     * into pieces which are memory-mapped and checksummed concurrently,
+     * and whose checksums are merged as if by {@link #combine}.  Each
+     * piece is unmapped as soon as it has been read.  The file must not
+     * be truncated while the checksum is computed.
+     *
+     * @param channel the channel of the file, open for reading
+     * @param position the position in the file of the start of the region
+     * @param size the length of the region, in bytes
+     * @param pool the pool in which to compute the checksum
+     * @return the Adler-32 checksum of the region
+     * @throws IllegalArgumentException if {@code position} or {@code
+     *         size} is negative
+     * @throws java.nio.channels.NonReadableChannelException if the
+     *         channel was not opened for reading
+     * @throws IOException if an I/O error occurs
+     * @since 9
+     */
+    public static long checksum(FileChannel channel, long position,
+                                long size, ForkJoinPool pool)
+        throws IOException {
+        return ChecksumTask.checksum(channel, position, size, pool, true);
+    }
+
     private native static int update(int adler, int b);
     private native static int updateBytes(int adler, byte[] b, int off,
                                           int len);
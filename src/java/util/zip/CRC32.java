@@ -25,7 +25,10 @@
 
 package java.util.zip;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ForkJoinPool;
 import sun.nio.ch.DirectBuffer;
 
 /**
@@ -131,6 +134,91 @@ class CRC32 implements Checksum {
         return (long)crc & 0xffffffffL;
     }
 
+    /**
+     * Returns the CRC-32 of the concatenation of two byte sequences,
+     * given the CRC-32 of each and the length of the second.  This
+     * allows the checksum of data to be computed in parts, in any order
+     * or concurrently, and the results merged.  The time taken is
+     * logarithmic in {@code len2}.
+     *
+     * @param crc1 the CRC-32 of the first sequence
+     * @param crc2 the CRC-32 of the second sequence
+     * @param len2 the length of the second sequence
+     * @return the CRC-32 of the first sequence followed by the second
+     * @throws IllegalArgumentException if {@code len2} is negative
+     * @since 9
+     */
+    public static long combine(long crc1, long crc2, long len2) {
+        // As zlib's crc32_combine: appending len2 zero bytes is a linear
+        // operator on the register, applied here by repeated squaring
+        // of the one-zero-bit operator.
+        if (len2 < 0)
+            throw new IllegalArgumentException("negative length");
+        if (len2 == 0)
+            return crc1 & 0xffffffffL;
+        int[] even = new int[32];   // even-power-of-two zeros operator
+        int[] odd = new int[32];    // odd-power-of-two zeros operator
+        odd[0] = 0xedb88320;        // CRC-32 polynomial
+        for (int n = 1, row = 1; n < 32; n++, row <<= 1)
+            odd[n] = row;
+        gf2MatrixSquare(even, odd); // two zero bits
+        gf2MatrixSquare(odd, even); // four zero bits
+        int c = (int)crc1;
+        do {                        // one zero byte, then doubling
+            gf2MatrixSquare(even, odd);
+            if ((len2 & 1) != 0)
+                c = gf2MatrixTimes(even, c);
+            len2 >>= 1;
+            if (len2 == 0)
+                break;
+            gf2MatrixSquare(odd, even);
+            if ((len2 & 1) != 0)
+                c = gf2MatrixTimes(odd, c);
+            len2 >>= 1;
+        } while (len2 != 0);
+        return (long)(c ^ (int)crc2) & 0xffffffffL;
+    }
+
+    /**
+     * Returns the CRC-32 of the given region of a file, computed in
+     * parallel in the given pool.  The region is divided into pieces
+     * which are memory-mapped and checksummed concurrently, and whose
+     * checksums are merged as if by {@link #combine}.  Each piece is
+     * unmapped as soon as it has been read.  The file must not be
+     * truncated while the checksum is computed.
+     *
+     * @param channel the channel of the file, open for reading
+     * @param position the position in the file of the start of the region
+     * @param size the length of the region, in bytes
+     * @param pool the pool in which to compute the checksum
+     * @return the CRC-32 of the region
+     * @throws IllegalArgumentException if {@code position} or {@code
+     *         size} is negative
+     * @throws java.nio.channels.NonReadableChannelException if the
+     *         channel was not opened for reading
+     * @throws IOException if an I/O error occurs
+     * @since 9
+     */
+    public static long checksum(FileChannel channel, long position,
+                                long size, ForkJoinPool pool)
+        throws IOException {
+        return ChecksumTask.checksum(channel, position, size, pool, false);
+    }
+
+    private static int gf2MatrixTimes(int[] mat, int vec) {
+        int sum = 0;
+        for (int i = 0; vec != 0; i++, vec >>>= 1) {
+            if ((vec & 1) != 0)
+                sum ^= mat[i];
+        }
+        return sum;
+    }
+
+    private static void gf2MatrixSquare(int[] square, int[] mat) {
+        for (int n = 0; n < 32; n++)
+            square[n] = gf2MatrixTimes(mat, mat[n]);
+    }
+
     private native static int update(int crc, int b);
     private native static int updateBytes(int crc, byte[] b, int off, int len);
 
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+
+package java.util.zip;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import sun.nio.ch.MappedBuffers;
+
+/**
+ * Computes the CRC-32 or Adler-32 checksum of a region of a file in
+ * parallel.  The region is split in halves until no larger than
+ * REGION_SIZE; each piece is memory-mapped, checksummed through the
+ * direct buffer path of the checksum class, and unmapped at once, and
+ * the checksums of adjacent pieces are merged with {@link
+ * CRC32#combine} or {@link Adler32#combine}.
+ */
+final class ChecksumTask extends RecursiveTask<Long> {
+    private static final long serialVersionUID = -2475383628390187393L;
+
+    /** The largest piece mapped and checksummed by one task. */
+    static final long REGION_SIZE = 8L << 20;
+
+    final FileChannel channel;
+    final long position;
+    final long size;
+    final boolean adler;        // Adler-32 if true, else CRC-32
+
+    ChecksumTask(FileChannel channel, long position, long size,
+                 boolean adler) {
+        this.channel = channel;
+        this.position = position;
+        this.size = size;
+        this.adler = adler;
+    }
+
+    /**
+     * Returns the checksum of the given region, computed in the given
+     * pool.
+     */
+    static long checksum(FileChannel channel, long position, long size,
+                         ForkJoinPool pool, boolean adler)
+        throws IOException {
+        if (channel == null || pool == null)
+            throw new NullPointerException();
+        if (position < 0L || size < 0L || position + size < 0L)
+            throw new IllegalArgumentException();
+        try {
+            return pool.invoke(new ChecksumTask(channel, position, size,
+                                                adler));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    protected Long compute() {
+        if (size > REGION_SIZE) {
+            long half = size >>> 1;
+            ChecksumTask right = new ChecksumTask(channel, position + half,
+                                                  size - half, adler);
+            right.fork();
+            long l = new ChecksumTask(channel, position, half, adler).compute();
+            long r = right.join();
+            return adler ? Adler32.combine(l, r, size - half)
+                         : CRC32.combine(l, r, size - half);
+        }
+        MappedByteBuffer b;
+        try {
+            b = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            if (adler) {
+                Adler32 c = new Adler32();
+                c.update(b);
+                return c.getValue();
+            } else {
+                CRC32 c = new CRC32();
+                c.update(b);
+                return c.getValue();
+            }
+        } finally {
+            MappedBuffers.unmap(b);
+        }
+    }
+}
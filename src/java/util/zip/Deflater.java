@@ -25,6 +25,9 @@
 
 package java.util.zip;
 
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+
 /**
  * This class provides support for general purpose compression using the
  * popular ZLIB compression library. The ZLIB compression library was
@@ -74,7 +77,9 @@ public
 class Deflater {
 
     private final ZStreamRef zsRef;
-    private byte[] buf = new byte[0];
+    final boolean nowrap;       // as constructed; used by ZStreamPool
+    private boolean pooled;     // idle in ZStreamPool; guarded by zsRef
+    private byte[] buf = defaultBuf;
     private int off, len;
     private int level, strategy;
     private boolean setParams;
@@ -82,6 +87,22 @@ class Deflater {
     private long bytesRead;
     private long bytesWritten;
 
+    private static final byte[] defaultBuf = new byte[0];
+
+    /*
+     * Input set as a ByteBuffer, or null.  The native code reads only
+     * buf[off, off+len), so that window is loaded from the buffer as it
+     * empties: a buffer with an accessible array is used in place, and
+     * any other is copied a part at a time to inStage.  The position of
+     * the buffer is advanced as its bytes are consumed.
+     */
+    private ByteBuffer input;
+    private byte[] inStage;
+    private byte[] outStage;    // staging for direct output buffers
+
+    /** The size of the staging arrays for non-array buffers. */
+    private static final int STAGE_SIZE = 16 * 1024;
+
     /**
      * Compression method for the deflate algorithm (the only one currently
      * supported).
@@ -169,6 +190,7 @@ class Deflater {
         this.level = level;
         this.strategy = DEFAULT_STRATEGY;
         this.zsRef = new ZStreamRef(init(level, DEFAULT_STRATEGY, nowrap));
+        this.nowrap = nowrap;
     }
 
     /**
@@ -204,12 +226,62 @@ class Deflater {
             throw new ArrayIndexOutOfBoundsException();
         }
         synchronized (zsRef) {
+            this.input = null;
             this.buf = b;
             this.off = off;
             this.len = len;
         }
     }
 
+    /**
+     * Sets input data for compression. This should be called whenever
+     * needsInput() returns true indicating that more input data is required.
+     * <p>
+     * The input bytes are those between the buffer's position and its
+     * limit.  The buffer's position is advanced as input is consumed by
+     * deflate operations; the buffer must not be modified until all its
+     * input has been consumed or new input is set.  The contents of a
+     * buffer with an accessible array are read in place.
+     *
+     * @param input the input data bytes
+     * @see Deflater#needsInput
+     * @since 9
+     */
+    public void setInput(ByteBuffer input) {
+        if (input == null) {
+            throw new NullPointerException();
+        }
+        synchronized (zsRef) {
+            this.input = input;
+            this.off = this.len = 0;
+        }
+    }
+
+    /*
+     * Loads the next window of a ByteBuffer input, if the current one
+     * has been consumed.
+     */
+    private void loadInput() {
+        assert Thread.holdsLock(zsRef);
+        ByteBuffer in = input;
+        if (in != null && len == 0 && in.hasRemaining()) {
+            int rem = in.remaining();
+            if (in.hasArray()) {
+                buf = in.array();
+                off = in.arrayOffset() + in.position();
+                len = rem;
+            } else {
+                if (inStage == null)
+                    inStage = new byte[STAGE_SIZE];
+                int n = Math.min(rem, STAGE_SIZE);
+                in.duplicate().get(inStage, 0, n);
+                buf = inStage;
+                off = 0;
+                len = n;
+            }
+        }
+    }
+
     /**
      * Sets input data for compression. This should be called whenever
      * needsInput() returns true indicating that more input data is required.
@@ -319,7 +391,7 @@ class Deflater {
      */
     public boolean needsInput() {
         synchronized (zsRef) {
-            return len <= 0;
+            return len <= 0 && (input == null || !input.hasRemaining());
         }
     }
 
@@ -440,16 +512,108 @@ class Deflater {
             ensureOpen();
             if (flush == NO_FLUSH || flush == SYNC_FLUSH ||
                 flush == FULL_FLUSH) {
-                int thisLen = this.len;
-                int n = deflateBytes(zsRef.address(), b, off, len, flush);
-                bytesWritten += n;
-                bytesRead += (thisLen - this.len);
+                int n = 0;
+                do {
+                    // Windows of a ByteBuffer input are taken in turn
+                    loadInput();
+                    int thisLen = this.len;
+                    int k;
+                    if (input != null && input.remaining() > thisLen) {
+                        // Not the last window: neither flush nor finish,
+                        // which the native code reads from the field
+                        boolean fin = finish;
+                        finish = false;
+                        k = deflateBytes(zsRef.address(), b, off + n, len - n,
+                                         NO_FLUSH);
+                        finish = fin;
+                    } else {
+                        k = deflateBytes(zsRef.address(), b, off + n, len - n,
+                                         flush);
+                    }
+                    n += k;
+                    bytesWritten += k;
+                    bytesRead += (thisLen - this.len);
+                    if (input != null)
+                        input.position(input.position() + (thisLen - this.len));
+                } while (input != null && this.len == 0 &&
+                         input.hasRemaining() && n < len && !finished);
                 return n;
             }
             throw new IllegalArgumentException();
         }
     }
 
+    /**
+     * Compresses the input data and fills the specified buffer with
+     * compressed data. Returns actual number of bytes of compressed data.
+     * A return value of 0 indicates that {@link #needsInput() needsInput}
+     * should be called in order to determine if more input data is
+     * required.
+     *
+     * <p>This method uses {@link #NO_FLUSH} as its compression flush mode.
+     * An invocation of this method of the form {@code deflater.deflate(output)}
+     * yields the same result as the invocation of
+     * {@code deflater.deflate(output, Deflater.NO_FLUSH)}.
+     *
+     * @param output the buffer for the compressed data
+     * @return the actual number of bytes of compressed data written to the
+     *         output buffer
+     * @throws ReadOnlyBufferException if the buffer is read-only
+     * @since 9
+     */
+    public int deflate(ByteBuffer output) {
+        return deflate(output, NO_FLUSH);
+    }
+
+    /**
+     * Compresses the input data and fills the specified buffer with
+     * compressed data. Returns actual number of bytes of data compressed.
+     * The flush modes are as for {@link #deflate(byte[], int, int, int)}.
+     * <p>
+     * The compressed bytes are written from the buffer's position up to
+     * at most its limit, and the position is advanced past them.  In the
+     * case of {@link #FULL_FLUSH} or {@link #SYNC_FLUSH}, if the buffer
+     * has no space remaining on return, this method should be invoked
+     * again with the same {@code flush} parameter and more output space.
+     * A buffer with an accessible array is written in place.
+     *
+     * @param output the buffer for the compressed data
+     * @param flush the compression flush mode
+     * @return the actual number of bytes of compressed data written to
+     *         the output buffer
+     * @throws IllegalArgumentException if the flush mode is invalid
+     * @throws ReadOnlyBufferException if the buffer is read-only
+     * @since 9
+     */
+    public int deflate(ByteBuffer output, int flush) {
+        if (output.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        synchronized (zsRef) {
+            int pos = output.position();
+            int rem = output.remaining();
+            if (output.hasArray()) {
+                int n = deflate(output.array(), output.arrayOffset() + pos,
+                                rem, flush);
+                output.position(pos + n);
+                return n;
+            }
+            if (outStage == null)
+                outStage = new byte[STAGE_SIZE];
+            int n = 0;
+            do {
+                int chunk = Math.min(rem, STAGE_SIZE);
+                int k = deflate(outStage, 0, chunk, flush);
+                output.put(outStage, 0, k);
+                n += k;
+                rem -= k;
+                if (k < chunk)
+                    break;
+            } while (rem > 0);
+            return n;
+        }
+    }
+
     /**
      * Returns the ADLER-32 value of the uncompressed data.
      * @return the ADLER-32 value of the uncompressed data
@@ -521,6 +685,8 @@ class Deflater {
         synchronized (zsRef) {
             ensureOpen();
             reset(zsRef.address());
+            buf = defaultBuf;
+            input = null;
             finish = false;
             finished = false;
             off = len = 0;
@@ -542,6 +708,7 @@ class Deflater {
             if (addr != 0) {
                 end(addr);
                 buf = null;
+                input = null;
             }
         }
     }
@@ -559,6 +726,37 @@ class Deflater {
             throw new NullPointerException("Deflater has been closed");
     }
 
+    boolean ended() {
+        synchronized (zsRef) {
+            return zsRef.address() == 0;
+        }
+    }
+
+    /*
+     * Sets whether this deflater is idle in the ZStreamPool, returning false
+     * if it already was in that state.
+     */
+    boolean setPooled(boolean b) {
+        synchronized (zsRef) {
+            if (pooled == b)
+                return false;
+            pooled = b;
+            return true;
+        }
+    }
+
+    int level() {
+        synchronized (zsRef) {
+            return level;
+        }
+    }
+
+    int strategy() {
+        synchronized (zsRef) {
+            return strategy;
+        }
+    }
+
     private static native void initIDs();
     private native static long init(int level, int strategy, boolean nowrap);
     private native static void setDictionary(long addr, byte[] b, int off, int len);
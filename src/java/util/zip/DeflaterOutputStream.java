@@ -159,7 +159,8 @@ class DeflaterOutputStream extends FilterOutputStream {
      * @since 1.7
      */
     public DeflaterOutputStream(OutputStream out, boolean syncFlush) {
-        this(out, new Deflater(), 512, syncFlush);
+        this(out, ZStreamPool.getDeflater(Deflater.DEFAULT_COMPRESSION, false),
+             512, syncFlush);
         usesDefaultDeflater = true;
     }
 
@@ -197,7 +198,7 @@ class DeflaterOutputStream extends FilterOutputStream {
      * @exception IOException if an I/O error has occurred
      */
     public void write(byte[] b, int off, int len) throws IOException {
-        if (def.finished()) {
+        if (closed || def.finished()) {
             throw new IOException("write beyond end of stream");
         }
         if ((off | len | (off + len) | (b.length - (off + len))) < 0) {
@@ -220,7 +221,7 @@ class DeflaterOutputStream extends FilterOutputStream {
      * @exception IOException if an I/O error has occurred
      */
     public void finish() throws IOException {
-        if (!def.finished()) {
+        if (!closed && !def.finished()) {
             def.finish();
             while (!def.finished()) {
                 deflate();
@@ -230,16 +231,25 @@ class DeflaterOutputStream extends FilterOutputStream {
 
     /**
      * Writes remaining compressed data to the output stream and closes the
-     * underlying stream.
+     * underlying stream.  If the compressor was created by this stream it is
+     * returned to the {@link ZStreamPool}, where it may at once be taken by
+     * another stream; subclasses must not use {@link #def} once the stream
+     * is closed.
      * @exception IOException if an I/O error has occurred
      */
     public void close() throws IOException {
         if (!closed) {
             finish();
-            if (usesDefaultDeflater)
-                def.end();
-            out.close();
             closed = true;
+            try {
+                if (usesDefaultDeflater) {
+                    Deflater def = this.def;
+                    this.def = null;
+                    ZStreamPool.releaseDeflater(def);
+                }
+            } finally {
+                out.close();
+            }
         }
     }
 
@@ -270,7 +280,7 @@ class DeflaterOutputStream extends FilterOutputStream {
      * @since 1.7
      */
     public void flush() throws IOException {
-        if (syncFlush && !def.finished()) {
+        if (syncFlush && !closed && !def.finished()) {
             int len = 0;
             while ((len = def.deflate(buf, 0, buf.length, Deflater.SYNC_FLUSH)) > 0)
             {
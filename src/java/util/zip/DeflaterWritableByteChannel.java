@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+
+package java.util.zip;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * A channel that compresses data in the "deflate" compression format and
+ * writes it to another channel, the channel counterpart of {@link
+ * DeflaterOutputStream}.  The {@link Deflater} reads the buffers passed to
+ * {@link #write} in place and writes compressed data into a buffer that
+ * is written to the target channel, so no intermediate byte arrays are
+ * involved.
+ *
+ * <p>Compressed data is written completely before each method returns,
+ * so the target channel should be in blocking mode.  Like the streams of
+ * this package, this channel is not safe for use by multiple concurrent
+ * threads.
+ *
+ * @see DeflaterOutputStream
+ * @see InflaterReadableByteChannel
+ * @since 9
+ */
+public class DeflaterWritableByteChannel implements WritableByteChannel {
+    private final WritableByteChannel ch;
+    private final Deflater def;
+    private final ByteBuffer buf;       // compressed output
+    private final boolean usesDefaultDeflater;
+    private boolean closed;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private DeflaterWritableByteChannel(WritableByteChannel ch, Deflater def,
+                                        int size, boolean usesDefaultDeflater) {
+        if (ch == null || def == null) {
+            throw new NullPointerException();
+        } else if (size <= 0) {
+            throw new IllegalArgumentException("buffer size <= 0");
+        }
+        this.ch = ch;
+        this.def = def;
+        this.buf = ByteBuffer.allocate(size);
+        this.usesDefaultDeflater = usesDefaultDeflater;
+    }
+
+    /**
+     * Creates a new channel with the specified compressor and
+     * buffer size.
+     * @param ch the channel to which to write compressed data
+     * @param def the compressor ("deflater")
+     * @param size the output buffer size
+     * @exception IllegalArgumentException if {@code size <= 0}
+     */
+    public DeflaterWritableByteChannel(WritableByteChannel ch, Deflater def,
+                                       int size) {
+        this(ch, def, size, false);
+    }
+
+    /**
+     * Creates a new channel with the specified compressor and a default
+     * buffer size.
+     * @param ch the channel to which to write compressed data
+     * @param def the compressor ("deflater")
+     */
+    public DeflaterWritableByteChannel(WritableByteChannel ch, Deflater def) {
+        this(ch, def, 8192, false);
+    }
+
+    /**
+     * Creates a new channel with a default compressor and buffer size.
+     * The compressor is returned to the {@link ZStreamPool} when the
+     * channel is closed.
+     * @param ch the channel to which to write compressed data
+     */
+    public DeflaterWritableByteChannel(WritableByteChannel ch) {
+        this(ch, ZStreamPool.getDeflater(Deflater.DEFAULT_COMPRESSION, false),
+             8192, true);
+    }
+
+    /**
+     * Compresses all the remaining bytes of the given buffer, writing
+     * compressed data to the target channel as it is produced.
+     *
+     * @param src the buffer from which bytes are to be retrieved
+     * @return the number of bytes consumed, which is the number that
+     *         were remaining in the buffer
+     * @exception ClosedChannelException if this channel is closed
+     * @exception IOException if {@link #finish} has been invoked, or an
+     *            I/O error has occurred
+     */
+    public int write(ByteBuffer src) throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        if (def.finished()) {
+            throw new IOException("write beyond end of stream");
+        }
+        int n = src.remaining();
+        if (n > 0) {
+            def.setInput(src);
+            while (!def.needsInput()) {
+                deflate(Deflater.NO_FLUSH);
+            }
+            def.setInput(EMPTY);    // do not keep hold of the caller's buffer
+        }
+        return n;
+    }
+
+    /**
+     * Finishes writing compressed data to the target channel without
+     * closing it.
+     * @exception IOException if an I/O error has occurred
+     */
+    public void finish() throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        if (!def.finished()) {
+            def.finish();
+            while (!def.finished()) {
+                deflate(Deflater.NO_FLUSH);
+            }
+        }
+    }
+
+    /**
+     * Flushes the compressor with flush mode {@link Deflater#SYNC_FLUSH},
+     * writing all data compressed so far to the target channel, so that
+     * it can be decompressed without waiting for further input.
+     * @exception IOException if an I/O error has occurred
+     */
+    public void flush() throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        if (!def.finished()) {
+            while (deflate(Deflater.SYNC_FLUSH) == buf.capacity())
+                ;
+        }
+    }
+
+    /*
+     * Compresses into the output buffer and writes the result to the
+     * target channel, returning the number of bytes written.
+     */
+    private int deflate(int flush) throws IOException {
+        buf.clear();
+        int n = def.deflate(buf, flush);
+        buf.flip();
+        while (buf.hasRemaining()) {
+            ch.write(buf);
+        }
+        return n;
+    }
+
+    public boolean isOpen() {
+        return !closed;
+    }
+
+    /**
+     * Finishes writing compressed data and closes this channel and the
+     * target channel, returning the compressor to the {@link ZStreamPool}
+     * if it was created by this channel.
+     * @exception IOException if an I/O error has occurred
+     */
+    public void close() throws IOException {
+        if (!closed) {
+            try {
+                finish();
+            } finally {
+                closed = true;
+                if (usesDefaultDeflater)
+                    ZStreamPool.releaseDeflater(def);
+                ch.close();
+            }
+        }
+    }
+}
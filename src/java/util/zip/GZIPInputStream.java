@@ -74,7 +74,7 @@ class GZIPInputStream extends InflaterInputStream {
      * @exception IllegalArgumentException if {@code size <= 0}
      */
     public GZIPInputStream(InputStream in, int size) throws IOException {
-        super(in, new Inflater(true), size);
+        super(in, ZStreamPool.getInflater(true), size);
         usesDefaultInflater = true;
         readHeader(in);
     }
@@ -128,7 +128,9 @@ class GZIPInputStream extends InflaterInputStream {
 
     /**
      * Closes this input stream and releases any system resources associated
-     * with the stream.
+     * with the stream.  The decompressor is returned to the {@link
+     * ZStreamPool}; subclasses must not use {@link #inf} once the stream is
+     * closed.
      * @exception IOException if an I/O error has occurred
      */
     public void close() throws IOException {
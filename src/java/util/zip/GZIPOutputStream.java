@@ -27,6 +27,7 @@ package java.util.zip;
 
 import java.io.OutputStream;
 import java.io.IOException;
+import java.util.concurrent.ExecutorService;
 
 /**
  * This class implements a stream filter for writing compressed data in
@@ -52,6 +53,12 @@ class GZIPOutputStream extends DeflaterOutputStream {
      */
     private final static int TRAILER_SIZE = 8;
 
+    /*
+     * The compressor used instead of the inherited deflater, if
+     * compressing in parallel.
+     */
+    private ParallelDeflater pdef;
+
     /**
      * Creates a new output stream with the specified buffer size.
      *
@@ -87,7 +94,7 @@ class GZIPOutputStream extends DeflaterOutputStream {
     public GZIPOutputStream(OutputStream out, int size, boolean syncFlush)
         throws IOException
     {
-        super(out, new Deflater(Deflater.DEFAULT_COMPRESSION, true),
+        super(out, ZStreamPool.getDeflater(Deflater.DEFAULT_COMPRESSION, true),
               size,
               syncFlush);
         usesDefaultDeflater = true;
@@ -131,6 +138,30 @@ class GZIPOutputStream extends DeflaterOutputStream {
         this(out, 512, syncFlush);
     }
 
+    /**
+     * Creates a new output stream that compresses on the given executor.
+     * The input is divided into blocks of 128K which are deflated in
+     * parallel, each primed with the end of the preceding block, and
+     * joined into a single standard GZIP member.  The output differs
+     * from, and is slightly larger than, that of a serial stream.
+     * Compressed data is written as blocks are completed, so flushing
+     * this stream does not force out data still being compressed.  The
+     * {@link #crc} field is not maintained by a parallel stream.
+     *
+     * @param out the output stream
+     * @param executor the executor to run compression tasks
+     * @exception IOException If an I/O error has occurred.
+     *
+     * @since 9
+     */
+    public GZIPOutputStream(OutputStream out, ExecutorService executor)
+        throws IOException
+    {
+        this(out, 512, false);
+        pdef = new ParallelDeflater(out, executor,
+                                    Deflater.DEFAULT_COMPRESSION);
+    }
+
     /**
      * Writes array of bytes to the compressed output stream. This method
      * will block until all the bytes are written.
@@ -142,6 +173,10 @@ class GZIPOutputStream extends DeflaterOutputStream {
     public synchronized void write(byte[] buf, int off, int len)
         throws IOException
     {
+        if (pdef != null) {
+            pdef.write(buf, off, len);
+            return;
+        }
         super.write(buf, off, len);
         crc.update(buf, off, len);
     }
@@ -153,7 +188,16 @@ class GZIPOutputStream extends DeflaterOutputStream {
      * @exception IOException if an I/O error has occurred
      */
     public void finish() throws IOException {
-        if (!def.finished()) {
+        if (pdef != null) {
+            if (!pdef.finished()) {
+                pdef.finish();
+                byte[] trailer = new byte[TRAILER_SIZE];
+                writeTrailer(trailer, 0);
+                out.write(trailer);
+            }
+            return;
+        }
+        if (def != null && !def.finished()) {
             def.finish();
             while (!def.finished()) {
                 int len = def.deflate(buf, 0, buf.length);
@@ -198,6 +242,11 @@ class GZIPOutputStream extends DeflaterOutputStream {
      * offset.
      */
     private void writeTrailer(byte[] buf, int offset) throws IOException {
+        if (pdef != null) {
+            writeInt((int)pdef.getCrc(), buf, offset);
+            writeInt((int)pdef.getBytesRead(), buf, offset + 4);
+            return;
+        }
         writeInt((int)crc.getValue(), buf, offset); // CRC-32 of uncompr. data
         writeInt(def.getTotalIn(), buf, offset + 4); // Number of uncompr. bytes
     }
@@ -25,6 +25,9 @@
 
 package java.util.zip;
 
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+
 /**
  * This class provides support for general purpose decompression using the
  * popular ZLIB compression library. The ZLIB compression library was
@@ -74,6 +77,8 @@ public
 class Inflater {
 
     private final ZStreamRef zsRef;
+    final boolean nowrap;       // as constructed; used by ZStreamPool
+    private boolean pooled;     // idle in ZStreamPool; guarded by zsRef
     private byte[] buf = defaultBuf;
     private int off, len;
     private boolean finished;
@@ -83,6 +88,20 @@ class Inflater {
 
     private static final byte[] defaultBuf = new byte[0];
 
+    /*
+     * Input set as a ByteBuffer, or null.  The native code reads only
+     * buf[off, off+len), so that window is loaded from the buffer as it
+     * empties: a buffer with an accessible array is used in place, and
+     * any other is copied a part at a time to inStage.  The position of
+     * the buffer is advanced as its bytes are consumed.
+     */
+    private ByteBuffer input;
+    private byte[] inStage;
+    private byte[] outStage;    // staging for direct output buffers
+
+    /** The size of the staging arrays for non-array buffers. */
+    private static final int STAGE_SIZE = 16 * 1024;
+
     static {
         /* Zip library is loaded from System.initializeSystemClass */
         initIDs();
@@ -101,6 +120,7 @@ class Inflater {
      */
     public Inflater(boolean nowrap) {
         zsRef = new ZStreamRef(init(nowrap));
+        this.nowrap = nowrap;
     }
 
     /**
@@ -127,12 +147,64 @@ class Inflater {
             throw new ArrayIndexOutOfBoundsException();
         }
         synchronized (zsRef) {
+            this.input = null;
             this.buf = b;
             this.off = off;
             this.len = len;
         }
     }
 
+    /**
+     * Sets input data for decompression. Should be called whenever
+     * needsInput() returns true indicating that more input data is
+     * required.
+     * <p>
+     * The input bytes are those between the buffer's position and its
+     * limit.  The buffer's position is advanced as input is consumed by
+     * inflate operations; the buffer must not be modified until all its
+     * input has been consumed or new input is set.  The contents of a
+     * buffer with an accessible array are read in place.
+     *
+     * @param input the input data bytes
+     * @see Inflater#needsInput
+     * @since 9
+     */
+    public void setInput(ByteBuffer input) {
+        if (input == null) {
+            throw new NullPointerException();
+        }
+        synchronized (zsRef) {
+            this.input = input;
+            this.buf = defaultBuf;
+            this.off = this.len = 0;
+        }
+    }
+
+    /*
+     * Loads the next window of a ByteBuffer input, if the current one
+     * has been consumed.
+     */
+    private void loadInput() {
+        assert Thread.holdsLock(zsRef);
+        ByteBuffer in = input;
+        if (in != null && len == 0 && in.hasRemaining()) {
+            int rem = in.remaining();
+            if (in.hasArray()) {
+                buf = in.array();
+                off = in.arrayOffset() + in.position();
+                len = rem;
+            } else {
+                if (inStage == null)
+                    inStage = new byte[STAGE_SIZE];
+                int n = Math.min(rem, STAGE_SIZE);
+                in.duplicate().get(inStage, 0, n);
+                buf = inStage;
+                off = 0;
+                len = n;
+            }
+        }
+    }
+
     /**
      * Sets input data for decompression. Should be called whenever
      * needsInput() returns true indicating that more input data is
@@ -190,7 +262,7 @@ class Inflater {
      */
     public int getRemaining() {
         synchronized (zsRef) {
-            return len;
+            return (input != null) ? input.remaining() : len;
         }
     }
 
@@ -202,7 +274,7 @@ class Inflater {
      */
     public boolean needsInput() {
         synchronized (zsRef) {
-            return len <= 0;
+            return len <= 0 && (input == null || !input.hasRemaining());
         }
     }
 
@@ -255,10 +327,67 @@ class Inflater {
         }
         synchronized (zsRef) {
             ensureOpen();
-            int thisLen = this.len;
-            int n = inflateBytes(zsRef.address(), b, off, len);
-            bytesWritten += n;
-            bytesRead += (thisLen - this.len);
+            int n = 0;
+            do {
+                // Windows of a ByteBuffer input are taken in turn
+                loadInput();
+                int thisLen = this.len;
+                int k = inflateBytes(zsRef.address(), b, off + n, len - n);
+                n += k;
+                bytesWritten += k;
+                bytesRead += (thisLen - this.len);
+                if (input != null)
+                    input.position(input.position() + (thisLen - this.len));
+            } while (input != null && this.len == 0 && input.hasRemaining() &&
+                     n < len && !finished && !needDict);
+            return n;
+        }
+    }
+
+    /**
+     * Uncompresses bytes into the specified buffer. Returns actual number
+     * of bytes uncompressed. A return value of 0 indicates that
+     * needsInput() or needsDictionary() should be called in order to
+     * determine if more input data or a preset dictionary is required.
+     * In the latter case, getAdler() can be used to get the Adler-32
+     * value of the dictionary required.
+     * <p>
+     * The uncompressed bytes are written from the buffer's position up
+     * to at most its limit, and the position is advanced past them.  A
+     * buffer with an accessible array is written in place.
+     *
+     * @param output the buffer for the uncompressed data
+     * @return the actual number of uncompressed bytes
+     * @exception DataFormatException if the compressed data format is invalid
+     * @throws ReadOnlyBufferException if the buffer is read-only
+     * @see Inflater#needsInput
+     * @see Inflater#needsDictionary
+     * @since 9
+     */
+    public int inflate(ByteBuffer output) throws DataFormatException {
+        if (output.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        synchronized (zsRef) {
+            int pos = output.position();
+            int rem = output.remaining();
+            if (output.hasArray()) {
+                int n = inflate(output.array(), output.arrayOffset() + pos, rem);
+                output.position(pos + n);
+                return n;
+            }
+            if (outStage == null)
+                outStage = new byte[STAGE_SIZE];
+            int n = 0;
+            while (rem > 0) {
+                int chunk = Math.min(rem, STAGE_SIZE);
+                int k = inflate(outStage, 0, chunk);
+                output.put(outStage, 0, k);
+                n += k;
+                rem -= k;
+                if (k < chunk)
+                    break;
+            }
             return n;
         }
     }
@@ -351,6 +480,7 @@ class Inflater {
             ensureOpen();
             reset(zsRef.address());
             buf = defaultBuf;
+            input = null;
             finished = false;
             needDict = false;
             off = len = 0;
@@ -372,6 +502,7 @@ class Inflater {
             if (addr != 0) {
                 end(addr);
                 buf = null;
+                input = null;
             }
         }
     }
@@ -395,6 +526,19 @@ class Inflater {
         }
     }
 
+    /*
+     * Sets whether this inflater is idle in the ZStreamPool, returning false
+     * if it already was in that state.
+     */
+    boolean setPooled(boolean b) {
+        synchronized (zsRef) {
+            if (pooled == b)
+                return false;
+            pooled = b;
+            return true;
+        }
+    }
+
     private native static void initIDs();
     private native static long init(boolean nowrap);
     private native static void setDictionary(long addr, byte[] b, int off,
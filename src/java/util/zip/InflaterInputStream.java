@@ -105,7 +105,7 @@ class InflaterInputStream extends FilterInputStream {
      * @param in the input stream
      */
     public InflaterInputStream(InputStream in) {
-        this(in, new Inflater());
+        this(in, ZStreamPool.getInflater(false));
         usesDefaultInflater = true;
     }
 
@@ -217,15 +217,24 @@ class InflaterInputStream extends FilterInputStream {
 
     /**
      * Closes this input stream and releases any system resources associated
-     * with the stream.
+     * with the stream.  If the decompressor was created by this stream it is
+     * returned to the {@link ZStreamPool}, where it may at once be taken by
+     * another stream; subclasses must not use {@link #inf} once the stream
+     * is closed.
      * @exception IOException if an I/O error has occurred
      */
     public void close() throws IOException {
         if (!closed) {
-            if (usesDefaultInflater)
-                inf.end();
-            in.close();
             closed = true;
+            try {
+                if (usesDefaultInflater) {
+                    Inflater inf = this.inf;
+                    this.inf = null;
+                    ZStreamPool.releaseInflater(inf);
+                }
+            } finally {
+                in.close();
+            }
         }
     }
 
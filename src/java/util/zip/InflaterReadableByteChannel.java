@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+
+package java.util.zip;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * A channel that reads data in the "deflate" compression format from
+ * another channel and decompresses it, the channel counterpart of {@link
+ * InflaterInputStream}.  Compressed data is read into a buffer that the
+ * {@link Inflater} consumes in place, and decompressed data is written by
+ * the inflater straight into the buffer passed to {@link #read}, so no
+ * intermediate byte arrays are involved.
+ *
+ * <p>If the source channel is in non-blocking mode, {@code read} returns
+ * zero when no compressed data is available.  Like the streams of this
+ * package, this channel is not safe for use by multiple concurrent
+ * threads.
+ *
+ * @see InflaterInputStream
+ * @see DeflaterWritableByteChannel
+ * @since 9
+ */
+public class InflaterReadableByteChannel implements ReadableByteChannel {
+    private final ReadableByteChannel ch;
+    private final Inflater inf;
+    private final ByteBuffer buf;       // compressed input
+    private final boolean usesDefaultInflater;
+    private boolean closed;
+
+    private InflaterReadableByteChannel(ReadableByteChannel ch, Inflater inf,
+                                        int size, boolean usesDefaultInflater) {
+        if (ch == null || inf == null) {
+            throw new NullPointerException();
+        } else if (size <= 0) {
+            throw new IllegalArgumentException("buffer size <= 0");
+        }
+        this.ch = ch;
+        this.inf = inf;
+        this.buf = ByteBuffer.allocate(size);
+        this.usesDefaultInflater = usesDefaultInflater;
+    }
+
+    /**
+     * Creates a new channel with the specified decompressor and
+     * buffer size.
+     * @param ch the channel from which to read compressed data
+     * @param inf the decompressor ("inflater")
+     * @param size the input buffer size
+     * @exception IllegalArgumentException if {@code size <= 0}
+     */
+    public InflaterReadableByteChannel(ReadableByteChannel ch, Inflater inf,
+                                       int size) {
+        this(ch, inf, size, false);
+    }
+
+    /**
+     * Creates a new channel with the specified decompressor and a
+     * default buffer size.
+     * @param ch the channel from which to read compressed data
+     * @param inf the decompressor ("inflater")
+     */
+    public InflaterReadableByteChannel(ReadableByteChannel ch, Inflater inf) {
+        this(ch, inf, 8192, false);
+    }
+
+    /**
+     * Creates a new channel with a default decompressor and buffer size.
+     * The decompressor is returned to the {@link ZStreamPool} when the
+     * channel is closed.
+     * @param ch the channel from which to read compressed data
+     */
+    public InflaterReadableByteChannel(ReadableByteChannel ch) {
+        this(ch, ZStreamPool.getInflater(false), 8192, true);
+    }
+
+    /**
+     * Reads uncompressed data into the given buffer.  If the buffer has
+     * space remaining, the method blocks until some input can be
+     * decompressed, unless the source channel is in non-blocking mode.
+     *
+     * @param dst the buffer into which the data is read
+     * @return the number of bytes read, possibly zero, or -1 if the end
+     *         of the compressed data is reached or a preset dictionary
+     *         is needed
+     * @exception ClosedChannelException if this channel is closed
+     * @exception EOFException if the source channel ends before the
+     *            compressed data
+     * @exception ZipException if a ZIP format error has occurred
+     * @exception IOException if an I/O error has occurred
+     */
+    public int read(ByteBuffer dst) throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        if (!dst.hasRemaining()) {
+            return 0;
+        }
+        try {
+            int n;
+            while ((n = inf.inflate(dst)) == 0) {
+                if (inf.finished() || inf.needsDictionary()) {
+                    return -1;
+                }
+                if (inf.needsInput() && fill() == 0) {
+                    return 0;
+                }
+            }
+            return n;
+        } catch (DataFormatException e) {
+            String s = e.getMessage();
+            throw new ZipException(s != null ? s : "Invalid ZLIB data format");
+        }
+    }
+
+    /**
+     * Fills the input buffer with more data to decompress, returning the
+     * number of bytes read.
+     */
+    private int fill() throws IOException {
+        buf.clear();
+        int n = ch.read(buf);
+        if (n == -1) {
+            throw new EOFException("Unexpected end of ZLIB input stream");
+        }
+        buf.flip();
+        inf.setInput(buf);
+        return n;
+    }
+
+    public boolean isOpen() {
+        return !closed;
+    }
+
+    /**
+     * Closes this channel and the source channel, and returns the
+     * decompressor to the {@link ZStreamPool} if it was created by this
+     * channel.
+     * @exception IOException if an I/O error has occurred
+     */
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            if (usesDefaultInflater)
+                ZStreamPool.releaseInflater(inf);
+            ch.close();
+        }
+    }
+}
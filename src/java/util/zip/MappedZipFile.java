@@ -0,0 +1,870 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+
+package java.util.zip;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.WeakHashMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import sun.nio.ch.MappedBuffers;
+
+import static java.util.zip.ZipConstants64.*;
+import static java.util.zip.ZipUtils.*;
+
+/**
+ * Reads entries from a zip file without native code.  This class offers
+ * the read operations of {@link ZipFile}, with the same results, but is
+ * implemented entirely in Java: the central directory of the file is
+ * memory-mapped, and a compact open-addressing hash table over the raw
+ * entry names is built when the file is opened.  Looking up an entry by
+ * name then costs one hash of the encoded name and, usually, a single
+ * comparison of bytes in the mapped directory; no per-entry objects are
+ * created until an entry is actually requested.  Entry data is read with
+ * positional reads of the underlying file and, for compressed entries,
+ * inflated with pooled {@link Inflater}s.
+ *
+ * <p>Opening is cheap in proportion to the size of the central directory
+ * only, which makes this class well suited to applications that open
+ * many archives, or large archives of which only a few entries are used,
+ * such as class path scanning at startup.
+ *
+ * <p>The mapping of the central directory is released when the file is
+ * closed.  As with {@code ZipFile}, closing a {@code MappedZipFile} closes
+ * all input streams obtained from it, and methods called after closing
+ * throw {@link IllegalStateException}.  The file must not be modified
+ * while it is open.
+ *
+ * <p>Unless otherwise noted, passing a {@code null} argument to a
+ * constructor or method in this class will cause a {@link
+ * NullPointerException} to be thrown.
+ *
+ * @see ZipFile
+ * @since 9
+ */
+public
+class MappedZipFile implements ZipConstants, Closeable {
+    private final String name;              // zip file name
+    private final RandomAccessFile zfile;   // source of entry data
+    private MappedByteBuffer cen;           // central directory, little-endian
+    private final long locpos;              // offset of LOC headers from recorded
+    private final int total;                // number of entries
+    private final byte[] comment;           // zip file comment, or null
+    private final ZipCoder zc;
+    private volatile boolean closeRequested = false;
+
+    /*
+     * The name index.  For entry i, in central directory order,
+     * entries[2*i] is the hash of its raw name bytes and entries[2*i+1]
+     * the offset of its header in the central directory.  Each slot of
+     * table holds one plus the number of an entry, or zero if empty;
+     * collisions are resolved by linear probing, and the table is kept
+     * at most half full.
+     */
+    private final int[] entries;
+    private final int[] table;
+
+    private static final int STORED = ZipEntry.STORED;
+    private static final int DEFLATED = ZipEntry.DEFLATED;
+
+    /**
+     * Opens a zip file for reading.
+     *
+     * <p>The UTF-8 {@link java.nio.charset.Charset charset} is used to
+     * decode the entry names and comments.
+     *
+     * @param name the name of the zip file
+     * @throws ZipException if a ZIP format error has occurred
+     * @throws IOException if an I/O error has occurred
+     * @throws SecurityException if a security manager exists and its
+     *         <code>checkRead</code> method doesn't allow read access to the file.
+     */
+    public MappedZipFile(String name) throws IOException {
+        this(new File(name), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Opens a zip file for reading given the specified File object.
+     *
+     * <p>The UTF-8 {@link java.nio.charset.Charset charset} is used to
+     * decode the entry names and comments.
+     *
+     * @param file the ZIP file to be opened for reading
+     * @throws ZipException if a ZIP format error has occurred
+     * @throws IOException if an I/O error has occurred
+     * @throws SecurityException if a security manager exists and its
+     *         <code>checkRead</code> method doesn't allow read access to the file.
+     */
+    public MappedZipFile(File file) throws IOException {
+        this(file, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Opens a zip file for reading given the specified File object.
+     *
+     * @param file the ZIP file to be opened for reading
+     * @param charset
+     *        the {@linkplain java.nio.charset.Charset charset} to
+     *        be used to decode the ZIP entry name and comment that are not
+     *        encoded by using UTF-8 encoding (indicated by entry's general
+     *        purpose flag).
+     * @throws ZipException if a ZIP format error has occurred
+     * @throws IOException if an I/O error has occurred
+     * @throws SecurityException if a security manager exists and its
+     *         <code>checkRead</code> method doesn't allow read access to the file.
+     */
+    public MappedZipFile(File file, Charset charset) throws IOException {
+        if (charset == null)
+            throw new NullPointerException("charset is null");
+        String name = file.getPath();
+        this.name = name;
+        this.zc = ZipCoder.get(charset);
+        RandomAccessFile zfile = new RandomAccessFile(file, "r");
+        try {
+            // Find and read the END header, and the ZIP64 END header
+            // if the END header has overflowed
+            long len = zfile.length();
+            byte[] buf = new byte[(int)Math.min(len, ENDHDR + 0xFFFF)];
+            long bufpos = len - buf.length;
+            readFullyAt(zfile, bufpos, buf, 0, buf.length);
+            int end = findEnd(buf);
+            if (end < 0)
+                throw new ZipException("zip END header not found");
+            long endpos = bufpos + end;
+            long cenlen = get32(buf, end + ENDSIZ);
+            long cenoff = get32(buf, end + ENDOFF);
+            long total = get16(buf, end + ENDTOT);
+            int comlen = get16(buf, end + ENDCOM);
+            this.comment = (comlen == 0) ? null :
+                Arrays.copyOfRange(buf, end + ENDHDR, end + ENDHDR + comlen);
+            if ((cenlen == ZIP64_MAGICVAL || cenoff == ZIP64_MAGICVAL ||
+                 total == ZIP64_MAGICCOUNT) && endpos >= ZIP64_LOCHDR) {
+                byte[] loc = new byte[ZIP64_LOCHDR];
+                readFullyAt(zfile, endpos - ZIP64_LOCHDR, loc, 0, ZIP64_LOCHDR);
+                if (get32(loc, 0) == ZIP64_LOCSIG) {
+                    // The recorded offset is wrong if data has been
+                    // prepended to the file; the header is then assumed
+                    // to lie just before the locator.
+                    byte[] end64 = new byte[ZIP64_ENDHDR];
+                    long end64pos = get64(loc, ZIP64_LOCOFF);
+                    if (end64pos >= 0 && end64pos + ZIP64_ENDHDR <= endpos)
+                        readFullyAt(zfile, end64pos, end64, 0, ZIP64_ENDHDR);
+                    if (get32(end64, 0) != ZIP64_ENDSIG) {
+                        end64pos = endpos - ZIP64_LOCHDR - ZIP64_ENDHDR;
+                        if (end64pos < 0)
+                            throw new ZipException("invalid ZIP64 END header");
+                        readFullyAt(zfile, end64pos, end64, 0, ZIP64_ENDHDR);
+                        if (get32(end64, 0) != ZIP64_ENDSIG)
+                            throw new ZipException("invalid ZIP64 END header");
+                    }
+                    cenlen = get64(end64, ZIP64_ENDSIZ);
+                    cenoff = get64(end64, ZIP64_ENDOFF);
+                    total = get64(end64, ZIP64_ENDTOT);
+                    endpos = end64pos;
+                }
+            }
+            long cenpos = endpos - cenlen;
+            this.locpos = cenpos - cenoff;
+            if (cenlen < 0 || cenpos < 0 || locpos < 0)
+                throw new ZipException("invalid END header (bad central directory offset)");
+            if (cenlen > Integer.MAX_VALUE)
+                throw new ZipException("invalid END header (central directory size too large)");
+
+            // Map the central directory and index its entries
+            MappedByteBuffer cen = zfile.getChannel()
+                .map(FileChannel.MapMode.READ_ONLY, cenpos, cenlen);
+            cen.order(ByteOrder.LITTLE_ENDIAN);
+            this.cen = cen;
+            int n = (int)Math.min(total, cenlen / CENHDR);
+            int[] entries = new int[n << 1];
+            int count = 0;
+            for (int pos = 0, limit = (int)cenlen; pos < limit; ++count) {
+                if (pos + CENHDR > limit || cenInt(pos) != CENSIG)
+                    throw new ZipException("invalid CEN header (bad signature)");
+                if ((cenShort(pos + CENFLG) & 1) != 0)
+                    throw new ZipException("invalid CEN header (encrypted entry)");
+                int nlen = cenShort(pos + CENNAM);
+                int next = pos + CENHDR + nlen + cenShort(pos + CENEXT) +
+                    cenShort(pos + CENCOM);
+                if (next > limit)
+                    throw new ZipException("invalid CEN header (bad header size)");
+                if (count << 1 == entries.length)
+                    entries = Arrays.copyOf(entries, Math.max(16, count << 2));
+                entries[count << 1] = hash(pos + CENHDR, nlen);
+                entries[(count << 1) + 1] = pos;
+                pos = next;
+            }
+            this.total = count;
+            this.entries = (count << 1 == entries.length) ? entries :
+                Arrays.copyOf(entries, count << 1);
+            int cap = 16;
+            while (cap < count << 1)
+                cap <<= 1;
+            int[] table = new int[cap];
+            int mask = cap - 1;
+            for (int i = 0; i < count; ++i) {
+                int j = spread(entries[i << 1]) & mask;
+                while (table[j] != 0)
+                    j = (j + 1) & mask;
+                table[j] = i + 1;
+            }
+            this.table = table;
+        } catch (IOException | RuntimeException | Error e) {
+            if (cen != null)
+                MappedBuffers.unmap(cen);
+            cen = null;
+            zfile.close();
+            throw e;
+        }
+        this.zfile = zfile;
+    }
+
+    /**
+     * Returns the index of the END header in the given tail of the
+     * file, or -1 if there is none.  The header is searched for from
+     * the end, as the comment that follows it may contain anything.
+     */
+    private static int findEnd(byte[] buf) {
+        for (int i = buf.length - ENDHDR; i >= 0; --i) {
+            if (buf[i] == (byte)'P' && get32(buf, i) == ENDSIG &&
+                i + ENDHDR + get16(buf, i + ENDCOM) <= buf.length)
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Reads len bytes of the file at position pos.  Reads from the
+     * file are serialized, as they share its file pointer.
+     */
+    private static void readFullyAt(RandomAccessFile zfile, long pos,
+                                    byte[] b, int off, int len)
+        throws IOException {
+        synchronized (zfile) {
+            zfile.seek(pos);
+            zfile.readFully(b, off, len);
+        }
+    }
+
+    // Little-endian access to the mapped central directory
+
+    private int cenShort(int pos) {
+        return cen.getShort(pos) & 0xffff;
+    }
+
+    private long cenInt(int pos) {
+        return cen.getInt(pos) & 0xffffffffL;
+    }
+
+    private long cenLong(int pos) {
+        return cen.getLong(pos);
+    }
+
+    private byte[] cenBytes(int pos, int len) {
+        byte[] b = new byte[len];
+        for (int i = 0; i < len; ++i)
+            b[i] = cen.get(pos + i);
+        return b;
+    }
+
+    /** Returns the hash of the len name bytes at pos in the directory. */
+    private int hash(int pos, int len) {
+        int h = 0;
+        for (int i = 0; i < len; ++i)
+            h = 31 * h + cen.get(pos + i);
+        return h;
+    }
+
+    private static int hash(byte[] name) {
+        int h = 0;
+        for (byte b : name)
+            h = 31 * h + b;
+        return h;
+    }
+
+    /** Spreads higher bits of a hash downward, as in HashMap. */
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns the directory offset of the header of the entry with the
+     * given raw name, or -1 if there is none.  If there is none, addSlash
+     * is true and the name does not end with '/', the name with a '/'
+     * appended is tried also, so that directories may be found by their
+     * names alone.
+     */
+    private int getEntryPos(byte[] name, boolean addSlash) {
+        int h = hash(name);
+        int pos = getEntryPos(name, h, false);
+        if (pos < 0 && addSlash && name.length > 0 &&
+            name[name.length - 1] != '/')
+            pos = getEntryPos(name, 31 * h + '/', true);
+        return pos;
+    }
+
+    private int getEntryPos(byte[] name, int h, boolean slash) {
+        int[] tab = table, es = entries;
+        int mask = tab.length - 1, len = name.length;
+        for (int j = spread(h) & mask, k; (k = tab[j]) != 0; j = (j + 1) & mask) {
+            int i = (k - 1) << 1;
+            if (es[i] == h) {
+                int pos = es[i + 1];
+                if (cenShort(pos + CENNAM) == (slash ? len + 1 : len) &&
+                    nameEquals(pos + CENHDR, name, slash))
+                    return pos;
+            }
+        }
+        return -1;
+    }
+
+    private boolean nameEquals(int pos, byte[] name, boolean slash) {
+        int len = name.length;
+        for (int i = 0; i < len; ++i) {
+            if (cen.get(pos + i) != name[i])
+                return false;
+        }
+        return !slash || cen.get(pos + len) == '/';
+    }
+
+    /**
+     * Returns the uncompressed size, compressed size and LOC header
+     * offset of the entry with its header at pos, taking those that
+     * have overflowed from the ZIP64 extra field.
+     */
+    private long[] cenSizes(int pos) throws ZipException {
+        long size = cenInt(pos + CENLEN);
+        long csize = cenInt(pos + CENSIZ);
+        long locoff = cenInt(pos + CENOFF);
+        if (size == ZIP64_MAGICVAL || csize == ZIP64_MAGICVAL ||
+            locoff == ZIP64_MAGICVAL) {
+            int off = pos + CENHDR + cenShort(pos + CENNAM);
+            int end = off + cenShort(pos + CENEXT);
+            while (off + 4 <= end) {
+                int tag = cenShort(off);
+                int sz = cenShort(off + 2);
+                off += 4;
+                if (off + sz > end)
+                    break;
+                if (tag == EXTID_ZIP64) {
+                    int p = off, q = off + sz;
+                    if (size == ZIP64_MAGICVAL && p + 8 <= q) {
+                        size = cenLong(p);
+                        p += 8;
+                    }
+                    if (csize == ZIP64_MAGICVAL && p + 8 <= q) {
+                        csize = cenLong(p);
+                        p += 8;
+                    }
+                    if (locoff == ZIP64_MAGICVAL && p + 8 <= q)
+                        locoff = cenLong(p);
+                    break;
+                }
+                off += sz;
+            }
+            if (size < 0 || csize < 0 || locoff < 0)
+                throw new ZipException("invalid CEN header (bad zip64 extra data field size)");
+        }
+        return new long[] { size, csize, locoff };
+    }
+
+    private ZipEntry getZipEntry(String name, int pos) throws ZipException {
+        ZipEntry e = new ZipEntry();
+        e.flag = cenShort(pos + CENFLG);  // get the flag first
+        int nlen = cenShort(pos + CENNAM);
+        int elen = cenShort(pos + CENEXT);
+        int clen = cenShort(pos + CENCOM);
+        if (name != null) {
+            e.name = name;
+        } else if (!zc.isUTF8() && (e.flag & EFS) != 0) {
+            e.name = zc.toStringUTF8(cenBytes(pos + CENHDR, nlen), nlen);
+        } else {
+            e.name = zc.toString(cenBytes(pos + CENHDR, nlen), nlen);
+        }
+        e.xdostime = cenInt(pos + CENTIM);
+        e.crc = cenInt(pos + CENCRC);
+        long[] sizes = cenSizes(pos);
+        e.size = sizes[0];
+        e.csize = sizes[1];
+        e.method = cenShort(pos + CENHOW);
+        if (elen != 0)
+            e.setExtra0(cenBytes(pos + CENHDR + nlen, elen), false);
+        if (clen != 0) {
+            byte[] bcomm = cenBytes(pos + CENHDR + nlen + elen, clen);
+            if (!zc.isUTF8() && (e.flag & EFS) != 0) {
+                e.comment = zc.toStringUTF8(bcomm, clen);
+            } else {
+                e.comment = zc.toString(bcomm, clen);
+            }
+        }
+        return e;
+    }
+
+    /**
+     * Returns the zip file comment, or null if none.
+     *
+     * @return the comment string for the zip file, or null if none
+     * @throws IllegalStateException if the zip file has been closed
+     */
+    public String getComment() {
+        synchronized (this) {
+            ensureOpen();
+            if (comment == null)
+                return null;
+            return zc.toString(comment, comment.length);
+        }
+    }
+
+    /**
+     * Returns the zip file entry for the specified name, or null
+     * if not found.  As with {@link ZipFile#getEntry}, if there is no
+     * entry of the given name and the name does not end with a slash
+     * '/', an entry with a slash appended to the name is returned, if
+     * present.
+     *
+     * @param name the name of the entry
+     * @return the zip file entry, or null if not found
+     * @throws IllegalStateException if the zip file has been closed
+     */
+    public ZipEntry getEntry(String name) {
+        if (name == null) {
+            throw new NullPointerException("name");
+        }
+        synchronized (this) {
+            ensureOpen();
+            int pos = getEntryPos(zc.getBytes(name), true);
+            if (pos >= 0) {
+                try {
+                    return getZipEntry(null, pos);
+                } catch (ZipException ze) {
+                    throw new ZipError(ze.getMessage());
+                }
+            }
+        }
+        return null;
+    }
+
+    // the outstanding inputstreams that need to be closed,
+    // mapped to the inflater objects they use.
+    private final Map<InputStream, Inflater> streams = new WeakHashMap<>();
+
+    /**
+     * Returns an input stream for reading the contents of the specified
+     * zip file entry.
+     *
+     * <p> Closing this ZIP file will, in turn, close all input
+     * streams that have been returned by invocations of this method.
+     *
+     * @param entry the zip file entry
+     * @return the input stream for reading the contents of the specified
+     * zip file entry, or null if this file has no entry of its name.
+     * @throws ZipException if a ZIP format error has occurred
+     * @throws IOException if an I/O error has occurred
+     * @throws IllegalStateException if the zip file has been closed
+     */
+    public InputStream getInputStream(ZipEntry entry) throws IOException {
+        if (entry == null) {
+            throw new NullPointerException("entry");
+        }
+        MappedZipFileInputStream in;
+        int method;
+        synchronized (this) {
+            ensureOpen();
+            byte[] bname;
+            if (!zc.isUTF8() && (entry.flag & EFS) != 0) {
+                bname = zc.getBytesUTF8(entry.name);
+            } else {
+                bname = zc.getBytes(entry.name);
+            }
+            int pos = getEntryPos(bname, false);
+            if (pos < 0) {
+                return null;
+            }
+            method = cenShort(pos + CENHOW);
+            if (method != STORED && method != DEFLATED) {
+                throw new ZipException("invalid compression method");
+            }
+            long[] sizes = cenSizes(pos);
+            in = new MappedZipFileInputStream(sizes[0], sizes[1],
+                                              locpos + sizes[2]);
+        }
+        if (method == STORED) {
+            synchronized (streams) {
+                streams.put(in, null);
+            }
+            return in;
+        }
+        // MORE: Compute good size for inflater stream:
+        long size = in.size() + 2; // Inflater likes a bit of slack
+        if (size > 65536) size = 8192;
+        if (size <= 0) size = 4096;
+        Inflater inf = getInflater();
+        InputStream is = new MappedZipFileInflaterInputStream(in, inf, (int)size);
+        synchronized (streams) {
+            streams.put(is, inf);
+        }
+        return is;
+    }
+
+    private class MappedZipFileInflaterInputStream extends InflaterInputStream {
+        private volatile boolean closeRequested = false;
+        private boolean eof = false;
+        private final MappedZipFileInputStream zfin;
+
+        MappedZipFileInflaterInputStream(MappedZipFileInputStream zfin,
+                                         Inflater inf, int size) {
+            super(zfin, inf, size);
+            this.zfin = zfin;
+        }
+
+        public void close() throws IOException {
+            if (closeRequested)
+                return;
+            closeRequested = true;
+
+            super.close();
+            Inflater inf;
+            synchronized (streams) {
+                inf = streams.remove(this);
+            }
+            if (inf != null) {
+                releaseInflater(inf);
+            }
+        }
+
+        // Override fill() method to provide an extra "dummy" byte
+        // at the end of the input stream. This is required when
+        // using the "nowrap" Inflater option.
+        protected void fill() throws IOException {
+            if (eof) {
+                throw new EOFException("Unexpected end of ZLIB input stream");
+            }
+            len = in.read(buf, 0, buf.length);
+            if (len == -1) {
+                buf[0] = 0;
+                len = 1;
+                eof = true;
+            }
+            inf.setInput(buf, 0, len);
+        }
+
+        public int available() throws IOException {
+            if (closeRequested)
+                return 0;
+            long avail = zfin.size() - inf.getBytesWritten();
+            return (avail > (long) Integer.MAX_VALUE ?
+                    Integer.MAX_VALUE : (int) avail);
+        }
+
+        protected void finalize() throws Throwable {
+            close();
+        }
+    }
+
+    /*
+     * Gets an inflater from the shared pool, or allocates a new one.
+     */
+    private Inflater getInflater() {
+        return ZStreamPool.getInflater(true);
+    }
+
+    /*
+     * Returns the specified inflater to the shared pool.
+     */
+    private void releaseInflater(Inflater inf) {
+        ZStreamPool.releaseInflater(inf);
+    }
+
+    /**
+     * Returns the path name of the ZIP file.
+     * @return the path name of the ZIP file
+     */
+    public String getName() {
+        return name;
+    }
+
+    private class ZipEntryIterator implements Enumeration<ZipEntry>, Iterator<ZipEntry> {
+        private int i = 0;
+
+        public ZipEntryIterator() {
+            ensureOpen();
+        }
+
+        public boolean hasMoreElements() {
+            return hasNext();
+        }
+
+        public boolean hasNext() {
+            synchronized (MappedZipFile.this) {
+                ensureOpen();
+                return i < total;
+            }
+        }
+
+        public ZipEntry nextElement() {
+            return next();
+        }
+
+        public ZipEntry next() {
+            synchronized (MappedZipFile.this) {
+                ensureOpen();
+                if (i >= total) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    return getZipEntry(null, entries[(i++ << 1) + 1]);
+                } catch (ZipException ze) {
+                    throw new ZipError(ze.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns an enumeration of the ZIP file entries.
+     * @return an enumeration of the ZIP file entries
+     * @throws IllegalStateException if the zip file has been closed
+     */
+    public Enumeration<? extends ZipEntry> entries() {
+        return new ZipEntryIterator();
+    }
+
+    /**
+     * Return an ordered {@code Stream} over the ZIP file entries.
+     * Entries appear in the {@code Stream} in the order they appear in
+     * the central directory of the ZIP file.
+     *
+     * @return an ordered {@code Stream} of entries in this ZIP file
+     * @throws IllegalStateException if the zip file has been closed
+     */
+    public Stream<? extends ZipEntry> stream() {
+        return StreamSupport.stream(Spliterators.spliterator(
+                new ZipEntryIterator(), size(),
+                Spliterator.ORDERED | Spliterator.DISTINCT |
+                        Spliterator.IMMUTABLE | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Returns the number of entries in the ZIP file.
+     * @return the number of entries in the ZIP file
+     * @throws IllegalStateException if the zip file has been closed
+     */
+    public int size() {
+        ensureOpen();
+        return total;
+    }
+
+    /**
+     * Closes the ZIP file, and releases the mapping of its central
+     * directory.
+     * <p> Closing this ZIP file will close all of the input streams
+     * previously returned by invocations of the {@link #getInputStream
+     * getInputStream} method.
+     *
+     * @throws IOException if an I/O error has occurred
+     */
+    public void close() throws IOException {
+        if (closeRequested)
+            return;
+        closeRequested = true;
+
+        synchronized (this) {
+            // Close streams, release their inflaters
+            synchronized (streams) {
+                if (false == streams.isEmpty()) {
+                    Map<InputStream, Inflater> copy = new HashMap<>(streams);
+                    streams.clear();
+                    for (Map.Entry<InputStream, Inflater> e : copy.entrySet()) {
+                        e.getKey().close();
+                        Inflater inf = e.getValue();
+                        if (inf != null) {
+                            inf.end();
+                        }
+                    }
+                }
+            }
+
+            if (cen != null) {
+                MappedByteBuffer b = cen;
+                cen = null;
+                MappedBuffers.unmap(b);
+            }
+            zfile.close();
+        }
+    }
+
+    /**
+     * Ensures that the system resources held by this MappedZipFile object
+     * are released when there are no more references to it.
+     *
+     * @throws IOException if an I/O error has occurred
+     * @see    #close()
+     */
+    protected void finalize() throws IOException {
+        close();
+    }
+
+    private void ensureOpen() {
+        if (closeRequested) {
+            throw new IllegalStateException("zip file closed");
+        }
+    }
+
+    private void ensureOpenOrZipException() throws IOException {
+        if (closeRequested) {
+            throw new ZipException("ZipFile closed");
+        }
+    }
+
+    /*
+     * Inner class implementing the input stream used to read the raw,
+     * possibly compressed, data of a zip file entry.  The position of
+     * the data is found from the LOC header on the first read.
+     */
+    private class MappedZipFileInputStream extends InputStream {
+        private volatile boolean zfisCloseRequested = false;
+        private long pos;       // position of entry data in the file, or
+                                // of its LOC header before the first read
+        private boolean located;
+        protected long rem;     // number of remaining bytes within entry
+        protected long size;    // uncompressed size of this entry
+
+        MappedZipFileInputStream(long size, long csize, long locpos) {
+            this.pos = locpos;
+            this.rem = csize;
+            this.size = size;
+        }
+
+        /** Moves pos from the LOC header to the start of entry data. */
+        private void locate() throws IOException {
+            byte[] loc = new byte[LOCHDR];
+            readFullyAt(zfile, pos, loc, 0, LOCHDR);
+            if (get32(loc, 0) != LOCSIG) {
+                throw new ZipException("invalid LOC header (bad signature)");
+            }
+            pos += LOCHDR + get16(loc, LOCNAM) + get16(loc, LOCEXT);
+            located = true;
+        }
+
+        public int read(byte b[], int off, int len) throws IOException {
+            synchronized (this) {
+                long rem = this.rem;
+                if (rem == 0) {
+                    return -1;
+                }
+                if (len <= 0) {
+                    return 0;
+                }
+                if (len > rem) {
+                    len = (int) rem;
+                }
+
+                // Check if MappedZipFile open
+                ensureOpenOrZipException();
+                if (!located) {
+                    locate();
+                }
+                readFullyAt(zfile, pos, b, off, len);
+                pos += len;
+                this.rem = rem -= len;
+            }
+            if (rem == 0) {
+                close();
+            }
+            return len;
+        }
+
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            if (read(b, 0, 1) == 1) {
+                return b[0] & 0xff;
+            } else {
+                return -1;
+            }
+        }
+
+        public long skip(long n) throws IOException {
+            synchronized (this) {
+                if (n <= 0) {
+                    return 0;
+                }
+                ensureOpenOrZipException();
+                if (!located) {
+                    locate();
+                }
+                if (n > rem)
+                    n = rem;
+                pos += n;
+                rem -= n;
+            }
+            if (rem == 0) {
+                close();
+            }
+            return n;
+        }
+
+        public int available() {
+            return rem > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) rem;
+        }
+
+        public long size() {
+            return size;
+        }
+
+        public void close() {
+            if (zfisCloseRequested)
+                return;
+            zfisCloseRequested = true;
+
+            rem = 0;
+            synchronized (streams) {
+                streams.remove(this);
+            }
+        }
+
+        protected void finalize() {
+            close();
+        }
+    }
+}
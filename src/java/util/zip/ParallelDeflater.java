@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+
+package java.util.zip;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Compresses a stream to raw deflate data in fixed-size blocks deflated
+ * concurrently, in the manner of pigz.  Each block is compressed by its
+ * own {@link Deflater}, primed with the last 32K of the preceding block
+ * as a preset dictionary, so little compression is lost at block
+ * boundaries.  Every block but the last is ended with a sync flush,
+ * which leaves the output on a byte boundary without marking the end of
+ * the stream, so the outputs can simply be concatenated, in order, into
+ * one standard deflate stream.  The CRC-32 of each block is computed by
+ * the same task, and the running CRC-32 of the whole input is obtained
+ * by combining them as the blocks are written.
+ *
+ * <p>Compressed blocks are written to the output stream by the thread
+ * calling {@link #write} or {@link #finish}, which waits for the oldest
+ * block when too many are in progress.  Instances are not thread-safe.
+ */
+final class ParallelDeflater {
+
+    /** The default number of input bytes per block. */
+    static final int DEFAULT_BLOCK_SIZE = 128 * 1024;
+
+    /** The size of the deflate window, and so of useful dictionaries. */
+    private static final int DICT_SIZE = 32 * 1024;
+
+    private final OutputStream out;
+    private final ExecutorService executor;
+    private final int level;
+    private final int blockSize;
+    private final int maxPending;
+    private final ArrayDeque<Future<Block>> pending = new ArrayDeque<>();
+
+    private byte[] input;       // the block being filled
+    private int count;          // number of bytes in input
+    private byte[] prev;        // the last block submitted, or null
+    private long bytesRead;     // total input of blocks written
+    private long bytesWritten;  // total output of blocks written
+    private long crc;           // CRC-32 of the input of blocks written
+    private boolean finished;
+
+    /**
+     * Creates a parallel deflater writing to the given stream.
+     *
+     * @param out the stream to write compressed data to
+     * @param executor the executor to run compression tasks
+     * @param level the compression level (0-9), or -1 for the default
+     * @param blockSize the number of input bytes per block
+     */
+    ParallelDeflater(OutputStream out, ExecutorService executor,
+                     int level, int blockSize) {
+        if (out == null || executor == null)
+            throw new NullPointerException();
+        if ((level < 0 || level > 9) && level != Deflater.DEFAULT_COMPRESSION)
+            throw new IllegalArgumentException("invalid compression level");
+        if (blockSize <= 0)
+            throw new IllegalArgumentException("invalid block size");
+        int par = (executor instanceof ForkJoinPool) ?
+            ((ForkJoinPool)executor).getParallelism() :
+            Runtime.getRuntime().availableProcessors();
+        this.out = out;
+        this.executor = executor;
+        this.level = level;
+        this.blockSize = blockSize;
+        this.maxPending = Math.max(2, par << 1);
+        this.input = new byte[blockSize];
+    }
+
+    ParallelDeflater(OutputStream out, ExecutorService executor, int level) {
+        this(out, executor, level, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Adds the given bytes to the input, submitting blocks for
+     * compression as they fill.
+     */
+    void write(byte[] b, int off, int len) throws IOException {
+        if (finished)
+            throw new IOException("write beyond end of stream");
+        if ((off | len | (off + len) | (b.length - (off + len))) < 0)
+            throw new IndexOutOfBoundsException();
+        while (len > 0) {
+            // A full block is submitted only once more input arrives,
+            // so that the last block is known to be last.
+            if (count == blockSize)
+                submit(false);
+            int n = Math.min(len, blockSize - count);
+            System.arraycopy(b, off, input, count, n);
+            count += n;
+            off += n;
+            len -= n;
+        }
+        writeCompleted(false);
+    }
+
+    /**
+     * Compresses the remaining input as the final block, and writes all
+     * outstanding compressed data.  Does nothing if already finished.
+     */
+    void finish() throws IOException {
+        if (!finished) {
+            finished = true;
+            submit(true);
+            input = prev = null;
+            writeCompleted(true);
+        }
+    }
+
+    boolean finished() {
+        return finished;
+    }
+
+    /** Returns the number of uncompressed bytes compressed so far. */
+    long getBytesRead() {
+        return bytesRead;
+    }
+
+    /** Returns the number of compressed bytes written so far. */
+    long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /** Returns the CRC-32 of the uncompressed bytes compressed so far. */
+    long getCrc() {
+        return crc;
+    }
+
+    private void submit(boolean last) throws IOException {
+        // Input arrays are not reused: a submitted block's array is
+        // read by its own task and, as a dictionary, by the next one.
+        Block b = new Block(input, count, prev, level, last);
+        if (!last) {
+            prev = input;
+            input = new byte[blockSize];
+            count = 0;
+        }
+        if (pending.size() >= maxPending)
+            writeBlock(pending.poll());
+        pending.add(executor.submit(b));
+    }
+
+    /**
+     * Writes the compressed blocks at the head of the queue, waiting for
+     * each if all is true, else only those already done.
+     */
+    private void writeCompleted(boolean all) throws IOException {
+        Future<Block> f;
+        while ((f = pending.peek()) != null && (all || f.isDone()))
+            writeBlock(pending.poll());
+    }
+
+    private void writeBlock(Future<Block> f) throws IOException {
+        Block b;
+        try {
+            b = f.get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        } catch (ExecutionException ee) {
+            Throwable ex = ee.getCause();
+            if (ex instanceof Error)
+                throw (Error)ex;
+            if (ex instanceof RuntimeException)
+                throw (RuntimeException)ex;
+            throw new IOException(ex);
+        }
+        out.write(b.out, 0, b.outLen);
+        bytesWritten += b.outLen;
+        bytesRead += b.len;
+        crc = CRC32.combine(crc, b.crc, b.len);
+    }
+
+    /**
+     * A compression task, which once run holds its compressed output.
+     */
+    static final class Block implements Callable<Block> {
+        final byte[] in;
+        final int len;
+        final byte[] dict;      // the preceding block's input, or null
+        final int level;
+        final boolean last;
+        byte[] out;
+        int outLen;
+        long crc;
+
+        Block(byte[] in, int len, byte[] dict, int level, boolean last) {
+            this.in = in;
+            this.len = len;
+            this.dict = dict;
+            this.level = level;
+            this.last = last;
+        }
+
+        public Block call() {
+            CRC32 c = new CRC32();
+            c.update(in, 0, len);
+            crc = c.getValue();
+            Deflater def = ZStreamPool.getDeflater(level, true);
+            try {
+                if (dict != null) {
+                    int n = Math.min(DICT_SIZE, dict.length);
+                    def.setDictionary(dict, dict.length - n, n);
+                }
+                def.setInput(in, 0, len);
+                if (last)
+                    def.finish();
+                byte[] buf = new byte[len + (len >>> 3) + 64];
+                int pos = 0;
+                for (;;) {
+                    // A full buffer means there may be more output
+                    int n = last ?
+                        def.deflate(buf, pos, buf.length - pos) :
+                        def.deflate(buf, pos, buf.length - pos,
+                                    Deflater.SYNC_FLUSH);
+                    pos += n;
+                    if (last ? def.finished() : pos < buf.length)
+                        break;
+                    if (pos == buf.length)
+                        buf = Arrays.copyOf(buf, buf.length << 1);
+                }
+                out = buf;
+                outLen = pos;
+            } finally {
+                ZStreamPool.releaseDeflater(def);
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+
+package java.util.zip;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A shared, bounded pool of idle {@link Inflater} and {@link Deflater}
+ * instances.  Creating an inflater or deflater allocates native zlib
+ * state, which is released only by {@code end()} or, failing that, by
+ * finalization; streams that are created and closed at a high rate, such
+ * as those decoding compressed HTTP bodies, therefore churn native
+ * memory and the finalizer queue.  To avoid this, the streams of this
+ * package take the inflaters and deflaters they create for themselves
+ * from this pool, and return them when closed instead of ending them.
+ * These are the streams constructed without an explicit inflater or
+ * deflater, the GZIP and ZIP streams, and the entry streams of {@link
+ * ZipFile} and {@link MappedZipFile}.
+ *
+ * <p>Instances are reset when returned.  Idle instances are kept
+ * separately for each kind: by {@code nowrap} flag, and for deflaters
+ * also by compression level; a deflater whose strategy has been changed
+ * is ended rather than pooled.  The number of idle instances kept of
+ * each kind is given by the system property {@code jdk.util.zip.poolSize},
+ * by default the number of available processors but at least two;
+ * instances returned when their kind is full are ended.  A size of zero
+ * disables pooling.  Since a returned instance may at once be handed to
+ * another stream, subclasses of the streams must not use the inflater or
+ * deflater of a default-constructed stream once the stream is closed.
+ *
+ * <p>This class provides counters with which the effectiveness of the
+ * pool may be monitored.
+ *
+ * @since 9
+ */
+public final class ZStreamPool {
+    private ZStreamPool() {}
+
+    /** The maximum number of idle instances of each kind. */
+    private static final int SIZE;
+
+    static {
+        int n = Math.max(2, Runtime.getRuntime().availableProcessors());
+        String prop = sun.misc.VM.getSavedProperty("jdk.util.zip.poolSize");
+        if (prop != null) {
+            try {
+                n = Integer.parseInt(prop);
+            } catch (NumberFormatException e) {
+            }
+        }
+        SIZE = Math.max(0, n);
+    }
+
+    /** Idle inflaters, indexed by nowrap. */
+    private static final Stack[] inflaters = new Stack[2];
+
+    /** Idle deflaters, indexed by (level + 1) * 2 + nowrap. */
+    private static final Stack[] deflaters = new Stack[22];
+
+    static {
+        for (int i = 0; i < inflaters.length; i++)
+            inflaters[i] = new Stack();
+        for (int i = 0; i < deflaters.length; i++)
+            deflaters[i] = new Stack();
+    }
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static final LongAdder discards = new LongAdder();
+
+    /**
+     * A bounded stack of idle instances.  Contention is slight, as each
+     * lock is held only to move one reference.
+     */
+    private static final class Stack {
+        private final Object[] items = new Object[SIZE];
+        private int size;
+
+        synchronized Object poll() {
+            if (size == 0)
+                return null;
+            Object x = items[--size];
+            items[size] = null;
+            return x;
+        }
+
+        synchronized boolean offer(Object x) {
+            if (size == items.length)
+                return false;
+            items[size++] = x;
+            return true;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Returns an inflater from the pool, or a new one if there is none.
+     */
+    static Inflater getInflater(boolean nowrap) {
+        Inflater inf = (Inflater)inflaters[nowrap ? 1 : 0].poll();
+        if (inf != null) {
+            inf.setPooled(false);
+            hits.increment();
+            return inf;
+        }
+        misses.increment();
+        return new Inflater(nowrap);
+    }
+
+    /**
+     * Resets the given inflater and returns it to the pool, or ends it
+     * if there is no room.  The caller must not use it afterwards.  An
+     * inflater that is already in the pool is left alone.
+     */
+    static void releaseInflater(Inflater inf) {
+        if (inf.ended() || !inf.setPooled(true))
+            return;
+        inf.reset();
+        if (!inflaters[inf.nowrap ? 1 : 0].offer(inf)) {
+            discards.increment();
+            inf.end();
+        }
+    }
+
+    /**
+     * Returns a deflater from the pool, or a new one if there is none.
+     */
+    static Deflater getDeflater(int level, boolean nowrap) {
+        if (level >= Deflater.DEFAULT_COMPRESSION &&
+            level <= Deflater.BEST_COMPRESSION) {
+            Deflater def = (Deflater)deflaters[deflaterIndex(level, nowrap)].poll();
+            if (def != null) {
+                def.setPooled(false);
+                hits.increment();
+                return def;
+            }
+        }
+        misses.increment();
+        return new Deflater(level, nowrap);
+    }
+
+    /**
+     * Resets the given deflater and returns it to the pool, or ends it
+     * if there is no room or its strategy is not the default.  The
+     * caller must not use it afterwards.  A deflater that is already in
+     * the pool is left alone.
+     */
+    static void releaseDeflater(Deflater def) {
+        if (def.ended() || !def.setPooled(true))
+            return;
+        int level = def.level();
+        if (def.strategy() == Deflater.DEFAULT_STRATEGY &&
+            level >= Deflater.DEFAULT_COMPRESSION &&
+            level <= Deflater.BEST_COMPRESSION) {
+            def.reset();
+            if (deflaters[deflaterIndex(level, def.nowrap)].offer(def))
+                return;
+        }
+        discards.increment();
+        def.end();
+    }
+
+    private static int deflaterIndex(int level, boolean nowrap) {
+        return ((level + 1) << 1) + (nowrap ? 1 : 0);
+    }
+
+    /**
+     * Returns the number of requests for an inflater or deflater that
+     * were satisfied with an idle instance from the pool.
+     *
+     * @return the number of pool hits
+     */
+    public static long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of requests for an inflater or deflater for
+     * which a new instance was created, there being none of the kind
+     * in the pool.
+     *
+     * @return the number of pool misses
+     */
+    public static long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of returned inflaters and deflaters that were
+     * ended instead of pooled, because the pool of their kind was full
+     * or their settings could not be restored.
+     *
+     * @return the number of instances discarded
+     */
+    public static long discardCount() {
+        return discards.sum();
+    }
+
+    /**
+     * Returns the number of idle inflaters and deflaters currently held
+     * in the pool.
+     *
+     * @return the number of pooled instances
+     */
+    public static int idleCount() {
+        int n = 0;
+        for (Stack s : inflaters)
+            n += s.size();
+        for (Stack s : deflaters)
+            n += s.size();
+        return n;
+    }
+
+    /**
+     * Returns the maximum number of idle instances kept of each kind.
+     *
+     * @return the capacity of the pool for each kind of instance
+     */
+    public static int capacity() {
+        return SIZE;
+    }
+}
@@ -32,8 +32,6 @@ import java.io.EOFException;
 import java.io.File;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayDeque;
-import java.util.Deque;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -454,36 +452,19 @@ class ZipFile implements ZipConstants, Closeable {
     }
 
     /*
-     * Gets an inflater from the list of available inflaters or allocates
-     * a new one.
+     * Gets an inflater from the shared pool, or allocates a new one.
      */
     private Inflater getInflater() {
-        Inflater inf;
-        synchronized (inflaterCache) {
-            while (null != (inf = inflaterCache.poll())) {
-                if (false == inf.ended()) {
-                    return inf;
-                }
-            }
-        }
-        return new Inflater(true);
+        return ZStreamPool.getInflater(true);
     }
 
     /*
-     * Releases the specified inflater to the list of available inflaters.
+     * Returns the specified inflater to the shared pool.
      */
     private void releaseInflater(Inflater inf) {
-        if (false == inf.ended()) {
-            inf.reset();
-            synchronized (inflaterCache) {
-                inflaterCache.add(inf);
-            }
-        }
+        ZStreamPool.releaseInflater(inf);
     }
 
-    // List of available Inflater objects for decompression
-    private Deque<Inflater> inflaterCache = new ArrayDeque<>();
-
     /**
      * Returns the path name of the ZIP file.
      * @return the path name of the ZIP file
@@ -643,14 +624,6 @@ class ZipFile implements ZipConstants, Closeable {
                 }
             }
 
-            // Release cached inflaters
-            Inflater inf;
-            synchronized (inflaterCache) {
-                while (null != (inf = inflaterCache.poll())) {
-                    inf.end();
-                }
-            }
-
             if (jzfile != 0) {
                 // Close the zip file
                 long zf = this.jzfile;
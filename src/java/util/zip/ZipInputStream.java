@@ -95,7 +95,7 @@ class ZipInputStream extends InflaterInputStream implements ZipConstants {
      * @since 1.7
      */
     public ZipInputStream(InputStream in, Charset charset) {
-        super(new PushbackInputStream(in, 512), new Inflater(true), 512);
+        super(new PushbackInputStream(in, 512), ZStreamPool.getInflater(true), 512);
         usesDefaultInflater = true;
         if(in == null) {
             throw new NullPointerException("in is null");
@@ -31,6 +31,7 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Vector;
 import java.util.HashSet;
+import java.util.concurrent.ExecutorService;
 import static java.util.zip.ZipConstants64.*;
 import static java.util.zip.ZipUtils.*;
 
@@ -75,6 +76,10 @@ class ZipOutputStream extends DeflaterOutputStream implements ZipConstants {
     private long locoff = 0;
     private byte[] comment;
     private int method = DEFLATED;
+    private int level = Deflater.DEFAULT_COMPRESSION;
+    private ExecutorService executor;   // for parallel compression, or null
+    private ParallelDeflater pdef;      // compressor of the current entry,
+                                        // if compressing in parallel
     private boolean finished;
 
     private boolean closed = false;
@@ -130,7 +135,7 @@ class ZipOutputStream extends DeflaterOutputStream implements ZipConstants {
      * @since 1.7
      */
     public ZipOutputStream(OutputStream out, Charset charset) {
-        super(out, new Deflater(Deflater.DEFAULT_COMPRESSION, true));
+        super(out, ZStreamPool.getDeflater(Deflater.DEFAULT_COMPRESSION, true));
         if (charset == null)
             throw new NullPointerException("charset is null");
         this.zc = ZipCoder.get(charset);
@@ -174,6 +179,27 @@ class ZipOutputStream extends DeflaterOutputStream implements ZipConstants {
      */
     public void setLevel(int level) {
         def.setLevel(level);
+        this.level = level;
+    }
+
+    /**
+     * Sets the executor with which subsequent DEFLATED entries are
+     * compressed in parallel, or {@code null} to compress them on the
+     * writing thread, as initially.  The data of each entry is divided
+     * into blocks of 128K which are deflated concurrently, each primed
+     * with the end of the preceding block, and joined into the standard
+     * deflate data of the entry; its CRC-32 is likewise computed block
+     * by block and combined.  The compressed data differs from, and is
+     * slightly larger than, that of serial compression.  Compressed data
+     * is written as blocks are completed, so flushing this stream does
+     * not force out data still being compressed.
+     *
+     * @param executor the executor to run compression tasks, or
+     *        {@code null} for serial compression
+     * @since 9
+     */
+    public void setParallel(ExecutorService executor) {
+        this.executor = executor;
     }
 
     /**
@@ -236,6 +262,9 @@ class ZipOutputStream extends DeflaterOutputStream implements ZipConstants {
         current = new XEntry(e, written);
         xentries.add(current);
         writeLOC(current);
+        if (e.method == DEFLATED && executor != null) {
+            pdef = new ParallelDeflater(out, executor, level);
+        }
     }
 
     /**
@@ -250,35 +279,48 @@ class ZipOutputStream extends DeflaterOutputStream implements ZipConstants {
             ZipEntry e = current.entry;
             switch (e.method) {
             case DEFLATED:
-                def.finish();
-                while (!def.finished()) {
-                    deflate();
+                long size, csize, crcValue;
+                if (pdef != null) {
+                    ParallelDeflater pd = pdef;
+                    pdef = null;
+                    pd.finish();
+                    size = pd.getBytesRead();
+                    csize = pd.getBytesWritten();
+                    crcValue = pd.getCrc();
+                } else {
+                    def.finish();
+                    while (!def.finished()) {
+                        deflate();
+                    }
+                    size = def.getBytesRead();
+                    csize = def.getBytesWritten();
+                    crcValue = crc.getValue();
+                    def.reset();
                 }
                 if ((e.flag & 8) == 0) {
                     // verify size, compressed size, and crc-32 settings
-                    if (e.size != def.getBytesRead()) {
+                    if (e.size != size) {
                         throw new ZipException(
                             "invalid entry size (expected " + e.size +
-                            " but got " + def.getBytesRead() + " bytes)");
+                            " but got " + size + " bytes)");
                     }
-                    if (e.csize != def.getBytesWritten()) {
+                    if (e.csize != csize) {
                         throw new ZipException(
                             "invalid entry compressed size (expected " +
-                            e.csize + " but got " + def.getBytesWritten() + " bytes)");
+                            e.csize + " but got " + csize + " bytes)");
                     }
-                    if (e.crc != crc.getValue()) {
+                    if (e.crc != crcValue) {
                         throw new ZipException(
                             "invalid entry CRC-32 (expected 0x" +
                             Long.toHexString(e.crc) + " but got 0x" +
-                            Long.toHexString(crc.getValue()) + ")");
+                            Long.toHexString(crcValue) + ")");
                     }
                 } else {
-                    e.size  = def.getBytesRead();
-                    e.csize = def.getBytesWritten();
-                    e.crc = crc.getValue();
+                    e.size  = size;
+                    e.csize = csize;
+                    e.crc = crcValue;
                     writeEXT(e);
                 }
-                def.reset();
                 written += e.csize;
                 break;
             case STORED:
@@ -328,6 +370,11 @@ class ZipOutputStream extends DeflaterOutputStream implements ZipConstants {
         ZipEntry entry = current.entry;
         switch (entry.method) {
         case DEFLATED:
+            if (pdef != null) {
+                // the parallel deflater computes the crc-32 itself
+                pdef.write(b, off, len);
+                return;
+            }
             super.write(b, off, len);
             break;
         case STORED:
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+
+package sun.nio.ch;
+
+import java.nio.MappedByteBuffer;
+
+/**
+ * Releases the mappings of mapped byte buffers without waiting for the
+ * buffers to be collected.
+ */
+public class MappedBuffers {
+
+    private MappedBuffers() { }
+
+    /**
+     * Unmaps the given buffer at once.  The buffer, and any buffer that
+     * shares its content, must not be accessed afterwards; doing so may
+     * crash the virtual machine.
+     *
+     * @param b the buffer to unmap, or {@code null}
+     */
+    public static void unmap(MappedByteBuffer b) {
+        if (b instanceof DirectBuffer) {
+            sun.misc.Cleaner cl = ((DirectBuffer) b).cleaner();
+            if (cl != null)
+                cl.clean();
+        }
+    }
+}